@@ -105,17 +105,25 @@ dependencies {
     androidTestImplementation(libs.androidx.espresso.core)
 }
 
-// Exclude integration tests by default; run with -Pintegration
+// Exclude integration tests and benchmarks by default;
+// run with -Pintegration and/or -Pbenchmark
 tasks.withType<Test> {
     val runIntegration = project.hasProperty("integration")
-    // Record whether integration tests are included as a task input so
-    // Gradle re-runs when the flag changes (prevents false up-to-date).
+    val runBenchmark = project.hasProperty("benchmark")
+    // Record whether integration tests and benchmarks are included as task
+    // inputs so Gradle re-runs when the flags change (prevents false up-to-date).
     inputs.property("integration", runIntegration)
+    inputs.property("benchmark", runBenchmark)
+    val excluded = mutableListOf<String>()
     if (!runIntegration) {
+        excluded.add("com.manuscripta.student.integration.IntegrationTest")
+    }
+    if (!runBenchmark) {
+        excluded.add("com.manuscripta.student.benchmark.BenchmarkTest")
+    }
+    if (excluded.isNotEmpty()) {
         useJUnit {
-            excludeCategories(
-                "com.manuscripta.student.integration.IntegrationTest"
-            )
+            excludeCategories(*excluded.toTypedArray())
         }
     }
 }
@@ -1,6 +1,12 @@
 package com.manuscripta.student;
 
 import android.app.Application;
+import android.content.ComponentCallbacks2;
+import com.manuscripta.student.data.repository.DeviceStatusRepository;
+import com.manuscripta.student.data.repository.ResponseRepository;
+import com.manuscripta.student.data.repository.RetentionManager;
+import com.manuscripta.student.network.metrics.HttpTimingStore;
+import com.manuscripta.student.ui.renderer.RenderCache;
 import com.manuscripta.student.utils.ConnectionManager;
 import com.manuscripta.student.network.tcp.HeartbeatManager;
 import dagger.hilt.android.HiltAndroidApp;
@@ -24,11 +30,64 @@ public class ManuscriptaApplication extends Application {
     @Inject
     ConnectionManager connectionManager;
 
+    /**
+     * The response repository, flushed when the process becomes a candidate for killing.
+     * Package-private for Hilt field injection.
+     */
+    @Inject
+    ResponseRepository responseRepository;
+
+    /**
+     * The device status repository, flushed alongside the response repository.
+     * Package-private for Hilt field injection.
+     */
+    @Inject
+    DeviceStatusRepository deviceStatusRepository;
+
+    /**
+     * The retention manager, run whenever the app is no longer visible.
+     * Package-private for Hilt field injection.
+     */
+    @Inject
+    RetentionManager retentionManager;
+
+    /**
+     * The HTTP phase timings, summarised to the log whenever the app is no longer visible.
+     * Package-private for Hilt field injection.
+     */
+    @Inject
+    HttpTimingStore httpTimingStore;
+
+    /**
+     * The decoded images and parsed content of materials, dropped when memory runs low.
+     * Package-private for Hilt field injection.
+     */
+    @Inject
+    RenderCache renderCache;
+
     @Override
     public void onCreate() {
         super.onCreate();
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            // Up to 32 MB of bitmaps that are cheap to decode again
+            renderCache.clear();
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            // Background processes may be killed without further notice
+            responseRepository.flushPendingResponses();
+            deviceStatusRepository.flushPendingStatus();
+            // The student is not using the app, so pruning and compaction disturb no one
+            retentionManager.scheduleMaintenance();
+            // Shows where material loads have spent their time since the process started
+            httpTimingStore.logSummary();
+        }
+    }
+
     @Override
     public void onTerminate() {
         super.onTerminate();
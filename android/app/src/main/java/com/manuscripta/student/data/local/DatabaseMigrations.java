@@ -0,0 +1,278 @@
+package com.manuscripta.student.data.local;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Schema migrations for {@link ManuscriptaDatabase}.
+ *
+ * <p>Version 10 is the first schema released to devices. Each migration below takes a
+ * database one version forward without losing stored materials, responses or sessions.
+ * Databases older than version 10 come from development builds and are recreated.</p>
+ *
+ * <p>The SQL here must produce exactly the tables and indices Room derives from the
+ * entity annotations, or Room will reject the migrated database when it is opened.</p>
+ */
+public final class DatabaseMigrations {
+
+    /** Oldest schema version that is migrated rather than recreated. */
+    public static final int FIRST_MIGRATED_VERSION = 10;
+
+    /**
+     * Version 10 to 11: adds the material manifest used for delta distribution.
+     *
+     * <p>Materials already stored get an entry with an empty hash. The next distribution
+     * then treats them as changed rather than new, so they are rewritten but do not get
+     * a second session.</p>
+     */
+    public static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `material_manifest` ("
+                    + "`materialId` TEXT NOT NULL, "
+                    + "`contentHash` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`materialId`), "
+                    + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE)");
+            db.execSQL("INSERT INTO `material_manifest` (`materialId`, `contentHash`) "
+                    + "SELECT `id`, '' FROM `materials`");
+        }
+    };
+
+    /**
+     * Version 11 to 12: adds the per-device cursor for incremental feedback fetches.
+     */
+    public static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `feedback_cursors` ("
+                    + "`deviceId` TEXT NOT NULL, "
+                    + "`cursor` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`deviceId`))");
+        }
+    };
+
+    /**
+     * Version 12 to 13: adds indices for the sync queue, session status lookups and
+     * feedback-by-device joins, and widens the foreign-key indices on responses and
+     * sessions to cover their ORDER BY columns.
+     */
+    public static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_responses_questionId`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_responses_questionId_timestamp` "
+                    + "ON `responses` (`questionId`, `timestamp`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_responses_synced_timestamp` "
+                    + "ON `responses` (`synced`, `timestamp`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_responses_deviceId` "
+                    + "ON `responses` (`deviceId`)");
+            db.execSQL("DROP INDEX IF EXISTS `index_sessions_materialId`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sessions_materialId_startTime` "
+                    + "ON `sessions` (`materialId`, `startTime`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sessions_status_startTime` "
+                    + "ON `sessions` (`status`, `startTime`)");
+        }
+    };
+
+    /**
+     * Version 13 to 14: adds the tombstones that keep pruned questions marked as answered.
+     */
+    public static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `response_tombstones` ("
+                    + "`questionId` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`questionId`), "
+                    + "FOREIGN KEY(`questionId`) REFERENCES `questions`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE)");
+        }
+    };
+
+    /**
+     * Version 14 to 15: stores every entity ID in binary form (see {@link IdCodec}).
+     *
+     * <p>SQLite cannot change a column's type in place, so each table holding IDs is
+     * rebuilt: the new table is created beside the old one, every row is copied with its
+     * IDs encoded, and the new table replaces the old one. Foreign keys are not enforced
+     * while migrations run, and parents and children are converted with the same encoding,
+     * so every reference still matches once all tables are rebuilt.</p>
+     */
+    public static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            rebuildWithBinaryIds(db, "materials",
+                    "`id` BLOB NOT NULL, `type` TEXT NOT NULL, `title` TEXT NOT NULL, "
+                            + "`content` TEXT, `metadata` TEXT, `vocabularyTerms` TEXT, "
+                            + "`timestamp` INTEGER NOT NULL, PRIMARY KEY(`id`)",
+                    Arrays.asList("id"));
+            rebuildWithBinaryIds(db, "material_manifest",
+                    "`materialId` BLOB NOT NULL, `contentHash` TEXT NOT NULL, "
+                            + "PRIMARY KEY(`materialId`), "
+                            + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("materialId"));
+            rebuildWithBinaryIds(db, "questions",
+                    "`id` BLOB NOT NULL, `materialId` BLOB NOT NULL, "
+                            + "`questionText` TEXT NOT NULL, `questionType` TEXT NOT NULL, "
+                            + "`options` TEXT, `correctAnswer` TEXT, "
+                            + "`maxScore` INTEGER DEFAULT NULL, PRIMARY KEY(`id`), "
+                            + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("id", "materialId"),
+                    "CREATE INDEX IF NOT EXISTS `index_questions_materialId` "
+                            + "ON `questions` (`materialId`)");
+            rebuildWithBinaryIds(db, "responses",
+                    "`id` BLOB NOT NULL, `questionId` BLOB NOT NULL, `answer` TEXT NOT NULL, "
+                            + "`isCorrect` INTEGER NOT NULL, `timestamp` INTEGER NOT NULL, "
+                            + "`synced` INTEGER NOT NULL, `deviceId` BLOB NOT NULL, "
+                            + "PRIMARY KEY(`id`), "
+                            + "FOREIGN KEY(`questionId`) REFERENCES `questions`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("id", "questionId", "deviceId"),
+                    "CREATE INDEX IF NOT EXISTS `index_responses_questionId_timestamp` "
+                            + "ON `responses` (`questionId`, `timestamp`)",
+                    "CREATE INDEX IF NOT EXISTS `index_responses_synced_timestamp` "
+                            + "ON `responses` (`synced`, `timestamp`)",
+                    "CREATE INDEX IF NOT EXISTS `index_responses_deviceId` "
+                            + "ON `responses` (`deviceId`)");
+            rebuildWithBinaryIds(db, "response_tombstones",
+                    "`questionId` BLOB NOT NULL, PRIMARY KEY(`questionId`), "
+                            + "FOREIGN KEY(`questionId`) REFERENCES `questions`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("questionId"));
+            rebuildWithBinaryIds(db, "feedback",
+                    "`id` BLOB NOT NULL, `responseId` BLOB NOT NULL, `text` TEXT, "
+                            + "`marks` INTEGER, PRIMARY KEY(`id`), "
+                            + "FOREIGN KEY(`responseId`) REFERENCES `responses`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("id", "responseId"),
+                    "CREATE INDEX IF NOT EXISTS `index_feedback_responseId` "
+                            + "ON `feedback` (`responseId`)");
+            rebuildWithBinaryIds(db, "sessions",
+                    "`id` BLOB NOT NULL, `materialId` BLOB NOT NULL, "
+                            + "`startTime` INTEGER NOT NULL, `endTime` INTEGER NOT NULL, "
+                            + "`status` TEXT NOT NULL, `deviceId` BLOB NOT NULL, "
+                            + "PRIMARY KEY(`id`), "
+                            + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                            + "ON UPDATE NO ACTION ON DELETE CASCADE",
+                    Arrays.asList("id", "materialId", "deviceId"),
+                    "CREATE INDEX IF NOT EXISTS `index_sessions_materialId_startTime` "
+                            + "ON `sessions` (`materialId`, `startTime`)",
+                    "CREATE INDEX IF NOT EXISTS `index_sessions_status_startTime` "
+                            + "ON `sessions` (`status`, `startTime`)");
+            rebuildWithBinaryIds(db, "device_status",
+                    "`deviceId` BLOB NOT NULL, `status` TEXT NOT NULL, "
+                            + "`batteryLevel` INTEGER NOT NULL, `currentMaterialId` BLOB, "
+                            + "`studentView` TEXT, `lastUpdated` INTEGER NOT NULL, "
+                            + "PRIMARY KEY(`deviceId`)",
+                    Arrays.asList("deviceId", "currentMaterialId"));
+        }
+    };
+
+    /**
+     * Version 15 to 16: adds the hash of material content stored outside the row (see
+     * {@link MaterialContentStore}). Existing content stays inline until the material
+     * repository moves it out.
+     */
+    public static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `materials` ADD COLUMN `contentHash` TEXT");
+        }
+    };
+
+    /** Every migration, in version order. */
+    public static final Migration[] ALL = {
+        MIGRATION_10_11,
+        MIGRATION_11_12,
+        MIGRATION_12_13,
+        MIGRATION_13_14,
+        MIGRATION_14_15,
+        MIGRATION_15_16
+    };
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private DatabaseMigrations() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Gets the schema versions that are recreated instead of migrated.
+     *
+     * @return Every version from 1 up to, but not including, {@link #FIRST_MIGRATED_VERSION}
+     */
+    @NonNull
+    public static int[] destructiveVersions() {
+        int[] versions = new int[FIRST_MIGRATED_VERSION - 1];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = i + 1;
+        }
+        return versions;
+    }
+
+    /**
+     * Replaces a table with one of the given definition, copying every row and encoding
+     * the given ID columns with {@link IdCodec#encode}. The table's indices are dropped with
+     * it and must be passed again.
+     *
+     * @param db          The database being migrated
+     * @param table       The table to rebuild
+     * @param definition  The column and constraint definitions of the new table
+     * @param idColumns   The columns holding IDs as text
+     * @param indexSql    The statements recreating the table's indices
+     */
+    private static void rebuildWithBinaryIds(@NonNull SupportSQLiteDatabase db,
+                                             @NonNull String table,
+                                             @NonNull String definition,
+                                             @NonNull List<String> idColumns,
+                                             @NonNull String... indexSql) {
+        String rebuilt = table + "_new";
+        db.execSQL("CREATE TABLE `" + rebuilt + "` (" + definition + ")");
+        try (Cursor cursor = db.query("SELECT * FROM `" + table + "`")) {
+            String[] columns = cursor.getColumnNames();
+            while (cursor.moveToNext()) {
+                ContentValues values = new ContentValues();
+                for (int i = 0; i < columns.length; i++) {
+                    switch (cursor.getType(i)) {
+                        case Cursor.FIELD_TYPE_NULL:
+                            values.putNull(columns[i]);
+                            break;
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            values.put(columns[i], cursor.getLong(i));
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            values.put(columns[i], cursor.getDouble(i));
+                            break;
+                        case Cursor.FIELD_TYPE_BLOB:
+                            values.put(columns[i], cursor.getBlob(i));
+                            break;
+                        default:
+                            if (idColumns.contains(columns[i])) {
+                                values.put(columns[i], IdCodec.encode(cursor.getString(i)));
+                            } else {
+                                values.put(columns[i], cursor.getString(i));
+                            }
+                            break;
+                    }
+                }
+                db.insert(rebuilt, SQLiteDatabase.CONFLICT_ABORT, values);
+            }
+        }
+        db.execSQL("DROP TABLE `" + table + "`");
+        db.execSQL("ALTER TABLE `" + rebuilt + "` RENAME TO `" + table + "`");
+        for (String sql : indexSql) {
+            db.execSQL(sql);
+        }
+    }
+}
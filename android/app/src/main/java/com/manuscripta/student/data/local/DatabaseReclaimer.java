@@ -0,0 +1,145 @@
+package com.manuscripta.student.data.local;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Clears the local database quickly and returns the freed space to the file system later,
+ * on a low-priority background thread.
+ *
+ * <p>Deleting rows only marks their pages free, which is cheap; shrinking the file means
+ * rebuilding it, which takes as long as the data it once held and blocks every writer
+ * meanwhile. Resetting on pairing or unpairing therefore deletes the rows at once and
+ * leaves the rebuild to this class. Requests made while a rebuild is still waiting to run
+ * share it.</p>
+ */
+public class DatabaseReclaimer {
+
+    /** Tag for logging. */
+    private static final String TAG = "DatabaseReclaimer";
+
+    /** The database to clear and compact. */
+    private final ManuscriptaDatabase database;
+
+    /** Runs the rebuilds. */
+    private final Executor executor;
+
+    /** Whether a rebuild is waiting to run. */
+    private final AtomicBoolean reclaimPending = new AtomicBoolean(false);
+
+    /** Run after every row is deleted, in the order they were added. */
+    private final List<Runnable> clearListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new DatabaseReclaimer that rebuilds on its own low-priority thread.
+     *
+     * @param database The database to clear and compact
+     * @throws IllegalArgumentException if database is null
+     */
+    public DatabaseReclaimer(@NonNull ManuscriptaDatabase database) {
+        this(database, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-reclaim");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates a new DatabaseReclaimer with the given executor for rebuilds.
+     *
+     * @param database The database to clear and compact
+     * @param executor Runs the rebuilds
+     * @throws IllegalArgumentException if database is null
+     */
+    @VisibleForTesting
+    DatabaseReclaimer(@NonNull ManuscriptaDatabase database, @NonNull Executor executor) {
+        if (database == null) {
+            throw new IllegalArgumentException("Database cannot be null");
+        }
+        this.database = database;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a listener run after {@link #clearAll()} deletes every row, so that state held
+     * in memory about those rows can be dropped. The same listener is only added once.
+     *
+     * @param listener The listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addClearListener(@NonNull Runnable listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        if (!clearListeners.contains(listener)) {
+            clearListeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a previously added clear listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeClearListener(@NonNull Runnable listener) {
+        clearListeners.remove(listener);
+    }
+
+    /**
+     * Deletes every row in one transaction and schedules the rebuild that returns the space.
+     */
+    @WorkerThread
+    public void clearAll() {
+        database.clearAllRows();
+        for (Runnable listener : clearListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                // One stale cache must not keep the others from being dropped
+                Log.e(TAG, "Clear listener failed", e);
+            }
+        }
+        scheduleReclaim();
+    }
+
+    /**
+     * Returns up to the given number of free pages to the file system on the calling thread.
+     * The first call on a file that does not yet use incremental auto-vacuum rebuilds it once
+     * to switch it over; later calls move only the pages asked for.
+     *
+     * @param maxPages The most free pages to return
+     */
+    @WorkerThread
+    public void compactIncrementally(int maxPages) {
+        if (!database.reclaimFreePages(maxPages)) {
+            database.reclaimFreePages();
+        }
+    }
+
+    /**
+     * Schedules a rebuild of the database file, unless one is already waiting to run.
+     */
+    public void scheduleReclaim() {
+        if (!reclaimPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            reclaimPending.set(false);
+            try {
+                database.reclaimFreePages();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to reclaim free database pages", e);
+            }
+        });
+    }
+}
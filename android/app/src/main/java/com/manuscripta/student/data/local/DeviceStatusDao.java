@@ -33,8 +33,18 @@ public interface DeviceStatusDao {
      * @param deviceId The unique identifier of the device
      * @return The device status entity, or null if not found
      */
+    default DeviceStatusEntity getById(String deviceId) {
+        return getById(IdCodec.encode(deviceId));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param deviceId The unique identifier of the device
+     * @return The device status entity, or null if not found
+     */
     @Query("SELECT * FROM device_status WHERE deviceId = :deviceId")
-    DeviceStatusEntity getById(String deviceId);
+    DeviceStatusEntity getById(byte[] deviceId);
 
     /**
      * Get all device status records.
@@ -87,6 +97,15 @@ public interface DeviceStatusDao {
      *
      * @param deviceId The unique identifier of the device to delete
      */
+    default void deleteById(String deviceId) {
+        deleteById(IdCodec.encode(deviceId));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param deviceId The unique identifier of the device to delete
+     */
     @Query("DELETE FROM device_status WHERE deviceId = :deviceId")
-    void deleteById(String deviceId);
+    void deleteById(byte[] deviceId);
 }
@@ -0,0 +1,191 @@
+package com.manuscripta.student.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
+
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.SessionEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for applying material distributions.
+ * Writes span the materials, questions, material_manifest and sessions tables and are
+ * applied atomically, so a distribution costs one journal commit per chunk rather than
+ * one per row.
+ *
+ * <p>Writes use upserts rather than {@code REPLACE}. A {@code REPLACE} on a material
+ * deletes the existing row first, which cascades to its questions, sessions and
+ * responses.</p>
+ */
+@Dao
+public interface DistributionDao {
+
+    /**
+     * Maximum number of materials the distribution sync writes in one transaction.
+     * Bounds how long a large distribution holds the database write lock.
+     */
+    int MAX_MATERIALS_PER_TRANSACTION = 25;
+
+    /**
+     * Get the manifest of all stored materials.
+     *
+     * @return One entry per material that has been received through distribution
+     */
+    @Query("SELECT * FROM material_manifest")
+    List<MaterialManifestEntity> getManifest();
+
+    /**
+     * Insert or update materials without deleting existing rows.
+     *
+     * @param materials The materials to write
+     */
+    @Upsert
+    void upsertMaterials(List<MaterialEntity> materials);
+
+    /**
+     * Insert or update questions without deleting existing rows.
+     *
+     * @param questions The questions to write
+     */
+    @Upsert
+    void upsertQuestions(List<QuestionEntity> questions);
+
+    /**
+     * Insert or update manifest entries.
+     *
+     * @param entries The manifest entries to write
+     */
+    @Upsert
+    void upsertManifest(List<MaterialManifestEntity> entries);
+
+    /**
+     * Set the content hash of existing manifest entries, for example to force the next
+     * distribution to process a material again.
+     *
+     * @param materialIds The materials whose entries to update
+     * @param contentHash The hash to record
+     */
+    default void setContentHash(List<String> materialIds, String contentHash) {
+        setContentHashByKeys(IdCodec.encodeAll(materialIds), contentHash);
+    }
+
+    /**
+     * Same as {@link #setContentHash(List, String)}, with IDs in their stored form.
+     *
+     * @param materialIds The materials whose entries to update
+     * @param contentHash The hash to record
+     */
+    @Query("UPDATE material_manifest SET contentHash = :contentHash WHERE materialId IN (:materialIds)")
+    void setContentHashByKeys(List<byte[]> materialIds, String contentHash);
+
+    /**
+     * Insert new sessions. Session IDs are freshly generated, so a conflict is an error.
+     *
+     * @param sessions The sessions to insert
+     */
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    void insertSessions(List<SessionEntity> sessions);
+
+    /**
+     * Pause every active session.
+     *
+     * @param endTime The timestamp recorded as the sessions' end time
+     */
+    @Query("UPDATE sessions SET endTime = :endTime, status = 'PAUSED' WHERE status = 'ACTIVE'")
+    void pauseActiveSessions(long endTime);
+
+    /**
+     * Delete the questions of a material that are not in the given set.
+     *
+     * @param materialId  The UUID of the material
+     * @param questionIds The IDs of the questions to keep
+     */
+    default void deleteQuestionsNotIn(String materialId, List<String> questionIds) {
+        deleteQuestionsNotIn(IdCodec.encode(materialId), IdCodec.encodeAll(questionIds));
+    }
+
+    /**
+     * Same as {@link #deleteQuestionsNotIn(String, List)}, with IDs in their stored form.
+     *
+     * @param materialId  The UUID of the material
+     * @param questionIds The IDs of the questions to keep
+     */
+    @Query("DELETE FROM questions WHERE materialId = :materialId AND id NOT IN (:questionIds)")
+    void deleteQuestionsNotIn(byte[] materialId, List<byte[]> questionIds);
+
+    /**
+     * Delete all questions of a material.
+     *
+     * @param materialId The UUID of the material
+     */
+    default void deleteQuestionsForMaterial(String materialId) {
+        deleteQuestionsForMaterial(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #deleteQuestionsForMaterial(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the material
+     */
+    @Query("DELETE FROM questions WHERE materialId = :materialId")
+    void deleteQuestionsForMaterial(byte[] materialId);
+
+    /**
+     * Apply new and changed materials in a single transaction.
+     *
+     * <p>Each material in {@code materials} ends up with exactly the questions in
+     * {@code questions} that reference it. Questions it no longer has are deleted.
+     * Questions whose material is not in {@code materials} are upserted as they are.</p>
+     *
+     * <p>If {@code sessions} is not empty, any active session is paused before the new
+     * sessions are inserted, as {@code SessionRepository.startSession} does for a single
+     * material (Session Interaction §5(4)(c)).</p>
+     *
+     * @param materials The new or changed materials
+     * @param questions The questions belonging to those materials
+     * @param manifest  The manifest entries describing the new content
+     * @param sessions  The sessions to create for materials received for the first time
+     */
+    @Transaction
+    default void applyDelta(@NonNull List<MaterialEntity> materials,
+                            @NonNull List<QuestionEntity> questions,
+                            @NonNull List<MaterialManifestEntity> manifest,
+                            @NonNull List<SessionEntity> sessions) {
+        Map<String, List<String>> keptQuestionIds = new HashMap<>();
+        for (MaterialEntity material : materials) {
+            keptQuestionIds.put(material.getId(), new ArrayList<>());
+        }
+        for (QuestionEntity question : questions) {
+            List<String> ids = keptQuestionIds.get(question.getMaterialId());
+            if (ids != null) {
+                ids.add(question.getId());
+            }
+        }
+
+        upsertMaterials(materials);
+        for (Map.Entry<String, List<String>> entry : keptQuestionIds.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                deleteQuestionsForMaterial(entry.getKey());
+            } else {
+                deleteQuestionsNotIn(entry.getKey(), entry.getValue());
+            }
+        }
+        upsertQuestions(questions);
+        upsertManifest(manifest);
+        if (!sessions.isEmpty()) {
+            pauseActiveSessions(System.currentTimeMillis());
+            insertSessions(sessions);
+        }
+    }
+}
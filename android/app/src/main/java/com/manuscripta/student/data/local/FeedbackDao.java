@@ -1,15 +1,29 @@
 package com.manuscripta.student.data.local;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
 
+import com.manuscripta.student.data.model.FeedbackCursorEntity;
 import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.FeedbackMaterialTitleTuple;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Data Access Object for {@link FeedbackEntity}.
@@ -18,6 +32,12 @@ import java.util.List;
 @Dao
 public interface FeedbackDao {
 
+    /**
+     * Maximum number of IDs bound into a single {@code IN} clause.
+     * Kept well below SQLite's default limit of 999 bound parameters.
+     */
+    int MAX_IDS_PER_QUERY = 500;
+
     /**
      * Get all feedback from the database.
      *
@@ -41,8 +61,56 @@ public interface FeedbackDao {
      * @param id The UUID of the feedback
      * @return The feedback entity, or null if not found
      */
+    default FeedbackEntity getById(String id) {
+        return getById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the feedback
+     * @return The feedback entity, or null if not found
+     */
     @Query("SELECT * FROM feedback WHERE id = :id")
-    FeedbackEntity getById(String id);
+    FeedbackEntity getById(byte[] id);
+
+    /**
+     * Get the feedback with any of the given identifiers.
+     *
+     * @param ids The UUIDs of the feedback, at most {@link #MAX_IDS_PER_QUERY}
+     * @return The feedback entities that exist, in no particular order
+     */
+    default List<FeedbackEntity> getByIds(List<String> ids) {
+        return getByKeys(IdCodec.encodeAll(ids));
+    }
+
+    /**
+     * Same as {@link #getByIds(List)}, with IDs in their stored form.
+     *
+     * @param ids The UUIDs of the feedback, at most {@link #MAX_IDS_PER_QUERY}
+     * @return The feedback entities that exist, in no particular order
+     */
+    @Query("SELECT * FROM feedback WHERE id IN (:ids)")
+    List<FeedbackEntity> getByKeys(List<byte[]> ids);
+
+    /**
+     * Get which of the given responses are stored.
+     *
+     * @param responseIds The UUIDs of the responses, at most {@link #MAX_IDS_PER_QUERY}
+     * @return The IDs of the responses that exist, in no particular order
+     */
+    default List<String> getExistingResponseIds(List<String> responseIds) {
+        return IdCodec.decodeAll(getExistingResponseKeys(IdCodec.encodeAll(responseIds)));
+    }
+
+    /**
+     * Same as {@link #getExistingResponseIds(List)}, with IDs in their stored form.
+     *
+     * @param responseIds The UUIDs of the responses, at most {@link #MAX_IDS_PER_QUERY}
+     * @return The IDs of the responses that exist, in their stored form
+     */
+    @Query("SELECT id FROM responses WHERE id IN (:responseIds)")
+    List<byte[]> getExistingResponseKeys(List<byte[]> responseIds);
 
     /**
      * Get feedback for a specific response.
@@ -50,8 +118,18 @@ public interface FeedbackDao {
      * @param responseId The UUID of the parent response
      * @return The feedback entity for that response, or null if not found
      */
+    default FeedbackEntity getByResponseId(String responseId) {
+        return getByResponseId(IdCodec.encode(responseId));
+    }
+
+    /**
+     * Same as {@link #getByResponseId(String)}, with IDs in their stored form.
+     *
+     * @param responseId The UUID of the parent response
+     * @return The feedback entity for that response, or null if not found
+     */
     @Query("SELECT * FROM feedback WHERE responseId = :responseId")
-    FeedbackEntity getByResponseId(String responseId);
+    FeedbackEntity getByResponseId(byte[] responseId);
 
     /**
      * Get all feedback for responses belonging to a specific device.
@@ -60,10 +138,45 @@ public interface FeedbackDao {
      * @param deviceId The device ID to filter by
      * @return List of feedback for responses from that device
      */
+    default List<FeedbackEntity> getAllByDeviceId(String deviceId) {
+        return getAllByDeviceId(IdCodec.encode(deviceId));
+    }
+
+    /**
+     * Same as {@link #getAllByDeviceId(String)}, with IDs in their stored form.
+     *
+     * @param deviceId The device ID to filter by
+     * @return List of feedback for responses from that device
+     */
     @Query("SELECT f.* FROM feedback f "
             + "INNER JOIN responses r ON f.responseId = r.id "
             + "WHERE r.deviceId = :deviceId")
-    List<FeedbackEntity> getAllByDeviceId(String deviceId);
+    List<FeedbackEntity> getAllByDeviceId(byte[] deviceId);
+
+    /**
+     * Get the title of the material each of the given feedback items belongs to.
+     * The feedback → response → question → material chain is resolved in one JOIN,
+     * with every step a primary-key lookup.
+     *
+     * @param feedbackIds The UUIDs of the feedback, at most {@link #MAX_IDS_PER_QUERY}
+     * @return One row per feedback item whose chain is complete, in no particular order
+     */
+    default List<FeedbackMaterialTitleTuple> getMaterialTitles(List<String> feedbackIds) {
+        return getMaterialTitlesByKeys(IdCodec.encodeAll(feedbackIds));
+    }
+
+    /**
+     * Same as {@link #getMaterialTitles(List)}, with IDs in their stored form.
+     *
+     * @param feedbackIds The UUIDs of the feedback, at most {@link #MAX_IDS_PER_QUERY}
+     * @return One row per feedback item whose chain is complete, in no particular order
+     */
+    @Query("SELECT f.id AS feedbackId, m.title AS materialTitle FROM feedback f "
+            + "INNER JOIN responses r ON f.responseId = r.id "
+            + "INNER JOIN questions q ON r.questionId = q.id "
+            + "INNER JOIN materials m ON q.materialId = m.id "
+            + "WHERE f.id IN (:feedbackIds)")
+    List<FeedbackMaterialTitleTuple> getMaterialTitlesByKeys(List<byte[]> feedbackIds);
 
     /**
      * Insert a new feedback into the database.
@@ -95,16 +208,34 @@ public interface FeedbackDao {
      *
      * @param id The UUID of the feedback to delete
      */
+    default void deleteById(String id) {
+        deleteById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the feedback to delete
+     */
     @Query("DELETE FROM feedback WHERE id = :id")
-    void deleteById(String id);
+    void deleteById(byte[] id);
 
     /**
      * Delete feedback for a specific response.
      *
      * @param responseId The UUID of the parent response
      */
+    default void deleteByResponseId(String responseId) {
+        deleteByResponseId(IdCodec.encode(responseId));
+    }
+
+    /**
+     * Same as {@link #deleteByResponseId(String)}, with IDs in their stored form.
+     *
+     * @param responseId The UUID of the parent response
+     */
     @Query("DELETE FROM feedback WHERE responseId = :responseId")
-    void deleteByResponseId(String responseId);
+    void deleteByResponseId(byte[] responseId);
 
     /**
      * Delete all feedback from the database.
@@ -119,4 +250,94 @@ public interface FeedbackDao {
      */
     @Query("SELECT COUNT(*) FROM feedback")
     int getCount();
+
+    /**
+     * Get the feedback cursor stored for a device.
+     *
+     * @param deviceId The device ID
+     * @return The opaque cursor, or null if feedback has never been fetched with one
+     */
+    @Nullable
+    @Query("SELECT cursor FROM feedback_cursors WHERE deviceId = :deviceId")
+    String getCursor(String deviceId);
+
+    /**
+     * Insert or update the feedback cursor for a device.
+     *
+     * @param cursor The cursor to store
+     */
+    @Upsert
+    void upsertCursor(FeedbackCursorEntity cursor);
+
+    /**
+     * Delete all stored feedback cursors, so the next fetch starts from the beginning.
+     */
+    @Query("DELETE FROM feedback_cursors")
+    void deleteAllCursors();
+
+    /**
+     * Store a batch of received feedback and advance the device's cursor in a single
+     * transaction.
+     *
+     * <p>Only feedback that is not stored yet, or whose text or marks differ from the
+     * stored row, is written. A batch that contains nothing new leaves the feedback table
+     * untouched, so observers of {@link #getAllLive()} are not notified.</p>
+     *
+     * <p>Feedback for a response that is no longer stored, for example one pruned by
+     * retention along with its feedback, is skipped. A server that returns the whole
+     * history would otherwise fail the foreign key and roll back the new feedback too.</p>
+     *
+     * @param deviceId The device the feedback was fetched for
+     * @param received The valid feedback received from the server
+     * @param cursor   The cursor returned with the batch, or null to keep the current one
+     * @return The feedback that was inserted or updated
+     */
+    @Transaction
+    @NonNull
+    default List<FeedbackEntity> applyIncrement(@NonNull String deviceId,
+                                                @NonNull List<FeedbackEntity> received,
+                                                @Nullable String cursor) {
+        Map<String, FeedbackEntity> stored = new HashMap<>();
+        Set<String> storedResponseIds = new HashSet<>();
+        List<String> ids = new ArrayList<>();
+        Set<String> responseIds = new LinkedHashSet<>();
+        for (FeedbackEntity entity : received) {
+            ids.add(entity.getId());
+            responseIds.add(entity.getResponseId());
+        }
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+            List<String> chunk = ids.subList(start,
+                    Math.min(start + MAX_IDS_PER_QUERY, ids.size()));
+            for (FeedbackEntity existing : getByIds(chunk)) {
+                stored.put(existing.getId(), existing);
+            }
+        }
+        List<String> responseIdList = new ArrayList<>(responseIds);
+        for (int start = 0; start < responseIdList.size(); start += MAX_IDS_PER_QUERY) {
+            storedResponseIds.addAll(getExistingResponseIds(responseIdList.subList(start,
+                    Math.min(start + MAX_IDS_PER_QUERY, responseIdList.size()))));
+        }
+
+        Map<String, FeedbackEntity> changed = new LinkedHashMap<>();
+        for (FeedbackEntity entity : received) {
+            if (!storedResponseIds.contains(entity.getResponseId())) {
+                continue;
+            }
+            FeedbackEntity existing = stored.get(entity.getId());
+            if (existing == null
+                    || !existing.getResponseId().equals(entity.getResponseId())
+                    || !Objects.equals(existing.getText(), entity.getText())
+                    || !Objects.equals(existing.getMarks(), entity.getMarks())) {
+                changed.put(entity.getId(), entity);
+            }
+        }
+        List<FeedbackEntity> written = new ArrayList<>(changed.values());
+        if (!written.isEmpty()) {
+            insertAll(written);
+        }
+        if (cursor != null) {
+            upsertCursor(new FeedbackCursorEntity(deviceId, cursor));
+        }
+        return written;
+    }
 }
@@ -0,0 +1,211 @@
+package com.manuscripta.student.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.TypeConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts entity IDs between their string form and the binary form stored in the database.
+ *
+ * <p>An ID in canonical lowercase UUID form ({@code xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx})
+ * is stored as its 16 bytes, less than half the size of the text, which shrinks every row,
+ * primary-key index and foreign-key index holding it and makes each comparison a short
+ * memcmp. Any other string is stored as its UTF-8 bytes, with one {@code 0xFF} byte appended
+ * when those are exactly 16 bytes long; {@code 0xFF} never occurs in UTF-8, so the two forms
+ * cannot be confused and every string converts back exactly as it was given.</p>
+ *
+ * <p>Entity fields holding IDs are declared with BLOB affinity, which makes Room convert
+ * them through {@link #toKey} and {@link #fromKey}. Query parameters are bound in binary
+ * form by the DAOs, which accept IDs as strings and encode them here.</p>
+ */
+public final class IdCodec {
+
+    /** Length of a stored UUID. */
+    public static final int UUID_BYTES = 16;
+
+    /** Length of a canonical UUID string. */
+    private static final int UUID_LENGTH = 36;
+
+    /** Byte appended to a non-UUID ID that would otherwise be as long as a stored UUID. */
+    private static final byte TEXT_MARKER = (byte) 0xFF;
+
+    /** Lowercase hex digits, indexed by value. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private IdCodec() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Converts an ID to its stored form.
+     *
+     * @param id The ID
+     * @return The 16 UUID bytes, or the UTF-8 bytes of any other ID
+     * @throws IllegalArgumentException if id is null
+     */
+    @NonNull
+    public static byte[] encode(@NonNull String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID cannot be null");
+        }
+        byte[] uuid = parseUuid(id);
+        if (uuid != null) {
+            return uuid;
+        }
+        byte[] text = id.getBytes(StandardCharsets.UTF_8);
+        if (text.length == UUID_BYTES) {
+            text = Arrays.copyOf(text, UUID_BYTES + 1);
+            text[UUID_BYTES] = TEXT_MARKER;
+        }
+        return text;
+    }
+
+    /**
+     * Converts a stored ID back to its string form.
+     *
+     * @param key The stored ID
+     * @return The ID exactly as it was encoded
+     * @throws IllegalArgumentException if key is null
+     */
+    @NonNull
+    public static String decode(@NonNull byte[] key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (key.length == UUID_BYTES) {
+            return formatUuid(key);
+        }
+        int length = key.length;
+        if (length > 0 && key[length - 1] == TEXT_MARKER) {
+            length--;
+        }
+        return new String(key, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts several IDs to their stored form.
+     *
+     * @param ids The IDs
+     * @return The stored IDs, in the same order
+     */
+    @NonNull
+    public static List<byte[]> encodeAll(@NonNull List<String> ids) {
+        List<byte[]> keys = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            keys.add(encode(id));
+        }
+        return keys;
+    }
+
+    /**
+     * Converts several stored IDs back to their string form.
+     *
+     * @param keys The stored IDs
+     * @return The IDs, in the same order
+     */
+    @NonNull
+    public static List<String> decodeAll(@NonNull List<byte[]> keys) {
+        List<String> ids = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            ids.add(decode(key));
+        }
+        return ids;
+    }
+
+    /**
+     * Room converter for ID fields declared with BLOB affinity.
+     *
+     * @param id The ID, or null
+     * @return The stored form, or null
+     */
+    @TypeConverter
+    @Nullable
+    public static byte[] toKey(@Nullable String id) {
+        return id == null ? null : encode(id);
+    }
+
+    /**
+     * Room converter for ID columns read into string fields with BLOB affinity.
+     *
+     * @param key The stored form, or null
+     * @return The ID, or null
+     */
+    @TypeConverter
+    @Nullable
+    public static String fromKey(@Nullable byte[] key) {
+        return key == null ? null : decode(key);
+    }
+
+    /**
+     * Parses a canonical lowercase UUID.
+     *
+     * @param id The candidate string
+     * @return The 16 bytes, or null if the string is not a canonical lowercase UUID
+     */
+    @Nullable
+    private static byte[] parseUuid(@NonNull String id) {
+        if (id.length() != UUID_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[UUID_BYTES];
+        int i = 0;
+        for (int b = 0; b < UUID_BYTES; b++) {
+            if (b == 4 || b == 6 || b == 8 || b == 10) {
+                if (id.charAt(i++) != '-') {
+                    return null;
+                }
+            }
+            int high = hexValue(id.charAt(i++));
+            int low = hexValue(id.charAt(i++));
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[b] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    /**
+     * Formats 16 bytes as a canonical lowercase UUID.
+     *
+     * @param bytes The UUID bytes
+     * @return The UUID string
+     */
+    @NonNull
+    private static String formatUuid(@NonNull byte[] bytes) {
+        char[] chars = new char[UUID_LENGTH];
+        int c = 0;
+        for (int b = 0; b < UUID_BYTES; b++) {
+            if (b == 4 || b == 6 || b == 8 || b == 10) {
+                chars[c++] = '-';
+            }
+            chars[c++] = HEX[(bytes[b] >> 4) & 0xF];
+            chars[c++] = HEX[bytes[b] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Gets the value of a lowercase hex digit.
+     *
+     * @param c The character
+     * @return The value 0-15, or -1 if the character is not a lowercase hex digit
+     */
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
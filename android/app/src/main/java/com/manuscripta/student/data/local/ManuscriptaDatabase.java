@@ -1,33 +1,65 @@
 package com.manuscripta.student.data.local;
 
+import android.database.Cursor;
+
+import androidx.annotation.WorkerThread;
 import androidx.room.Database;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.manuscripta.student.data.model.DeviceStatusEntity;
+import com.manuscripta.student.data.model.FeedbackCursorEntity;
 import com.manuscripta.student.data.model.FeedbackEntity;
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
 import com.manuscripta.student.data.model.QuestionEntity;
 import com.manuscripta.student.data.model.ResponseEntity;
+import com.manuscripta.student.data.model.ResponseTombstoneEntity;
 import com.manuscripta.student.data.model.SessionEntity;
 
 /**
  * Room database for Manuscripta application.
  * This is the main database configuration.
+ *
+ * <p>Bumping the version requires a matching migration in {@link DatabaseMigrations}.</p>
+ *
+ * <p>Entity IDs are stored in binary form; see {@link IdCodec}.</p>
  */
 @Database(
     entities = {
         MaterialEntity.class,
+        MaterialManifestEntity.class,
         QuestionEntity.class,
         ResponseEntity.class,
         SessionEntity.class,
         DeviceStatusEntity.class,
-        FeedbackEntity.class
+        FeedbackEntity.class,
+        FeedbackCursorEntity.class,
+        ResponseTombstoneEntity.class
     },
-    version = 10,
+    version = 16,
     exportSchema = false
 )
+@TypeConverters(IdCodec.class)
 public abstract class ManuscriptaDatabase extends RoomDatabase {
 
+    /** Value of {@code PRAGMA auto_vacuum} for incremental mode. */
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    /** Every table, children before the parents their foreign keys reference. */
+    private static final String[] TABLES_CHILDREN_FIRST = {
+        "feedback",
+        "responses",
+        "sessions",
+        "response_tombstones",
+        "questions",
+        "material_manifest",
+        "materials",
+        "device_status",
+        "feedback_cursors"
+    };
+
     /**
      * Get the Material DAO for database operations on materials.
      *
@@ -69,4 +101,93 @@ public abstract class ManuscriptaDatabase extends RoomDatabase {
      * @return FeedbackDao instance
      */
     public abstract FeedbackDao feedbackDao();
+
+    /**
+     * Get the Distribution DAO for applying material distributions.
+     *
+     * @return DistributionDao instance
+     */
+    public abstract DistributionDao distributionDao();
+
+    /**
+     * Deletes every row in one transaction, without the WAL checkpoint and VACUUM that
+     * {@link #clearAllTables()} runs before returning. Children are deleted before their
+     * parents, so no cascade runs. The freed pages stay in the database file until
+     * {@link #reclaimFreePages()} runs, typically via {@link DatabaseReclaimer}.
+     */
+    @WorkerThread
+    public void clearAllRows() {
+        runInTransaction(() -> {
+            SupportSQLiteDatabase db = getOpenHelper().getWritableDatabase();
+            for (String table : TABLES_CHILDREN_FIRST) {
+                db.execSQL("DELETE FROM `" + table + "`");
+            }
+        });
+    }
+
+    /**
+     * Returns pages freed by deleted rows to the file system: checkpoints the write-ahead log
+     * and rebuilds the database file. Blocks other writers while it runs, so call it only
+     * from a background thread when little else is writing.
+     *
+     * <p>The rebuild also switches the file to incremental auto-vacuum, after which
+     * {@link #reclaimFreePages(int)} can return free pages a few at a time.</p>
+     */
+    @WorkerThread
+    public void reclaimFreePages() {
+        SupportSQLiteDatabase db = getOpenHelper().getWritableDatabase();
+        db.query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+        db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+        db.execSQL("VACUUM");
+    }
+
+    /**
+     * Returns up to the given number of free pages to the file system without rebuilding the
+     * file, then checkpoints the write-ahead log. Each page moved is a short write, so other
+     * writers are held up only briefly.
+     *
+     * <p>Works only once the file uses incremental auto-vacuum, which takes one full
+     * {@link #reclaimFreePages()}; until then nothing is done.</p>
+     *
+     * @param maxPages The most free pages to return
+     * @return True if the file uses incremental auto-vacuum, false if nothing was done
+     */
+    @WorkerThread
+    public boolean reclaimFreePages(int maxPages) {
+        SupportSQLiteDatabase db = getOpenHelper().getWritableDatabase();
+        if (queryInt(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            return false;
+        }
+        // The pragma frees one page per result row it steps through
+        try (Cursor cursor = db.query("PRAGMA incremental_vacuum(" + maxPages + ")")) {
+            while (cursor.moveToNext()) {
+                // Step to completion
+            }
+        }
+        db.query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+        return true;
+    }
+
+    /**
+     * Gets the number of unused pages in the database file.
+     *
+     * @return The free page count
+     */
+    @WorkerThread
+    public int getFreePageCount() {
+        return queryInt(getOpenHelper().getWritableDatabase(), "PRAGMA freelist_count");
+    }
+
+    /**
+     * Runs a pragma or query that returns a single integer.
+     *
+     * @param db  The database
+     * @param sql The statement
+     * @return The integer in the first column of the first row, or 0 if there is none
+     */
+    private static int queryInt(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
 }
@@ -0,0 +1,287 @@
+package com.manuscripta.student.data.local;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.manuscripta.student.utils.Hashes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Stores long material content outside the database, compressed, one file per distinct
+ * content.
+ *
+ * <p>A material row that holds its whole text inline fills pages that every scan of the
+ * materials table has to read, even when only titles are wanted. Content longer than
+ * {@link #INLINE_MAX_CHARS} is therefore written here and the row keeps only its hash,
+ * leaving the page cache to metadata. Files are named by the SHA-256 of the content, so
+ * identical content is stored once, and are read through a memory mapping only when a
+ * material is opened.</p>
+ *
+ * <p>Each file holds a four-byte magic number, the length of the content in UTF-8 bytes,
+ * and the content as a zlib stream. Files are written under a temporary name, synced and
+ * renamed into place, so a row never references a partly written file. Writes of the same
+ * content may run concurrently; callers serialise {@link #retainOnly(Set)} with writes
+ * whose hashes are not yet committed to the database.</p>
+ */
+public class MaterialContentStore {
+
+    /** Longest content, in characters, kept inline in the material row. */
+    public static final int INLINE_MAX_CHARS = 1024;
+
+    /** Name of the content directory within internal storage. */
+    private static final String CONTENT_DIR = "material_content";
+
+    /** Prefix for temporary files, which never collides with a content hash. */
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    /** Identifies a content file and its format version. */
+    private static final int MAGIC = 0x4D435A01;
+
+    /** Length of the header: the magic number and the content length. */
+    private static final int HEADER_BYTES = 8;
+
+    /** Compressed bytes written or handed to the inflater at a time. */
+    private static final int INPUT_CHUNK_BYTES = 8192;
+
+    /** Length of a SHA-256 hash in hex. */
+    private static final int HASH_LENGTH = 64;
+
+    /** The directory holding the content files. */
+    @NonNull
+    private final File directory;
+
+    /** Makes temporary file names unique. */
+    private final AtomicLong tempCounter = new AtomicLong();
+
+    /**
+     * Creates a new MaterialContentStore in the app's internal storage.
+     *
+     * @param context The application context
+     * @throws IllegalArgumentException if context is null
+     */
+    public MaterialContentStore(@NonNull Context context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context cannot be null");
+        }
+        this.directory = new File(context.getApplicationContext().getFilesDir(), CONTENT_DIR);
+    }
+
+    /**
+     * Creates a new MaterialContentStore in the given directory.
+     *
+     * @param directory The directory holding the content files
+     * @throws IllegalArgumentException if directory is null
+     */
+    public MaterialContentStore(@NonNull File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Checks whether content is long enough to be stored here rather than inline.
+     *
+     * @param content The content, or null
+     * @return true if the content is longer than {@link #INLINE_MAX_CHARS}
+     */
+    public static boolean isOffRow(@Nullable String content) {
+        return content != null && content.length() > INLINE_MAX_CHARS;
+    }
+
+    /**
+     * Stores content, unless identical content is stored already.
+     *
+     * @param content The content
+     * @return The content hash to record in the material row, or null if it could not be
+     *         written
+     * @throws IllegalArgumentException if content is null
+     */
+    @WorkerThread
+    @Nullable
+    public String put(@NonNull String content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = Hashes.sha256Hex(bytes);
+        File target = new File(directory, hash);
+        if (target.exists()) {
+            return hash;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            return null;
+        }
+        File temp = new File(directory, TEMP_PREFIX + hash + "-" + tempCounter.incrementAndGet());
+        try (FileOutputStream file = new FileOutputStream(temp)) {
+            file.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(bytes.length).array());
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try {
+                DeflaterOutputStream body =
+                        new DeflaterOutputStream(file, deflater, INPUT_CHUNK_BYTES);
+                body.write(bytes);
+                body.finish();
+            } finally {
+                deflater.end();
+            }
+            file.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            return null;
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            return null;
+        }
+        return hash;
+    }
+
+    /**
+     * Reads content through a memory mapping of its file.
+     *
+     * @param hash The content hash recorded in the material row
+     * @return The content, or null if its file is missing or damaged
+     * @throws IllegalArgumentException if hash is null or not a SHA-256 hash
+     */
+    @WorkerThread
+    @Nullable
+    public String read(@NonNull String hash) {
+        validateHash(hash);
+        File file = new File(directory, hash);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt() != MAGIC) {
+                return null;
+            }
+            int length = mapped.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = inflate(mapped, length);
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes every content file whose hash is not in the given set, along with temporary
+     * files left behind by interrupted writes.
+     *
+     * @param hashes The hashes still referenced by material rows
+     * @return The number of files deleted
+     * @throws IllegalArgumentException if hashes is null
+     */
+    @WorkerThread
+    public int retainOnly(@NonNull Set<String> hashes) {
+        if (hashes == null) {
+            throw new IllegalArgumentException("Hashes cannot be null");
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        int deleted = 0;
+        for (File file : files) {
+            if (!hashes.contains(file.getName()) && file.delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every content file.
+     */
+    @WorkerThread
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Decompresses a zlib stream of known output length, handing it to the inflater in
+     * chunks so that only the pages being read are faulted in.
+     *
+     * @param input  The compressed stream, positioned at its start
+     * @param length The length of the decompressed content
+     * @return The content, or null if the stream is damaged or ends early
+     */
+    @Nullable
+    private static byte[] inflate(@NonNull MappedByteBuffer input, int length) {
+        byte[] output = new byte[length];
+        byte[] chunk = new byte[INPUT_CHUNK_BYTES];
+        Inflater inflater = new Inflater();
+        try {
+            int produced = 0;
+            while (produced < length) {
+                if (inflater.needsInput()) {
+                    if (!input.hasRemaining()) {
+                        return null;
+                    }
+                    int count = Math.min(chunk.length, input.remaining());
+                    input.get(chunk, 0, count);
+                    inflater.setInput(chunk, 0, count);
+                }
+                int count = inflater.inflate(output, produced, length - produced);
+                if (count == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    return null;
+                }
+                produced += count;
+            }
+            return output;
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Validates that a string is a lowercase hex SHA-256 hash, and so a safe file name.
+     *
+     * @param hash The hash to validate
+     * @throws IllegalArgumentException if hash is null or not a SHA-256 hash
+     */
+    private static void validateHash(@Nullable String hash) {
+        if (hash == null || hash.length() != HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                throw new IllegalArgumentException("Invalid content hash: " + hash);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.manuscripta.student.data.local;
 
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -8,6 +9,7 @@ import androidx.room.Query;
 import androidx.room.Update;
 
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
 
 import java.util.List;
@@ -27,14 +29,41 @@ public interface MaterialDao {
     @Query("SELECT * FROM materials ORDER BY timestamp DESC")
     List<MaterialEntity> getAll();
 
+    /**
+     * Get the list columns of all materials, without their content.
+     *
+     * @return Summaries of all materials ordered by timestamp (newest first)
+     */
+    @Query("SELECT id, type, title, timestamp FROM materials ORDER BY timestamp DESC")
+    List<MaterialSummaryTuple> getAllSummaries();
+
+    /**
+     * Get the list columns of all materials as observable LiveData.
+     * Automatically emits new values when the materials table changes.
+     *
+     * @return LiveData wrapping summaries of all materials ordered by timestamp (newest first)
+     */
+    @Query("SELECT id, type, title, timestamp FROM materials ORDER BY timestamp DESC")
+    LiveData<List<MaterialSummaryTuple>> getAllSummariesLive();
+
     /**
      * Get a material by its unique identifier.
      *
      * @param id The UUID of the material
      * @return The material entity, or null if not found
      */
+    default MaterialEntity getById(String id) {
+        return getById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the material
+     * @return The material entity, or null if not found
+     */
     @Query("SELECT * FROM materials WHERE id = :id")
-    MaterialEntity getById(String id);
+    MaterialEntity getById(byte[] id);
 
     /**
      * Get all materials of a specific type.
@@ -84,8 +113,63 @@ public interface MaterialDao {
      *
      * @param id The UUID of the material to delete
      */
+    default void deleteById(String id) {
+        deleteById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the material to delete
+     */
     @Query("DELETE FROM materials WHERE id = :id")
-    void deleteById(String id);
+    void deleteById(byte[] id);
+
+    /**
+     * Get the hashes of all content stored outside the material rows.
+     *
+     * @return The distinct content hashes
+     */
+    @Query("SELECT DISTINCT contentHash FROM materials WHERE contentHash IS NOT NULL")
+    List<String> getContentHashes();
+
+    /**
+     * Get the IDs of materials whose content is inline but longer than the given length.
+     *
+     * @param maxChars The longest content, in characters, that may stay inline
+     * @return The material IDs
+     */
+    default List<String> getIdsWithInlineContentOver(int maxChars) {
+        return IdCodec.decodeAll(getKeysWithInlineContentOver(maxChars));
+    }
+
+    /**
+     * Same as {@link #getIdsWithInlineContentOver(int)}, with IDs in their stored form.
+     *
+     * @param maxChars The longest content, in characters, that may stay inline
+     * @return The material IDs
+     */
+    @Query("SELECT id FROM materials WHERE contentHash IS NULL AND length(content) > :maxChars")
+    List<byte[]> getKeysWithInlineContentOver(int maxChars);
+
+    /**
+     * Replace a material's inline content with a reference to content stored outside the row.
+     *
+     * @param id          The UUID of the material
+     * @param contentHash The hash of the stored content
+     */
+    default void moveContentOffRow(String id, String contentHash) {
+        moveContentOffRow(IdCodec.encode(id), contentHash);
+    }
+
+    /**
+     * Same as {@link #moveContentOffRow(String, String)}, with IDs in their stored form.
+     *
+     * @param id          The UUID of the material
+     * @param contentHash The hash of the stored content
+     */
+    @Query("UPDATE materials SET content = NULL, contentHash = :contentHash WHERE id = :id")
+    void moveContentOffRow(byte[] id, String contentHash);
 
     /**
      * Delete all materials from the database.
@@ -1,5 +1,6 @@
 package com.manuscripta.student.data.local;
 
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -32,8 +33,18 @@ public interface QuestionDao {
      * @param id The UUID of the question
      * @return The question entity, or null if not found
      */
+    default QuestionEntity getById(String id) {
+        return getById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the question
+     * @return The question entity, or null if not found
+     */
     @Query("SELECT * FROM questions WHERE id = :id")
-    QuestionEntity getById(String id);
+    QuestionEntity getById(byte[] id);
 
     /**
      * Get all questions for a specific material.
@@ -41,8 +52,38 @@ public interface QuestionDao {
      * @param materialId The UUID of the parent material
      * @return List of questions belonging to the material
      */
+    default List<QuestionEntity> getByMaterialId(String materialId) {
+        return getByMaterialId(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #getByMaterialId(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the parent material
+     * @return List of questions belonging to the material
+     */
     @Query("SELECT * FROM questions WHERE materialId = :materialId")
-    List<QuestionEntity> getByMaterialId(String materialId);
+    List<QuestionEntity> getByMaterialId(byte[] materialId);
+
+    /**
+     * Get all questions for a specific material as observable LiveData.
+     * Automatically emits new values when the questions table changes.
+     *
+     * @param materialId The UUID of the parent material
+     * @return LiveData wrapping the questions belonging to the material
+     */
+    default LiveData<List<QuestionEntity>> getByMaterialIdLive(String materialId) {
+        return getByMaterialIdLive(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #getByMaterialIdLive(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the parent material
+     * @return LiveData wrapping the questions belonging to the material
+     */
+    @Query("SELECT * FROM questions WHERE materialId = :materialId")
+    LiveData<List<QuestionEntity>> getByMaterialIdLive(byte[] materialId);
 
     /**
      * Insert a new question into the database.
@@ -83,16 +124,34 @@ public interface QuestionDao {
      *
      * @param id The UUID of the question to delete
      */
+    default void deleteById(String id) {
+        deleteById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the question to delete
+     */
     @Query("DELETE FROM questions WHERE id = :id")
-    void deleteById(String id);
+    void deleteById(byte[] id);
 
     /**
      * Delete all questions for a specific material.
      *
      * @param materialId The UUID of the parent material
      */
+    default void deleteByMaterialId(String materialId) {
+        deleteByMaterialId(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #deleteByMaterialId(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the parent material
+     */
     @Query("DELETE FROM questions WHERE materialId = :materialId")
-    void deleteByMaterialId(String materialId);
+    void deleteByMaterialId(byte[] materialId);
 
     /**
      * Delete all questions from the database.
@@ -114,6 +173,16 @@ public interface QuestionDao {
      * @param materialId The UUID of the parent material
      * @return The number of questions for that material
      */
+    default int getCountByMaterialId(String materialId) {
+        return getCountByMaterialId(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #getCountByMaterialId(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the parent material
+     * @return The number of questions for that material
+     */
     @Query("SELECT COUNT(*) FROM questions WHERE materialId = :materialId")
-    int getCountByMaterialId(String materialId);
+    int getCountByMaterialId(byte[] materialId);
 }
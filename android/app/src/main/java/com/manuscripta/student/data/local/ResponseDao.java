@@ -5,6 +5,7 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.manuscripta.student.data.model.ResponseEntity;
@@ -32,8 +33,18 @@ public interface ResponseDao {
      * @param id The UUID of the response
      * @return The response entity, or null if not found
      */
+    default ResponseEntity getById(String id) {
+        return getById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the response
+     * @return The response entity, or null if not found
+     */
     @Query("SELECT * FROM responses WHERE id = :id")
-    ResponseEntity getById(String id);
+    ResponseEntity getById(byte[] id);
 
     /**
      * Get all responses for a specific question.
@@ -41,8 +52,54 @@ public interface ResponseDao {
      * @param questionId The UUID of the parent question
      * @return List of responses for that question
      */
+    default List<ResponseEntity> getByQuestionId(String questionId) {
+        return getByQuestionId(IdCodec.encode(questionId));
+    }
+
+    /**
+     * Same as {@link #getByQuestionId(String)}, with IDs in their stored form.
+     *
+     * @param questionId The UUID of the parent question
+     * @return List of responses for that question
+     */
     @Query("SELECT * FROM responses WHERE questionId = :questionId ORDER BY timestamp DESC")
-    List<ResponseEntity> getByQuestionId(String questionId);
+    List<ResponseEntity> getByQuestionId(byte[] questionId);
+
+    /**
+     * Get the IDs of all questions that have at least one stored response.
+     * Reads only the questionId index, not the response rows.
+     *
+     * @return The distinct question IDs
+     */
+    default List<String> getRespondedQuestionIds() {
+        return IdCodec.decodeAll(getRespondedQuestionKeys());
+    }
+
+    /**
+     * Same as {@link #getRespondedQuestionIds()}, with IDs in their stored form.
+     *
+     * @return The distinct question IDs
+     */
+    @Query("SELECT DISTINCT questionId FROM responses")
+    List<byte[]> getRespondedQuestionKeys();
+
+    /**
+     * Get the IDs of questions whose responses were pruned after syncing.
+     * Together with {@link #getRespondedQuestionIds()} these are every answered question.
+     *
+     * @return The tombstoned question IDs
+     */
+    default List<String> getTombstonedQuestionIds() {
+        return IdCodec.decodeAll(getTombstonedQuestionKeys());
+    }
+
+    /**
+     * Same as {@link #getTombstonedQuestionIds()}, with IDs in their stored form.
+     *
+     * @return The tombstoned question IDs
+     */
+    @Query("SELECT questionId FROM response_tombstones")
+    List<byte[]> getTombstonedQuestionKeys();
 
     /**
      * Get all unsynced responses (need to be sent to teacher app).
@@ -65,16 +122,34 @@ public interface ResponseDao {
      *
      * @param id The UUID of the response to mark as synced
      */
+    default void markSynced(String id) {
+        markSynced(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #markSynced(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the response to mark as synced
+     */
     @Query("UPDATE responses SET synced = 1 WHERE id = :id")
-    void markSynced(String id);
+    void markSynced(byte[] id);
 
     /**
      * Mark multiple responses as synced.
      *
      * @param ids List of response UUIDs to mark as synced
      */
+    default void markAllSynced(List<String> ids) {
+        markAllSyncedByKeys(IdCodec.encodeAll(ids));
+    }
+
+    /**
+     * Same as {@link #markAllSynced(List)}, with IDs in their stored form.
+     *
+     * @param ids List of response UUIDs to mark as synced
+     */
     @Query("UPDATE responses SET synced = 1 WHERE id IN (:ids)")
-    void markAllSynced(List<String> ids);
+    void markAllSyncedByKeys(List<byte[]> ids);
 
     /**
      * Insert a new response into the database.
@@ -114,16 +189,34 @@ public interface ResponseDao {
      *
      * @param id The UUID of the response to delete
      */
+    default void deleteById(String id) {
+        deleteById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the response to delete
+     */
     @Query("DELETE FROM responses WHERE id = :id")
-    void deleteById(String id);
+    void deleteById(byte[] id);
 
     /**
      * Delete all responses for a specific question.
      *
      * @param questionId The UUID of the parent question
      */
+    default void deleteByQuestionId(String questionId) {
+        deleteByQuestionId(IdCodec.encode(questionId));
+    }
+
+    /**
+     * Same as {@link #deleteByQuestionId(String)}, with IDs in their stored form.
+     *
+     * @param questionId The UUID of the parent question
+     */
     @Query("DELETE FROM responses WHERE questionId = :questionId")
-    void deleteByQuestionId(String questionId);
+    void deleteByQuestionId(byte[] questionId);
 
     /**
      * Delete all responses from the database.
@@ -131,6 +224,62 @@ public interface ResponseDao {
     @Query("DELETE FROM responses")
     void deleteAll();
 
+    /**
+     * Record a tombstone for every question with a synced response older than the cutoff.
+     * Questions that already have one are skipped, which also removes duplicates without
+     * sorting the responses.
+     *
+     * @param cutoff Responses recorded before this time (Unix epoch milliseconds) are covered
+     */
+    @Query("INSERT OR IGNORE INTO response_tombstones (questionId) "
+            + "SELECT questionId FROM responses WHERE synced = 1 AND timestamp < :cutoff")
+    void tombstoneSyncedBefore(long cutoff);
+
+    /**
+     * Delete synced responses older than the cutoff. Their feedback is deleted with them.
+     *
+     * @param cutoff Responses recorded before this time (Unix epoch milliseconds) are deleted
+     * @return The number of responses deleted
+     */
+    @Query("DELETE FROM responses WHERE synced = 1 AND timestamp < :cutoff")
+    int deleteSyncedBefore(long cutoff);
+
+    /**
+     * Delete synced responses older than the cutoff, leaving a tombstone for each question
+     * they answered so the question still counts as answered. Runs in one transaction.
+     *
+     * @param cutoff Responses recorded before this time (Unix epoch milliseconds) are pruned
+     * @return The number of responses deleted
+     */
+    @Transaction
+    default int pruneSyncedBefore(long cutoff) {
+        tombstoneSyncedBefore(cutoff);
+        return deleteSyncedBefore(cutoff);
+    }
+
+    /**
+     * Delete the tombstone of a question, if it has one.
+     *
+     * @param questionId The UUID of the question
+     */
+    default void deleteTombstone(String questionId) {
+        deleteTombstone(IdCodec.encode(questionId));
+    }
+
+    /**
+     * Same as {@link #deleteTombstone(String)}, with IDs in their stored form.
+     *
+     * @param questionId The UUID of the question
+     */
+    @Query("DELETE FROM response_tombstones WHERE questionId = :questionId")
+    void deleteTombstone(byte[] questionId);
+
+    /**
+     * Delete all tombstones.
+     */
+    @Query("DELETE FROM response_tombstones")
+    void deleteAllTombstones();
+
     /**
      * Get the count of all responses.
      *
@@ -145,6 +294,16 @@ public interface ResponseDao {
      * @param questionId The UUID of the parent question
      * @return The number of responses for that question
      */
+    default int getCountByQuestionId(String questionId) {
+        return getCountByQuestionId(IdCodec.encode(questionId));
+    }
+
+    /**
+     * Same as {@link #getCountByQuestionId(String)}, with IDs in their stored form.
+     *
+     * @param questionId The UUID of the parent question
+     * @return The number of responses for that question
+     */
     @Query("SELECT COUNT(*) FROM responses WHERE questionId = :questionId")
-    int getCountByQuestionId(String questionId);
+    int getCountByQuestionId(byte[] questionId);
 }
@@ -1,10 +1,13 @@
 package com.manuscripta.student.data.local;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.manuscripta.student.data.model.SessionEntity;
@@ -33,8 +36,18 @@ public interface SessionDao {
      * @param id The UUID of the session
      * @return The session entity, or null if not found
      */
+    default SessionEntity getById(String id) {
+        return getById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #getById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the session
+     * @return The session entity, or null if not found
+     */
     @Query("SELECT * FROM sessions WHERE id = :id")
-    SessionEntity getById(String id);
+    SessionEntity getById(byte[] id);
 
     /**
      * Get all sessions for a specific material.
@@ -42,8 +55,18 @@ public interface SessionDao {
      * @param materialId The UUID of the material
      * @return List of sessions for that material
      */
+    default List<SessionEntity> getByMaterialId(String materialId) {
+        return getByMaterialId(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #getByMaterialId(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the material
+     * @return List of sessions for that material
+     */
     @Query("SELECT * FROM sessions WHERE materialId = :materialId ORDER BY startTime DESC")
-    List<SessionEntity> getByMaterialId(String materialId);
+    List<SessionEntity> getByMaterialId(byte[] materialId);
 
     /**
      * Get all sessions with a specific status.
@@ -54,6 +77,25 @@ public interface SessionDao {
     @Query("SELECT * FROM sessions WHERE status = :status ORDER BY startTime DESC")
     List<SessionEntity> getByStatus(SessionStatus status);
 
+    /**
+     * Get the IDs of materials that have at least one session in any of the given statuses.
+     *
+     * @param statuses The session statuses to match
+     * @return The distinct material IDs
+     */
+    default List<String> getMaterialIdsWithStatus(List<SessionStatus> statuses) {
+        return IdCodec.decodeAll(getMaterialKeysWithStatus(statuses));
+    }
+
+    /**
+     * Same as {@link #getMaterialIdsWithStatus(List)}, with IDs in their stored form.
+     *
+     * @param statuses The session statuses to match
+     * @return The distinct material IDs
+     */
+    @Query("SELECT DISTINCT materialId FROM sessions WHERE status IN (:statuses)")
+    List<byte[]> getMaterialKeysWithStatus(List<SessionStatus> statuses);
+
     /**
      * Get the currently active session (if any).
      *
@@ -68,8 +110,18 @@ public interface SessionDao {
      * @param deviceId The device identifier
      * @return List of sessions for that device
      */
+    default List<SessionEntity> getByDeviceId(String deviceId) {
+        return getByDeviceId(IdCodec.encode(deviceId));
+    }
+
+    /**
+     * Same as {@link #getByDeviceId(String)}, with IDs in their stored form.
+     *
+     * @param deviceId The device identifier
+     * @return List of sessions for that device
+     */
     @Query("SELECT * FROM sessions WHERE deviceId = :deviceId ORDER BY startTime DESC")
-    List<SessionEntity> getByDeviceId(String deviceId);
+    List<SessionEntity> getByDeviceId(byte[] deviceId);
 
     /**
      * Update the status of a session.
@@ -77,8 +129,18 @@ public interface SessionDao {
      * @param id The UUID of the session
      * @param status The new status
      */
+    default void updateStatus(String id, SessionStatus status) {
+        updateStatus(IdCodec.encode(id), status);
+    }
+
+    /**
+     * Same as {@link #updateStatus(String, SessionStatus)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the session
+     * @param status The new status
+     */
     @Query("UPDATE sessions SET status = :status WHERE id = :id")
-    void updateStatus(String id, SessionStatus status);
+    void updateStatus(byte[] id, SessionStatus status);
 
     /**
      * End a session by setting its end time and status.
@@ -87,8 +149,19 @@ public interface SessionDao {
      * @param endTime The end timestamp
      * @param status The final status (COMPLETED or CANCELLED)
      */
+    default void endSession(String id, long endTime, SessionStatus status) {
+        endSession(IdCodec.encode(id), endTime, status);
+    }
+
+    /**
+     * Same as {@link #endSession(String, long, SessionStatus)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the session
+     * @param endTime The end timestamp
+     * @param status The final status (COMPLETED or CANCELLED)
+     */
     @Query("UPDATE sessions SET endTime = :endTime, status = :status WHERE id = :id")
-    void endSession(String id, long endTime, SessionStatus status);
+    void endSession(byte[] id, long endTime, SessionStatus status);
 
     /**
      * Activate a session by setting its start time and transitioning to ACTIVE status.
@@ -97,8 +170,18 @@ public interface SessionDao {
      * @param id The UUID of the session
      * @param startTime The start timestamp
      */
+    default void activateSession(String id, long startTime) {
+        activateSession(IdCodec.encode(id), startTime);
+    }
+
+    /**
+     * Same as {@link #activateSession(String, long)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the session
+     * @param startTime The start timestamp
+     */
     @Query("UPDATE sessions SET startTime = :startTime, status = 'ACTIVE' WHERE id = :id")
-    void activateSession(String id, long startTime);
+    void activateSession(byte[] id, long startTime);
 
     /**
      * Insert a new session into the database.
@@ -125,6 +208,32 @@ public interface SessionDao {
     @Update
     void update(SessionEntity session);
 
+    /**
+     * Update several existing sessions. Rows that no longer exist are skipped.
+     *
+     * @param sessions The sessions with updated values
+     */
+    @Update
+    void updateAll(List<SessionEntity> sessions);
+
+    /**
+     * Apply one session lifecycle transition in a single transaction: update the
+     * sessions whose state changed and, optionally, insert a new one.
+     *
+     * @param updated  The existing sessions with their new values
+     * @param inserted A newly created session, or null
+     */
+    @Transaction
+    default void applyTransition(@NonNull List<SessionEntity> updated,
+                                 @Nullable SessionEntity inserted) {
+        if (!updated.isEmpty()) {
+            updateAll(updated);
+        }
+        if (inserted != null) {
+            insert(inserted);
+        }
+    }
+
     /**
      * Delete a session from the database.
      *
@@ -138,16 +247,45 @@ public interface SessionDao {
      *
      * @param id The UUID of the session to delete
      */
+    default void deleteById(String id) {
+        deleteById(IdCodec.encode(id));
+    }
+
+    /**
+     * Same as {@link #deleteById(String)}, with IDs in their stored form.
+     *
+     * @param id The UUID of the session to delete
+     */
     @Query("DELETE FROM sessions WHERE id = :id")
-    void deleteById(String id);
+    void deleteById(byte[] id);
 
     /**
      * Delete all sessions for a specific material.
      *
      * @param materialId The UUID of the material
      */
+    default void deleteByMaterialId(String materialId) {
+        deleteByMaterialId(IdCodec.encode(materialId));
+    }
+
+    /**
+     * Same as {@link #deleteByMaterialId(String)}, with IDs in their stored form.
+     *
+     * @param materialId The UUID of the material
+     */
     @Query("DELETE FROM sessions WHERE materialId = :materialId")
-    void deleteByMaterialId(String materialId);
+    void deleteByMaterialId(byte[] materialId);
+
+    /**
+     * Delete sessions in any of the given statuses that ended before the cutoff. A session
+     * without an end time counts as ending when it started.
+     *
+     * @param statuses The session statuses to match
+     * @param cutoff   Sessions ended before this time (Unix epoch milliseconds) are deleted
+     * @return The number of sessions deleted
+     */
+    @Query("DELETE FROM sessions WHERE status IN (:statuses) AND MAX(endTime, startTime) < :cutoff")
+    int deleteEndedBefore(List<SessionStatus> statuses, long cutoff);
 
     /**
      * Delete all sessions from the database.
@@ -1,6 +1,7 @@
 package com.manuscripta.student.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 
@@ -12,6 +13,7 @@ import androidx.room.PrimaryKey;
 public class DeviceStatusEntity {
 
     /** The unique identifier for the device. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private final String deviceId;
@@ -24,6 +26,7 @@ public class DeviceStatusEntity {
     private final int batteryLevel;
 
     /** The ID of the material currently being viewed (nullable). */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @androidx.annotation.Nullable
     private final String currentMaterialId;
 
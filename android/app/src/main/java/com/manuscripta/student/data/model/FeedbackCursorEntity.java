@@ -0,0 +1,49 @@
+package com.manuscripta.student.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity holding the feedback high-water mark for a device.
+ *
+ * <p>The cursor is an opaque value issued by the teacher server with each feedback
+ * response. It is sent back on the next fetch so that only newer feedback is returned.
+ * Cursors are keyed by device ID, so re-pairing under a new ID starts from the
+ * beginning.</p>
+ */
+@Entity(tableName = "feedback_cursors")
+public class FeedbackCursorEntity {
+
+    /** The device ID the cursor was issued for. */
+    @PrimaryKey
+    @NonNull
+    private final String deviceId;
+
+    /** The opaque cursor returned by the server with the last stored feedback. */
+    @NonNull
+    private final String cursor;
+
+    /**
+     * Constructor used by Room and by the feedback sync.
+     *
+     * @param deviceId The device ID the cursor was issued for
+     * @param cursor   The opaque cursor returned by the server
+     */
+    public FeedbackCursorEntity(@NonNull String deviceId, @NonNull String cursor) {
+        this.deviceId = deviceId;
+        this.cursor = cursor;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    @NonNull
+    public String getCursor() {
+        return cursor;
+    }
+}
@@ -2,6 +2,7 @@ package com.manuscripta.student.data.model;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -30,11 +31,13 @@ import androidx.room.PrimaryKey;
 public class FeedbackEntity {
 
     /** The unique identifier for the feedback (UUID assigned by Windows). */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private final String id;
 
     /** The ID of the response this feedback is for. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private final String responseId;
 
@@ -0,0 +1,47 @@
+package com.manuscripta.student.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Room query result pairing a feedback item with the title of the material it belongs to.
+ *
+ * <p>Returned by {@code FeedbackDao.getMaterialTitles()}, which resolves the
+ * feedback → response → question → material chain in a single JOIN instead of three
+ * point queries per feedback item.</p>
+ */
+public class FeedbackMaterialTitleTuple {
+
+    /** Unique identifier of the feedback (UUID format). */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
+    @NonNull
+    private final String feedbackId;
+
+    /** Title of the material the feedback's question belongs to. */
+    @NonNull
+    private final String materialTitle;
+
+    /**
+     * Constructor used by Room. Parameter names match the selected column names.
+     *
+     * @param feedbackId    Unique identifier of the feedback (UUID)
+     * @param materialTitle Title of the material
+     */
+    public FeedbackMaterialTitleTuple(@NonNull String feedbackId,
+                                      @NonNull String materialTitle) {
+        this.feedbackId = feedbackId;
+        this.materialTitle = materialTitle;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getFeedbackId() {
+        return feedbackId;
+    }
+
+    @NonNull
+    public String getMaterialTitle() {
+        return materialTitle;
+    }
+}
@@ -1,7 +1,10 @@
 package com.manuscripta.student.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 
 /**
@@ -11,6 +14,10 @@ import androidx.room.PrimaryKey;
  * <p>Entity IDs are persistent across services - materials created by the Windows teacher
  * application will have IDs assigned by that application, and the Android client preserves
  * these IDs when receiving materials via the network layer.</p>
+ *
+ * <p>Long content is kept out of the row: {@code content} is then null and
+ * {@code contentHash} names the compressed file holding it, as written by
+ * {@code MaterialContentStore}.</p>
  */
 @Entity(tableName = "materials")
 public class MaterialEntity {
@@ -19,6 +26,7 @@ public class MaterialEntity {
      * Unique identifier for this material (UUID format).
      * Assigned by the creator (Windows teacher app) and preserved across services.
      */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private final String id;
@@ -36,10 +44,19 @@ public class MaterialEntity {
     private final String title;
 
     /**
-     * The main content of the material (can include formatted text, HTML, etc.).
+     * The main content of the material (can include formatted text, HTML, etc.),
+     * or null if it is stored outside the row.
      */
+    @Nullable
     private final String content;
 
+    /**
+     * The SHA-256 hash of the content stored outside the row, or null if the content
+     * is inline.
+     */
+    @Nullable
+    private final String contentHash;
+
     /**
      * Additional metadata in JSON format (e.g., author, subject, grade level).
      */
@@ -57,7 +74,7 @@ public class MaterialEntity {
     private final long timestamp;
 
     /**
-     * Constructor with required fields.
+     * Constructor for a material whose content is inline.
      *
      * @param id    Unique identifier (UUID)
      * @param type  Type of material
@@ -67,6 +84,7 @@ public class MaterialEntity {
      * @param vocabularyTerms Key vocabulary terms in JSON array
      * @param timestamp Timestamp when the material was created or last modified
      */
+    @Ignore
     public MaterialEntity(@NonNull String id,
                           @NonNull MaterialType type,
                           @NonNull String title,
@@ -74,10 +92,34 @@ public class MaterialEntity {
                           @NonNull String metadata,
                           @NonNull String vocabularyTerms,
                           long timestamp) {
+        this(id, type, title, content, null, metadata, vocabularyTerms, timestamp);
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param id    Unique identifier (UUID)
+     * @param type  Type of material
+     * @param title Title of the material
+     * @param content Main content of the material, or null if stored outside the row
+     * @param contentHash Hash of the content stored outside the row, or null if inline
+     * @param metadata Additional metadata in JSON format
+     * @param vocabularyTerms Key vocabulary terms in JSON array
+     * @param timestamp Timestamp when the material was created or last modified
+     */
+    public MaterialEntity(@NonNull String id,
+                          @NonNull MaterialType type,
+                          @NonNull String title,
+                          @Nullable String content,
+                          @Nullable String contentHash,
+                          @NonNull String metadata,
+                          @NonNull String vocabularyTerms,
+                          long timestamp) {
         this.id = id;
         this.type = type;
         this.title = title;
         this.content = content;
+        this.contentHash = contentHash;
         this.metadata = metadata;
         this.vocabularyTerms = vocabularyTerms;
         this.timestamp = timestamp;
@@ -100,11 +142,16 @@ public class MaterialEntity {
         return title;
     }
 
-
+    @Nullable
     public String getContent() {
         return content;
     }
 
+    @Nullable
+    public String getContentHash() {
+        return contentHash;
+    }
+
     public String getMetadata() {
         return metadata;
     }
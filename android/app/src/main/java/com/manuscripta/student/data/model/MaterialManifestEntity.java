@@ -0,0 +1,59 @@
+package com.manuscripta.student.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity recording the content hash of each stored material.
+ *
+ * <p>The hash covers the material as distributed together with its questions, so a
+ * redistribution of unchanged content can be recognised without comparing or rewriting
+ * the material and question rows. Rows are removed with their material.</p>
+ */
+@Entity(
+    tableName = "material_manifest",
+    foreignKeys = @ForeignKey(
+        entity = MaterialEntity.class,
+        parentColumns = "id",
+        childColumns = "materialId",
+        onDelete = ForeignKey.CASCADE
+    )
+)
+public class MaterialManifestEntity {
+
+    /** The ID of the material this entry describes. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
+    @PrimaryKey
+    @NonNull
+    private final String materialId;
+
+    /** Hex-encoded SHA-256 of the material and its questions as last received. */
+    @NonNull
+    private final String contentHash;
+
+    /**
+     * Constructor used by Room and by the distribution sync.
+     *
+     * @param materialId  The ID of the material this entry describes
+     * @param contentHash Hex-encoded SHA-256 of the material and its questions
+     */
+    public MaterialManifestEntity(@NonNull String materialId, @NonNull String contentHash) {
+        this.materialId = materialId;
+        this.contentHash = contentHash;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    @NonNull
+    public String getContentHash() {
+        return contentHash;
+    }
+}
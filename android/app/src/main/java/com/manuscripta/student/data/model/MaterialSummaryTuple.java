@@ -0,0 +1,69 @@
+package com.manuscripta.student.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Room query result holding the list columns of a material row.
+ *
+ * <p>Returned by {@code MaterialDao.getAllSummaries()} so that list views can be built
+ * without reading the {@code content}, {@code metadata} and {@code vocabularyTerms}
+ * columns, which dominate the size of a material.</p>
+ */
+public class MaterialSummaryTuple {
+
+    /** Unique identifier for the material (UUID format). */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
+    @NonNull
+    private final String id;
+
+    /** The type of material (READING, WORKSHEET, POLL). */
+    @NonNull
+    private final MaterialType type;
+
+    /** The title of the material. */
+    @NonNull
+    private final String title;
+
+    /** Timestamp when the material was created or last modified (Unix epoch milliseconds). */
+    private final long timestamp;
+
+    /**
+     * Constructor used by Room. Parameter names match the selected column names.
+     *
+     * @param id        Unique identifier (UUID)
+     * @param type      Type of material
+     * @param title     Title of the material
+     * @param timestamp Timestamp when the material was created or last modified
+     */
+    public MaterialSummaryTuple(@NonNull String id,
+                                @NonNull MaterialType type,
+                                @NonNull String title,
+                                long timestamp) {
+        this.id = id;
+        this.type = type;
+        this.title = title;
+        this.timestamp = timestamp;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public MaterialType getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
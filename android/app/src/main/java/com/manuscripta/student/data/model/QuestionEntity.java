@@ -28,11 +28,13 @@ import androidx.room.PrimaryKey;
 public class QuestionEntity {
 
     /** The unique identifier for the question. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private String id;
 
     /** The ID of the material this question belongs to. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private String materialId;
 
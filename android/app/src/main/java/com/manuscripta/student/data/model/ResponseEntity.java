@@ -1,6 +1,7 @@
 package com.manuscripta.student.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -21,16 +22,25 @@ import androidx.room.PrimaryKey;
         childColumns = "questionId",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = @Index("questionId")
+    indices = {
+        // Per-question history, newest first; also covers the foreign key
+        @Index({"questionId", "timestamp"}),
+        // Sync queue: unsynced responses in submission order
+        @Index({"synced", "timestamp"}),
+        // Feedback lookups join on the submitting device
+        @Index("deviceId")
+    }
 )
 public class ResponseEntity {
 
     /** The unique identifier for the response. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private final String id;
 
     /** The ID of the question this response is for. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private final String questionId;
 
@@ -48,6 +58,7 @@ public class ResponseEntity {
     private final boolean synced;
 
     /** The device identifier for the tablet that submitted this response. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private final String deviceId;
 
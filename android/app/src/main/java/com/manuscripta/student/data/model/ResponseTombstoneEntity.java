@@ -0,0 +1,49 @@
+package com.manuscripta.student.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity recording that a question was answered, after its synced responses have been
+ * pruned by the retention policy.
+ *
+ * <p>The duplicate-answer check treats a tombstoned question as answered, so pruning old
+ * responses never lets the student submit a second answer. Rows are removed with their
+ * question.</p>
+ */
+@Entity(
+    tableName = "response_tombstones",
+    foreignKeys = @ForeignKey(
+        entity = QuestionEntity.class,
+        parentColumns = "id",
+        childColumns = "questionId",
+        onDelete = ForeignKey.CASCADE
+    )
+)
+public class ResponseTombstoneEntity {
+
+    /** The ID of the answered question. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
+    @PrimaryKey
+    @NonNull
+    private final String questionId;
+
+    /**
+     * Constructor used by Room and by the retention policy.
+     *
+     * @param questionId The ID of the answered question
+     */
+    public ResponseTombstoneEntity(@NonNull String questionId) {
+        this.questionId = questionId;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getQuestionId() {
+        return questionId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.manuscripta.student.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -21,16 +22,23 @@ import androidx.room.PrimaryKey;
         childColumns = "materialId",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = @Index("materialId")
+    indices = {
+        // Sessions of a material, newest first; also covers the foreign key
+        @Index({"materialId", "startTime"}),
+        // Active-session lookups and status filters, newest first
+        @Index({"status", "startTime"})
+    }
 )
 public class SessionEntity {
 
     /** The unique identifier for the session. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @PrimaryKey
     @NonNull
     private final String id;
 
     /** The ID of the material this session is associated with. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private final String materialId;
 
@@ -45,6 +53,7 @@ public class SessionEntity {
     private final SessionStatus status;
 
     /** The identifier of the device running the session. */
+    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
     @NonNull
     private final String deviceId;
 
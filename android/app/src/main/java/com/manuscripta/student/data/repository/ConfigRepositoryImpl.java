@@ -4,6 +4,8 @@ import android.content.SharedPreferences;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
@@ -21,6 +23,7 @@ import com.manuscripta.student.network.tcp.TcpProtocolException;
 import com.manuscripta.student.network.tcp.message.RefreshConfigMessage;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -33,6 +36,14 @@ import retrofit2.Response;
  *
  * <p>This repository listens for REFRESH_CONFIG TCP messages and automatically
  * triggers a configuration refresh when received.</p>
+ *
+ * <p><b>Configuration Snapshot:</b> The configuration is read from SharedPreferences once,
+ * on a background thread started by the constructor, and then held as an immutable
+ * {@link Configuration}. {@link #getConfig()} returns that snapshot without touching
+ * SharedPreferences; if it is called before the background load finishes, it loads the
+ * snapshot itself. Storing a configuration replaces the snapshot atomically. A fetched
+ * configuration equal to the current one is neither written nor posted, so an unchanged
+ * REFRESH_CONFIG causes no downstream work.</p>
  */
 @Singleton
 public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListener {
@@ -72,8 +83,16 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
     /** Observable LiveData for configuration changes. */
     private final MutableLiveData<Configuration> configLiveData = new MutableLiveData<>();
 
+    /** Serialises loading and replacing {@link #snapshot}, and the LiveData posts that go with it. */
+    private final Object lock = new Object();
+
+    /** The current configuration, or null until it has been loaded from SharedPreferences. */
+    @Nullable
+    private volatile Configuration snapshot;
+
     /**
-     * Creates a new ConfigRepositoryImpl.
+     * Creates a new ConfigRepositoryImpl and starts loading the stored configuration on a
+     * background thread.
      *
      * @param preferences      The SharedPreferences for persistence
      * @param apiService       The Retrofit API service
@@ -83,11 +102,31 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
     public ConfigRepositoryImpl(@NonNull SharedPreferences preferences,
                                 @NonNull ApiService apiService,
                                 @NonNull TcpSocketManager tcpSocketManager) {
+        this(preferences, apiService, tcpSocketManager, ConfigRepositoryImpl::runInBackground);
+    }
+
+    /**
+     * Creates a new ConfigRepositoryImpl that preloads the configuration on the given executor.
+     *
+     * @param preferences      The SharedPreferences for persistence
+     * @param apiService       The Retrofit API service
+     * @param tcpSocketManager The TCP socket manager for receiving messages
+     * @param preloadExecutor  Runs the initial load of the stored configuration
+     */
+    @VisibleForTesting
+    ConfigRepositoryImpl(@NonNull SharedPreferences preferences,
+                         @NonNull ApiService apiService,
+                         @NonNull TcpSocketManager tcpSocketManager,
+                         @NonNull Executor preloadExecutor) {
         this.preferences = preferences;
         this.apiService = apiService;
         this.tcpSocketManager = tcpSocketManager;
         this.tcpSocketManager.addMessageListener(this);
-        this.configLiveData.setValue(readConfigFromPreferences());
+        preloadExecutor.execute(() -> {
+            synchronized (lock) {
+                configLiveData.postValue(loadedConfig());
+            }
+        });
     }
 
     @Override
@@ -125,16 +164,18 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
         Configuration config = ConfigurationMapper.fromDto(dto);
 
         // Store in SharedPreferences
-        storeConfig(config);
-
-        Log.i(TAG, "Configuration fetched and stored successfully");
+        if (storeConfig(config)) {
+            Log.i(TAG, "Configuration fetched and stored successfully");
+        } else {
+            Log.d(TAG, "Fetched configuration is unchanged");
+        }
     }
 
     @Override
     @NonNull
     public Configuration getConfig() {
         checkNotDestroyed();
-        return readConfigFromPreferences();
+        return loadedConfig();
     }
 
     @Override
@@ -144,6 +185,25 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
         return configLiveData;
     }
 
+    /**
+     * Gets the configuration snapshot, reading it from SharedPreferences on first use.
+     *
+     * @return The current configuration
+     */
+    @NonNull
+    private Configuration loadedConfig() {
+        Configuration current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (snapshot == null) {
+                snapshot = readConfigFromPreferences();
+            }
+            return snapshot;
+        }
+    }
+
     /**
      * Reads the current configuration from SharedPreferences.
      *
@@ -204,6 +264,14 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
         editor.remove(KEY_HAS_CONFIG);
         editor.apply();
 
+        Configuration defaults = Configuration.createDefault();
+        synchronized (lock) {
+            if (!defaults.equals(snapshot)) {
+                snapshot = defaults;
+                configLiveData.postValue(defaults);
+            }
+        }
+
         Log.i(TAG, "Configuration cleared");
     }
 
@@ -214,11 +282,32 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
     }
 
     /**
-     * Stores a Configuration to SharedPreferences.
+     * Stores a Configuration to SharedPreferences and replaces the snapshot, unless it is
+     * equal to the current configuration.
      *
      * @param config The configuration to store
+     * @return true if the configuration changed, false if it was equal and nothing was done
+     */
+    private boolean storeConfig(@NonNull Configuration config) {
+        synchronized (lock) {
+            // hasStoredConfig() must become true, so defaults that were never written are
+            // still written
+            if (config.equals(loadedConfig()) && preferences.getBoolean(KEY_HAS_CONFIG, false)) {
+                return false;
+            }
+            writeToPreferences(config);
+            snapshot = config;
+            configLiveData.postValue(config);
+            return true;
+        }
+    }
+
+    /**
+     * Writes a Configuration to SharedPreferences.
+     *
+     * @param config The configuration to write
      */
-    private void storeConfig(@NonNull Configuration config) {
+    private void writeToPreferences(@NonNull Configuration config) {
         SharedPreferences.Editor editor = preferences.edit();
         editor.putInt(KEY_TEXT_SIZE, config.getTextSize());
         editor.putString(KEY_FEEDBACK_STYLE, config.getFeedbackStyle().name());
@@ -228,8 +317,17 @@ public class ConfigRepositoryImpl implements ConfigRepository, TcpMessageListene
         editor.putString(KEY_MASCOT_SELECTION, config.getMascotSelection().name());
         editor.putBoolean(KEY_HAS_CONFIG, true);
         editor.apply();
+    }
 
-        configLiveData.postValue(config);
+    /**
+     * Runs a task on a new daemon thread.
+     *
+     * @param task The task to run
+     */
+    private static void runInBackground(@NonNull Runnable task) {
+        Thread thread = new Thread(task, "config-preload");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     // ========== TcpMessageListener implementation ==========
@@ -22,6 +22,9 @@ public interface DeviceStatusRepository {
     /**
      * Gets the current device status for the specified device.
      *
+     * <p>The tracked device's status is served from memory without touching the
+     * database.</p>
+     *
      * @param deviceId The unique identifier of the device
      * @return The current device status, or null if not found
      */
@@ -43,6 +46,9 @@ public interface DeviceStatusRepository {
     /**
      * Updates the device status.
      *
+     * <p>The change is visible to readers at once and persisted with the next coalesced
+     * write; see {@link #flushPendingStatus()}.</p>
+     *
      * @param deviceId          The unique identifier of the device
      * @param status            The new device status
      * @param currentMaterialId The ID of the material currently being viewed (nullable)
@@ -115,7 +121,8 @@ public interface DeviceStatusRepository {
      *
      * <p>If the device already has a status in local storage, loads it and sets
      * this device as the currently tracked device. Otherwise, creates a new status
-     * with IDLE state and default values.</p>
+     * with IDLE state and default values. If the device is already tracked, returns
+     * without touching the database.</p>
      *
      * <p>Should be called when the app starts or when a device is first registered.</p>
      *
@@ -130,4 +137,13 @@ public interface DeviceStatusRepository {
      * @return The current battery level percentage (0-100)
      */
     int getCurrentBatteryLevel();
+
+    /**
+     * Starts writing every status change that is still waiting for its coalesced write and
+     * waits briefly for the write to finish. Safe to call from the main thread, for example
+     * from {@code onPause}: a write that outlasts the wait still completes in the background.
+     *
+     * @return true if every earlier change is now persisted, false if the wait timed out
+     */
+    boolean flushPendingStatus();
 }
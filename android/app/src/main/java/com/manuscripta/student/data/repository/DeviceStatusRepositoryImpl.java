@@ -4,6 +4,7 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
@@ -12,6 +13,17 @@ import com.manuscripta.student.data.model.DeviceStatus;
 import com.manuscripta.student.data.model.DeviceStatusEntity;
 import com.manuscripta.student.domain.mapper.DeviceStatusMapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -21,11 +33,22 @@ import javax.inject.Singleton;
  *
  * <p>Features:</p>
  * <ul>
- *   <li>Local persistence via Room DAO</li>
+ *   <li>Local persistence via Room DAO, coalesced to one write per interval</li>
  *   <li>Observable status via LiveData for UI updates</li>
  *   <li>Battery level tracking</li>
  *   <li>Thread-safe operations</li>
  * </ul>
+ *
+ * <p><b>Status Snapshot:</b> The tracked device's status and the battery level live in an
+ * immutable {@link Snapshot} that is replaced whole on every change. Heartbeats and the UI
+ * read the snapshot without locking or touching the database. Writers are serialised on
+ * a lock, so a battery tick and a status transition never lose each other's update.</p>
+ *
+ * <p><b>Persistence:</b> Changed statuses are queued per device, and the latest status of
+ * each device is written together in one {@link DeviceStatusDao#insertAll} call at most
+ * once every {@code persistIntervalMs}. The database copy only matters after a restart,
+ * so a status changed within the last interval may be lost if the process is killed.
+ * {@link #flushPendingStatus()} writes the queue at once, for lifecycle events.</p>
  */
 @Singleton
 public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
@@ -36,21 +59,46 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
     /** Default battery level when not yet monitored. */
     private static final int DEFAULT_BATTERY_LEVEL = 100;
 
+    /** Default minimum time between two writes of the status queue. */
+    static final long DEFAULT_PERSIST_INTERVAL_MS = 5000L;
+
+    /**
+     * Longest time {@link #flushPendingStatus()} blocks the caller. Kept short, since it runs
+     * on the main thread; the write carries on in the background after the wait.
+     */
+    private static final long FLUSH_TIMEOUT_MS = 250L;
+
     /** The DAO for device status persistence. */
     private final DeviceStatusDao deviceStatusDao;
 
-    /** Lock object for thread-safe operations. */
+    /** Minimum time between two writes of the status queue. */
+    private final long persistIntervalMs;
+
+    /** Runs the coalesced writes. */
+    private final ScheduledExecutorService persistExecutor;
+
+    /** Serialises changes to {@link #snapshot} and guards {@link #pendingWrites}. */
     private final Object lock = new Object();
 
+    /**
+     * Serialises database writes and deletes, so a queued write can never land after a
+     * delete of the same device. Always taken before {@link #lock}, never after it.
+     */
+    private final Object persistLock = new Object();
+
     /** LiveData for observable device status. */
     private final MutableLiveData<com.manuscripta.student.domain.model.DeviceStatus> statusLiveData;
 
-    /** The current device ID being tracked. */
-    @Nullable
-    private String currentDeviceId;
+    /** The current state, replaced whole under {@link #lock}. */
+    @NonNull
+    private volatile Snapshot snapshot = Snapshot.INITIAL;
 
-    /** The current battery level. */
-    private int currentBatteryLevel = DEFAULT_BATTERY_LEVEL;
+    /** Statuses waiting to be written, latest per device. Guarded by {@link #lock}. */
+    private Map<String, com.manuscripta.student.domain.model.DeviceStatus> pendingWrites =
+            new LinkedHashMap<>();
+
+    /** Whether a write of {@link #pendingWrites} is already scheduled. Guarded by {@link #lock}. */
+    private boolean persistScheduled;
 
     /**
      * Creates a new DeviceStatusRepositoryImpl with the given DAO.
@@ -60,10 +108,28 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
      */
     @Inject
     public DeviceStatusRepositoryImpl(@NonNull DeviceStatusDao deviceStatusDao) {
+        this(deviceStatusDao, DEFAULT_PERSIST_INTERVAL_MS);
+    }
+
+    /**
+     * Creates a new DeviceStatusRepositoryImpl with a custom persistence interval.
+     *
+     * @param deviceStatusDao   The DAO for device status persistence
+     * @param persistIntervalMs Minimum time between two writes of the status queue
+     * @throws IllegalArgumentException if deviceStatusDao is null or persistIntervalMs is
+     *                                  negative
+     */
+    @VisibleForTesting
+    DeviceStatusRepositoryImpl(@NonNull DeviceStatusDao deviceStatusDao, long persistIntervalMs) {
         if (deviceStatusDao == null) {
             throw new IllegalArgumentException("DeviceStatusDao cannot be null");
         }
+        if (persistIntervalMs < 0) {
+            throw new IllegalArgumentException("Persist interval cannot be negative");
+        }
         this.deviceStatusDao = deviceStatusDao;
+        this.persistIntervalMs = persistIntervalMs;
+        this.persistExecutor = Executors.newSingleThreadScheduledExecutor();
         this.statusLiveData = new MutableLiveData<>();
     }
 
@@ -73,13 +139,21 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
             @NonNull String deviceId) {
         validateNotEmpty(deviceId, "Device ID");
 
+        com.manuscripta.student.domain.model.DeviceStatus tracked = snapshot.tracked;
+        if (tracked != null && tracked.getDeviceId().equals(deviceId)) {
+            return tracked;
+        }
         synchronized (lock) {
-            DeviceStatusEntity entity = deviceStatusDao.getById(deviceId);
-            if (entity == null) {
-                return null;
+            com.manuscripta.student.domain.model.DeviceStatus pending = pendingWrites.get(deviceId);
+            if (pending != null) {
+                return pending;
             }
-            return DeviceStatusMapper.toDomain(entity);
         }
+        DeviceStatusEntity entity = deviceStatusDao.getById(deviceId);
+        if (entity == null) {
+            return null;
+        }
+        return DeviceStatusMapper.toDomain(entity);
     }
 
     @Override
@@ -99,37 +173,17 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
         }
 
         synchronized (lock) {
-            updateStatusInternal(deviceId, status, currentMaterialId, studentView);
+            com.manuscripta.student.domain.model.DeviceStatus domainStatus =
+                    com.manuscripta.student.domain.model.DeviceStatus.create(
+                            deviceId,
+                            status,
+                            snapshot.batteryLevel,
+                            currentMaterialId,
+                            studentView
+                    );
+            track(domainStatus, domainStatus.getBatteryLevel());
+            queueWrite(domainStatus);
         }
-    }
-
-    /**
-     * Internal method to update device status. Must be called while holding {@link #lock}.
-     * Extracted to be called from within synchronized blocks such as initialiseDeviceStatus.
-     *
-     * @param deviceId          The unique identifier of the device
-     * @param status            The new device status
-     * @param currentMaterialId The ID of the material currently being viewed (nullable)
-     * @param studentView       The current student view state (nullable)
-     */
-    private void updateStatusInternal(@NonNull String deviceId,
-                                      @NonNull DeviceStatus status,
-                                      @Nullable String currentMaterialId,
-                                      @Nullable String studentView) {
-        com.manuscripta.student.domain.model.DeviceStatus domainStatus =
-                com.manuscripta.student.domain.model.DeviceStatus.create(
-                        deviceId,
-                        status,
-                        currentBatteryLevel,
-                        currentMaterialId,
-                        studentView
-                );
-
-        DeviceStatusEntity entity = DeviceStatusMapper.toEntity(domainStatus);
-        deviceStatusDao.insert(entity);
-
-        currentDeviceId = deviceId;
-        statusLiveData.postValue(domainStatus);
 
         Log.d(TAG, "Updated status for device " + deviceId + " to " + status);
     }
@@ -146,36 +200,26 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
         }
 
         synchronized (lock) {
-            currentBatteryLevel = batteryLevel;
-
-            // Update the current device's status if we have one
-            if (currentDeviceId != null) {
-                DeviceStatusEntity currentEntity = deviceStatusDao.getById(currentDeviceId);
-                if (currentEntity != null) {
-                    com.manuscripta.student.domain.model.DeviceStatus updatedStatus =
-                            com.manuscripta.student.domain.model.DeviceStatus.create(
-                                    currentEntity.getDeviceId(),
-                                    currentEntity.getStatus(),
-                                    batteryLevel,
-                                    currentEntity.getCurrentMaterialId(),
-                                    currentEntity.getStudentView()
-                            );
-
-                    DeviceStatusEntity updatedEntity = DeviceStatusMapper.toEntity(updatedStatus);
-                    deviceStatusDao.insert(updatedEntity);
-                    statusLiveData.postValue(updatedStatus);
-
-                    Log.d(TAG, "Updated battery level to " + batteryLevel + "%");
-                } else {
-                    // Entity not found in database despite having currentDeviceId
-                    Log.w(TAG, "updateBatteryLevel: No entity found for device " + currentDeviceId
-                            + ". Battery level updated in memory only.");
-                }
-            } else {
+            Snapshot current = snapshot;
+            if (current.batteryLevel == batteryLevel) {
+                return;
+            }
+            com.manuscripta.student.domain.model.DeviceStatus tracked = current.tracked;
+            if (tracked == null) {
                 // No device currently tracked; battery level stored for next status update
-                Log.d(TAG, "updateBatteryLevel: No current device tracked. "
-                        + "Battery level (" + batteryLevel + "%) stored for next status update.");
+                snapshot = new Snapshot(null, batteryLevel);
+                return;
             }
+            com.manuscripta.student.domain.model.DeviceStatus updatedStatus =
+                    com.manuscripta.student.domain.model.DeviceStatus.create(
+                            tracked.getDeviceId(),
+                            tracked.getStatus(),
+                            batteryLevel,
+                            tracked.getCurrentMaterialId(),
+                            tracked.getStudentView()
+                    );
+            track(updatedStatus, batteryLevel);
+            queueWrite(updatedStatus);
         }
     }
 
@@ -203,43 +247,65 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
     public void clearDeviceStatus(@NonNull String deviceId) {
         validateNotEmpty(deviceId, "Device ID");
 
-        synchronized (lock) {
-            deviceStatusDao.deleteById(deviceId);
-            if (deviceId.equals(currentDeviceId)) {
-                currentDeviceId = null;
-                currentBatteryLevel = DEFAULT_BATTERY_LEVEL;
-                statusLiveData.postValue(null);
+        synchronized (persistLock) {
+            synchronized (lock) {
+                pendingWrites.remove(deviceId);
+                com.manuscripta.student.domain.model.DeviceStatus tracked = snapshot.tracked;
+                if (tracked != null && tracked.getDeviceId().equals(deviceId)) {
+                    snapshot = Snapshot.INITIAL;
+                    statusLiveData.postValue(null);
+                }
             }
-            Log.d(TAG, "Cleared status for device " + deviceId);
+            deviceStatusDao.deleteById(deviceId);
         }
+        Log.d(TAG, "Cleared status for device " + deviceId);
     }
 
     @Override
     public void clearAllDeviceStatus() {
-        synchronized (lock) {
+        synchronized (persistLock) {
+            synchronized (lock) {
+                pendingWrites.clear();
+                snapshot = Snapshot.INITIAL;
+                statusLiveData.postValue(null);
+            }
             deviceStatusDao.deleteAll();
-            currentDeviceId = null;
-            currentBatteryLevel = DEFAULT_BATTERY_LEVEL;
-            statusLiveData.postValue(null);
-            Log.d(TAG, "Cleared all device status records");
         }
+        Log.d(TAG, "Cleared all device status records");
     }
 
     @Override
     public void initialiseDeviceStatus(@NonNull String deviceId) {
         validateNotEmpty(deviceId, "Device ID");
 
+        com.manuscripta.student.domain.model.DeviceStatus tracked = snapshot.tracked;
+        if (tracked != null && tracked.getDeviceId().equals(deviceId)) {
+            // Already tracked, which is the case on every heartbeat after the first
+            return;
+        }
+
         synchronized (lock) {
-            DeviceStatusEntity existing = deviceStatusDao.getById(deviceId);
-            if (existing == null) {
-                // Use internal method to avoid reentrant locking
-                updateStatusInternal(deviceId, DeviceStatus.IDLE, null, null);
+            tracked = snapshot.tracked;
+            if (tracked != null && tracked.getDeviceId().equals(deviceId)) {
+                return;
+            }
+            com.manuscripta.student.domain.model.DeviceStatus known = pendingWrites.get(deviceId);
+            if (known == null) {
+                DeviceStatusEntity existing = deviceStatusDao.getById(deviceId);
+                if (existing != null) {
+                    known = DeviceStatusMapper.toDomain(existing);
+                }
+            }
+            if (known == null) {
+                com.manuscripta.student.domain.model.DeviceStatus idle =
+                        com.manuscripta.student.domain.model.DeviceStatus.create(
+                                deviceId, DeviceStatus.IDLE, snapshot.batteryLevel, null, null);
+                track(idle, idle.getBatteryLevel());
+                queueWrite(idle);
                 Log.d(TAG, "Initialised device status for " + deviceId);
             } else {
-                currentDeviceId = deviceId;
                 // Sync in-memory battery level with persisted value for consistency
-                currentBatteryLevel = existing.getBatteryLevel();
-                statusLiveData.postValue(DeviceStatusMapper.toDomain(existing));
+                track(known, known.getBatteryLevel());
                 Log.d(TAG, "Loaded existing status for device " + deviceId);
             }
         }
@@ -247,8 +313,106 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
 
     @Override
     public int getCurrentBatteryLevel() {
+        return snapshot.batteryLevel;
+    }
+
+    @Override
+    public boolean flushPendingStatus() {
+        Future<?> future;
+        try {
+            future = persistExecutor.submit(this::persistPending);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Persist executor rejected flush", e);
+            return false;
+        }
+        try {
+            future.get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            Log.w(TAG, "Status flush still running after " + FLUSH_TIMEOUT_MS + " ms");
+            return false;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Status flush did not complete", e);
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of devices whose latest status has not been written yet.
+     *
+     * @return The number of queued statuses
+     */
+    @VisibleForTesting
+    int getPendingWriteCount() {
         synchronized (lock) {
-            return currentBatteryLevel;
+            return pendingWrites.size();
+        }
+    }
+
+    /**
+     * Writes every queued status in one call. Runs on the persist executor.
+     *
+     * <p>If the write fails, statuses that have not been replaced in the meantime are
+     * queued again and retried after the next interval.</p>
+     */
+    private void persistPending() {
+        synchronized (persistLock) {
+            Map<String, com.manuscripta.student.domain.model.DeviceStatus> batch;
+            synchronized (lock) {
+                batch = pendingWrites;
+                pendingWrites = new LinkedHashMap<>();
+                persistScheduled = false;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<DeviceStatusEntity> entities = new ArrayList<>(batch.size());
+            for (com.manuscripta.student.domain.model.DeviceStatus status : batch.values()) {
+                entities.add(DeviceStatusMapper.toEntity(status));
+            }
+            try {
+                deviceStatusDao.insertAll(entities);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Writing " + entities.size() + " device statuses failed", e);
+                synchronized (lock) {
+                    for (Map.Entry<String, com.manuscripta.student.domain.model.DeviceStatus> entry
+                            : batch.entrySet()) {
+                        if (!pendingWrites.containsKey(entry.getKey())) {
+                            queueWrite(entry.getValue());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes a new tracked status. Must be called while holding {@link #lock}.
+     *
+     * @param status       The status of the tracked device
+     * @param batteryLevel The battery level to keep in memory
+     */
+    private void track(@NonNull com.manuscripta.student.domain.model.DeviceStatus status,
+                       int batteryLevel) {
+        snapshot = new Snapshot(status, batteryLevel);
+        statusLiveData.postValue(status);
+    }
+
+    /**
+     * Queues a status for the next coalesced write and schedules the write if none is
+     * pending. Must be called while holding {@link #lock}.
+     *
+     * @param status The status to persist
+     */
+    private void queueWrite(@NonNull com.manuscripta.student.domain.model.DeviceStatus status) {
+        pendingWrites.put(status.getDeviceId(), status);
+        if (!persistScheduled) {
+            persistScheduled = true;
+            persistExecutor.schedule(this::persistPending, persistIntervalMs,
+                    TimeUnit.MILLISECONDS);
         }
     }
 
@@ -264,4 +428,32 @@ public class DeviceStatusRepositoryImpl implements DeviceStatusRepository {
             throw new IllegalArgumentException(fieldName + " cannot be null or empty");
         }
     }
+
+    /**
+     * Immutable view of the tracked device's status and the battery level.
+     */
+    private static final class Snapshot {
+
+        /** State before any device is tracked. */
+        static final Snapshot INITIAL = new Snapshot(null, DEFAULT_BATTERY_LEVEL);
+
+        /** Status of the tracked device, or null if no device is tracked. */
+        @Nullable
+        final com.manuscripta.student.domain.model.DeviceStatus tracked;
+
+        /** The current battery level. */
+        final int batteryLevel;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param tracked      Status of the tracked device, or null
+         * @param batteryLevel The current battery level
+         */
+        Snapshot(@Nullable com.manuscripta.student.domain.model.DeviceStatus tracked,
+                 int batteryLevel) {
+            this.tracked = tracked;
+            this.batteryLevel = batteryLevel;
+        }
+    }
 }
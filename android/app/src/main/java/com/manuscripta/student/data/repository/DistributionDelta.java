@@ -0,0 +1,269 @@
+package com.manuscripta.student.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.manuscripta.student.network.dto.DistributionBundleDto;
+import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
+import com.manuscripta.student.network.json.DtoJson;
+import com.manuscripta.student.utils.Hashes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The difference between a received distribution bundle and the materials already stored.
+ *
+ * <p>Each material in the bundle is hashed together with its questions and compared with
+ * the hash recorded in the local manifest. Only new or changed materials need to be
+ * written, have their attachments downloaded, and get a session. The server API has no
+ * manifest exchange, so the full bundle is still transferred and the diff is computed
+ * here on the client.</p>
+ */
+public final class DistributionDelta {
+
+    /** Shared Gson used to serialise DTOs into a canonical form for hashing. */
+    private static final Gson GSON = DtoJson.getGson();
+
+    /** Separator between serialised DTOs in the hash input. */
+    private static final byte RECORD_SEPARATOR = 0x1E;
+
+    /** Orders questions by ID so that hashes do not depend on bundle order. */
+    private static final Comparator<QuestionDto> BY_ID = Comparator.comparing(
+            QuestionDto::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /** Materials whose hash is not in the manifest, in bundle order. */
+    private final List<MaterialDto> changedMaterials;
+
+    /** IDs of changed materials that are not in the manifest at all. */
+    private final List<String> newMaterialIds;
+
+    /** IDs of materials whose hash matches the manifest, in bundle order. */
+    private final List<String> unchangedMaterialIds;
+
+    /**
+     * Questions belonging to changed materials, plus questions whose material is stored but
+     * not in the bundle.
+     */
+    private final List<QuestionDto> changedQuestions;
+
+    /** Questions whose material is neither in the bundle nor stored, in bundle order. */
+    private final List<QuestionDto> droppedQuestions;
+
+    /** Content hash of every changed material, keyed by material ID. */
+    private final Map<String, String> contentHashes;
+
+    /**
+     * Creates a DistributionDelta.
+     *
+     * @param changedMaterials     Materials that need to be written
+     * @param newMaterialIds       IDs of changed materials that were not stored before
+     * @param unchangedMaterialIds IDs of materials that can be skipped
+     * @param changedQuestions     Questions that need to be written
+     * @param droppedQuestions     Questions that cannot be written
+     * @param contentHashes        Content hash of every changed material
+     */
+    private DistributionDelta(@NonNull List<MaterialDto> changedMaterials,
+                              @NonNull List<String> newMaterialIds,
+                              @NonNull List<String> unchangedMaterialIds,
+                              @NonNull List<QuestionDto> changedQuestions,
+                              @NonNull List<QuestionDto> droppedQuestions,
+                              @NonNull Map<String, String> contentHashes) {
+        this.changedMaterials = Collections.unmodifiableList(changedMaterials);
+        this.newMaterialIds = Collections.unmodifiableList(newMaterialIds);
+        this.unchangedMaterialIds = Collections.unmodifiableList(unchangedMaterialIds);
+        this.changedQuestions = Collections.unmodifiableList(changedQuestions);
+        this.droppedQuestions = Collections.unmodifiableList(droppedQuestions);
+        this.contentHashes = Collections.unmodifiableMap(contentHashes);
+    }
+
+    /**
+     * Computes the delta between a bundle and the local manifest.
+     *
+     * <p>A question whose material is neither in the bundle nor stored would violate the
+     * foreign key and abort the whole transaction it is written in, losing the valid
+     * materials written with it, so it is dropped here instead.</p>
+     *
+     * @param bundle   The received distribution bundle
+     * @param manifest Content hash of each stored material, keyed by material ID
+     * @return The delta
+     * @throws IllegalArgumentException if bundle or manifest is null
+     */
+    @NonNull
+    public static DistributionDelta compute(@NonNull DistributionBundleDto bundle,
+                                            @NonNull Map<String, String> manifest) {
+        if (bundle == null) {
+            throw new IllegalArgumentException("Bundle cannot be null");
+        }
+        if (manifest == null) {
+            throw new IllegalArgumentException("Manifest cannot be null");
+        }
+
+        List<MaterialDto> materials = bundle.getMaterials() != null
+                ? bundle.getMaterials() : Collections.emptyList();
+        List<QuestionDto> questions = bundle.getQuestions() != null
+                ? bundle.getQuestions() : Collections.emptyList();
+
+        Map<String, List<QuestionDto>> questionsByMaterial = new LinkedHashMap<>();
+        for (MaterialDto material : materials) {
+            if (material != null && material.getId() != null) {
+                questionsByMaterial.put(material.getId(), new ArrayList<>());
+            }
+        }
+        List<QuestionDto> orphanQuestions = new ArrayList<>();
+        List<QuestionDto> dropped = new ArrayList<>();
+        for (QuestionDto question : questions) {
+            if (question == null) {
+                continue;
+            }
+            String materialId = question.getMaterialId();
+            List<QuestionDto> group = materialId != null
+                    ? questionsByMaterial.get(materialId) : null;
+            if (group != null) {
+                group.add(question);
+            } else if (materialId != null && manifest.containsKey(materialId)) {
+                orphanQuestions.add(question);
+            } else {
+                dropped.add(question);
+            }
+        }
+
+        List<MaterialDto> changed = new ArrayList<>();
+        List<String> newIds = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        List<QuestionDto> changedQuestions = new ArrayList<>();
+        Map<String, String> hashes = new HashMap<>();
+        for (MaterialDto material : materials) {
+            if (material == null || material.getId() == null) {
+                // Let the mapper reject it so the failure is logged like any other bad DTO
+                if (material != null) {
+                    changed.add(material);
+                }
+                continue;
+            }
+            String id = material.getId();
+            List<QuestionDto> group = questionsByMaterial.get(id);
+            String hash = contentHash(material, group);
+            String known = manifest.get(id);
+            if (hash.equals(known)) {
+                unchanged.add(id);
+            } else if (!hashes.containsKey(id)) {
+                changed.add(material);
+                changedQuestions.addAll(group);
+                hashes.put(id, hash);
+                if (known == null) {
+                    newIds.add(id);
+                }
+            }
+        }
+        changedQuestions.addAll(orphanQuestions);
+
+        return new DistributionDelta(changed, newIds, unchanged, changedQuestions, dropped,
+                hashes);
+    }
+
+    /**
+     * Computes the content hash of a material and its questions.
+     *
+     * @param material  The material
+     * @param questions The questions referencing the material, in any order
+     * @return Hex-encoded SHA-256 of the canonical serialisation
+     */
+    @NonNull
+    public static String contentHash(@NonNull MaterialDto material,
+                                     @Nullable List<QuestionDto> questions) {
+        MessageDigest digest = Hashes.newSha256();
+        digest.update(GSON.toJson(material, MaterialDto.class).getBytes(StandardCharsets.UTF_8));
+        if (questions != null && !questions.isEmpty()) {
+            List<QuestionDto> sorted = new ArrayList<>(questions);
+            sorted.sort(BY_ID);
+            for (QuestionDto question : sorted) {
+                digest.update(RECORD_SEPARATOR);
+                digest.update(GSON.toJson(question, QuestionDto.class)
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return Hashes.toHex(digest.digest());
+    }
+
+    /**
+     * Gets the materials that are new or have changed, in bundle order.
+     *
+     * @return The materials to write
+     */
+    @NonNull
+    public List<MaterialDto> getChangedMaterials() {
+        return changedMaterials;
+    }
+
+    /**
+     * Gets the IDs of changed materials that were not stored before.
+     *
+     * @return The new material IDs
+     */
+    @NonNull
+    public List<String> getNewMaterialIds() {
+        return newMaterialIds;
+    }
+
+    /**
+     * Gets the IDs of materials whose content matches what is stored.
+     *
+     * @return The unchanged material IDs
+     */
+    @NonNull
+    public List<String> getUnchangedMaterialIds() {
+        return unchangedMaterialIds;
+    }
+
+    /**
+     * Gets the questions to write: those of changed materials, and any whose material
+     * is stored but not in the bundle.
+     *
+     * @return The questions to write
+     */
+    @NonNull
+    public List<QuestionDto> getChangedQuestions() {
+        return changedQuestions;
+    }
+
+    /**
+     * Gets the questions that cannot be written because their material is neither in the
+     * bundle nor stored.
+     *
+     * @return The dropped questions
+     */
+    @NonNull
+    public List<QuestionDto> getDroppedQuestions() {
+        return droppedQuestions;
+    }
+
+    /**
+     * Gets the content hash computed for a changed material.
+     *
+     * @param materialId The material ID
+     * @return The hash, or null if the material is not in the changed set
+     */
+    @Nullable
+    public String getContentHash(@NonNull String materialId) {
+        return contentHashes.get(materialId);
+    }
+
+    /**
+     * Checks whether the bundle contains nothing that needs writing.
+     *
+     * @return true if there are no changed materials or questions
+     */
+    public boolean isEmpty() {
+        return changedMaterials.isEmpty() && changedQuestions.isEmpty();
+    }
+}
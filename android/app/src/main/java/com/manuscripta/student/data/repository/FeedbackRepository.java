@@ -5,7 +5,9 @@ import androidx.lifecycle.LiveData;
 
 import com.manuscripta.student.domain.model.Feedback;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repository interface for managing feedback operations.
@@ -17,6 +19,9 @@ public interface FeedbackRepository {
      * Fetches feedback from the server and stores it locally.
      * This method should be called when a RETURN_FEEDBACK TCP signal is received.
      *
+     * <p>Only feedback newer than the stored cursor is requested, and only feedback that
+     * is new or has changed is written.</p>
+     *
      * @param deviceId The device ID to fetch feedback for
      * @throws Exception if the fetch operation fails
      */
@@ -54,8 +59,21 @@ public interface FeedbackRepository {
      */
     List<Feedback> getAllFeedbackByDeviceId(String deviceId);
 
+    /**
+     * Resolves the title of the material each feedback item belongs to, with one query per
+     * {@link com.manuscripta.student.data.local.FeedbackDao#MAX_IDS_PER_QUERY} IDs.
+     * Must be called on a background thread.
+     *
+     * @param feedbackIds The UUIDs of the feedback to resolve
+     * @return Map from feedback ID to material title; feedback that does not exist or
+     *         whose material is missing has no entry
+     */
+    @NonNull
+    Map<String, String> getMaterialTitles(@NonNull Collection<String> feedbackIds);
+
     /**
      * Deletes all feedback from local storage.
+     * The feedback cursor is reset, so the next fetch retrieves all available feedback.
      */
     void deleteAllFeedback();
 
@@ -8,6 +8,7 @@ import androidx.lifecycle.Transformations;
 
 import com.manuscripta.student.data.local.FeedbackDao;
 import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.FeedbackMaterialTitleTuple;
 import com.manuscripta.student.domain.mapper.FeedbackMapper;
 import com.manuscripta.student.domain.model.Feedback;
 import com.manuscripta.student.network.ApiService;
@@ -18,7 +19,10 @@ import com.manuscripta.student.network.tcp.message.FeedbackAckMessage;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -28,6 +32,11 @@ import retrofit2.Response;
 /**
  * Implementation of {@link FeedbackRepository}.
  * Handles the complete feedback fetch→store→ACK flow.
+ *
+ * <p>Fetches are incremental: the cursor returned with each response is stored alongside
+ * the feedback and sent back on the next fetch, and only new or changed rows are written.
+ * A RETURN_FEEDBACK therefore costs work proportional to the new feedback rather than to
+ * the device's whole feedback history.</p>
  */
 @Singleton
 public class FeedbackRepositoryImpl implements FeedbackRepository {
@@ -85,8 +94,10 @@ public class FeedbackRepositoryImpl implements FeedbackRepository {
             throw new IllegalArgumentException("Device ID cannot be null or empty");
         }
 
-        // Fetch feedback from server via HTTP
-        Response<FeedbackResponse> response = apiService.getFeedback(deviceId).execute();
+        // Fetch feedback newer than the stored high-water mark via HTTP
+        String cursor = feedbackDao.getCursor(deviceId);
+        Response<FeedbackResponse> response =
+                apiService.getFeedbackSince(deviceId, cursor).execute();
 
         if (!response.isSuccessful()) {
             if (response.code() == 404) {
@@ -129,8 +140,17 @@ public class FeedbackRepositoryImpl implements FeedbackRepository {
             ackRetrySender.send(new FeedbackAckMessage(deviceId, feedbackId), TAG);
         }
 
-        if (!entities.isEmpty()) {
-            feedbackDao.insertAll(entities);
+        // Servers without cursor support return everything; applyIncrement skips rows
+        // that are already stored so that observers are only notified of real changes.
+        String nextCursor = feedbackResponse.getCursor();
+        if (nextCursor != null && nextCursor.equals(cursor)) {
+            nextCursor = null;
+        }
+        if (!entities.isEmpty() || nextCursor != null) {
+            List<FeedbackEntity> written =
+                    feedbackDao.applyIncrement(deviceId, entities, nextCursor);
+            Log.d(TAG, "Stored " + written.size() + " of " + entities.size()
+                    + " received feedback");
         }
     }
 
@@ -169,9 +189,28 @@ public class FeedbackRepositoryImpl implements FeedbackRepository {
         return feedbackList;
     }
 
+    @Override
+    @NonNull
+    public Map<String, String> getMaterialTitles(@NonNull Collection<String> feedbackIds) {
+        if (feedbackIds == null) {
+            throw new IllegalArgumentException("Feedback IDs cannot be null");
+        }
+        Map<String, String> titles = new HashMap<>();
+        List<String> ids = new ArrayList<>(feedbackIds);
+        for (int start = 0; start < ids.size(); start += FeedbackDao.MAX_IDS_PER_QUERY) {
+            List<String> chunk = ids.subList(start,
+                    Math.min(start + FeedbackDao.MAX_IDS_PER_QUERY, ids.size()));
+            for (FeedbackMaterialTitleTuple row : feedbackDao.getMaterialTitles(chunk)) {
+                titles.put(row.getFeedbackId(), row.getMaterialTitle());
+            }
+        }
+        return titles;
+    }
+
     @Override
     public void deleteAllFeedback() {
         feedbackDao.deleteAll();
+        feedbackDao.deleteAllCursors();
     }
 
     @Override
@@ -6,6 +6,9 @@ import androidx.lifecycle.LiveData;
 
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.Question;
+import com.manuscripta.student.utils.ListDiff;
 
 import java.util.List;
 
@@ -16,7 +19,7 @@ import java.util.List;
  * <p>This repository acts as a facade for:</p>
  * <ul>
  *   <li>Local persistence of materials via Room</li>
- *   <li>Observable material state for UI via LiveData</li>
+ *   <li>Observable material summaries for UI via LiveData</li>
  *   <li>Integration with TCP layer for DISTRIBUTE_MATERIAL notifications</li>
  *   <li>Orchestration of HTTP material fetching and attachment downloads</li>
  * </ul>
@@ -43,7 +46,9 @@ public interface MaterialRepository {
     Material getMaterialById(@NonNull String materialId);
 
     /**
-     * Gets all materials from local storage.
+     * Gets all materials from local storage. Long content kept outside the database is not
+     * read, and such materials carry empty content; use {@link #getMaterialById(String)}
+     * to load a material in full.
      *
      * @return List of all materials, ordered as specified in Validation Rules §2A(3)
      */
@@ -51,7 +56,8 @@ public interface MaterialRepository {
     List<Material> getAllMaterials();
 
     /**
-     * Gets all materials of a specific type.
+     * Gets all materials of a specific type. As with {@link #getAllMaterials()}, long
+     * content kept outside the database is not read.
      *
      * @param type The type of materials to retrieve
      * @return List of materials of the specified type
@@ -61,13 +67,59 @@ public interface MaterialRepository {
     List<Material> getMaterialsByType(@NonNull MaterialType type);
 
     /**
-     * Gets observable LiveData for all materials.
-     * The LiveData emits updates whenever materials change.
+     * Gets the questions of a material. Questions read recently are served from memory
+     * until this repository writes questions for that material.
      *
-     * @return LiveData containing the list of all materials
+     * <p>Reads the database on a miss, so call it from a background thread.</p>
+     *
+     * @param materialId The unique identifier of the material
+     * @return The material's questions, unmodifiable; empty if it has none
+     * @throws IllegalArgumentException if materialId is null or empty
+     */
+    @NonNull
+    List<Question> getQuestionsForMaterial(@NonNull String materialId);
+
+    /**
+     * Observes the questions of a material. Room re-runs the query whenever the questions
+     * table is written, whoever writes it. If the material's questions are held in memory,
+     * they are emitted at once, ahead of the query's first result, and each result read
+     * while nothing was written through this repository is held for later readers.
+     *
+     * @param materialId The unique identifier of the material
+     * @return LiveData containing the material's questions
+     * @throws IllegalArgumentException if materialId is null or empty
+     */
+    @NonNull
+    LiveData<List<Question>> observeQuestionsForMaterial(@NonNull String materialId);
+
+    /**
+     * Forgets every question held in memory, after the questions table has been changed
+     * without going through this repository, such as when the database is cleared on
+     * pairing.
+     */
+    void invalidateQuestions();
+
+    /**
+     * Gets observable LiveData summarising all materials.
+     * The LiveData emits updates whenever a material is added, changed or removed.
+     *
+     * <p>Summaries carry no content, so list views stay cheap however large the materials
+     * are. Use {@link #getMaterialById(String)} to load a material when it is opened.</p>
+     *
+     * @return LiveData containing summaries of all materials, newest first
      */
     @NonNull
-    LiveData<List<Material>> getMaterialsLiveData();
+    LiveData<List<MaterialSummary>> getMaterialSummariesLiveData();
+
+    /**
+     * Gets observable changes to the material summaries. Each emission carries the whole
+     * list along with the summaries added or changed and the IDs removed since the last
+     * one; writes to the materials table that change no summary emit nothing.
+     *
+     * @return LiveData containing the changes to the summaries of all materials
+     */
+    @NonNull
+    LiveData<ListDiff<MaterialSummary>> getMaterialSummaryChanges();
 
     /**
      * Saves a material to local storage.
@@ -102,6 +154,13 @@ public interface MaterialRepository {
      */
     void deleteAllMaterials();
 
+    /**
+     * Drops everything this repository keeps outside the materials table: attachment
+     * files, stored content and questions held in memory. Called after every table has
+     * been cleared without going through this repository, as on pairing or unpairing.
+     */
+    void discardLocalCopies();
+
     /**
      * Gets the count of materials in local storage.
      *
@@ -136,9 +195,11 @@ public interface MaterialRepository {
      * <p>The sync process:</p>
      * <ol>
      *   <li>Fetches materials via HTTP GET /distribution/{deviceId}</li>
-     *   <li>Downloads any attachment files referenced in content</li>
-     *   <li>Saves materials to local storage</li>
-it      *   <li>Sends one DISTRIBUTE_ACK per successfully received material (§3.6.2)</li>
+     *   <li>Compares each material against the local manifest of content hashes</li>
+     *   <li>Downloads attachment files referenced in new or changed materials</li>
+     *   <li>Saves new or changed materials, their questions, and a RECEIVED session for
+     *       each first-time material, in bounded transactions</li>
+     *   <li>Sends one DISTRIBUTE_ACK per successfully received material (§3.6.2)</li>
      * </ol>
      *
      * <p><b>Threading:</b> This method performs network I/O and should be called
@@ -156,11 +217,4 @@ it      *   <li>Sends one DISTRIBUTE_ACK per successfully received material (§3
      * @return true if a sync operation is in progress
      */
     boolean isSyncing();
-
-    /**
-     * Resets the materials LiveData by querying the current (possibly empty) database
-     * and posting the result. Used after clearing the database during pairing to ensure
-     * observers receive an empty list.
-     */
-    void resetLiveData();
 }
@@ -5,16 +5,26 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.Transformations;
 
+import com.manuscripta.student.data.local.DistributionDao;
+import com.manuscripta.student.data.local.MaterialContentStore;
 import com.manuscripta.student.data.local.MaterialDao;
 import com.manuscripta.student.data.local.QuestionDao;
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.SessionEntity;
 import com.manuscripta.student.domain.mapper.MaterialMapper;
 import com.manuscripta.student.domain.mapper.QuestionMapper;
+import com.manuscripta.student.domain.mapper.SessionMapper;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.Question;
+import com.manuscripta.student.domain.model.Session;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.dto.DistributionBundleDto;
 import com.manuscripta.student.network.dto.MaterialDto;
@@ -24,10 +34,18 @@ import com.manuscripta.student.network.tcp.TcpSocketManager;
 import com.manuscripta.student.network.tcp.message.DistributeAckMessage;
 import com.manuscripta.student.utils.ContentParser;
 import com.manuscripta.student.utils.FileStorageManager;
+import com.manuscripta.student.utils.ListDiff;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -45,9 +63,17 @@ import retrofit2.Response;
  * <p>Features:</p>
  * <ul>
  *   <li>Local persistence via Room DAO</li>
- *   <li>Observable material state via LiveData for UI updates</li>
+ *   <li>Observable material summaries via LiveData for list UI, backed by a Room query that
+ *       re-runs when the materials table changes and emits only when a summary was added,
+ *       changed or removed; full content is loaded by ID on demand</li>
  *   <li>Integration with FileStorageManager for attachment file storage</li>
+ *   <li>The questions of recently opened materials held in memory, dropped precisely
+ *       when their material's questions are written</li>
+ *   <li>Long content kept out of the material rows in a {@link MaterialContentStore} and
+ *       read back only when a single material is loaded by ID</li>
  *   <li>Callback interface for TCP DISTRIBUTE_MATERIAL signal handling</li>
+ *   <li>Delta sync: only new or changed materials are written, together with their
+ *       questions and sessions, in bounded transactions</li>
  *   <li>Thread-safe operations</li>
  * </ul>
  *
@@ -58,15 +84,24 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     /** Tag for logging. */
     private static final String TAG = "MaterialRepository";
 
+    /** Manifest hash recorded for materials whose attachments are not all stored locally. */
+    static final String INCOMPLETE_CONTENT_HASH = "";
+
     /** The DAO for material persistence. */
     private final MaterialDao materialDao;
 
     /** The DAO for question persistence. */
     private final QuestionDao questionDao;
 
+    /** The DAO for applying distributions atomically. */
+    private final DistributionDao distributionDao;
+
     /** The file storage manager for attachments. */
     private final FileStorageManager fileStorageManager;
 
+    /** Holds material content too long to keep inline in the material rows. */
+    private final MaterialContentStore contentStore;
+
     /** The API service for network operations. */
     private final ApiService apiService;
 
@@ -76,17 +111,27 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     /** Handles retry logic for sending ACK messages over TCP. */
     private final AckRetrySender ackRetrySender;
 
-    /** Repository for managing learning sessions. */
-    private final SessionRepository sessionRepository;
-
     /** Executor for running sync operations on a background thread. */
     private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor();
 
-    /** Lock object guarding database writes and LiveData updates. */
+    /** Lock object guarding database writes. */
     private final Object lock = new Object();
 
-    /** LiveData for observable material list. */
-    private final MutableLiveData<List<Material>> materialsLiveData;
+    /** Changes to the material summaries, observed from the database. */
+    private final LiveData<ListDiff<MaterialSummary>> materialSummaryChanges;
+
+    /** The observable material list, holding summaries without content. */
+    private final LiveData<List<MaterialSummary>> materialSummariesLiveData;
+
+    /** The questions of recently read materials. */
+    private final QuestionCache questionCache =
+            new QuestionCache(QuestionCache.DEFAULT_MAX_MATERIALS);
+
+    /**
+     * Materials whose stored content could not be read, keyed by ID, with the content hash
+     * their row referenced. The next sync marks each still referencing that hash incomplete.
+     */
+    private final Map<String, String> missingContent = new ConcurrentHashMap<>();
 
     /** Flag indicating if a sync operation is in progress. */
     private final AtomicBoolean syncing = new AtomicBoolean(false);
@@ -95,6 +140,14 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     @Nullable
     private volatile MaterialAvailableCallback materialAvailableCallback;
 
+    /** Run after this repository changes the sessions table directly. */
+    @Nullable
+    private volatile Runnable sessionsChangedListener;
+
+    /** Run after a sync stores new or changed materials and their attachments. */
+    @Nullable
+    private volatile Runnable attachmentsChangedListener;
+
     /**
      * Creates a new MaterialRepositoryImpl with the given dependencies.
      *
@@ -102,36 +155,44 @@ public class MaterialRepositoryImpl implements MaterialRepository {
      * are only compile-time hints in Java and do not prevent null values at runtime.
      * This defensive approach ensures fail-fast behaviour for invalid constructor calls.</p>
      *
-     * <p>The constructor calls {@link #refreshMaterialsLiveData()} to initialize LiveData
-     * with existing materials. This is safe because all fields are assigned before the call
-     * and the DAO read operation has no side effects.</p>
+     * <p>The summary LiveData is backed by {@link MaterialDao#getAllSummariesLive()}, which
+     * Room re-runs on a background thread whenever the materials table is written, so no
+     * write path here has to refresh it.</p>
      *
      * @param materialDao        The DAO for material persistence
      * @param questionDao        The DAO for question persistence
+     * @param distributionDao    The DAO for applying distributions atomically
      * @param fileStorageManager The file storage manager for attachments
+     * @param contentStore       Holds material content too long to keep inline
      * @param apiService         The API service for network operations
      * @param tcpSocketManager   The TCP socket manager for DISTRIBUTE_MATERIAL signals
      * @param ackRetrySender     The retry sender for ACK messages
-     * @param sessionRepository  The session repository for creating sessions per material
      * @throws IllegalArgumentException if any dependency is null
      */
     @Inject
     public MaterialRepositoryImpl(@NonNull MaterialDao materialDao,
                                   @NonNull QuestionDao questionDao,
+                                  @NonNull DistributionDao distributionDao,
                                   @NonNull FileStorageManager fileStorageManager,
+                                  @NonNull MaterialContentStore contentStore,
                                   @NonNull ApiService apiService,
                                   @NonNull TcpSocketManager tcpSocketManager,
-                                  @NonNull AckRetrySender ackRetrySender,
-                                  @NonNull SessionRepository sessionRepository) {
+                                  @NonNull AckRetrySender ackRetrySender) {
         if (materialDao == null) {
             throw new IllegalArgumentException("MaterialDao cannot be null");
         }
         if (questionDao == null) {
             throw new IllegalArgumentException("QuestionDao cannot be null");
         }
+        if (distributionDao == null) {
+            throw new IllegalArgumentException("DistributionDao cannot be null");
+        }
         if (fileStorageManager == null) {
             throw new IllegalArgumentException("FileStorageManager cannot be null");
         }
+        if (contentStore == null) {
+            throw new IllegalArgumentException("MaterialContentStore cannot be null");
+        }
         if (apiService == null) {
             throw new IllegalArgumentException("ApiService cannot be null");
         }
@@ -141,21 +202,24 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         if (ackRetrySender == null) {
             throw new IllegalArgumentException("AckRetrySender cannot be null");
         }
-        if (sessionRepository == null) {
-            throw new IllegalArgumentException("SessionRepository cannot be null");
-        }
         this.materialDao = materialDao;
         this.questionDao = questionDao;
+        this.distributionDao = distributionDao;
         this.fileStorageManager = fileStorageManager;
+        this.contentStore = contentStore;
         this.apiService = apiService;
         this.tcpSocketManager = tcpSocketManager;
         this.ackRetrySender = ackRetrySender;
-        this.sessionRepository = sessionRepository;
-        this.materialsLiveData = new MutableLiveData<>(new ArrayList<>());
-
-        // Initialize LiveData with existing materials from database on a background thread.
-        // This avoids blocking the main thread during Hilt injection at app startup.
-        syncExecutor.execute(this::refreshMaterialsLiveData);
+        this.materialSummaryChanges = ListDiff.diffing(
+                Transformations.map(materialDao.getAllSummariesLive(),
+                        MaterialRepositoryImpl::toSummaries),
+                MaterialSummary::getId);
+        this.materialSummariesLiveData =
+                Transformations.map(materialSummaryChanges, ListDiff::getItems);
+
+        // Content stored inline before it could be kept out of the rows is moved out on a
+        // background thread, to avoid blocking the main thread during Hilt injection.
+        syncExecutor.execute(this::moveInlineContentOffRow);
     }
 
     @Override
@@ -167,7 +231,8 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         if (entity == null) {
             return null;
         }
-        return MaterialMapper.toDomain(entity);
+        MaterialEntity loaded = withContentLoaded(entity);
+        return loaded != null ? MaterialMapper.toDomain(loaded) : null;
     }
 
     @Override
@@ -190,8 +255,53 @@ public class MaterialRepositoryImpl implements MaterialRepository {
 
     @Override
     @NonNull
-    public LiveData<List<Material>> getMaterialsLiveData() {
-        return materialsLiveData;
+    public List<Question> getQuestionsForMaterial(@NonNull String materialId) {
+        validateNotEmpty(materialId, "Material ID");
+
+        List<Question> cached = questionCache.get(materialId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = questionCache.generation();
+        List<Question> questions = toQuestions(questionDao.getByMaterialId(materialId));
+        return questionCache.putIfUnchanged(materialId, questions, generation);
+    }
+
+    @Override
+    @NonNull
+    public LiveData<List<Question>> observeQuestionsForMaterial(@NonNull String materialId) {
+        validateNotEmpty(materialId, "Material ID");
+
+        List<Question> cached = questionCache.get(materialId);
+        MediatorLiveData<List<Question>> questions =
+                cached != null ? new MediatorLiveData<>(cached) : new MediatorLiveData<>();
+        // A result may have been read before a write that was reported since the previous
+        // result arrived, so it is held only if nothing was invalidated in between
+        long[] generation = {questionCache.generation()};
+        questions.addSource(questionDao.getByMaterialIdLive(materialId), entities -> {
+            long taken = generation[0];
+            generation[0] = questionCache.generation();
+            questions.setValue(
+                    questionCache.putIfUnchanged(materialId, toQuestions(entities), taken));
+        });
+        return questions;
+    }
+
+    @Override
+    public void invalidateQuestions() {
+        questionCache.clear();
+    }
+
+    @Override
+    @NonNull
+    public LiveData<List<MaterialSummary>> getMaterialSummariesLiveData() {
+        return materialSummariesLiveData;
+    }
+
+    @Override
+    @NonNull
+    public LiveData<ListDiff<MaterialSummary>> getMaterialSummaryChanges() {
+        return materialSummaryChanges;
     }
 
     @Override
@@ -201,9 +311,12 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         }
 
         synchronized (lock) {
-            MaterialEntity entity = MaterialMapper.toEntity(material);
+            MaterialEntity entity = withContentOffRow(MaterialMapper.toEntity(material));
             materialDao.insert(entity);
-            refreshMaterialsLiveData();
+            // REPLACE deletes the old row, cascading to its questions and sessions
+            notifySessionsChanged();
+            notifyQuestionsWritten(Collections.singletonList(material.getId()));
+            collectUnreferencedContent();
 
             Log.d(TAG, "Saved material: " + material.getId());
         }
@@ -228,11 +341,17 @@ public class MaterialRepositoryImpl implements MaterialRepository {
                     throw new IllegalArgumentException(
                             "Materials list cannot contain null elements (null at index " + index + ")");
                 }
-                entities.add(MaterialMapper.toEntity(material));
+                entities.add(withContentOffRow(MaterialMapper.toEntity(material)));
                 index++;
             }
             materialDao.insertAll(entities);
-            refreshMaterialsLiveData();
+            notifySessionsChanged();
+            List<String> ids = new ArrayList<>(entities.size());
+            for (MaterialEntity entity : entities) {
+                ids.add(entity.getId());
+            }
+            notifyQuestionsWritten(ids);
+            collectUnreferencedContent();
 
             Log.d(TAG, "Saved " + materials.size() + " materials");
         }
@@ -248,7 +367,9 @@ public class MaterialRepositoryImpl implements MaterialRepository {
 
             // Then delete the material from database
             materialDao.deleteById(materialId);
-            refreshMaterialsLiveData();
+            notifySessionsChanged();
+            notifyQuestionsWritten(Collections.singletonList(materialId));
+            collectUnreferencedContent();
 
             Log.d(TAG, "Deleted material: " + materialId);
         }
@@ -262,20 +383,28 @@ public class MaterialRepositoryImpl implements MaterialRepository {
 
             // Then clear the database
             materialDao.deleteAll();
-            refreshMaterialsLiveData();
+            contentStore.clear();
+            notifySessionsChanged();
+            invalidateQuestions();
 
             Log.d(TAG, "Deleted all materials");
         }
     }
 
     @Override
-    public int getMaterialCount() {
-        return materialDao.getCount();
+    public void discardLocalCopies() {
+        synchronized (lock) {
+            fileStorageManager.clearAllAttachments();
+            contentStore.clear();
+            invalidateQuestions();
+
+            Log.d(TAG, "Discarded attachments and content of cleared materials");
+        }
     }
 
     @Override
-    public void resetLiveData() {
-        syncExecutor.execute(this::refreshMaterialsLiveData);
+    public int getMaterialCount() {
+        return materialDao.getCount();
     }
 
     @Override
@@ -283,6 +412,27 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         this.materialAvailableCallback = callback;
     }
 
+    /**
+     * Sets a listener run after this repository changes the sessions table without going
+     * through {@link SessionRepository}: when a distribution creates sessions and pauses
+     * the active one, or when replacing or deleting a material cascades to its sessions.
+     *
+     * @param listener The listener, or null to remove it
+     */
+    public void setSessionsChangedListener(@Nullable Runnable listener) {
+        this.sessionsChangedListener = listener;
+    }
+
+    /**
+     * Sets a listener run on the sync thread after a successful sync stores new or changed
+     * materials, and with them possibly new attachments.
+     *
+     * @param listener The listener, or null to remove it
+     */
+    public void setAttachmentsChangedListener(@Nullable Runnable listener) {
+        this.attachmentsChangedListener = listener;
+    }
+
     @Override
     public void syncMaterials(@NonNull String deviceId) {
         validateNotEmpty(deviceId, "Device ID");
@@ -295,8 +445,13 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         Log.d(TAG, "Starting material sync for device: " + deviceId);
 
         boolean syncSucceeded = false;
+        boolean materialsChanged = false;
 
         try {
+            // Materials whose stored content has gone missing are marked incomplete before
+            // the manifest is read, so that this distribution sends them again.
+            markMissingContentIncomplete();
+
             // 1. HTTP GET /distribution/{deviceId} to fetch materials
             Response<DistributionBundleDto> response =
                     apiService.getDistribution(deviceId).execute();
@@ -314,69 +469,75 @@ public class MaterialRepositoryImpl implements MaterialRepository {
                 return;
             }
 
-            Log.i(TAG, "Received " + materialDtos.size() + " materials");
+            // 2. Diff the bundle against the local manifest so that unchanged materials
+            // are neither rewritten nor re-parsed for attachments.
+            DistributionDelta delta = DistributionDelta.compute(bundle, loadManifest());
+            Log.i(TAG, "Received " + materialDtos.size() + " materials: "
+                    + delta.getChangedMaterials().size() + " new or changed, "
+                    + delta.getUnchangedMaterialIds().size() + " unchanged");
+            for (QuestionDto dropped : delta.getDroppedQuestions()) {
+                Log.w(TAG, "Dropping question " + dropped.getId()
+                        + " for unknown material: " + dropped.getMaterialId());
+            }
 
-            // 2. Convert MaterialDtos to MaterialEntities, download attachments, and save
-            for (MaterialDto dto : materialDtos) {
+            // 3. Convert changed materials and download their attachments.
+            // Done before acquiring the lock to avoid holding it during network I/O.
+            List<MaterialEntity> materialEntities = new ArrayList<>();
+            Map<String, MaterialManifestEntity> manifestEntries = new HashMap<>();
+            Set<String> rejectedMaterialIds = new HashSet<>();
+            for (MaterialDto dto : delta.getChangedMaterials()) {
                 try {
-                    // 3. Parse content for attachment references and download each one.
-                    // Done before acquiring the lock to avoid holding it during network I/O.
+                    MaterialEntity entity = MaterialMapper.dtoToEntity(dto);
+                    boolean attachmentsComplete = true;
                     List<String> attachmentIds =
                             ContentParser.extractDistinctAttachmentReferences(dto.getContent());
                     for (String attachmentId : attachmentIds) {
                         if (!downloadAttachment(dto.getId(), attachmentId)) {
+                            attachmentsComplete = false;
                             Log.w(TAG, "Attachment download failed for material: "
                                     + dto.getId() + ", attachment: " + attachmentId);
                         }
                     }
-
-                    // Lock only for the DB write — no I/O inside the critical section.
-                    synchronized (lock) {
-                        MaterialEntity entity = MaterialMapper.dtoToEntity(dto);
-                        materialDao.insert(entity);
-                        Log.d(TAG, "Saved material: " + entity.getId());
-                    }
-
-                    // Per API Contract §3.6.2, send one ACK per received material.
-                    // ACK is sent regardless of attachment failures — missing attachments
-                    // are a server-side data integrity issue and retrying will not recover them.
-                    ackRetrySender.send(new DistributeAckMessage(deviceId, dto.getId()), TAG);
-
-                    // Per Session Interaction §3(3), create a session in RECEIVED state
-                    // for each material received in the distribution bundle.
-                    try {
-                        sessionRepository.startSession(dto.getId(), deviceId);
-                        Log.d(TAG, "Created session for material: " + dto.getId());
-                    } catch (Exception se) {
-                        Log.e(TAG, "Failed to create session for material: "
-                                + dto.getId() + " — " + se.getMessage());
-                    }
+                    materialEntities.add(entity);
+                    // A material with missing attachments is recorded with a hash that
+                    // never matches, so the next distribution retries the downloads.
+                    manifestEntries.put(entity.getId(), new MaterialManifestEntity(entity.getId(),
+                            attachmentsComplete
+                                    ? delta.getContentHash(entity.getId())
+                                    : INCOMPLETE_CONTENT_HASH));
                 } catch (IllegalArgumentException e) {
                     Log.e(TAG, "Invalid material data: " + e.getMessage());
+                    rejectedMaterialIds.add(dto.getId());
                 }
             }
 
-            // Save questions from the bundle after all materials are persisted
-            // (foreign key constraint requires parent materials to exist first).
-            List<QuestionDto> questionDtos = bundle.getQuestions();
-            if (questionDtos != null && !questionDtos.isEmpty()) {
-                for (QuestionDto questionDto : questionDtos) {
-                    try {
-                        QuestionEntity questionEntity =
-                                QuestionMapper.dtoToEntity(questionDto);
-                        synchronized (lock) {
-                            questionDao.insert(questionEntity);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        Log.e(TAG, "Invalid question data: " + e.getMessage());
-                    }
+            // Questions of rejected materials would violate the foreign key and abort
+            // the transaction they are written in, so they are dropped with their material.
+            List<QuestionEntity> questionEntities = new ArrayList<>();
+            for (QuestionDto questionDto : delta.getChangedQuestions()) {
+                if (rejectedMaterialIds.contains(questionDto.getMaterialId())) {
+                    continue;
+                }
+                try {
+                    questionEntities.add(QuestionMapper.dtoToEntity(questionDto));
+                } catch (IllegalArgumentException e) {
+                    Log.e(TAG, "Invalid question data: " + e.getMessage());
                 }
-                Log.i(TAG, "Saved " + questionDtos.size() + " questions");
             }
 
-            // Refresh LiveData once after all materials are saved to notify observers.
-            synchronized (lock) {
-                refreshMaterialsLiveData();
+            // Per API Contract §3.6.2, send one ACK per received material, including
+            // unchanged ones, so the server stops redistributing them.
+            for (String materialId : delta.getUnchangedMaterialIds()) {
+                ackRetrySender.send(new DistributeAckMessage(deviceId, materialId), TAG);
+            }
+
+            // 4. Write materials, questions and sessions in bounded transactions.
+            if (!materialEntities.isEmpty() || !questionEntities.isEmpty()) {
+                ingest(deviceId, materialEntities, questionEntities, manifestEntries,
+                        new HashSet<>(delta.getNewMaterialIds()));
+                materialsChanged = !materialEntities.isEmpty();
+                Log.i(TAG, "Saved " + materialEntities.size() + " materials and "
+                        + questionEntities.size() + " questions");
             }
 
             Log.i(TAG, "Material sync completed successfully");
@@ -400,6 +561,109 @@ public class MaterialRepositoryImpl implements MaterialRepository {
                 Log.e(TAG, "Error while notifying materials availability callback", e);
             }
         }
+
+        Runnable listener = this.attachmentsChangedListener;
+        if (syncSucceeded && materialsChanged && listener != null) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error while notifying attachments changed listener", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a distribution in transactions of at most
+     * {@link DistributionDao#MAX_MATERIALS_PER_TRANSACTION} materials each, then deletes
+     * content no longer referenced.
+     *
+     * <p>Long content is written to the content store just before the transaction that
+     * references it, under the same lock as the collection of unreferenced content.</p>
+     *
+     * <p>Each transaction carries its materials' questions, manifest entries and, per
+     * Session Interaction §3(3), a RECEIVED session for every material received for the
+     * first time. A material is ACKed as soon as the transaction containing it commits;
+     * ACKs are sent regardless of attachment failures, since missing attachments are a
+     * server-side data integrity issue that retrying will not recover.</p>
+     *
+     * @param deviceId       The device ID the distribution was fetched for
+     * @param materials      The new or changed materials
+     * @param questions      The questions to write, including any whose material is not
+     *                       in {@code materials}
+     * @param manifest       The manifest entry for each material, keyed by material ID
+     * @param newMaterialIds The IDs of materials that need a session
+     */
+    private void ingest(@NonNull String deviceId,
+                        @NonNull List<MaterialEntity> materials,
+                        @NonNull List<QuestionEntity> questions,
+                        @NonNull Map<String, MaterialManifestEntity> manifest,
+                        @NonNull Set<String> newMaterialIds) {
+        Map<String, List<QuestionEntity>> questionsByMaterial = new HashMap<>();
+        for (MaterialEntity material : materials) {
+            questionsByMaterial.put(material.getId(), new ArrayList<>());
+        }
+        List<QuestionEntity> otherQuestions = new ArrayList<>();
+        for (QuestionEntity question : questions) {
+            List<QuestionEntity> group = questionsByMaterial.get(question.getMaterialId());
+            if (group != null) {
+                group.add(question);
+            } else {
+                otherQuestions.add(question);
+            }
+        }
+
+        try {
+            int start = 0;
+            do {
+                int end = Math.min(start + DistributionDao.MAX_MATERIALS_PER_TRANSACTION,
+                        materials.size());
+                List<MaterialEntity> chunk = materials.subList(start, end);
+                List<QuestionEntity> chunkQuestions = new ArrayList<>();
+                List<MaterialManifestEntity> chunkManifest = new ArrayList<>();
+                List<SessionEntity> chunkSessions = new ArrayList<>();
+                for (MaterialEntity material : chunk) {
+                    chunkQuestions.addAll(questionsByMaterial.get(material.getId()));
+                    chunkManifest.add(manifest.get(material.getId()));
+                    if (newMaterialIds.contains(material.getId())) {
+                        chunkSessions.add(SessionMapper.toEntity(
+                                Session.create(material.getId(), deviceId)));
+                    }
+                }
+                if (end == materials.size()) {
+                    chunkQuestions.addAll(otherQuestions);
+                }
+
+                synchronized (lock) {
+                    List<MaterialEntity> chunkRows = new ArrayList<>(chunk.size());
+                    for (MaterialEntity material : chunk) {
+                        chunkRows.add(withContentOffRow(material));
+                    }
+                    distributionDao.applyDelta(chunkRows, chunkQuestions, chunkManifest,
+                            chunkSessions);
+                    Set<String> written = new HashSet<>();
+                    for (MaterialEntity material : chunk) {
+                        written.add(material.getId());
+                    }
+                    for (QuestionEntity question : chunkQuestions) {
+                        written.add(question.getMaterialId());
+                    }
+                    notifyQuestionsWritten(written);
+                    if (!chunkSessions.isEmpty()) {
+                        notifySessionsChanged();
+                    }
+                }
+                for (MaterialEntity material : chunk) {
+                    ackRetrySender.send(
+                            new DistributeAckMessage(deviceId, material.getId()), TAG);
+                }
+                start = end;
+            } while (start < materials.size());
+        } finally {
+            // Earlier chunks are committed even if a later one fails
+            synchronized (lock) {
+                collectUnreferencedContent();
+            }
+        }
     }
 
     @Override
@@ -408,13 +672,18 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     }
 
     /**
-     * Downloads a single attachment and saves it to local storage.
+     * Downloads a single attachment and saves it to local storage, unless the same
+     * attachment is already stored for this or another material.
      *
      * @param materialId   The ID of the material the attachment belongs to
      * @param attachmentId The ID of the attachment to download
-     * @return true if download and save succeeded, false otherwise
+     * @return true if the attachment is now stored, false otherwise
      */
     private boolean downloadAttachment(@NonNull String materialId, @NonNull String attachmentId) {
+        if (fileStorageManager.reuseStoredAttachment(materialId, attachmentId) != null) {
+            Log.d(TAG, "Reused stored attachment " + attachmentId + " for material " + materialId);
+            return true;
+        }
         try {
             Response<ResponseBody> attachmentResponse =
                     apiService.getAttachment(attachmentId).execute();
@@ -444,6 +713,41 @@ public class MaterialRepositoryImpl implements MaterialRepository {
         }
     }
 
+    /**
+     * Runs the sessions-changed listener, if one is set.
+     */
+    private void notifySessionsChanged() {
+        Runnable listener = this.sessionsChangedListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Drops the questions held in memory for materials whose questions have just been
+     * written. Observers of the questions are told by Room.
+     *
+     * @param materialIds The IDs of the materials whose questions were written
+     */
+    private void notifyQuestionsWritten(@NonNull Collection<String> materialIds) {
+        questionCache.invalidate(materialIds);
+    }
+
+    /**
+     * Maps question rows to domain questions.
+     *
+     * @param entities The rows read from the database
+     * @return The questions, in row order
+     */
+    @NonNull
+    private static List<Question> toQuestions(@NonNull List<QuestionEntity> entities) {
+        List<Question> questions = new ArrayList<>(entities.size());
+        for (QuestionEntity entity : entities) {
+            questions.add(QuestionMapper.toDomain(entity));
+        }
+        return questions;
+    }
+
     /**
      * Notifies the callback that materials are available.
      * Called when DISTRIBUTE_MATERIAL signal is received.
@@ -462,25 +766,169 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     }
 
     /**
-     * Refreshes the materials LiveData with current database contents.
+     * Loads the content hash of every stored material.
      *
-     * <p>This method does not perform explicit synchronization; callers should ensure any
-     * required thread-safety when invoking it.</p>
+     * @return Map from material ID to content hash
+     */
+    @NonNull
+    private Map<String, String> loadManifest() {
+        List<MaterialManifestEntity> entries = distributionDao.getManifest();
+        Map<String, String> manifest = new HashMap<>(entries.size() * 2);
+        for (MaterialManifestEntity entry : entries) {
+            manifest.put(entry.getMaterialId(), entry.getContentHash());
+        }
+        return manifest;
+    }
+
+    /**
+     * Maps the summary rows read by the observable query to domain summaries.
+     * Only the summary columns are read, so the cost does not grow with content size.
      *
-     * <p><b>Thread safety note:</b> This method uses {@link MutableLiveData#postValue(Object)}
-     * which is asynchronous. When multiple threads modify data concurrently, the order of
-     * LiveData updates may not strictly reflect the order of database modifications. If strict
-     * ordering is required, consider using {@link MutableLiveData#setValue(Object)} from the
-     * main thread instead.</p>
+     * @param tuples The summary rows, or null before the first query completes
+     * @return The domain summaries, in the same order
      */
-    private void refreshMaterialsLiveData() {
-        List<MaterialEntity> entities = materialDao.getAll();
-        List<Material> materials = mapEntitiesToDomain(entities);
-        materialsLiveData.postValue(materials);
+    @NonNull
+    private static List<MaterialSummary> toSummaries(@Nullable List<MaterialSummaryTuple> tuples) {
+        if (tuples == null) {
+            return new ArrayList<>();
+        }
+        List<MaterialSummary> summaries = new ArrayList<>(tuples.size());
+        for (MaterialSummaryTuple tuple : tuples) {
+            summaries.add(MaterialMapper.toSummary(tuple));
+        }
+        return summaries;
     }
 
     /**
-     * Maps a list of MaterialEntity objects to Material domain objects.
+     * Moves long content out of the row it is to be written to, into the content store.
+     * Content that cannot be stored stays inline.
+     *
+     * @param entity The material row to write
+     * @return The row to write instead
+     */
+    @NonNull
+    private MaterialEntity withContentOffRow(@NonNull MaterialEntity entity) {
+        String content = entity.getContent();
+        if (entity.getContentHash() != null || !MaterialContentStore.isOffRow(content)) {
+            return entity;
+        }
+        String hash = contentStore.put(content);
+        if (hash == null) {
+            Log.w(TAG, "Could not store content outside the row for material: "
+                    + entity.getId());
+            return entity;
+        }
+        return new MaterialEntity(entity.getId(), entity.getType(), entity.getTitle(), null,
+                hash, entity.getMetadata(), entity.getVocabularyTerms(), entity.getTimestamp());
+    }
+
+    /**
+     * Reads a material's content back from the content store, if it is kept outside the row.
+     *
+     * <p>The content read may have been replaced, and its file collected, after the row was
+     * read, so a miss is retried under the lock with the hash the row now references.
+     * Content that is still missing is read as empty and recorded in
+     * {@link #missingContent}; reads never write the manifest.</p>
+     *
+     * @param entity The material row as read
+     * @return The row with its content inline, or null if the material has been deleted
+     */
+    @Nullable
+    private MaterialEntity withContentLoaded(@NonNull MaterialEntity entity) {
+        MaterialEntity row = entity;
+        String hash = row.getContentHash();
+        if (hash == null) {
+            return row;
+        }
+        String content = contentStore.read(hash);
+        if (content == null) {
+            synchronized (lock) {
+                row = materialDao.getById(row.getId());
+                if (row == null || row.getContentHash() == null) {
+                    return row;
+                }
+                hash = row.getContentHash();
+                content = contentStore.read(hash);
+            }
+        }
+        if (content == null) {
+            Log.e(TAG, "Stored content missing for material: " + row.getId());
+            missingContent.put(row.getId(), hash);
+            content = "";
+        }
+        return new MaterialEntity(row.getId(), row.getType(), row.getTitle(), content,
+                hash, row.getMetadata(), row.getVocabularyTerms(), row.getTimestamp());
+    }
+
+    /**
+     * Resets the manifest entry of each material recorded in {@link #missingContent} whose
+     * row still references the content that could not be read, once that content is
+     * confirmed unreadable, so that the next distribution delivers it again.
+     */
+    private void markMissingContentIncomplete() {
+        if (missingContent.isEmpty()) {
+            return;
+        }
+        List<String> incomplete = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<String, String> missing : new ArrayList<>(missingContent.entrySet())) {
+                String materialId = missing.getKey();
+                missingContent.remove(materialId, missing.getValue());
+                MaterialEntity entity = materialDao.getById(materialId);
+                if (entity != null && missing.getValue().equals(entity.getContentHash())
+                        && contentStore.read(missing.getValue()) == null) {
+                    incomplete.add(materialId);
+                }
+            }
+            if (!incomplete.isEmpty()) {
+                distributionDao.setContentHash(incomplete, INCOMPLETE_CONTENT_HASH);
+            }
+        }
+        if (!incomplete.isEmpty()) {
+            Log.w(TAG, "Requesting redistribution of " + incomplete.size()
+                    + " materials with missing content");
+        }
+    }
+
+    /**
+     * Moves long content that is still inline out of the material rows, one material at a
+     * time, then deletes content no row references any more.
+     */
+    private void moveInlineContentOffRow() {
+        List<String> materialIds =
+                materialDao.getIdsWithInlineContentOver(MaterialContentStore.INLINE_MAX_CHARS);
+        synchronized (lock) {
+            for (String materialId : materialIds) {
+                MaterialEntity entity = materialDao.getById(materialId);
+                if (entity == null || entity.getContent() == null) {
+                    continue;
+                }
+                String hash = contentStore.put(entity.getContent());
+                if (hash != null) {
+                    materialDao.moveContentOffRow(materialId, hash);
+                }
+            }
+            collectUnreferencedContent();
+        }
+        if (!materialIds.isEmpty()) {
+            Log.i(TAG, "Moved content of " + materialIds.size() + " materials out of the rows");
+        }
+    }
+
+    /**
+     * Deletes stored content that no material row references. Must be called with the
+     * lock held, so that content written for a row not yet committed is never collected.
+     */
+    private void collectUnreferencedContent() {
+        int deleted = contentStore.retainOnly(new HashSet<>(materialDao.getContentHashes()));
+        if (deleted > 0) {
+            Log.d(TAG, "Deleted " + deleted + " unreferenced content files");
+        }
+    }
+
+    /**
+     * Maps a list of MaterialEntity objects to Material domain objects. Content kept
+     * outside the rows is not read, so such materials are returned with empty content.
      *
      * @param entities The list of entities to map
      * @return List of domain objects
@@ -489,6 +937,11 @@ public class MaterialRepositoryImpl implements MaterialRepository {
     private List<Material> mapEntitiesToDomain(@NonNull List<MaterialEntity> entities) {
         List<Material> materials = new ArrayList<>(entities.size());
         for (MaterialEntity entity : entities) {
+            if (entity.getContentHash() != null) {
+                entity = new MaterialEntity(entity.getId(), entity.getType(), entity.getTitle(),
+                        "", entity.getContentHash(), entity.getMetadata(),
+                        entity.getVocabularyTerms(), entity.getTimestamp());
+            }
             materials.add(MaterialMapper.toDomain(entity));
         }
         return materials;
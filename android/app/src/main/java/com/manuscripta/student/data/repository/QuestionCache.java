@@ -0,0 +1,122 @@
+package com.manuscripta.student.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.manuscripta.student.domain.model.Question;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the questions of the materials read most recently, so that switching back to a
+ * material does not read and map its questions again.
+ *
+ * <p>Entries are immutable lists, evicted least recently used first once more than the
+ * given number of materials are held. Entries are dropped when their material's questions
+ * are written. A read that races with such a write must not store the rows it read before
+ * the write, so a reader takes the {@link #generation()} before reading and stores its
+ * result with {@link #putIfUnchanged}, which discards it if anything was invalidated in
+ * between.</p>
+ */
+final class QuestionCache {
+
+    /** Default number of materials whose questions are held. */
+    static final int DEFAULT_MAX_MATERIALS = 16;
+
+    /** Questions by material ID, in access order. */
+    private final LinkedHashMap<String, List<Question>> entries;
+
+    /** Incremented on every invalidation. Guarded by this. */
+    private long generation;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxMaterials The most materials whose questions are held
+     * @throws IllegalArgumentException if maxMaterials is not positive
+     */
+    QuestionCache(int maxMaterials) {
+        if (maxMaterials <= 0) {
+            throw new IllegalArgumentException("Max materials must be positive");
+        }
+        this.entries = new LinkedHashMap<String, List<Question>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Question>> eldest) {
+                return size() > maxMaterials;
+            }
+        };
+    }
+
+    /**
+     * Gets the questions held for a material, marking them most recently used.
+     *
+     * @param materialId The material ID
+     * @return The questions, or null if none are held
+     */
+    @Nullable
+    synchronized List<Question> get(@NonNull String materialId) {
+        return entries.get(materialId);
+    }
+
+    /**
+     * Gets the current generation, to pass to {@link #putIfUnchanged} after reading.
+     *
+     * @return The generation
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores a material's questions, unless any entry has been invalidated since the
+     * given generation was taken.
+     *
+     * @param materialId The material ID
+     * @param questions  The questions, as read from the database
+     * @param generation The generation taken before reading
+     * @return The questions as held, unmodifiable
+     */
+    @NonNull
+    synchronized List<Question> putIfUnchanged(@NonNull String materialId,
+                                               @NonNull List<Question> questions,
+                                               long generation) {
+        List<Question> held = Collections.unmodifiableList(questions);
+        if (generation == this.generation) {
+            entries.put(materialId, held);
+        }
+        return held;
+    }
+
+    /**
+     * Drops the questions held for the given materials.
+     *
+     * @param materialIds The IDs of the materials whose questions were written
+     */
+    synchronized void invalidate(@NonNull Collection<String> materialIds) {
+        generation++;
+        for (String materialId : materialIds) {
+            entries.remove(materialId);
+        }
+    }
+
+    /**
+     * Drops every entry.
+     */
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of materials whose questions are held.
+     *
+     * @return The number of entries
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+}
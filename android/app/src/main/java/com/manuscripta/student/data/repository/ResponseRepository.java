@@ -15,10 +15,41 @@ public interface ResponseRepository {
     /**
      * Saves a response locally and queues it for sync.
      *
+     * <p>The write is group-committed with other recent saves a few milliseconds later.
+     * Reads through this repository see the response immediately, but it is only
+     * durable once committed. Call {@link #flushPendingResponses()} before the process
+     * may be killed.</p>
+     *
      * @param response The response to save
      */
     void saveResponse(@NonNull Response response);
 
+    /**
+     * Starts committing every response saved so far and waits briefly for the commit to
+     * finish. Safe to call from the main thread, for example from {@code onPause}: a commit
+     * that outlasts the wait still completes in the background.
+     *
+     * @return true if every earlier save is now durable, false if the wait timed out
+     */
+    boolean flushPendingResponses();
+
+    /**
+     * Gets the number of responses committed to the database so far.
+     *
+     * @return The committed count
+     */
+    long getCommittedResponseCount();
+
+    /**
+     * Estimates a percentile of the time from a response being saved to it being
+     * committed to the database.
+     *
+     * @param percentile The percentile in the range (0, 100]
+     * @return The estimate in milliseconds, or 0 if nothing was committed yet
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    double getCommitLatencyMillis(double percentile);
+
     /**
      * Checks whether a response already exists for a given question.
      *
@@ -76,16 +107,24 @@ public interface ResponseRepository {
 
     /**
      * Deletes all responses for a specific question.
+     * Also forgets that the question was answered, if its responses had been pruned.
      *
      * @param questionId The UUID of the question
      */
     void deleteResponsesByQuestionId(@NonNull String questionId);
 
     /**
-     * Deletes all responses.
+     * Deletes all responses, and the record of questions whose responses had been pruned.
      */
     void deleteAllResponses();
 
+    /**
+     * Drops the responses still queued for writing and the record of answered questions,
+     * without writing either. Called after every table has been cleared without going
+     * through this repository, as on pairing or unpairing.
+     */
+    void discardLocalState();
+
     /**
      * Triggers synchronization of all pending responses.
      * This method attempts to sync all unsynced responses to the server
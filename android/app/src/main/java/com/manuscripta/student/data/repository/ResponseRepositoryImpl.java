@@ -11,15 +11,13 @@ import com.manuscripta.student.domain.mapper.ResponseMapper;
 import com.manuscripta.student.domain.model.Response;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.dto.ResponseDto;
+import com.manuscripta.student.utils.UuidSet;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
@@ -31,7 +29,7 @@ import javax.inject.Singleton;
  *
  * <p>Features:</p>
  * <ul>
- *   <li>Local persistence via Room DAO</li>
+ *   <li>Local persistence via Room DAO, group-committed by a {@link ResponseWriteBuffer}</li>
  *   <li>Sync queue for offline responses</li>
  *   <li>Thread-safe operations</li>
  * </ul>
@@ -42,6 +40,12 @@ public class ResponseRepositoryImpl implements ResponseRepository {
     /** Tag for logging. */
     private static final String TAG = "ResponseRepositoryImpl";
 
+    /**
+     * Longest time {@link #flushPendingResponses()} blocks the caller. Kept short, since it
+     * runs on the main thread; the commit carries on in the background after the wait.
+     */
+    private static final long FLUSH_TIMEOUT_MS = 250L;
+
     /** The DAO for response persistence. */
     private final ResponseDao responseDao;
 
@@ -54,11 +58,14 @@ public class ResponseRepositoryImpl implements ResponseRepository {
     /** The sync engine for network operations. */
     private final SyncEngine syncEngine;
 
+    /** Queues saved responses and writes them in group commits. */
+    private final ResponseWriteBuffer writeBuffer;
+
     /**
      * In-memory index of question IDs that already have a stored response.
-     * Keeps duplicate checks off the UI thread.
+     * Keeps duplicate checks off the UI thread. Lookups are lock-free.
      */
-    private final Set<String> respondedQuestionIds;
+    private final UuidSet respondedQuestionIds;
 
     /**
      * Creates a new ResponseRepositoryImpl with the given DAO and API service.
@@ -81,6 +88,22 @@ public class ResponseRepositoryImpl implements ResponseRepository {
      */
     @VisibleForTesting
     ResponseRepositoryImpl(@NonNull ResponseDao responseDao, @NonNull SyncEngine syncEngine) {
+        this(responseDao, syncEngine, ResponseWriteBuffer.DEFAULT_FLUSH_DELAY_MS,
+                ResponseWriteBuffer.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new ResponseRepositoryImpl with a custom sync engine and group-commit
+     * settings. This constructor is primarily for testing purposes.
+     *
+     * @param responseDao  The DAO for response persistence
+     * @param syncEngine   The sync engine for network operations
+     * @param flushDelayMs Time a saved response may wait for its group commit
+     * @param maxBatchSize Number of saved responses that triggers an immediate commit
+     */
+    @VisibleForTesting
+    ResponseRepositoryImpl(@NonNull ResponseDao responseDao, @NonNull SyncEngine syncEngine,
+                           long flushDelayMs, int maxBatchSize) {
         if (responseDao == null) {
             throw new IllegalArgumentException("ResponseDao cannot be null");
         }
@@ -91,22 +114,23 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         this.syncEngine = syncEngine;
         this.syncExecutor = Executors.newSingleThreadExecutor();
         this.isSyncing = new AtomicBoolean(false);
-        this.respondedQuestionIds = Collections.synchronizedSet(new HashSet<>());
+        this.writeBuffer = new ResponseWriteBuffer(responseDao, flushDelayMs, maxBatchSize);
+        this.respondedQuestionIds = new UuidSet();
         initRespondedQuestionIds();
     }
 
     /**
      * Primes the in-memory duplicate-check index from persisted data in the background.
+     * Only the distinct question IDs are read, not the responses themselves, together with
+     * the tombstones of questions whose responses were pruned after syncing.
      * Protected to allow test subclasses to suppress this background task and avoid
      * concurrent mock interactions during Mockito stub setup.
      */
     @VisibleForTesting
     protected void initRespondedQuestionIds() {
         syncExecutor.execute(() -> {
-            List<ResponseEntity> existing = responseDao.getAll();
-            for (ResponseEntity entity : existing) {
-                respondedQuestionIds.add(entity.getQuestionId());
-            }
+            respondedQuestionIds.addAll(responseDao.getRespondedQuestionIds());
+            respondedQuestionIds.addAll(responseDao.getTombstonedQuestionIds());
         });
     }
 
@@ -117,7 +141,22 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         }
         ResponseEntity entity = ResponseMapper.toEntity(response);
         respondedQuestionIds.add(entity.getQuestionId());
-        syncExecutor.execute(() -> responseDao.insert(entity));
+        writeBuffer.enqueue(entity);
+    }
+
+    @Override
+    public boolean flushPendingResponses() {
+        return writeBuffer.flushAndWait(FLUSH_TIMEOUT_MS);
+    }
+
+    @Override
+    public long getCommittedResponseCount() {
+        return writeBuffer.getCommittedCount();
+    }
+
+    @Override
+    public double getCommitLatencyMillis(double percentile) {
+        return writeBuffer.getCommitLatency().getPercentileMillis(percentile);
     }
 
     @Override
@@ -133,6 +172,7 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Response ID cannot be null or empty");
         }
+        writeBuffer.flush();
         ResponseEntity entity = responseDao.getById(id);
         if (entity == null) {
             return null;
@@ -146,6 +186,7 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         if (questionId == null || questionId.trim().isEmpty()) {
             throw new IllegalArgumentException("Question ID cannot be null or empty");
         }
+        writeBuffer.flush();
         List<ResponseEntity> entities = responseDao.getByQuestionId(questionId);
         return mapEntitiesToDomain(entities);
     }
@@ -153,6 +194,7 @@ public class ResponseRepositoryImpl implements ResponseRepository {
     @Override
     @NonNull
     public List<Response> getAllResponses() {
+        writeBuffer.flush();
         List<ResponseEntity> entities = responseDao.getAll();
         return mapEntitiesToDomain(entities);
     }
@@ -160,12 +202,14 @@ public class ResponseRepositoryImpl implements ResponseRepository {
     @Override
     @NonNull
     public List<Response> getUnsyncedResponses() {
+        writeBuffer.flush();
         List<ResponseEntity> entities = responseDao.getUnsynced();
         return mapEntitiesToDomain(entities);
     }
 
     @Override
     public int getUnsyncedCount() {
+        writeBuffer.flush();
         return responseDao.getUnsyncedCount();
     }
 
@@ -174,6 +218,7 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Response ID cannot be null or empty");
         }
+        writeBuffer.flush();
         ResponseEntity existing = responseDao.getById(id);
         if (existing != null) {
             respondedQuestionIds.remove(existing.getQuestionId());
@@ -186,14 +231,30 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         if (questionId == null || questionId.trim().isEmpty()) {
             throw new IllegalArgumentException("Question ID cannot be null or empty");
         }
+        writeBuffer.flush();
         respondedQuestionIds.remove(questionId);
         responseDao.deleteByQuestionId(questionId);
+        responseDao.deleteTombstone(questionId);
     }
 
     @Override
     public void deleteAllResponses() {
+        writeBuffer.flush();
+        respondedQuestionIds.clear();
+        responseDao.deleteAll();
+        responseDao.deleteAllTombstones();
+    }
+
+    @Override
+    public void discardLocalState() {
+        int discarded = writeBuffer.discardPending();
+        if (discarded > 0) {
+            Log.d(TAG, "Discarded " + discarded + " queued responses after the database was cleared");
+        }
         respondedQuestionIds.clear();
+        // A commit under way while the tables were cleared may have written after them
         responseDao.deleteAll();
+        responseDao.deleteAllTombstones();
     }
 
     @Override
@@ -223,6 +284,7 @@ public class ResponseRepositoryImpl implements ResponseRepository {
      * @param callback Optional callback for sync progress
      */
     private void performSync(SyncCallback callback) {
+        writeBuffer.flush();
         List<ResponseEntity> unsyncedResponses = responseDao.getUnsynced();
 
         if (unsyncedResponses.isEmpty()) {
@@ -292,6 +354,16 @@ public class ResponseRepositoryImpl implements ResponseRepository {
         return isSyncing.get();
     }
 
+    /**
+     * Gets the write buffer behind {@link #saveResponse(Response)}.
+     *
+     * @return The write buffer
+     */
+    @VisibleForTesting
+    ResponseWriteBuffer getWriteBuffer() {
+        return writeBuffer;
+    }
+
 
     /**
      * Interface for sync engine operations.
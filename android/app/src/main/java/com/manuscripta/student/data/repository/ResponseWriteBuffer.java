@@ -0,0 +1,308 @@
+package com.manuscripta.student.data.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.manuscripta.student.data.local.ResponseDao;
+import com.manuscripta.student.data.model.ResponseEntity;
+import com.manuscripta.student.utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer that group-commits saved responses.
+ *
+ * <p>Each saved response is queued in memory and written together with any other queued
+ * responses in a single {@link ResponseDao#insertAll} transaction. A commit starts
+ * {@code flushDelayMs} after the first response is queued, or immediately once
+ * {@code maxBatchSize} responses are waiting.</p>
+ *
+ * <p>Durability:</p>
+ * <ul>
+ *   <li>A queued response is only in memory. If the process dies before its group commit,
+ *       it is lost. The window is bounded by the flush delay plus one commit.</li>
+ *   <li>A response is durable once the commit containing it returns.</li>
+ *   <li>{@link #flush()} and {@link #flushAndWait(long)} return only after every response
+ *       queued before the call has been committed or dropped. Commits run one at a time
+ *       in queue order.</li>
+ *   <li>If a group commit fails, its responses are retried one by one. A response that
+ *       still fails is dropped and logged, as a failing single insert was before group
+ *       commit.</li>
+ * </ul>
+ */
+final class ResponseWriteBuffer {
+
+    /** Tag for logging. */
+    private static final String TAG = "ResponseWriteBuffer";
+
+    /** Default time a queued response may wait for others to share its commit. */
+    static final long DEFAULT_FLUSH_DELAY_MS = 20L;
+
+    /** Default number of queued responses that triggers an immediate commit. */
+    static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
+    /** The DAO the responses are committed to. */
+    private final ResponseDao responseDao;
+
+    /** Time a queued response may wait before its group commit starts. */
+    private final long flushDelayMs;
+
+    /** Number of queued responses that triggers an immediate commit. */
+    private final int maxBatchSize;
+
+    /** Runs timed and size-triggered commits. */
+    private final ScheduledExecutorService commitExecutor;
+
+    /** Guards {@link #pending} and {@link #flushScheduled}. */
+    private final Object queueLock = new Object();
+
+    /** Serialises commits so they reach the database in queue order. */
+    private final Object commitLock = new Object();
+
+    /** Responses waiting to be committed, oldest first. */
+    private List<Pending> pending = new ArrayList<>();
+
+    /** Whether a timed commit is already scheduled for the current queue. */
+    private boolean flushScheduled;
+
+    /** Time from a response being queued to its commit returning. */
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+
+    /** Number of responses committed. */
+    private final AtomicLong committedCount = new AtomicLong();
+
+    /** Number of responses dropped because they could not be written. */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Creates a buffer with the default delay and batch size.
+     *
+     * @param responseDao The DAO the responses are committed to
+     */
+    ResponseWriteBuffer(@NonNull ResponseDao responseDao) {
+        this(responseDao, DEFAULT_FLUSH_DELAY_MS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param responseDao  The DAO the responses are committed to
+     * @param flushDelayMs Time a queued response may wait before its commit starts
+     * @param maxBatchSize Number of queued responses that triggers an immediate commit
+     * @throws IllegalArgumentException if responseDao is null, flushDelayMs is negative
+     *                                  or maxBatchSize is not positive
+     */
+    ResponseWriteBuffer(@NonNull ResponseDao responseDao, long flushDelayMs, int maxBatchSize) {
+        if (responseDao == null) {
+            throw new IllegalArgumentException("ResponseDao cannot be null");
+        }
+        if (flushDelayMs < 0) {
+            throw new IllegalArgumentException("Flush delay cannot be negative");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        this.responseDao = responseDao;
+        this.flushDelayMs = flushDelayMs;
+        this.maxBatchSize = maxBatchSize;
+        this.commitExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Queues a response for the next group commit.
+     *
+     * @param entity The response to write
+     */
+    void enqueue(@NonNull ResponseEntity entity) {
+        synchronized (queueLock) {
+            pending.add(new Pending(entity, System.nanoTime()));
+            if (pending.size() >= maxBatchSize) {
+                commitExecutor.execute(this::flush);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                commitExecutor.schedule(this::flush, flushDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Commits every queued response on the calling thread. Must not be called on the
+     * main thread, as Room rejects database access there.
+     */
+    void flush() {
+        synchronized (commitLock) {
+            List<Pending> batch;
+            synchronized (queueLock) {
+                batch = pending;
+                pending = new ArrayList<>();
+                flushScheduled = false;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ResponseEntity> entities = new ArrayList<>(batch.size());
+            for (Pending item : batch) {
+                entities.add(item.entity);
+            }
+            try {
+                responseDao.insertAll(entities);
+                committedCount.addAndGet(entities.size());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Group commit of " + entities.size()
+                        + " responses failed, retrying individually", e);
+                commitIndividually(entities);
+            }
+            long now = System.nanoTime();
+            for (Pending item : batch) {
+                commitLatency.record(now - item.enqueuedAtNanos);
+            }
+        }
+    }
+
+    /**
+     * Commits every queued response on the commit thread and waits for it. If the wait times
+     * out, the commit still completes on the commit thread.
+     *
+     * @param timeoutMs Maximum time to wait
+     * @return true if the commit finished within the timeout
+     */
+    boolean flushAndWait(long timeoutMs) {
+        Future<?> future;
+        try {
+            future = commitExecutor.submit(this::flush);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Commit executor rejected flush", e);
+            return false;
+        }
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            Log.w(TAG, "Flush still running after " + timeoutMs + " ms");
+            return false;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Flush did not complete", e);
+            return false;
+        }
+    }
+
+    /**
+     * Drops every queued response without writing it, after waiting for any commit already
+     * under way. Used once the responses table has been cleared, so that nothing queued
+     * before the clear is written into it.
+     *
+     * @return The number of responses dropped
+     */
+    int discardPending() {
+        synchronized (commitLock) {
+            synchronized (queueLock) {
+                int discarded = pending.size();
+                pending = new ArrayList<>();
+                flushScheduled = false;
+                return discarded;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of responses waiting to be committed.
+     *
+     * @return The queue length
+     */
+    int getPendingCount() {
+        synchronized (queueLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the time from a response being queued to its commit returning, recorded once
+     * per response.
+     *
+     * @return The commit latency histogram
+     */
+    @NonNull
+    LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    /**
+     * Gets the number of responses committed so far.
+     *
+     * @return The committed count
+     */
+    long getCommittedCount() {
+        return committedCount.get();
+    }
+
+    /**
+     * Gets the number of responses dropped because they could not be written.
+     *
+     * @return The dropped count
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops the commit thread after committing anything still queued.
+     */
+    @VisibleForTesting
+    void shutdown() {
+        flushAndWait(TimeUnit.SECONDS.toMillis(5));
+        commitExecutor.shutdownNow();
+    }
+
+    /**
+     * Writes responses one at a time after a failed group commit.
+     *
+     * @param entities The responses from the failed batch
+     */
+    private void commitIndividually(@NonNull List<ResponseEntity> entities) {
+        for (ResponseEntity entity : entities) {
+            try {
+                responseDao.insert(entity);
+                committedCount.incrementAndGet();
+            } catch (RuntimeException e) {
+                droppedCount.incrementAndGet();
+                Log.e(TAG, "Dropping response " + entity.getId() + " that could not be written", e);
+            }
+        }
+    }
+
+    /**
+     * A queued response and the time it was queued.
+     */
+    private static final class Pending {
+
+        /** The queued response. */
+        final ResponseEntity entity;
+
+        /** {@link System#nanoTime()} when the response was queued. */
+        final long enqueuedAtNanos;
+
+        /**
+         * Creates a queue entry.
+         *
+         * @param entity          The queued response
+         * @param enqueuedAtNanos When the response was queued
+         */
+        Pending(@NonNull ResponseEntity entity, long enqueuedAtNanos) {
+            this.entity = entity;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.manuscripta.student.data.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.manuscripta.student.data.local.DatabaseReclaimer;
+import com.manuscripta.student.data.local.ResponseDao;
+import com.manuscripta.student.data.local.SessionDao;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the local database from growing without bound by pruning history the teacher
+ * already has, then returning the freed pages to the file system a few at a time.
+ *
+ * <p>Responses are pruned only once synced, and each answered question keeps a tombstone
+ * so the student still cannot answer it twice. Feedback goes with its response. Sessions
+ * are pruned once COMPLETED or CANCELLED; open sessions are never touched. Maintenance is
+ * meant to run while the app is idle, on a low-priority thread, and requests made while
+ * a run is still waiting share it.</p>
+ */
+public class RetentionManager {
+
+    /** Tag for logging. */
+    private static final String TAG = "RetentionManager";
+
+    /** Default age after which synced responses are pruned: 30 days. */
+    public static final long DEFAULT_RESPONSE_RETENTION_MS = 30L * 24 * 60 * 60 * 1000;
+
+    /** Default age after which finished sessions are pruned: 30 days. */
+    public static final long DEFAULT_SESSION_RETENTION_MS = 30L * 24 * 60 * 60 * 1000;
+
+    /** Default number of free pages returned per run: 4 MiB at the default page size. */
+    public static final int DEFAULT_VACUUM_PAGES_PER_RUN = 1024;
+
+    /** Session statuses that will not change again. */
+    private static final List<SessionStatus> FINISHED_STATUSES = Arrays.asList(
+            SessionStatus.COMPLETED, SessionStatus.CANCELLED);
+
+    /** The DAO for responses and their tombstones. */
+    private final ResponseDao responseDao;
+
+    /** The DAO for sessions. */
+    private final SessionDao sessionDao;
+
+    /** The session repository, whose cache is invalidated when sessions are pruned. */
+    private final SessionRepository sessionRepository;
+
+    /** Returns freed pages to the file system. */
+    private final DatabaseReclaimer databaseReclaimer;
+
+    /** Age in milliseconds after which synced responses are pruned. */
+    private final long responseRetentionMs;
+
+    /** Age in milliseconds after which finished sessions are pruned. */
+    private final long sessionRetentionMs;
+
+    /** Most free pages returned per run. */
+    private final int vacuumPagesPerRun;
+
+    /** Runs scheduled maintenance. */
+    private final Executor executor;
+
+    /** Whether a maintenance run is waiting to run. */
+    private final AtomicBoolean maintenancePending = new AtomicBoolean(false);
+
+    /**
+     * Creates a new RetentionManager with the default policy.
+     *
+     * @param responseDao       The DAO for responses and their tombstones
+     * @param sessionDao        The DAO for sessions
+     * @param sessionRepository The session repository
+     * @param databaseReclaimer Returns freed pages to the file system
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public RetentionManager(@NonNull ResponseDao responseDao,
+                            @NonNull SessionDao sessionDao,
+                            @NonNull SessionRepository sessionRepository,
+                            @NonNull DatabaseReclaimer databaseReclaimer) {
+        this(responseDao, sessionDao, sessionRepository, databaseReclaimer,
+                DEFAULT_RESPONSE_RETENTION_MS, DEFAULT_SESSION_RETENTION_MS,
+                DEFAULT_VACUUM_PAGES_PER_RUN);
+    }
+
+    /**
+     * Creates a new RetentionManager that runs maintenance on its own low-priority thread.
+     *
+     * @param responseDao         The DAO for responses and their tombstones
+     * @param sessionDao          The DAO for sessions
+     * @param sessionRepository   The session repository
+     * @param databaseReclaimer   Returns freed pages to the file system
+     * @param responseRetentionMs Age after which synced responses are pruned (not negative)
+     * @param sessionRetentionMs  Age after which finished sessions are pruned (not negative)
+     * @param vacuumPagesPerRun   Most free pages returned per run (must be positive)
+     * @throws IllegalArgumentException if any object parameter is null or a limit is invalid
+     */
+    public RetentionManager(@NonNull ResponseDao responseDao,
+                            @NonNull SessionDao sessionDao,
+                            @NonNull SessionRepository sessionRepository,
+                            @NonNull DatabaseReclaimer databaseReclaimer,
+                            long responseRetentionMs,
+                            long sessionRetentionMs,
+                            int vacuumPagesPerRun) {
+        this(responseDao, sessionDao, sessionRepository, databaseReclaimer,
+                responseRetentionMs, sessionRetentionMs, vacuumPagesPerRun,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "retention-maintenance");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }));
+    }
+
+    /**
+     * Creates a new RetentionManager with the given executor for scheduled maintenance.
+     *
+     * @param responseDao         The DAO for responses and their tombstones
+     * @param sessionDao          The DAO for sessions
+     * @param sessionRepository   The session repository
+     * @param databaseReclaimer   Returns freed pages to the file system
+     * @param responseRetentionMs Age after which synced responses are pruned (not negative)
+     * @param sessionRetentionMs  Age after which finished sessions are pruned (not negative)
+     * @param vacuumPagesPerRun   Most free pages returned per run (must be positive)
+     * @param executor            Runs scheduled maintenance
+     * @throws IllegalArgumentException if any object parameter is null or a limit is invalid
+     */
+    @VisibleForTesting
+    RetentionManager(@NonNull ResponseDao responseDao,
+                     @NonNull SessionDao sessionDao,
+                     @NonNull SessionRepository sessionRepository,
+                     @NonNull DatabaseReclaimer databaseReclaimer,
+                     long responseRetentionMs,
+                     long sessionRetentionMs,
+                     int vacuumPagesPerRun,
+                     @NonNull Executor executor) {
+        if (responseDao == null) {
+            throw new IllegalArgumentException("ResponseDao cannot be null");
+        }
+        if (sessionDao == null) {
+            throw new IllegalArgumentException("SessionDao cannot be null");
+        }
+        if (sessionRepository == null) {
+            throw new IllegalArgumentException("SessionRepository cannot be null");
+        }
+        if (databaseReclaimer == null) {
+            throw new IllegalArgumentException("DatabaseReclaimer cannot be null");
+        }
+        if (responseRetentionMs < 0) {
+            throw new IllegalArgumentException("Response retention cannot be negative");
+        }
+        if (sessionRetentionMs < 0) {
+            throw new IllegalArgumentException("Session retention cannot be negative");
+        }
+        if (vacuumPagesPerRun <= 0) {
+            throw new IllegalArgumentException("Vacuum pages per run must be positive");
+        }
+        this.responseDao = responseDao;
+        this.sessionDao = sessionDao;
+        this.sessionRepository = sessionRepository;
+        this.databaseReclaimer = databaseReclaimer;
+        this.responseRetentionMs = responseRetentionMs;
+        this.sessionRetentionMs = sessionRetentionMs;
+        this.vacuumPagesPerRun = vacuumPagesPerRun;
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules a maintenance run at the current time, unless one is already waiting to run.
+     * Call when the app becomes idle.
+     */
+    public void scheduleMaintenance() {
+        if (!maintenancePending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            maintenancePending.set(false);
+            try {
+                runMaintenance(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Retention maintenance failed", e);
+            }
+        });
+    }
+
+    /**
+     * Prunes synced responses and finished sessions older than their retention, then
+     * returns up to the configured number of free pages to the file system.
+     *
+     * @param nowMillis The current time (Unix epoch milliseconds)
+     * @return The number of responses and sessions pruned
+     */
+    @WorkerThread
+    public int runMaintenance(long nowMillis) {
+        int responses = responseDao.pruneSyncedBefore(nowMillis - responseRetentionMs);
+        int sessions = sessionDao.deleteEndedBefore(FINISHED_STATUSES,
+                nowMillis - sessionRetentionMs);
+        if (sessions > 0) {
+            sessionRepository.invalidateCache();
+        }
+        databaseReclaimer.compactIncrementally(vacuumPagesPerRun);
+        Log.i(TAG, "Pruned " + responses + " responses and " + sessions + " sessions");
+        return responses + sessions;
+    }
+}
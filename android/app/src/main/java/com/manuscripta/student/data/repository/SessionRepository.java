@@ -62,6 +62,7 @@ public interface SessionRepository {
     /**
      * Activates a session that is in RECEIVED state, transitioning it to ACTIVE.
      * Sets the start time to the current timestamp when the student first interacts.
+     * If another session is active, it is paused first.
      *
      * @param sessionId The ID of the session to activate
      * @throws IllegalArgumentException if sessionId is null or empty
@@ -70,6 +71,16 @@ public interface SessionRepository {
      */
     void activateSession(@NonNull String sessionId);
 
+    /**
+     * Activates the RECEIVED session of a material, if it has one, as
+     * {@link #activateSession(String)} does.
+     *
+     * @param materialId The ID of the material being opened
+     * @return true if a session was activated, false if the material has no RECEIVED session
+     * @throws IllegalArgumentException if materialId is null or empty
+     */
+    boolean activateReceivedSession(@NonNull String materialId);
+
     /**
      * Completes the currently active session.
      *
@@ -171,4 +182,12 @@ public interface SessionRepository {
      * @return The number of sessions with that status
      */
     int getSessionCountByStatus(@NonNull SessionStatus status);
+
+    /**
+     * Discards any session state held in memory, so the next call reads it again from
+     * storage. Must be called after the sessions table is written other than through this
+     * repository, for example when a distribution creates sessions or a material deletion
+     * cascades to them.
+     */
+    void invalidateCache();
 }
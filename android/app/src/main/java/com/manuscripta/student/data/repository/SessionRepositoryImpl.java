@@ -10,7 +10,10 @@ import com.manuscripta.student.domain.mapper.SessionMapper;
 import com.manuscripta.student.domain.model.Session;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -24,6 +27,7 @@ import javax.inject.Singleton;
  *   <li>Local persistence via Room DAO</li>
  *   <li>Active session tracking (only one active at a time)</li>
  *   <li>Session lifecycle management (start, pause, resume, complete, cancel)</li>
+ *   <li>In-memory session state, so lookups do not touch the database</li>
  * </ul>
  *
  * <p>
@@ -33,6 +37,16 @@ import javax.inject.Singleton;
  * <br>
  * <code>RECEIVED → ACTIVE → PAUSED/COMPLETED/CANCELLED</code>
  * </p>
+ *
+ * <p>
+ * <b>Session State:</b><br>
+ * Every session is loaded into memory on first use. Lookups by ID, by material and of the
+ * active session read that copy. Each transition is checked against it, written with one
+ * {@link SessionDao#applyTransition} transaction, and applied to memory only once the
+ * transaction has committed. Transitions are serialised on a lock; readers never lock and
+ * see either the state before or after a transition, never a mix. Writes to the sessions
+ * table that bypass this class must be followed by {@link #invalidateCache()}.
+ * </p>
  */
 @Singleton
 public class SessionRepositoryImpl implements SessionRepository {
@@ -40,6 +54,13 @@ public class SessionRepositoryImpl implements SessionRepository {
     /** The DAO for session persistence. */
     private final SessionDao sessionDao;
 
+    /** Serialises transitions and cache loads. */
+    private final Object lock = new Object();
+
+    /** The sessions held in memory, or null until loaded or after invalidation. */
+    @Nullable
+    private volatile SessionState state;
+
     /**
      * Creates a new SessionRepositoryImpl with the given DAO.
      *
@@ -69,19 +90,22 @@ public class SessionRepositoryImpl implements SessionRepository {
         validateNotEmpty(materialId, "Material ID");
         validateNotEmpty(deviceId, "Device ID");
 
-        // Pause any existing active session first (per Session Interaction §5(4)(c))
-        SessionEntity activeSession = sessionDao.getActiveSession();
-        if (activeSession != null) {
-            sessionDao.endSession(activeSession.getId(), System.currentTimeMillis(),
-                    SessionStatus.PAUSED);
+        synchronized (lock) {
+            SessionState current = loadedState();
+            List<SessionEntity> updated = new ArrayList<>(1);
+            // Pause any existing active session first (per Session Interaction §5(4)(c))
+            SessionEntity active = current.getActive();
+            if (active != null) {
+                updated.add(withStatus(active, active.getStartTime(),
+                        System.currentTimeMillis(), SessionStatus.PAUSED));
+            }
+
+            Session newSession = Session.create(materialId, deviceId);
+            SessionEntity entity = SessionMapper.toEntity(newSession);
+            commit(current, updated, entity);
+
+            return newSession;
         }
-
-        // Create and save new session
-        Session newSession = Session.create(materialId, deviceId);
-        SessionEntity entity = SessionMapper.toEntity(newSession);
-        sessionDao.insert(entity);
-
-        return newSession;
     }
 
     /**
@@ -92,7 +116,7 @@ public class SessionRepositoryImpl implements SessionRepository {
     @Override
     @Nullable
     public Session getActiveSession() {
-        SessionEntity entity = sessionDao.getActiveSession();
+        SessionEntity entity = loadedState().getActive();
         if (entity == null) {
             return null;
         }
@@ -106,7 +130,7 @@ public class SessionRepositoryImpl implements SessionRepository {
      */
     @Override
     public boolean hasActiveSession() {
-        return sessionDao.getActiveSession() != null;
+        return loadedState().getActive() != null;
     }
 
     /**
@@ -116,11 +140,15 @@ public class SessionRepositoryImpl implements SessionRepository {
      */
     @Override
     public void pauseSession() {
-        SessionEntity activeSession = sessionDao.getActiveSession();
-        if (activeSession == null) {
-            throw new IllegalStateException("No active session to pause");
+        synchronized (lock) {
+            SessionState current = loadedState();
+            SessionEntity active = current.getActive();
+            if (active == null) {
+                throw new IllegalStateException("No active session to pause");
+            }
+            commit(current, Collections.singletonList(withStatus(active,
+                    active.getStartTime(), active.getEndTime(), SessionStatus.PAUSED)), null);
         }
-        sessionDao.updateStatus(activeSession.getId(), SessionStatus.PAUSED);
     }
 
     /**
@@ -134,27 +162,33 @@ public class SessionRepositoryImpl implements SessionRepository {
     public void resumeSession(@NonNull String sessionId) {
         validateNotEmpty(sessionId, "Session ID");
 
-        SessionEntity session = sessionDao.getById(sessionId);
-        if (session == null) {
-            throw new IllegalArgumentException("Session not found: " + sessionId);
-        }
-        if (session.getStatus() != SessionStatus.PAUSED) {
-            throw new IllegalStateException("Cannot resume session that is not paused. "
-                    + "Current status: " + session.getStatus());
-        }
-
-        // Pause any other active session first (per Session Interaction §5(4)(c))
-        SessionEntity currentActive = sessionDao.getActiveSession();
-        if (currentActive != null) {
-            sessionDao.endSession(currentActive.getId(), System.currentTimeMillis(),
-                    SessionStatus.PAUSED);
+        synchronized (lock) {
+            SessionState current = loadedState();
+            SessionEntity session = current.get(sessionId);
+            if (session == null) {
+                throw new IllegalArgumentException("Session not found: " + sessionId);
+            }
+            if (session.getStatus() != SessionStatus.PAUSED) {
+                throw new IllegalStateException("Cannot resume session that is not paused. "
+                        + "Current status: " + session.getStatus());
+            }
+
+            List<SessionEntity> updated = new ArrayList<>(2);
+            // Pause any other active session first (per Session Interaction §5(4)(c))
+            SessionEntity currentActive = current.getActive();
+            if (currentActive != null) {
+                updated.add(withStatus(currentActive, currentActive.getStartTime(),
+                        System.currentTimeMillis(), SessionStatus.PAUSED));
+            }
+            updated.add(withStatus(session, session.getStartTime(), session.getEndTime(),
+                    SessionStatus.ACTIVE));
+            commit(current, updated, null);
         }
-
-        sessionDao.updateStatus(sessionId, SessionStatus.ACTIVE);
     }
 
     /**
-     * Activates a session that is in RECEIVED state.
+     * Activates a session that is in RECEIVED state. If another session is active, it is
+     * paused first.
      *
      * @param sessionId The ID of the session to activate
      * @throws IllegalArgumentException if sessionId is null, empty, or does not exist
@@ -164,16 +198,41 @@ public class SessionRepositoryImpl implements SessionRepository {
     public void activateSession(@NonNull String sessionId) {
         validateNotEmpty(sessionId, "Session ID");
 
-        SessionEntity session = sessionDao.getById(sessionId);
-        if (session == null) {
-            throw new IllegalArgumentException("Session not found: " + sessionId);
-        }
-        if (session.getStatus() != SessionStatus.RECEIVED) {
-            throw new IllegalStateException("Cannot activate session that is not in RECEIVED state. "
-                    + "Current status: " + session.getStatus());
+        synchronized (lock) {
+            SessionState current = loadedState();
+            SessionEntity session = current.get(sessionId);
+            if (session == null) {
+                throw new IllegalArgumentException("Session not found: " + sessionId);
+            }
+            if (session.getStatus() != SessionStatus.RECEIVED) {
+                throw new IllegalStateException("Cannot activate session that is not in RECEIVED state. "
+                        + "Current status: " + session.getStatus());
+            }
+            activate(current, session);
         }
+    }
 
-        sessionDao.activateSession(sessionId, System.currentTimeMillis());
+    /**
+     * Activates the RECEIVED session of a material, if it has one.
+     *
+     * @param materialId The ID of the material being opened
+     * @return true if a session was activated
+     * @throws IllegalArgumentException if materialId is null or empty
+     */
+    @Override
+    public boolean activateReceivedSession(@NonNull String materialId) {
+        validateNotEmpty(materialId, "Material ID");
+
+        synchronized (lock) {
+            SessionState current = loadedState();
+            for (SessionEntity session : current.getByMaterialId(materialId)) {
+                if (session.getStatus() == SessionStatus.RECEIVED) {
+                    activate(current, session);
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     /**
@@ -183,12 +242,7 @@ public class SessionRepositoryImpl implements SessionRepository {
      */
     @Override
     public void completeSession() {
-        SessionEntity activeSession = sessionDao.getActiveSession();
-        if (activeSession == null) {
-            throw new IllegalStateException("No active session to complete");
-        }
-        sessionDao.endSession(activeSession.getId(), System.currentTimeMillis(),
-                SessionStatus.COMPLETED);
+        endActiveSession(SessionStatus.COMPLETED, "No active session to complete");
     }
 
     /**
@@ -198,16 +252,11 @@ public class SessionRepositoryImpl implements SessionRepository {
      */
     @Override
     public void cancelSession() {
-        SessionEntity activeSession = sessionDao.getActiveSession();
-        if (activeSession == null) {
-            throw new IllegalStateException("No active session to cancel");
-        }
-        sessionDao.endSession(activeSession.getId(), System.currentTimeMillis(),
-                SessionStatus.CANCELLED);
+        endActiveSession(SessionStatus.CANCELLED, "No active session to cancel");
     }
 
     /**
-     * Ends a session with the specified status.
+     * Ends a session with the specified status. Does nothing if the session does not exist.
      *
      * @param sessionId The ID of the session to end
      * @param status    The final status (must be COMPLETED or CANCELLED)
@@ -224,7 +273,15 @@ public class SessionRepositoryImpl implements SessionRepository {
                     "End session status must be COMPLETED or CANCELLED, got: " + status);
         }
 
-        sessionDao.endSession(sessionId, System.currentTimeMillis(), status);
+        synchronized (lock) {
+            SessionState current = loadedState();
+            SessionEntity session = current.get(sessionId);
+            if (session == null) {
+                return;
+            }
+            commit(current, Collections.singletonList(withStatus(session,
+                    session.getStartTime(), System.currentTimeMillis(), status)), null);
+        }
     }
 
     /**
@@ -239,7 +296,7 @@ public class SessionRepositoryImpl implements SessionRepository {
     public Session getSessionById(@NonNull String id) {
         validateNotEmpty(id, "Session ID");
 
-        SessionEntity entity = sessionDao.getById(id);
+        SessionEntity entity = loadedState().get(id);
         if (entity == null) {
             return null;
         }
@@ -250,7 +307,7 @@ public class SessionRepositoryImpl implements SessionRepository {
      * Retrieves all sessions associated with the given material.
      *
      * @param materialId The material ID
-     * @return List of sessions for the material (empty if none found)
+     * @return List of sessions for the material, newest first (empty if none found)
      * @throws IllegalArgumentException if materialId is null or empty
      */
     @Override
@@ -258,8 +315,7 @@ public class SessionRepositoryImpl implements SessionRepository {
     public List<Session> getSessionsByMaterialId(@NonNull String materialId) {
         validateNotEmpty(materialId, "Material ID");
 
-        List<SessionEntity> entities = sessionDao.getByMaterialId(materialId);
-        return mapEntitiesToDomain(entities);
+        return mapEntitiesToDomain(loadedState().getByMaterialId(materialId));
     }
 
     /**
@@ -317,7 +373,13 @@ public class SessionRepositoryImpl implements SessionRepository {
     @Override
     public void deleteSession(@NonNull String id) {
         validateNotEmpty(id, "Session ID");
-        sessionDao.deleteById(id);
+        synchronized (lock) {
+            sessionDao.deleteById(id);
+            SessionState current = state;
+            if (current != null) {
+                state = current.without(Collections.singletonList(id));
+            }
+        }
     }
 
     /**
@@ -329,7 +391,17 @@ public class SessionRepositoryImpl implements SessionRepository {
     @Override
     public void deleteSessionsByMaterialId(@NonNull String materialId) {
         validateNotEmpty(materialId, "Material ID");
-        sessionDao.deleteByMaterialId(materialId);
+        synchronized (lock) {
+            sessionDao.deleteByMaterialId(materialId);
+            SessionState current = state;
+            if (current != null) {
+                List<String> ids = new ArrayList<>();
+                for (SessionEntity session : current.getByMaterialId(materialId)) {
+                    ids.add(session.getId());
+                }
+                state = current.without(ids);
+            }
+        }
     }
 
     /**
@@ -337,7 +409,10 @@ public class SessionRepositoryImpl implements SessionRepository {
      */
     @Override
     public void deleteAllSessions() {
-        sessionDao.deleteAll();
+        synchronized (lock) {
+            sessionDao.deleteAll();
+            state = SessionState.EMPTY;
+        }
     }
 
     /**
@@ -365,6 +440,107 @@ public class SessionRepositoryImpl implements SessionRepository {
         return sessionDao.getCountByStatus(status);
     }
 
+    /**
+     * Discards the in-memory session state. The next call reloads it from the database.
+     */
+    @Override
+    public void invalidateCache() {
+        synchronized (lock) {
+            state = null;
+        }
+    }
+
+    /**
+     * Gets the in-memory session state, loading it from the database if needed.
+     *
+     * @return The current state
+     */
+    @NonNull
+    private SessionState loadedState() {
+        SessionState current = state;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (state == null) {
+                state = SessionState.of(sessionDao.getAll());
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Pauses the active session, if any, and activates a RECEIVED session in one
+     * transaction. Callers must hold the lock.
+     *
+     * @param current The current state
+     * @param session The RECEIVED session to activate
+     */
+    private void activate(@NonNull SessionState current, @NonNull SessionEntity session) {
+        long now = System.currentTimeMillis();
+        List<SessionEntity> updated = new ArrayList<>(2);
+        SessionEntity active = current.getActive();
+        if (active != null) {
+            updated.add(withStatus(active, active.getStartTime(), now, SessionStatus.PAUSED));
+        }
+        updated.add(withStatus(session, now, session.getEndTime(), SessionStatus.ACTIVE));
+        commit(current, updated, null);
+    }
+
+    /**
+     * Ends the active session with the given status.
+     *
+     * @param status       The final status
+     * @param errorMessage The message thrown if no session is active
+     * @throws IllegalStateException if no active session exists
+     */
+    private void endActiveSession(@NonNull SessionStatus status, @NonNull String errorMessage) {
+        synchronized (lock) {
+            SessionState current = loadedState();
+            SessionEntity active = current.getActive();
+            if (active == null) {
+                throw new IllegalStateException(errorMessage);
+            }
+            commit(current, Collections.singletonList(withStatus(active,
+                    active.getStartTime(), System.currentTimeMillis(), status)), null);
+        }
+    }
+
+    /**
+     * Writes a transition to the database and, once it has committed, publishes the new
+     * in-memory state. If the write fails the in-memory state is left unchanged.
+     * Callers must hold the lock.
+     *
+     * @param current  The state the transition was computed from
+     * @param updated  The existing sessions with their new values
+     * @param inserted A newly created session, or null
+     */
+    private void commit(@NonNull SessionState current, @NonNull List<SessionEntity> updated,
+                        @Nullable SessionEntity inserted) {
+        sessionDao.applyTransition(updated, inserted);
+        List<SessionEntity> changed = new ArrayList<>(updated);
+        if (inserted != null) {
+            changed.add(inserted);
+        }
+        state = current.with(changed);
+    }
+
+    /**
+     * Copies a session with new times and status.
+     *
+     * @param session   The session to copy
+     * @param startTime The new start time
+     * @param endTime   The new end time
+     * @param status    The new status
+     * @return The updated copy
+     */
+    @NonNull
+    private static SessionEntity withStatus(@NonNull SessionEntity session, long startTime,
+                                            long endTime, @NonNull SessionStatus status) {
+        return new SessionEntity(session.getId(), session.getMaterialId(), startTime, endTime,
+                status, session.getDeviceId());
+    }
+
     /**
      * Validates that a string parameter is not null or empty.
      *
@@ -392,4 +568,129 @@ public class SessionRepositoryImpl implements SessionRepository {
         }
         return sessions;
     }
+
+    /**
+     * Immutable snapshot of every session. Transitions build a new snapshot and publish it
+     * through the volatile {@link #state} field.
+     */
+    private static final class SessionState {
+
+        /** State with no sessions. */
+        static final SessionState EMPTY =
+                new SessionState(Collections.emptyMap(), null);
+
+        /** Sessions by ID. */
+        private final Map<String, SessionEntity> byId;
+
+        /** The active session, or null. */
+        @Nullable
+        private final SessionEntity active;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param byId   Sessions by ID, not modified afterwards
+         * @param active The active session, or null
+         */
+        private SessionState(@NonNull Map<String, SessionEntity> byId,
+                             @Nullable SessionEntity active) {
+            this.byId = byId;
+            this.active = active;
+        }
+
+        /**
+         * Builds a snapshot from stored sessions.
+         *
+         * @param sessions Every stored session, newest first
+         * @return The snapshot
+         */
+        @NonNull
+        static SessionState of(@NonNull List<SessionEntity> sessions) {
+            return EMPTY.with(sessions);
+        }
+
+        /**
+         * Gets a session by ID.
+         *
+         * @param id The session ID
+         * @return The session, or null if there is none
+         */
+        @Nullable
+        SessionEntity get(@NonNull String id) {
+            return byId.get(id);
+        }
+
+        /**
+         * Gets the active session.
+         *
+         * @return The active session, or null if none is active
+         */
+        @Nullable
+        SessionEntity getActive() {
+            return active;
+        }
+
+        /**
+         * Gets the sessions of a material, newest first, as
+         * {@link SessionDao#getByMaterialId} orders them.
+         *
+         * @param materialId The material ID
+         * @return The sessions
+         */
+        @NonNull
+        List<SessionEntity> getByMaterialId(@NonNull String materialId) {
+            List<SessionEntity> result = new ArrayList<>();
+            for (SessionEntity session : byId.values()) {
+                if (materialId.equals(session.getMaterialId())) {
+                    result.add(session);
+                }
+            }
+            Collections.sort(result,
+                    (a, b) -> Long.compare(b.getStartTime(), a.getStartTime()));
+            return result;
+        }
+
+        /**
+         * Returns a snapshot with sessions added or replaced.
+         *
+         * @param changed The new or updated sessions
+         * @return The new snapshot
+         */
+        @NonNull
+        SessionState with(@NonNull List<SessionEntity> changed) {
+            Map<String, SessionEntity> copy = new HashMap<>(byId);
+            SessionEntity newActive = active;
+            for (SessionEntity session : changed) {
+                copy.put(session.getId(), session);
+                if (session.getStatus() == SessionStatus.ACTIVE) {
+                    // Keep the first active session if storage holds more than one
+                    if (newActive == null || newActive.getId().equals(session.getId())) {
+                        newActive = session;
+                    }
+                } else if (newActive != null && newActive.getId().equals(session.getId())) {
+                    newActive = null;
+                }
+            }
+            return new SessionState(Collections.unmodifiableMap(copy), newActive);
+        }
+
+        /**
+         * Returns a snapshot without the given sessions.
+         *
+         * @param ids The IDs of the removed sessions
+         * @return The new snapshot
+         */
+        @NonNull
+        SessionState without(@NonNull List<String> ids) {
+            Map<String, SessionEntity> copy = new HashMap<>(byId);
+            SessionEntity newActive = active;
+            for (String id : ids) {
+                copy.remove(id);
+                if (newActive != null && newActive.getId().equals(id)) {
+                    newActive = null;
+                }
+            }
+            return new SessionState(Collections.unmodifiableMap(copy), newActive);
+        }
+    }
 }
@@ -0,0 +1,286 @@
+package com.manuscripta.student.data.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.manuscripta.student.data.local.DistributionDao;
+import com.manuscripta.student.data.local.SessionDao;
+import com.manuscripta.student.data.model.SessionStatus;
+import com.manuscripta.student.utils.FileStorageManager;
+import com.manuscripta.student.utils.StoredAttachment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps attachment storage within a byte quota by evicting the least recently used
+ * attachments.
+ *
+ * <p>Attachments of materials with a RECEIVED, ACTIVE or PAUSED session are never evicted,
+ * since the student may still open them. Among the rest, attachments of materials whose
+ * sessions are all finished go first, then the least recently saved or viewed. An evicted
+ * material's manifest entry is marked incomplete, so the next distribution of it downloads
+ * the attachments again.</p>
+ *
+ * <p>Usage counts content shared by several materials once, as it is stored on disk, so
+ * evicting a shared attachment frees space only once its last reference is gone. The quota also
+ * shrinks when the storage volume runs low, to keep a minimum of free space for the rest of
+ * the device.</p>
+ */
+public class StorageQuotaManager {
+
+    /** Tag for logging. */
+    private static final String TAG = "StorageQuotaManager";
+
+    /** Default quota for stored attachments: 1 GiB. */
+    public static final long DEFAULT_QUOTA_BYTES = 1024L * 1024L * 1024L;
+
+    /** Default free space to leave on the storage volume: 512 MiB. */
+    public static final long DEFAULT_MIN_FREE_BYTES = 512L * 1024L * 1024L;
+
+    /** Maximum number of material IDs bound to one manifest update. */
+    private static final int MAX_IDS_PER_UPDATE = 500;
+
+    /** Session statuses whose material's attachments must stay on the device. */
+    private static final List<SessionStatus> PROTECTED_STATUSES = Arrays.asList(
+            SessionStatus.RECEIVED, SessionStatus.ACTIVE, SessionStatus.PAUSED);
+
+    /** Session statuses of materials the student has finished with. */
+    private static final List<SessionStatus> FINISHED_STATUSES = Arrays.asList(
+            SessionStatus.COMPLETED, SessionStatus.CANCELLED);
+
+    /** The file storage holding the attachments. */
+    private final FileStorageManager fileStorageManager;
+
+    /** The DAO for session lookups. */
+    private final SessionDao sessionDao;
+
+    /** The DAO for the distribution manifest. */
+    private final DistributionDao distributionDao;
+
+    /** The quota in bytes. */
+    private final long quotaBytes;
+
+    /** The free space to leave on the storage volume, in bytes. */
+    private final long minFreeBytes;
+
+    /** Serialises eviction passes and guards the eviction counters. */
+    private final Object evictionLock = new Object();
+
+    /** Number of attachments evicted since construction. */
+    private int evictedAttachmentCount;
+
+    /** Bytes freed by eviction since construction. */
+    private long evictedBytes;
+
+    /**
+     * Creates a new StorageQuotaManager with the default quota and minimum free space.
+     *
+     * @param fileStorageManager The file storage holding the attachments
+     * @param sessionDao         The DAO for session lookups
+     * @param distributionDao    The DAO for the distribution manifest
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public StorageQuotaManager(@NonNull FileStorageManager fileStorageManager,
+                               @NonNull SessionDao sessionDao,
+                               @NonNull DistributionDao distributionDao) {
+        this(fileStorageManager, sessionDao, distributionDao,
+                DEFAULT_QUOTA_BYTES, DEFAULT_MIN_FREE_BYTES);
+    }
+
+    /**
+     * Creates a new StorageQuotaManager.
+     *
+     * @param fileStorageManager The file storage holding the attachments
+     * @param sessionDao         The DAO for session lookups
+     * @param distributionDao    The DAO for the distribution manifest
+     * @param quotaBytes         The quota in bytes (must not be negative)
+     * @param minFreeBytes       The free space to leave on the volume (must not be negative)
+     * @throws IllegalArgumentException if any object parameter is null or a size is negative
+     */
+    public StorageQuotaManager(@NonNull FileStorageManager fileStorageManager,
+                               @NonNull SessionDao sessionDao,
+                               @NonNull DistributionDao distributionDao,
+                               long quotaBytes,
+                               long minFreeBytes) {
+        if (fileStorageManager == null) {
+            throw new IllegalArgumentException("FileStorageManager cannot be null");
+        }
+        if (sessionDao == null) {
+            throw new IllegalArgumentException("SessionDao cannot be null");
+        }
+        if (distributionDao == null) {
+            throw new IllegalArgumentException("DistributionDao cannot be null");
+        }
+        if (quotaBytes < 0) {
+            throw new IllegalArgumentException("Quota cannot be negative");
+        }
+        if (minFreeBytes < 0) {
+            throw new IllegalArgumentException("Minimum free space cannot be negative");
+        }
+        this.fileStorageManager = fileStorageManager;
+        this.sessionDao = sessionDao;
+        this.distributionDao = distributionDao;
+        this.quotaBytes = quotaBytes;
+        this.minFreeBytes = minFreeBytes;
+    }
+
+    /**
+     * Reports current attachment storage usage, broken down by material and MIME type.
+     *
+     * @return The usage snapshot
+     */
+    @WorkerThread
+    @NonNull
+    public StorageUsage getUsage() {
+        List<StoredAttachment> stored = fileStorageManager.getStoredAttachments();
+        Map<String, Long> bytesByMaterial = new HashMap<>();
+        Map<String, Long> bytesByMimeType = new HashMap<>();
+        for (StoredAttachment attachment : stored) {
+            long size = attachment.getLocation().getSizeBytes();
+            bytesByMaterial.merge(attachment.getMaterialId(), size, Long::sum);
+            bytesByMimeType.merge(attachment.getLocation().getMimeType(), size, Long::sum);
+        }
+        synchronized (evictionLock) {
+            return new StorageUsage(physicalBytes(stored), stored.size(), bytesByMaterial,
+                    bytesByMimeType, quotaBytes, fileStorageManager.getUsableSpaceBytes(),
+                    evictedAttachmentCount, evictedBytes);
+        }
+    }
+
+    /**
+     * Writes a one-line summary of current attachment storage usage to the log.
+     */
+    @WorkerThread
+    public void logUsage() {
+        StorageUsage usage = getUsage();
+        Log.i(TAG, "Attachments: " + usage.getAttachmentCount() + " using "
+                + usage.getTotalBytes() + " of " + usage.getQuotaBytes() + " bytes, "
+                + usage.getUsableSpaceBytes() + " bytes free on volume, "
+                + usage.getEvictedAttachmentCount() + " evicted freeing "
+                + usage.getEvictedBytes() + " bytes, by type " + usage.getBytesByMimeType());
+    }
+
+    /**
+     * Evicts least recently used attachments until storage is within the quota and the
+     * volume keeps its minimum free space. Attachments of materials that still have an
+     * open session are kept even if that leaves storage over the quota.
+     *
+     * @return The number of bytes freed
+     */
+    @WorkerThread
+    public long enforceQuota() {
+        synchronized (evictionLock) {
+            List<StoredAttachment> stored = fileStorageManager.getStoredAttachments();
+            long usedBytes = physicalBytes(stored);
+            long limitBytes = quotaBytes;
+            long freeShortfall = minFreeBytes - fileStorageManager.getUsableSpaceBytes();
+            if (freeShortfall > 0) {
+                limitBytes = Math.min(limitBytes, Math.max(0, usedBytes - freeShortfall));
+            }
+            if (usedBytes <= limitBytes) {
+                return 0;
+            }
+
+            Set<String> protectedIds =
+                    new HashSet<>(sessionDao.getMaterialIdsWithStatus(PROTECTED_STATUSES));
+            Set<String> finishedIds =
+                    new HashSet<>(sessionDao.getMaterialIdsWithStatus(FINISHED_STATUSES));
+
+            Map<String, Integer> referencesByContent = new HashMap<>();
+            List<StoredAttachment> candidates = new ArrayList<>();
+            for (StoredAttachment attachment : stored) {
+                referencesByContent.merge(contentKey(attachment), 1, Integer::sum);
+                if (!protectedIds.contains(attachment.getMaterialId())) {
+                    candidates.add(attachment);
+                }
+            }
+            candidates.sort(Comparator
+                    .comparing((StoredAttachment a) -> !finishedIds.contains(a.getMaterialId()))
+                    .thenComparingLong(StoredAttachment::getLastAccessMillis));
+
+            long freedBytes = 0;
+            Set<String> evictedMaterialIds = new LinkedHashSet<>();
+            for (StoredAttachment attachment : candidates) {
+                if (usedBytes - freedBytes <= limitBytes) {
+                    break;
+                }
+                if (!fileStorageManager.deleteAttachment(attachment.getMaterialId(),
+                        attachment.getAttachmentId())) {
+                    Log.w(TAG, "Could not evict attachment " + attachment.getAttachmentId()
+                            + " of material " + attachment.getMaterialId());
+                    continue;
+                }
+                evictedMaterialIds.add(attachment.getMaterialId());
+                evictedAttachmentCount++;
+                if (referencesByContent.merge(contentKey(attachment), -1, Integer::sum) == 0) {
+                    freedBytes += attachment.getLocation().getSizeBytes();
+                }
+            }
+
+            markIncomplete(new ArrayList<>(evictedMaterialIds));
+            evictedBytes += freedBytes;
+            if (usedBytes - freedBytes > limitBytes) {
+                Log.w(TAG, "Attachment storage still over its limit after eviction: "
+                        + (usedBytes - freedBytes) + " of " + limitBytes + " bytes");
+            }
+            Log.i(TAG, "Evicted attachments of " + evictedMaterialIds.size()
+                    + " materials, freeing " + freedBytes + " bytes");
+            return freedBytes;
+        }
+    }
+
+    /**
+     * Records the given materials' manifest entries as incomplete, so that their next
+     * distribution downloads the evicted attachments again.
+     *
+     * @param materialIds The evicted materials
+     */
+    private void markIncomplete(@NonNull List<String> materialIds) {
+        for (int start = 0; start < materialIds.size(); start += MAX_IDS_PER_UPDATE) {
+            List<String> chunk = materialIds.subList(start,
+                    Math.min(start + MAX_IDS_PER_UPDATE, materialIds.size()));
+            distributionDao.setContentHash(chunk, MaterialRepositoryImpl.INCOMPLETE_CONTENT_HASH);
+        }
+    }
+
+    /**
+     * Sums the sizes of the distinct contents on disk.
+     *
+     * @param stored The stored attachments
+     * @return The bytes occupied on disk
+     */
+    private static long physicalBytes(@NonNull List<StoredAttachment> stored) {
+        Map<String, Long> sizeByContent = new HashMap<>();
+        for (StoredAttachment attachment : stored) {
+            sizeByContent.put(contentKey(attachment), attachment.getLocation().getSizeBytes());
+        }
+        long total = 0;
+        for (long size : sizeByContent.values()) {
+            total += size;
+        }
+        return total;
+    }
+
+    /**
+     * Identifies the on-disk content of an attachment: its blob hash when it shares a blob,
+     * otherwise its own file.
+     *
+     * @param attachment The stored attachment
+     * @return A key equal for attachments that occupy the same bytes on disk
+     */
+    @NonNull
+    private static String contentKey(@NonNull StoredAttachment attachment) {
+        String hash = attachment.getContentHash();
+        return hash != null ? "blob:" + hash : "file:" + attachment.getLocation().getFile().getPath();
+    }
+}
@@ -0,0 +1,146 @@
+package com.manuscripta.student.data.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A snapshot of attachment storage usage, as reported by {@link StorageQuotaManager}.
+ *
+ * <p>{@link #getTotalBytes()} counts shared content once, as it is stored on disk. The
+ * per-material and per-type breakdowns count each attachment in full, so they can add up
+ * to more than the total when materials share content.</p>
+ */
+public final class StorageUsage {
+
+    /** Bytes occupied on disk by stored attachments. */
+    private final long totalBytes;
+
+    /** Number of stored attachments across all materials. */
+    private final int attachmentCount;
+
+    /** Bytes of attachments per material ID. */
+    @NonNull
+    private final Map<String, Long> bytesByMaterial;
+
+    /** Bytes of attachments per MIME type. */
+    @NonNull
+    private final Map<String, Long> bytesByMimeType;
+
+    /** The configured quota in bytes. */
+    private final long quotaBytes;
+
+    /** Space still available on the storage volume, in bytes. */
+    private final long usableSpaceBytes;
+
+    /** Number of attachments evicted since the app started. */
+    private final int evictedAttachmentCount;
+
+    /** Bytes freed by eviction since the app started. */
+    private final long evictedBytes;
+
+    /**
+     * Creates a new StorageUsage.
+     *
+     * @param totalBytes             Bytes occupied on disk by stored attachments
+     * @param attachmentCount        Number of stored attachments
+     * @param bytesByMaterial        Bytes of attachments per material ID
+     * @param bytesByMimeType        Bytes of attachments per MIME type
+     * @param quotaBytes             The configured quota in bytes
+     * @param usableSpaceBytes       Space still available on the storage volume
+     * @param evictedAttachmentCount Number of attachments evicted since the app started
+     * @param evictedBytes           Bytes freed by eviction since the app started
+     */
+    public StorageUsage(long totalBytes,
+                        int attachmentCount,
+                        @NonNull Map<String, Long> bytesByMaterial,
+                        @NonNull Map<String, Long> bytesByMimeType,
+                        long quotaBytes,
+                        long usableSpaceBytes,
+                        int evictedAttachmentCount,
+                        long evictedBytes) {
+        this.totalBytes = totalBytes;
+        this.attachmentCount = attachmentCount;
+        this.bytesByMaterial = Collections.unmodifiableMap(bytesByMaterial);
+        this.bytesByMimeType = Collections.unmodifiableMap(bytesByMimeType);
+        this.quotaBytes = quotaBytes;
+        this.usableSpaceBytes = usableSpaceBytes;
+        this.evictedAttachmentCount = evictedAttachmentCount;
+        this.evictedBytes = evictedBytes;
+    }
+
+    /**
+     * Gets the bytes occupied on disk by stored attachments, counting shared content once.
+     *
+     * @return The total in bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the number of stored attachments across all materials.
+     *
+     * @return The attachment count
+     */
+    public int getAttachmentCount() {
+        return attachmentCount;
+    }
+
+    /**
+     * Gets the bytes of attachments stored for each material.
+     *
+     * @return An unmodifiable map from material ID to bytes
+     */
+    @NonNull
+    public Map<String, Long> getBytesByMaterial() {
+        return bytesByMaterial;
+    }
+
+    /**
+     * Gets the bytes of attachments of each MIME type.
+     *
+     * @return An unmodifiable map from MIME type to bytes
+     */
+    @NonNull
+    public Map<String, Long> getBytesByMimeType() {
+        return bytesByMimeType;
+    }
+
+    /**
+     * Gets the configured quota.
+     *
+     * @return The quota in bytes
+     */
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    /**
+     * Gets the space still available on the storage volume.
+     *
+     * @return The usable space in bytes
+     */
+    public long getUsableSpaceBytes() {
+        return usableSpaceBytes;
+    }
+
+    /**
+     * Gets the number of attachments evicted since the app started.
+     *
+     * @return The eviction count
+     */
+    public int getEvictedAttachmentCount() {
+        return evictedAttachmentCount;
+    }
+
+    /**
+     * Gets the bytes freed by eviction since the app started.
+     *
+     * @return The freed bytes
+     */
+    public long getEvictedBytes() {
+        return evictedBytes;
+    }
+}
@@ -4,7 +4,10 @@ import android.content.Context;
 
 import androidx.room.Room;
 
+import com.manuscripta.student.data.local.DatabaseMigrations;
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.data.local.ManuscriptaDatabase;
+import com.manuscripta.student.data.local.MaterialContentStore;
 
 import javax.inject.Singleton;
 
@@ -23,6 +26,8 @@ public class DatabaseModule {
 
     /**
      * Provides the Room database instance.
+     * Released schema versions are migrated in place; only development-build schemas
+     * and downgrades fall back to recreating the database.
      *
      * @param context Application context
      * @return ManuscriptaDatabase instance
@@ -34,6 +39,36 @@ public class DatabaseModule {
                 context,
                 ManuscriptaDatabase.class,
                 "manuscripta_database"
-        ).fallbackToDestructiveMigration().build();
+        )
+                .addMigrations(DatabaseMigrations.ALL)
+                .fallbackToDestructiveMigrationFrom(DatabaseMigrations.destructiveVersions())
+                .fallbackToDestructiveMigrationOnDowngrade()
+                .build();
+    }
+
+    /**
+     * Provides the DatabaseReclaimer that clears the database and compacts it in the
+     * background.
+     *
+     * @param database The ManuscriptaDatabase instance
+     * @return DatabaseReclaimer instance
+     */
+    @Provides
+    @Singleton
+    public DatabaseReclaimer provideDatabaseReclaimer(ManuscriptaDatabase database) {
+        return new DatabaseReclaimer(database);
+    }
+
+    /**
+     * Provides the MaterialContentStore that holds material content too long to keep inline
+     * in the database.
+     *
+     * @param context Application context
+     * @return MaterialContentStore instance
+     */
+    @Provides
+    @Singleton
+    public MaterialContentStore provideMaterialContentStore(@ApplicationContext Context context) {
+        return new MaterialContentStore(context);
     }
 }
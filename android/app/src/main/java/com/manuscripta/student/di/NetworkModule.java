@@ -7,6 +7,9 @@ import com.manuscripta.student.network.interceptor.BaseUrlInterceptor;
 import com.manuscripta.student.network.interceptor.ErrorInterceptor;
 import com.manuscripta.student.network.interceptor.LoggingInterceptor;
 import com.manuscripta.student.network.interceptor.RetryInterceptor;
+import com.manuscripta.student.network.json.DtoJson;
+import com.manuscripta.student.network.metrics.HttpTimingEventListener;
+import com.manuscripta.student.network.metrics.HttpTimingStore;
 import com.manuscripta.student.network.tcp.PairingManager;
 import com.manuscripta.student.utils.ConnectionManager;
 
@@ -34,6 +37,18 @@ public class NetworkModule {
      */
     private static final String PLACEHOLDER_BASE_URL = "http://localhost/";
 
+    /**
+     * Provides the store for per-phase HTTP timings.
+     * Timing is recorded in all builds so slow material loads can be diagnosed in the field.
+     *
+     * @return HttpTimingStore instance
+     */
+    @Provides
+    @Singleton
+    public HttpTimingStore provideHttpTimingStore() {
+        return new HttpTimingStore();
+    }
+
     /**
      * Provides OkHttpClient with custom interceptors for retry, authentication,
      * logging, and error handling.
@@ -48,12 +63,16 @@ public class NetworkModule {
      *                       which is included as the X-Device-ID header on every request.
      *                       Returns null before pairing completes, in which case no header
      *                       is added.
+     * @param httpTimingStore The store receiving per-phase timings (DNS, connect, request
+     *                        write, time to first byte, body read) for every call,
+     *                        grouped by endpoint template
      * @return OkHttpClient instance configured with interceptors
      */
     @Provides
     @Singleton
     public OkHttpClient provideOkHttpClient(ConnectionManager connectionManager,
-                                             PairingManager pairingManager) {
+                                             PairingManager pairingManager,
+                                             HttpTimingStore httpTimingStore) {
         AuthInterceptor.DeviceIdProvider deviceIdProvider = pairingManager::getDeviceId;
         BaseUrlInterceptor.ServerInfoProvider serverInfoProvider =
                 new BaseUrlInterceptor.ServerInfoProvider() {
@@ -66,6 +85,7 @@ public class NetworkModule {
                 };
 
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .eventListenerFactory(new HttpTimingEventListener.Factory(httpTimingStore))
                 .addInterceptor(new BaseUrlInterceptor(serverInfoProvider))
                 .addInterceptor(new RetryInterceptor(connectionManager))
                 .addInterceptor(new AuthInterceptor(deviceIdProvider));
@@ -84,6 +104,8 @@ public class NetworkModule {
 
     /**
      * Provides Retrofit instance.
+     * The Gson converter uses the shared {@link DtoJson} instance, so all DTOs are
+     * (de)serialised through streaming adapters rather than reflection.
      *
      * @param okHttpClient OkHttpClient instance
      * @return Retrofit instance
@@ -94,7 +116,7 @@ public class NetworkModule {
         return new Retrofit.Builder()
                 .baseUrl(PLACEHOLDER_BASE_URL)
                 .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create(DtoJson.getGson()))
                 .build();
     }
 
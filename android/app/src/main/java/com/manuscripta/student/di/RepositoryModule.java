@@ -3,10 +3,14 @@ package com.manuscripta.student.di;
 import android.content.Context;
 import android.util.Log;
 import android.content.SharedPreferences;
+import android.util.DisplayMetrics;
 
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.data.local.DeviceStatusDao;
+import com.manuscripta.student.data.local.DistributionDao;
 import com.manuscripta.student.data.local.FeedbackDao;
 import com.manuscripta.student.data.local.ManuscriptaDatabase;
+import com.manuscripta.student.data.local.MaterialContentStore;
 import com.manuscripta.student.data.local.MaterialDao;
 import com.manuscripta.student.data.local.QuestionDao;
 import com.manuscripta.student.data.local.ResponseDao;
@@ -21,13 +25,19 @@ import com.manuscripta.student.data.repository.MaterialRepository;
 import com.manuscripta.student.data.repository.MaterialRepositoryImpl;
 import com.manuscripta.student.data.repository.ResponseRepository;
 import com.manuscripta.student.data.repository.ResponseRepositoryImpl;
+import com.manuscripta.student.data.repository.RetentionManager;
 import com.manuscripta.student.data.repository.SessionRepository;
 import com.manuscripta.student.data.repository.SessionRepositoryImpl;
+import com.manuscripta.student.data.repository.StorageQuotaManager;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.tcp.AckRetrySender;
+import com.manuscripta.student.network.tcp.FetchAdmissionScheduler;
 import com.manuscripta.student.network.tcp.HeartbeatManager;
 import com.manuscripta.student.network.tcp.PairingManager;
 import com.manuscripta.student.network.tcp.TcpSocketManager;
+import com.manuscripta.student.ui.renderer.AttachmentImageLoader;
+import com.manuscripta.student.ui.renderer.MaterialPreloader;
+import com.manuscripta.student.ui.renderer.RenderCache;
 import com.manuscripta.student.utils.FileStorageManager;
 
 import javax.inject.Singleton;
@@ -48,6 +58,12 @@ public class RepositoryModule {
     /** Log tag for this module. */
     private static final String TAG = "RepositoryModule";
 
+    /** Most bytes of decoded attachment images held, whatever the heap size. */
+    private static final int MAX_RENDER_CACHE_BYTES = 32 * 1024 * 1024;
+
+    /** Share of the heap decoded attachment images may take. */
+    private static final int RENDER_CACHE_HEAP_DIVISOR = 8;
+
     /**
      * Provides the SessionDao from the database.
      *
@@ -63,13 +79,18 @@ public class RepositoryModule {
     /**
      * Provides the SessionRepository implementation.
      *
-     * @param sessionDao The SessionDao instance
+     * @param sessionDao        The SessionDao instance
+     * @param databaseReclaimer The DatabaseReclaimer, whose clearing of the database drops
+     *                          the session state held in memory
      * @return SessionRepository instance
      */
     @Provides
     @Singleton
-    public SessionRepository provideSessionRepository(SessionDao sessionDao) {
-        return new SessionRepositoryImpl(sessionDao);
+    public SessionRepository provideSessionRepository(SessionDao sessionDao,
+                                                      DatabaseReclaimer databaseReclaimer) {
+        SessionRepository repository = new SessionRepositoryImpl(sessionDao);
+        databaseReclaimer.addClearListener(repository::invalidateCache);
+        return repository;
     }
 
     /**
@@ -87,15 +108,20 @@ public class RepositoryModule {
     /**
      * Provides the ResponseRepository implementation.
      *
-     * @param responseDao The ResponseDao instance
-     * @param apiService  The ApiService instance for network sync
+     * @param responseDao       The ResponseDao instance
+     * @param apiService        The ApiService instance for network sync
+     * @param databaseReclaimer The DatabaseReclaimer, whose clearing of the database drops
+     *                          the queued responses and the answered-question index
      * @return ResponseRepository instance
      */
     @Provides
     @Singleton
     public ResponseRepository provideResponseRepository(ResponseDao responseDao,
-                                                         ApiService apiService) {
-        return new ResponseRepositoryImpl(responseDao, apiService);
+                                                         ApiService apiService,
+                                                         DatabaseReclaimer databaseReclaimer) {
+        ResponseRepository repository = new ResponseRepositoryImpl(responseDao, apiService);
+        databaseReclaimer.addClearListener(repository::discardLocalState);
+        return repository;
     }
 
     /**
@@ -110,6 +136,18 @@ public class RepositoryModule {
         return database.materialDao();
     }
 
+    /**
+     * Provides the DistributionDao from the database.
+     *
+     * @param database The ManuscriptaDatabase instance
+     * @return DistributionDao instance
+     */
+    @Provides
+    @Singleton
+    public DistributionDao provideDistributionDao(ManuscriptaDatabase database) {
+        return database.distributionDao();
+    }
+
     /**
      * Provides the QuestionDao from the database.
      *
@@ -134,6 +172,40 @@ public class RepositoryModule {
         return new FileStorageManager(context);
     }
 
+    /**
+     * Provides the StorageQuotaManager that keeps stored attachments within their quota.
+     *
+     * @param fileStorageManager The FileStorageManager instance
+     * @param sessionDao         The SessionDao instance
+     * @param distributionDao    The DistributionDao instance
+     * @return StorageQuotaManager instance
+     */
+    @Provides
+    @Singleton
+    public StorageQuotaManager provideStorageQuotaManager(FileStorageManager fileStorageManager,
+                                                          SessionDao sessionDao,
+                                                          DistributionDao distributionDao) {
+        return new StorageQuotaManager(fileStorageManager, sessionDao, distributionDao);
+    }
+
+    /**
+     * Provides the RetentionManager that prunes old synced history and compacts the database.
+     *
+     * @param responseDao       The ResponseDao instance
+     * @param sessionDao        The SessionDao instance
+     * @param sessionRepository The SessionRepository instance
+     * @param databaseReclaimer The DatabaseReclaimer instance
+     * @return RetentionManager instance
+     */
+    @Provides
+    @Singleton
+    public RetentionManager provideRetentionManager(ResponseDao responseDao,
+                                                    SessionDao sessionDao,
+                                                    SessionRepository sessionRepository,
+                                                    DatabaseReclaimer databaseReclaimer) {
+        return new RetentionManager(responseDao, sessionDao, sessionRepository, databaseReclaimer);
+    }
+
     /**
      * Provides the AckRetrySender for sending ACK messages with retry logic.
      *
@@ -149,26 +221,86 @@ public class RepositoryModule {
     /**
      * Provides the MaterialRepository implementation.
      *
-     * @param materialDao        The MaterialDao instance
-     * @param questionDao        The QuestionDao instance
-     * @param fileStorageManager The FileStorageManager instance
-     * @param apiService         The ApiService instance
-     * @param tcpSocketManager   The TcpSocketManager instance
-     * @param ackRetrySender     The AckRetrySender instance
-     * @param sessionRepository  The SessionRepository instance
+     * @param materialDao         The MaterialDao instance
+     * @param questionDao         The QuestionDao instance
+     * @param distributionDao     The DistributionDao instance
+     * @param fileStorageManager  The FileStorageManager instance
+     * @param contentStore        The MaterialContentStore instance
+     * @param apiService          The ApiService instance
+     * @param tcpSocketManager    The TcpSocketManager instance
+     * @param ackRetrySender      The AckRetrySender instance
+     * @param sessionRepository   The SessionRepository, whose cached state is invalidated
+     *                            when material writes change the sessions table
+     * @param storageQuotaManager The StorageQuotaManager, run after a sync stores new
+     *                            attachments and then logging the resulting usage
+     * @param databaseReclaimer   The DatabaseReclaimer, whose clearing of the database
+     *                            drops the questions held in memory
      * @return MaterialRepository instance
      */
     @Provides
     @Singleton
     public MaterialRepository provideMaterialRepository(MaterialDao materialDao,
                                                         QuestionDao questionDao,
+                                                        DistributionDao distributionDao,
                                                         FileStorageManager fileStorageManager,
+                                                        MaterialContentStore contentStore,
                                                         ApiService apiService,
                                                         TcpSocketManager tcpSocketManager,
                                                         AckRetrySender ackRetrySender,
-                                                        SessionRepository sessionRepository) {
-        return new MaterialRepositoryImpl(materialDao, questionDao, fileStorageManager,
-                apiService, tcpSocketManager, ackRetrySender, sessionRepository);
+                                                        SessionRepository sessionRepository,
+                                                        StorageQuotaManager storageQuotaManager,
+                                                        DatabaseReclaimer databaseReclaimer) {
+        MaterialRepositoryImpl repository = new MaterialRepositoryImpl(materialDao, questionDao,
+                distributionDao, fileStorageManager, contentStore, apiService, tcpSocketManager,
+                ackRetrySender);
+        repository.setSessionsChangedListener(sessionRepository::invalidateCache);
+        repository.setAttachmentsChangedListener(() -> {
+            storageQuotaManager.enforceQuota();
+            storageQuotaManager.logUsage();
+        });
+        databaseReclaimer.addClearListener(repository::discardLocalCopies);
+        return repository;
+    }
+
+    /**
+     * Provides the RenderCache shared by every material renderer, holding up to an eighth
+     * of the heap (at most 32 MB) of images decoded no wider than the screen's longer side,
+     * so they need not be decoded again on rotation.
+     *
+     * @param context           The application context
+     * @param databaseReclaimer The DatabaseReclaimer, whose clearing of the database drops
+     *                          the parsed content and images of the previous pairing
+     * @return RenderCache instance
+     */
+    @Provides
+    @Singleton
+    public RenderCache provideRenderCache(@ApplicationContext Context context,
+                                          DatabaseReclaimer databaseReclaimer) {
+        long heapShare = Runtime.getRuntime().maxMemory() / RENDER_CACHE_HEAP_DIVISOR;
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        RenderCache renderCache = new RenderCache((int) Math.min(heapShare, MAX_RENDER_CACHE_BYTES),
+                Math.max(metrics.widthPixels, metrics.heightPixels));
+        databaseReclaimer.addClearListener(renderCache::clear);
+        return renderCache;
+    }
+
+    /**
+     * Provides the MaterialPreloader that warms the materials following the one opened.
+     *
+     * @param materialRepository The MaterialRepository instance
+     * @param renderCache        The RenderCache instance
+     * @param apiService         The ApiService instance
+     * @param fileStorageManager The FileStorageManager instance
+     * @return MaterialPreloader instance
+     */
+    @Provides
+    @Singleton
+    public MaterialPreloader provideMaterialPreloader(MaterialRepository materialRepository,
+                                                      RenderCache renderCache,
+                                                      ApiService apiService,
+                                                      FileStorageManager fileStorageManager) {
+        return new MaterialPreloader(materialRepository, renderCache,
+                new AttachmentImageLoader(apiService, fileStorageManager, renderCache));
     }
 
     /**
@@ -260,13 +392,31 @@ public class RepositoryModule {
     /**
      * Provides the DeviceStatusRepository implementation.
      *
-     * @param deviceStatusDao The DeviceStatusDao instance
+     * @param deviceStatusDao   The DeviceStatusDao instance
+     * @param databaseReclaimer The DatabaseReclaimer, whose clearing of the database drops
+     *                          the tracked status and the statuses waiting to be written
      * @return DeviceStatusRepository instance
      */
     @Provides
     @Singleton
-    public DeviceStatusRepository provideDeviceStatusRepository(DeviceStatusDao deviceStatusDao) {
-        return new DeviceStatusRepositoryImpl(deviceStatusDao);
+    public DeviceStatusRepository provideDeviceStatusRepository(DeviceStatusDao deviceStatusDao,
+                                                                DatabaseReclaimer databaseReclaimer) {
+        DeviceStatusRepository repository = new DeviceStatusRepositoryImpl(deviceStatusDao);
+        databaseReclaimer.addClearListener(repository::clearAllDeviceStatus);
+        return repository;
+    }
+
+    /**
+     * Provides the FetchAdmissionScheduler that spreads signal-triggered fetches
+     * across the class.
+     *
+     * @param pairingManager The PairingManager supplying this device's ID
+     * @return FetchAdmissionScheduler instance
+     */
+    @Provides
+    @Singleton
+    public FetchAdmissionScheduler provideFetchAdmissionScheduler(PairingManager pairingManager) {
+        return new FetchAdmissionScheduler(pairingManager::getDeviceId);
     }
 
     /**
@@ -278,8 +428,10 @@ public class RepositoryModule {
      * @param materialRepository     The MaterialRepository instance
      * @param feedbackRepository     The FeedbackRepository instance
      * @param deviceStatusRepository The DeviceStatusRepository instance
-     * @param sessionRepository      The SessionRepository instance
      * @param configRepository       The ConfigRepository instance
+     * @param databaseReclaimer      The DatabaseReclaimer, which clears the database on
+     *                               unpairing and compacts it in the background
+     * @param fetchScheduler         The FetchAdmissionScheduler that staggers fetches
      * @return HeartbeatManager instance
      */
     @Provides
@@ -290,10 +442,12 @@ public class RepositoryModule {
             MaterialRepository materialRepository,
             FeedbackRepository feedbackRepository,
             DeviceStatusRepository deviceStatusRepository,
-            SessionRepository sessionRepository,
-            ConfigRepository configRepository) {
+            ConfigRepository configRepository,
+            DatabaseReclaimer databaseReclaimer,
+            FetchAdmissionScheduler fetchScheduler) {
 
         HeartbeatManager hm = new HeartbeatManager(tcpSocketManager);
+        hm.setFetchScheduler(fetchScheduler);
 
         hm.setDeviceStatusProvider(() -> {
             String deviceId = pairingManager.getDeviceId();
@@ -346,19 +500,11 @@ public class RepositoryModule {
 
         hm.setUnpairCallback(() -> {
             Log.d(TAG, "Unpair received — clearing local data");
-            try {
-                sessionRepository.cancelSession();
-            } catch (IllegalStateException e) {
-                Log.d(TAG, "No active session to cancel");
-            }
-            sessionRepository.deleteAllSessions();
-            materialRepository.deleteAllMaterials();
-            feedbackRepository.deleteAllFeedback();
+            // Resets like pairing does: every row goes in one transaction, the clear
+            // listeners drop the repositories' in-memory state and attachment files, and
+            // the space is returned later
+            databaseReclaimer.clearAll();
             configRepository.clearConfig();
-            String deviceId = pairingManager.getDeviceId();
-            if (deviceId != null && !deviceId.trim().isEmpty()) {
-                deviceStatusRepository.clearDeviceStatus(deviceId);
-            }
             tcpSocketManager.disconnect();
             pairingManager.resetPairingData();
         });
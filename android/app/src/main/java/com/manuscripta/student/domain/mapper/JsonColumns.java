@@ -0,0 +1,61 @@
+package com.manuscripta.student.domain.mapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.manuscripta.student.domain.model.StoredLists;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+import com.manuscripta.student.network.json.DtoJson;
+
+import java.util.List;
+
+/**
+ * Encodes the JSON array columns stored on questions and materials. They are decoded by
+ * {@link StoredLists} in the domain layer, which the models use to decode them on first
+ * access.
+ */
+public final class JsonColumns {
+
+    /**
+     * Gson instance for the array columns. Shares the streaming DTO adapters registered in
+     * {@link DtoJson}, so vocabulary terms are serialised without reflection.
+     */
+    private static final Gson GSON = DtoJson.getGson();
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private JsonColumns() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Encodes question options for storage.
+     *
+     * @param options The options
+     * @return JSON array string for non-empty lists, or empty string for null/empty input
+     *         (used as a storage sentinel by Question/QuestionEntity)
+     */
+    @NonNull
+    public static String encodeOptions(@Nullable List<String> options) {
+        if (options == null || options.isEmpty()) {
+            return "";
+        }
+        return GSON.toJson(options);
+    }
+
+    /**
+     * Encodes vocabulary terms for storage.
+     *
+     * @param terms The vocabulary terms
+     * @return JSON array string, "[]" for null/empty input
+     */
+    @NonNull
+    public static String encodeVocabularyTerms(@Nullable List<VocabularyTermDto> terms) {
+        if (terms == null || terms.isEmpty()) {
+            return "[]";
+        }
+        return GSON.toJson(terms);
+    }
+}
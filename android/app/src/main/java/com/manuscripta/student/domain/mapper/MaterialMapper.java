@@ -2,16 +2,16 @@ package com.manuscripta.student.domain.mapper;
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.VocabularyTerm;
 import com.manuscripta.student.network.dto.MaterialDto;
 import com.manuscripta.student.network.dto.VocabularyTermDto;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -25,12 +25,6 @@ import java.util.Locale;
  */
 public final class MaterialMapper {
 
-    /**
-     * Gson instance for JSON serialization/deserialization of vocabulary terms.
-     * Uses default configuration which serializes all fields and handles nulls appropriately.
-     */
-    private static final Gson GSON = new Gson();
-
     /**
      * Private constructor to prevent instantiation of utility class.
      */
@@ -57,6 +51,38 @@ public final class MaterialMapper {
         );
     }
 
+    /**
+     * Converts a MaterialSummaryTuple to a MaterialSummary domain model.
+     *
+     * @param tuple The summary columns of a material row
+     * @return MaterialSummary domain model
+     */
+    @NonNull
+    public static MaterialSummary toSummary(@NonNull MaterialSummaryTuple tuple) {
+        return new MaterialSummary(
+                tuple.getId(),
+                tuple.getType(),
+                tuple.getTitle(),
+                tuple.getTimestamp()
+        );
+    }
+
+    /**
+     * Converts a Material domain model to a MaterialSummary.
+     *
+     * @param domain The Material domain model to summarise
+     * @return MaterialSummary domain model
+     */
+    @NonNull
+    public static MaterialSummary toSummary(@NonNull Material domain) {
+        return new MaterialSummary(
+                domain.getId(),
+                domain.getType(),
+                domain.getTitle(),
+                domain.getTimestamp()
+        );
+    }
+
     /**
      * Converts a Material domain model to a MaterialEntity.
      *
@@ -106,7 +132,7 @@ public final class MaterialMapper {
         String metadata = dto.getMetadata() != null ? dto.getMetadata() : "{}";
 
         // Convert vocabulary terms list to JSON array string
-        String vocabularyTermsJson = convertVocabularyTermsToJson(dto.getVocabularyTerms());
+        String vocabularyTermsJson = JsonColumns.encodeVocabularyTerms(dto.getVocabularyTerms());
 
         Long timestamp = dto.getTimestamp();
         long timestampValue = timestamp != null ? timestamp : 0L;
@@ -123,16 +149,13 @@ public final class MaterialMapper {
      */
     @NonNull
     public static MaterialDto toDto(@NonNull Material domain) {
-        List<VocabularyTermDto> vocabularyTerms =
-                convertJsonToVocabularyTerms(domain.getVocabularyTerms());
-
         return new MaterialDto(
                 domain.getId(),
                 domain.getType().name(),
                 domain.getTitle(),
                 domain.getContent(),
                 domain.getMetadata(),
-                vocabularyTerms,
+                toTermDtos(domain.getVocabularyTermList()),
                 domain.getTimestamp()
         );
     }
@@ -162,39 +185,17 @@ public final class MaterialMapper {
     }
 
     /**
-     * Converts a list of VocabularyTermDto to a JSON array string.
+     * Converts decoded vocabulary terms to their DTOs.
      *
-     * @param vocabularyTerms The list of vocabulary terms
-     * @return JSON array string representation
+     * @param terms The decoded terms
+     * @return A new mutable list of DTOs, in the same order
      */
     @NonNull
-    private static String convertVocabularyTermsToJson(List<VocabularyTermDto> vocabularyTerms) {
-        if (vocabularyTerms == null || vocabularyTerms.isEmpty()) {
-            return "[]";
-        }
-        return GSON.toJson(vocabularyTerms);
-    }
-
-    /**
-     * Converts a JSON array string to a list of VocabularyTermDto.
-     * Invalid JSON will result in an empty list being returned silently.
-     *
-     * @param json The JSON array string
-     * @return List of VocabularyTermDto, or empty list if parsing fails
-     */
-    @NonNull
-    private static List<VocabularyTermDto> convertJsonToVocabularyTerms(String json) {
-        if (json == null || json.isEmpty() || "[]".equals(json)) {
-            return new ArrayList<>();
-        }
-        try {
-            VocabularyTermDto[] terms = GSON.fromJson(json, VocabularyTermDto[].class);
-            return terms != null
-                    ? new ArrayList<>(Arrays.asList(terms))
-                    : new ArrayList<>();
-        } catch (JsonSyntaxException e) {
-            // Invalid JSON - silently return empty list
-            return new ArrayList<>();
+    private static List<VocabularyTermDto> toTermDtos(@NonNull List<VocabularyTerm> terms) {
+        List<VocabularyTermDto> dtos = new ArrayList<>(terms.size());
+        for (VocabularyTerm term : terms) {
+            dtos.add(new VocabularyTermDto(term.getTerm(), term.getDefinition()));
         }
+        return dtos;
     }
 }
@@ -2,16 +2,12 @@ package com.manuscripta.student.domain.mapper;
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
 import com.manuscripta.student.data.model.QuestionEntity;
 import com.manuscripta.student.data.model.QuestionType;
 import com.manuscripta.student.domain.model.Question;
 import com.manuscripta.student.network.dto.QuestionDto;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -24,12 +20,6 @@ import java.util.Locale;
  */
 public final class QuestionMapper {
 
-    /**
-     * Gson instance for JSON serialization/deserialization of options.
-     * Uses Gson's default configuration, which omits fields with null values during serialisation.
-     */
-    private static final Gson GSON = new Gson();
-
     /**
      * Private constructor to prevent instantiation of utility class.
      */
@@ -108,7 +98,7 @@ public final class QuestionMapper {
                 QuestionType.valueOf(questionTypeStr.trim().toUpperCase(Locale.ROOT));
 
         // Convert options list to JSON array string
-        String optionsJson = convertOptionsToJson(dto.getOptions());
+        String optionsJson = JsonColumns.encodeOptions(dto.getOptions());
 
         String correctAnswer = dto.getCorrectAnswer() != null ? dto.getCorrectAnswer() : "";
 
@@ -125,14 +115,12 @@ public final class QuestionMapper {
      */
     @NonNull
     public static QuestionDto toDto(@NonNull Question domain) {
-        List<String> options = convertJsonToOptions(domain.getOptions());
-
         return new QuestionDto(
                 domain.getId(),
                 domain.getMaterialId(),
                 domain.getQuestionType().name(),
                 domain.getQuestionText(),
-                options,
+                new ArrayList<>(domain.getOptionList()),
                 domain.getCorrectAnswer(),
                 domain.getMaxScore()
         );
@@ -161,42 +149,4 @@ public final class QuestionMapper {
     public static QuestionDto entityToDto(@NonNull QuestionEntity entity) {
         return toDto(toDomain(entity));
     }
-
-    /**
-     * Converts a list of options to a JSON array string for storage.
-     *
-     * @param options The list of options
-     * @return JSON array string for non-empty lists, or empty string for null/empty input
-     *         (used as a storage sentinel by Question/QuestionEntity)
-     */
-    @NonNull
-    private static String convertOptionsToJson(List<String> options) {
-        if (options == null || options.isEmpty()) {
-            return "";
-        }
-        return GSON.toJson(options);
-    }
-
-    /**
-     * Converts a JSON array string to a list of options.
-     * Invalid JSON will result in an empty list being returned silently.
-     *
-     * @param json The JSON array string
-     * @return List of options, or empty list if parsing fails
-     */
-    @NonNull
-    private static List<String> convertJsonToOptions(String json) {
-        if (json == null || json.isEmpty() || "[]".equals(json)) {
-            return new ArrayList<>();
-        }
-        try {
-            String[] options = GSON.fromJson(json, String[].class);
-            return options != null
-                    ? new ArrayList<>(Arrays.asList(options))
-                    : new ArrayList<>();
-        } catch (JsonSyntaxException e) {
-            // Invalid JSON - silently return empty list
-            return new ArrayList<>();
-        }
-    }
 }
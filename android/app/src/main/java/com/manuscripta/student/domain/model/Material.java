@@ -1,14 +1,19 @@
 package com.manuscripta.student.domain.model;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.manuscripta.student.data.model.MaterialType;
 
+import java.util.List;
+
 /**
  * Domain model representing educational material in the Manuscripta system.
  * This is a clean domain object without persistence annotations, used in the business logic layer.
  *
- * <p>Materials can be readings, worksheets, or polls delivered from the teacher's Windows app.</p>
+ * <p>Materials can be readings, worksheets, or polls delivered from the teacher's Windows app.
+ * Vocabulary terms are kept as stored and decoded on the first call to
+ * {@link #getVocabularyTermList()}.</p>
  */
 public class Material {
 
@@ -39,6 +44,13 @@ public class Material {
     /** Timestamp when the material was created or last modified (Unix epoch milliseconds). */
     private final long timestamp;
 
+    /**
+     * Terms decoded from {@link #vocabularyTerms}, or null until first requested. Decoding
+     * is idempotent and the result immutable, so a race only decodes twice.
+     */
+    @Nullable
+    private volatile List<VocabularyTerm> vocabularyTermList;
+
     /**
      * Constructor with all fields.
      *
@@ -125,6 +137,22 @@ public class Material {
         return vocabularyTerms;
     }
 
+    /**
+     * Gets the vocabulary terms decoded from their stored form, decoding them on first call.
+     *
+     * @return The terms, unmodifiable, or an empty list if there are none or they are invalid
+     * @see StoredLists#decodeVocabularyTerms(String)
+     */
+    @NonNull
+    public List<VocabularyTerm> getVocabularyTermList() {
+        List<VocabularyTerm> decoded = vocabularyTermList;
+        if (decoded == null) {
+            decoded = StoredLists.decodeVocabularyTerms(vocabularyTerms);
+            vocabularyTermList = decoded;
+        }
+        return decoded;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
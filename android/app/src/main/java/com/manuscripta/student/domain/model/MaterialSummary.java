@@ -0,0 +1,108 @@
+package com.manuscripta.student.domain.model;
+
+import androidx.annotation.NonNull;
+
+import com.manuscripta.student.data.model.MaterialType;
+
+/**
+ * Domain model listing a material without its content.
+ *
+ * <p>Used by list views such as the material dropdown, which only show a title and pick a
+ * fragment by type. The full {@link Material} is loaded by ID when the material is opened,
+ * so the memory held by list LiveData does not grow with the size of material content.</p>
+ */
+public class MaterialSummary {
+
+    /** The unique identifier for the material. */
+    @NonNull
+    private final String id;
+
+    /** The type of material (READING, WORKSHEET, POLL). */
+    @NonNull
+    private final MaterialType type;
+
+    /** The title of the material. */
+    @NonNull
+    private final String title;
+
+    /** Timestamp when the material was created or last modified (Unix epoch milliseconds). */
+    private final long timestamp;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param id        Unique identifier (UUID)
+     * @param type      Type of material (READING, WORKSHEET, POLL)
+     * @param title     Title of the material
+     * @param timestamp Timestamp when the material was created or last modified (Unix epoch milliseconds)
+     * @throws IllegalArgumentException if id is null or empty
+     * @throws IllegalArgumentException if type is null
+     * @throws IllegalArgumentException if title is null or empty
+     * @throws IllegalArgumentException if timestamp is negative
+     */
+    public MaterialSummary(@NonNull String id,
+                           @NonNull MaterialType type,
+                           @NonNull String title,
+                           long timestamp) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("MaterialSummary id cannot be null or empty");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("MaterialSummary type cannot be null");
+        }
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("MaterialSummary title cannot be null or empty");
+        }
+        if (timestamp < 0) {
+            throw new IllegalArgumentException("MaterialSummary timestamp cannot be negative");
+        }
+
+        this.id = id;
+        this.type = type;
+        this.title = title;
+        this.timestamp = timestamp;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public MaterialType getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MaterialSummary that = (MaterialSummary) o;
+        return timestamp == that.timestamp
+                && id.equals(that.id)
+                && type == that.type
+                && title.equals(that.title);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + type.hashCode();
+        result = 31 * result + title.hashCode();
+        result = 31 * result + Long.hashCode(timestamp);
+        return result;
+    }
+}
@@ -5,11 +5,16 @@ import androidx.annotation.Nullable;
 
 import com.manuscripta.student.data.model.QuestionType;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Domain model representing a question within a material.
  * This is a clean domain object without persistence annotations, used in the business logic layer.
  *
- * <p>Questions are linked to a parent Material.</p>
+ * <p>Questions are linked to a parent Material. Options are kept as stored and decoded on
+ * the first call to {@link #getOptionList()}, so questions that are only listed or
+ * compared never parse them.</p>
  */
 public class Question {
 
@@ -41,6 +46,13 @@ public class Question {
     @Nullable
     private final Integer maxScore;
 
+    /**
+     * Options decoded from {@link #options}, or null until first requested. Decoding is
+     * idempotent and the result immutable, so a race only decodes twice.
+     */
+    @Nullable
+    private volatile List<String> optionList;
+
     /**
      * Constructor with all fields.
      *
@@ -118,6 +130,22 @@ public class Question {
         return options;
     }
 
+    /**
+     * Gets the options decoded from their stored form, decoding them on first call.
+     *
+     * @return The options, unmodifiable, or an empty list if there are none
+     * @see StoredLists#decodeOptions(String)
+     */
+    @NonNull
+    public List<String> getOptionList() {
+        List<String> decoded = optionList;
+        if (decoded == null) {
+            decoded = StoredLists.decodeOptions(options);
+            optionList = decoded;
+        }
+        return decoded;
+    }
+
     @NonNull
     public String getCorrectAnswer() {
         return correctAnswer;
@@ -127,4 +155,34 @@ public class Question {
     public Integer getMaxScore() {
         return maxScore;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Question that = (Question) o;
+        return id.equals(that.id)
+                && materialId.equals(that.materialId)
+                && questionText.equals(that.questionText)
+                && questionType == that.questionType
+                && options.equals(that.options)
+                && correctAnswer.equals(that.correctAnswer)
+                && Objects.equals(maxScore, that.maxScore);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + materialId.hashCode();
+        result = 31 * result + questionText.hashCode();
+        result = 31 * result + questionType.hashCode();
+        result = 31 * result + options.hashCode();
+        result = 31 * result + correctAnswer.hashCode();
+        result = 31 * result + Objects.hashCode(maxScore);
+        return result;
+    }
 }
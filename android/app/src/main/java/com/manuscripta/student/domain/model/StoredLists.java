@@ -0,0 +1,149 @@
+package com.manuscripta.student.domain.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decodes the list columns that the domain models keep in their stored form: question
+ * options and vocabulary terms.
+ *
+ * <p>This is the only place those columns are parsed. {@link Question} and
+ * {@link Material} decode through here on first access and memoise the result, so mapping
+ * a table to read titles or IDs parses nothing, and the mappers, renderers and fragments
+ * all see the same options for a question.</p>
+ *
+ * <p>Decoding is lenient: malformed columns decode to an empty list rather than
+ * throwing, since they come from the teacher's application and the student can do
+ * nothing about them.</p>
+ */
+public final class StoredLists {
+
+    /** Gson instance for the array columns. */
+    private static final Gson GSON = new Gson();
+
+    /** Separators accepted between options stored as plain text rather than JSON. */
+    private static final String OPTION_DELIMITERS = "\\n|\\||;";
+
+    /** Key of a vocabulary term's word or phrase in its stored JSON object. */
+    private static final String TERM_KEY = "Term";
+
+    /** Key of a vocabulary term's definition in its stored JSON object. */
+    private static final String DEFINITION_KEY = "Definition";
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private StoredLists() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Decodes stored question options. A JSON array of strings is decoded as such; text
+     * that is not a JSON array but contains newline, pipe or semicolon separators is split
+     * on them, dropping blank entries.
+     *
+     * @param options The stored options
+     * @return The options, unmodifiable, or an empty list if none can be decoded
+     */
+    @NonNull
+    public static List<String> decodeOptions(@Nullable String options) {
+        if (options == null) {
+            return Collections.emptyList();
+        }
+        String trimmed = options.trim();
+        if (trimmed.isEmpty() || "[]".equals(trimmed)) {
+            return Collections.emptyList();
+        }
+        if (trimmed.startsWith("[")) {
+            try {
+                String[] decoded = GSON.fromJson(trimmed, String[].class);
+                return decoded != null
+                        ? Collections.unmodifiableList(Arrays.asList(decoded))
+                        : Collections.emptyList();
+            } catch (JsonParseException e) {
+                // Fall through to delimited text
+            }
+        }
+        return splitDelimitedOptions(trimmed);
+    }
+
+    /**
+     * Decodes stored vocabulary terms, a JSON array of objects with {@code Term} and
+     * {@code Definition} strings.
+     *
+     * @param terms The stored JSON array
+     * @return The terms, unmodifiable, or an empty list if the JSON is empty or invalid
+     */
+    @NonNull
+    public static List<VocabularyTerm> decodeVocabularyTerms(@Nullable String terms) {
+        if (terms == null || terms.isEmpty() || "[]".equals(terms)) {
+            return Collections.emptyList();
+        }
+        try {
+            JsonArray array = GSON.fromJson(terms, JsonArray.class);
+            if (array == null) {
+                return Collections.emptyList();
+            }
+            List<VocabularyTerm> decoded = new ArrayList<>(array.size());
+            for (JsonElement element : array) {
+                if (!element.isJsonObject()) {
+                    return Collections.emptyList();
+                }
+                JsonObject object = element.getAsJsonObject();
+                decoded.add(new VocabularyTerm(stringMember(object, TERM_KEY),
+                        stringMember(object, DEFINITION_KEY)));
+            }
+            return Collections.unmodifiableList(decoded);
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads a string member of a JSON object.
+     *
+     * @param object The object
+     * @param key    The member's key
+     * @return The member's value, or null if it is missing or JSON null
+     * @throws IllegalStateException         if the member is an array of other than one value
+     * @throws UnsupportedOperationException if the member is an object
+     */
+    @Nullable
+    private static String stringMember(@NonNull JsonObject object, @NonNull String key) {
+        JsonElement member = object.get(key);
+        return member == null || member.isJsonNull() ? null : member.getAsString();
+    }
+
+    /**
+     * Splits options stored as delimited text.
+     *
+     * @param options The trimmed, non-empty options text
+     * @return The non-blank options, unmodifiable, or an empty list if no separator is
+     *         present
+     */
+    @NonNull
+    private static List<String> splitDelimitedOptions(@NonNull String options) {
+        if (!options.contains("\n") && !options.contains("|") && !options.contains(";")) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String part : options.split(OPTION_DELIMITERS)) {
+            String trimmedPart = part.trim();
+            if (!trimmedPart.isEmpty()) {
+                result.add(trimmedPart);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
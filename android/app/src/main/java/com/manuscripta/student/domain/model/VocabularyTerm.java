@@ -0,0 +1,58 @@
+package com.manuscripta.student.domain.model;
+
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Domain model representing a key vocabulary term of a material, with its definition.
+ * Either part may be missing, as the teacher's application does not require both.
+ */
+public class VocabularyTerm {
+
+    /** The vocabulary term word or phrase, or null if not given. */
+    @Nullable
+    private final String term;
+
+    /** The definition or explanation of the term, or null if not given. */
+    @Nullable
+    private final String definition;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param term       The vocabulary term word or phrase, or null if not given
+     * @param definition The definition or explanation of the term, or null if not given
+     */
+    public VocabularyTerm(@Nullable String term, @Nullable String definition) {
+        this.term = term;
+        this.definition = definition;
+    }
+
+    @Nullable
+    public String getTerm() {
+        return term;
+    }
+
+    @Nullable
+    public String getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VocabularyTerm that = (VocabularyTerm) o;
+        return Objects.equals(term, that.term) && Objects.equals(definition, that.definition);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, definition);
+    }
+}
@@ -1,6 +1,7 @@
 package com.manuscripta.student.network;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.manuscripta.student.network.dto.BatchResponseDto;
 import com.manuscripta.student.network.dto.ConfigResponseDto;
@@ -14,6 +15,7 @@ import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 /**
  * Retrofit API service interface.
@@ -70,6 +72,23 @@ public interface ApiService {
     @GET("/api/v1/feedback/{deviceId}")
     Call<FeedbackResponse> getFeedback(@NonNull @Path("deviceId") String deviceId);
 
+    /**
+     * Retrieves feedback newer than a previously returned cursor.
+     * Same endpoint as {@link #getFeedback(String)}, with the cursor from the last
+     * {@link FeedbackResponse} passed as the {@code since} query parameter.
+     *
+     * <p>A null cursor omits the parameter and fetches all available feedback. Servers
+     * that do not support incremental fetches ignore the parameter and return everything,
+     * so callers must tolerate feedback they have already stored.</p>
+     *
+     * @param deviceId The device ID to fetch feedback for
+     * @param since    The cursor from the last response, or null for a full fetch
+     * @return Call wrapping the FeedbackResponse
+     */
+    @GET("/api/v1/feedback/{deviceId}")
+    Call<FeedbackResponse> getFeedbackSince(@NonNull @Path("deviceId") String deviceId,
+                                            @Nullable @Query("since") String since);
+
     // ========== Configuration Endpoints (Server -> Client) ==========
 
     /**
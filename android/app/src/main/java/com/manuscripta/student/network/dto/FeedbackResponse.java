@@ -1,5 +1,7 @@
 package com.manuscripta.student.network;
 
+import androidx.annotation.Nullable;
+
 import com.google.gson.annotations.SerializedName;
 
 import java.util.List;
@@ -13,9 +15,13 @@ import java.util.List;
  * {
  *   "feedback": [
  *     // Array of FeedbackDto objects
- *   ]
+ *   ],
+ *   "cursor": "opaque-high-water-mark"
  * }
  * </pre>
+ *
+ * <p>{@code cursor} is optional. When present, it is sent back as the {@code since}
+ * query parameter on the next fetch so that only newer feedback is returned.</p>
  */
 public class FeedbackResponse {
 
@@ -26,6 +32,14 @@ public class FeedbackResponse {
     @SerializedName("feedback")
     private List<FeedbackDto> feedback;
 
+    /**
+     * Opaque high-water mark covering the feedback in this response, or null if the
+     * server does not support incremental fetches.
+     */
+    @Nullable
+    @SerializedName("cursor")
+    private String cursor;
+
     /**
      * Default constructor for Gson.
      */
@@ -41,6 +55,17 @@ public class FeedbackResponse {
         this.feedback = feedback;
     }
 
+    /**
+     * Constructor with feedback list and cursor.
+     *
+     * @param feedback The list of feedback items
+     * @param cursor   The high-water mark covering the feedback, or null
+     */
+    public FeedbackResponse(List<FeedbackDto> feedback, @Nullable String cursor) {
+        this.feedback = feedback;
+        this.cursor = cursor;
+    }
+
     /**
      * Returns the list of feedback items.
      *
@@ -58,4 +83,23 @@ public class FeedbackResponse {
     public void setFeedback(List<FeedbackDto> feedback) {
         this.feedback = feedback;
     }
+
+    /**
+     * Returns the high-water mark covering the feedback in this response.
+     *
+     * @return The opaque cursor, or null if the server did not provide one
+     */
+    @Nullable
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Sets the high-water mark covering the feedback in this response.
+     *
+     * @param cursor The opaque cursor, or null
+     */
+    public void setCursor(@Nullable String cursor) {
+        this.cursor = cursor;
+    }
 }
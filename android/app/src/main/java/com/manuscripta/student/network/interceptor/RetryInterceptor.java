@@ -25,6 +25,10 @@ import okhttp3.Response;
  *       (408 Request Timeout, 429 Too Many Requests) which are retried</li>
  *   <li>Network errors (IOException): Retry with exponential backoff</li>
  * </ul>
+ *
+ * <p>If a retryable response carries a {@code Retry-After} header in delay-seconds form,
+ * the wait before the next attempt is at least that long, capped at the maximum backoff.
+ * This lets a busy teacher machine pace a classroom of devices.</p>
  */
 public class RetryInterceptor implements Interceptor {
 
@@ -43,6 +47,9 @@ public class RetryInterceptor implements Interceptor {
     /** Default backoff multiplier for exponential growth. */
     private static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
 
+    /** Response header carrying the server's requested retry delay. */
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
     /** Maximum number of retry attempts. */
     private final int maxRetries;
 
@@ -127,6 +134,7 @@ public class RetryInterceptor implements Interceptor {
         long backoffMs = initialBackoffMs;
 
         for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            long retryAfterMs = 0;
             try {
                 // Close previous response if exists
                 if (response != null) {
@@ -141,6 +149,8 @@ public class RetryInterceptor implements Interceptor {
                     return response;
                 }
 
+                retryAfterMs = parseRetryAfterMs(response);
+
                 // Log retry attempt for server errors
                 Log.w(TAG, String.format("Request failed with HTTP %d, attempt %d/%d: %s %s",
                         response.code(), attempt + 1, maxRetries + 1,
@@ -159,7 +169,7 @@ public class RetryInterceptor implements Interceptor {
                 if (!connectionManager.isNetworkAvailable()) {
                     throw new IOException("Network lost during retry attempts");
                 }
-                sleep(backoffMs);
+                sleep(Math.max(backoffMs, retryAfterMs));
                 backoffMs = calculateNextBackoff(backoffMs);
             }
         }
@@ -202,6 +212,33 @@ public class RetryInterceptor implements Interceptor {
         return false;
     }
 
+    /**
+     * Reads the {@code Retry-After} header of a response.
+     * Only the delay-seconds form is supported; HTTP-date values are ignored.
+     *
+     * @param response The HTTP response
+     * @return The requested delay in milliseconds capped at maxBackoffMs, or 0 if absent
+     */
+    @VisibleForTesting
+    long parseRetryAfterMs(@NonNull Response response) {
+        String value = response.header(HEADER_RETRY_AFTER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            if (seconds <= 0) {
+                return 0;
+            }
+            if (seconds >= maxBackoffMs / 1000L) {
+                return maxBackoffMs;
+            }
+            return seconds * 1000L;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * Calculates the next backoff delay using exponential backoff.
      *
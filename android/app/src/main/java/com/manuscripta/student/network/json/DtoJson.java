@@ -0,0 +1,41 @@
+package com.manuscripta.student.network.json;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Holder for the application-wide {@link Gson} instance used for DTO (de)serialisation.
+ *
+ * <p>The instance is configured with {@link DtoTypeAdapterFactory}, so every network DTO is
+ * handled by a streaming adapter instead of Gson's reflective path. It is shared by Retrofit
+ * (see {@code NetworkModule}), the domain mappers, and the question renderer, which means the
+ * adapter lookup cache is warmed once per process rather than once per call site.</p>
+ *
+ * <p>{@link Gson} instances are immutable and thread-safe.</p>
+ */
+public final class DtoJson {
+
+    /** The shared Gson instance with DTO adapters registered. */
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private DtoJson() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Gets the shared Gson instance.
+     *
+     * @return Gson configured with {@link DtoTypeAdapterFactory}
+     */
+    @NonNull
+    public static Gson getGson() {
+        return GSON;
+    }
+}
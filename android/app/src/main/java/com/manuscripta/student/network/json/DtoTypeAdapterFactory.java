@@ -0,0 +1,773 @@
+package com.manuscripta.student.network.json;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.manuscripta.student.network.FeedbackDto;
+import com.manuscripta.student.network.FeedbackResponse;
+import com.manuscripta.student.network.dto.BatchResponseDto;
+import com.manuscripta.student.network.dto.ConfigResponseDto;
+import com.manuscripta.student.network.dto.DeviceInfoDto;
+import com.manuscripta.student.network.dto.DeviceStatusDto;
+import com.manuscripta.student.network.dto.DistributionBundleDto;
+import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
+import com.manuscripta.student.network.dto.ResponseDto;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gson {@link TypeAdapterFactory} providing streaming, non-reflective adapters for every
+ * network DTO.
+ *
+ * <p>Gson's default {@code ReflectiveTypeAdapterFactory} inspects each DTO class on first use
+ * and populates fields through reflection, which is slow at startup and allocates a
+ * {@code BoundField} per property. The adapters below read and write JSON tokens directly
+ * against the DTO constructors and accessors, so no reflection is involved after Gson
+ * resolves the factory.</p>
+ *
+ * <p>Field names and coercion rules mirror the {@code @SerializedName} annotations and Gson's
+ * built-in primitive adapters exactly, so serialised output is identical to the reflective
+ * path:</p>
+ * <ul>
+ *   <li>Unknown fields are skipped</li>
+ *   <li>JSON {@code null} leaves the field null</li>
+ *   <li>Numbers may be supplied as numeric strings, as Gson permits</li>
+ *   <li>Null fields are omitted on write unless the {@link Gson} instance serialises nulls</li>
+ * </ul>
+ *
+ * <p>Any field added to a DTO must be added to its adapter here as well;
+ * {@code DtoTypeAdapterFactoryTest} compares each adapter against reflective Gson to catch
+ * omissions.</p>
+ */
+public final class DtoTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(@NonNull Gson gson, @NonNull TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (raw == MaterialDto.class) {
+            adapter = new MaterialDtoAdapter();
+        } else if (raw == VocabularyTermDto.class) {
+            adapter = new VocabularyTermDtoAdapter();
+        } else if (raw == QuestionDto.class) {
+            adapter = new QuestionDtoAdapter();
+        } else if (raw == DistributionBundleDto.class) {
+            adapter = new DistributionBundleDtoAdapter();
+        } else if (raw == ResponseDto.class) {
+            adapter = new ResponseDtoAdapter();
+        } else if (raw == BatchResponseDto.class) {
+            adapter = new BatchResponseDtoAdapter();
+        } else if (raw == FeedbackDto.class) {
+            adapter = new FeedbackDtoAdapter();
+        } else if (raw == FeedbackResponse.class) {
+            adapter = new FeedbackResponseAdapter();
+        } else if (raw == ConfigResponseDto.class) {
+            adapter = new ConfigResponseDtoAdapter();
+        } else if (raw == DeviceInfoDto.class) {
+            adapter = new DeviceInfoDtoAdapter();
+        } else if (raw == DeviceStatusDto.class) {
+            adapter = new DeviceStatusDtoAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    // ========== DTO adapters ==========
+
+    /**
+     * Streaming adapter for {@link MaterialDto}.
+     */
+    private static final class MaterialDtoAdapter extends TypeAdapter<MaterialDto> {
+
+        /** Element adapter for the vocabulary term list. */
+        private final VocabularyTermDtoAdapter termAdapter = new VocabularyTermDtoAdapter();
+
+        @Override
+        public void write(JsonWriter out, MaterialDto value) throws IOException {
+            out.beginObject();
+            out.name("Id").value(value.getId());
+            out.name("MaterialType").value(value.getType());
+            out.name("Title").value(value.getTitle());
+            out.name("Content").value(value.getContent());
+            out.name("Metadata").value(value.getMetadata());
+            out.name("VocabularyTerms");
+            writeList(out, value.getVocabularyTerms(), termAdapter);
+            out.name("Timestamp").value(value.getTimestamp());
+            out.endObject();
+        }
+
+        @Override
+        public MaterialDto read(JsonReader in) throws IOException {
+            MaterialDto dto = new MaterialDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Id":
+                        dto.setId(readString(in));
+                        break;
+                    case "MaterialType":
+                        dto.setType(readString(in));
+                        break;
+                    case "Title":
+                        dto.setTitle(readString(in));
+                        break;
+                    case "Content":
+                        dto.setContent(readString(in));
+                        break;
+                    case "Metadata":
+                        dto.setMetadata(readString(in));
+                        break;
+                    case "VocabularyTerms":
+                        dto.setVocabularyTerms(readList(in, termAdapter));
+                        break;
+                    case "Timestamp":
+                        dto.setTimestamp(readLong(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link VocabularyTermDto}.
+     */
+    private static final class VocabularyTermDtoAdapter extends TypeAdapter<VocabularyTermDto> {
+
+        @Override
+        public void write(JsonWriter out, VocabularyTermDto value) throws IOException {
+            out.beginObject();
+            out.name("Term").value(value.getTerm());
+            out.name("Definition").value(value.getDefinition());
+            out.endObject();
+        }
+
+        @Override
+        public VocabularyTermDto read(JsonReader in) throws IOException {
+            VocabularyTermDto dto = new VocabularyTermDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Term":
+                        dto.setTerm(readString(in));
+                        break;
+                    case "Definition":
+                        dto.setDefinition(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link QuestionDto}.
+     */
+    private static final class QuestionDtoAdapter extends TypeAdapter<QuestionDto> {
+
+        @Override
+        public void write(JsonWriter out, QuestionDto value) throws IOException {
+            out.beginObject();
+            out.name("Id").value(value.getId());
+            out.name("MaterialId").value(value.getMaterialId());
+            out.name("QuestionType").value(value.getQuestionType());
+            out.name("QuestionText").value(value.getQuestionText());
+            out.name("Options");
+            writeStringList(out, value.getOptions());
+            out.name("CorrectAnswer").value(value.getCorrectAnswer());
+            out.name("MaxScore").value(value.getMaxScore());
+            out.endObject();
+        }
+
+        @Override
+        public QuestionDto read(JsonReader in) throws IOException {
+            QuestionDto dto = new QuestionDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Id":
+                        dto.setId(readString(in));
+                        break;
+                    case "MaterialId":
+                        dto.setMaterialId(readString(in));
+                        break;
+                    case "QuestionType":
+                        dto.setQuestionType(readString(in));
+                        break;
+                    case "QuestionText":
+                        dto.setQuestionText(readString(in));
+                        break;
+                    case "Options":
+                        dto.setOptions(readStringList(in));
+                        break;
+                    case "CorrectAnswer":
+                        dto.setCorrectAnswer(readString(in));
+                        break;
+                    case "MaxScore":
+                        dto.setMaxScore(readInteger(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link DistributionBundleDto}.
+     */
+    private static final class DistributionBundleDtoAdapter
+            extends TypeAdapter<DistributionBundleDto> {
+
+        /** Element adapter for the material list. */
+        private final MaterialDtoAdapter materialAdapter = new MaterialDtoAdapter();
+
+        /** Element adapter for the question list. */
+        private final QuestionDtoAdapter questionAdapter = new QuestionDtoAdapter();
+
+        @Override
+        public void write(JsonWriter out, DistributionBundleDto value) throws IOException {
+            out.beginObject();
+            out.name("materials");
+            writeList(out, value.getMaterials(), materialAdapter);
+            out.name("questions");
+            writeList(out, value.getQuestions(), questionAdapter);
+            out.endObject();
+        }
+
+        @Override
+        public DistributionBundleDto read(JsonReader in) throws IOException {
+            DistributionBundleDto dto = new DistributionBundleDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "materials":
+                        dto.setMaterials(readList(in, materialAdapter));
+                        break;
+                    case "questions":
+                        dto.setQuestions(readList(in, questionAdapter));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link ResponseDto}.
+     */
+    private static final class ResponseDtoAdapter extends TypeAdapter<ResponseDto> {
+
+        @Override
+        public void write(JsonWriter out, ResponseDto value) throws IOException {
+            out.beginObject();
+            out.name("Id").value(value.getId());
+            out.name("QuestionId").value(value.getQuestionId());
+            out.name("MaterialId").value(value.getMaterialId());
+            out.name("DeviceId").value(value.getDeviceId());
+            out.name("Answer").value(value.getAnswer());
+            out.name("Timestamp").value(value.getTimestamp());
+            out.name("IsCorrect").value(value.getIsCorrect());
+            out.endObject();
+        }
+
+        @Override
+        public ResponseDto read(JsonReader in) throws IOException {
+            ResponseDto dto = new ResponseDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Id":
+                        dto.setId(readString(in));
+                        break;
+                    case "QuestionId":
+                        dto.setQuestionId(readString(in));
+                        break;
+                    case "MaterialId":
+                        dto.setMaterialId(readString(in));
+                        break;
+                    case "DeviceId":
+                        dto.setDeviceId(readString(in));
+                        break;
+                    case "Answer":
+                        dto.setAnswer(readString(in));
+                        break;
+                    case "Timestamp":
+                        dto.setTimestamp(readString(in));
+                        break;
+                    case "IsCorrect":
+                        dto.setIsCorrect(readBoolean(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link BatchResponseDto}.
+     */
+    private static final class BatchResponseDtoAdapter extends TypeAdapter<BatchResponseDto> {
+
+        /** Element adapter for the response list. */
+        private final ResponseDtoAdapter responseAdapter = new ResponseDtoAdapter();
+
+        @Override
+        public void write(JsonWriter out, BatchResponseDto value) throws IOException {
+            out.beginObject();
+            out.name("Responses");
+            writeList(out, value.getResponses(), responseAdapter);
+            out.endObject();
+        }
+
+        @Override
+        public BatchResponseDto read(JsonReader in) throws IOException {
+            BatchResponseDto dto = new BatchResponseDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("Responses".equals(in.nextName())) {
+                    dto.setResponses(readList(in, responseAdapter));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link FeedbackDto}.
+     */
+    private static final class FeedbackDtoAdapter extends TypeAdapter<FeedbackDto> {
+
+        @Override
+        public void write(JsonWriter out, FeedbackDto value) throws IOException {
+            out.beginObject();
+            out.name("Id").value(value.getId());
+            out.name("ResponseId").value(value.getResponseId());
+            out.name("Text").value(value.getText());
+            out.name("Marks").value(value.getMarks());
+            out.endObject();
+        }
+
+        @Override
+        public FeedbackDto read(JsonReader in) throws IOException {
+            FeedbackDto dto = new FeedbackDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "Id":
+                        dto.setId(readString(in));
+                        break;
+                    case "ResponseId":
+                        dto.setResponseId(readString(in));
+                        break;
+                    case "Text":
+                        dto.setText(readString(in));
+                        break;
+                    case "Marks":
+                        dto.setMarks(readInteger(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link FeedbackResponse}.
+     */
+    private static final class FeedbackResponseAdapter extends TypeAdapter<FeedbackResponse> {
+
+        /** Element adapter for the feedback list. */
+        private final FeedbackDtoAdapter feedbackAdapter = new FeedbackDtoAdapter();
+
+        @Override
+        public void write(JsonWriter out, FeedbackResponse value) throws IOException {
+            out.beginObject();
+            out.name("feedback");
+            writeList(out, value.getFeedback(), feedbackAdapter);
+            out.name("cursor").value(value.getCursor());
+            out.endObject();
+        }
+
+        @Override
+        public FeedbackResponse read(JsonReader in) throws IOException {
+            FeedbackResponse dto = new FeedbackResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "feedback":
+                        dto.setFeedback(readList(in, feedbackAdapter));
+                        break;
+                    case "cursor":
+                        dto.setCursor(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link ConfigResponseDto}.
+     */
+    private static final class ConfigResponseDtoAdapter extends TypeAdapter<ConfigResponseDto> {
+
+        @Override
+        public void write(JsonWriter out, ConfigResponseDto value) throws IOException {
+            out.beginObject();
+            out.name("TextSize").value(value.getTextSize());
+            out.name("FeedbackStyle").value(value.getFeedbackStyle());
+            out.name("TtsEnabled").value(value.getTtsEnabled());
+            out.name("AiScaffoldingEnabled").value(value.getAiScaffoldingEnabled());
+            out.name("SummarisationEnabled").value(value.getSummarisationEnabled());
+            out.name("MascotSelection").value(value.getMascotSelection());
+            out.endObject();
+        }
+
+        @Override
+        public ConfigResponseDto read(JsonReader in) throws IOException {
+            ConfigResponseDto dto = new ConfigResponseDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "TextSize":
+                        dto.setTextSize(readInteger(in));
+                        break;
+                    case "FeedbackStyle":
+                        dto.setFeedbackStyle(readString(in));
+                        break;
+                    case "TtsEnabled":
+                        dto.setTtsEnabled(readBoolean(in));
+                        break;
+                    case "AiScaffoldingEnabled":
+                        dto.setAiScaffoldingEnabled(readBoolean(in));
+                        break;
+                    case "SummarisationEnabled":
+                        dto.setSummarisationEnabled(readBoolean(in));
+                        break;
+                    case "MascotSelection":
+                        dto.setMascotSelection(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link DeviceInfoDto}.
+     */
+    private static final class DeviceInfoDtoAdapter extends TypeAdapter<DeviceInfoDto> {
+
+        @Override
+        public void write(JsonWriter out, DeviceInfoDto value) throws IOException {
+            out.beginObject();
+            out.name("DeviceId").value(value.getDeviceId());
+            out.name("Name").value(value.getName());
+            out.endObject();
+        }
+
+        @Override
+        public DeviceInfoDto read(JsonReader in) throws IOException {
+            DeviceInfoDto dto = new DeviceInfoDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "DeviceId":
+                        dto.setDeviceId(readString(in));
+                        break;
+                    case "Name":
+                        dto.setName(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    /**
+     * Streaming adapter for {@link DeviceStatusDto}.
+     */
+    private static final class DeviceStatusDtoAdapter extends TypeAdapter<DeviceStatusDto> {
+
+        @Override
+        public void write(JsonWriter out, DeviceStatusDto value) throws IOException {
+            out.beginObject();
+            out.name("DeviceId").value(value.getDeviceId());
+            out.name("Status").value(value.getStatus());
+            out.name("BatteryLevel").value(value.getBatteryLevel());
+            out.name("CurrentMaterialId").value(value.getCurrentMaterialId());
+            out.name("StudentView").value(value.getStudentView());
+            out.name("Timestamp").value(value.getTimestamp());
+            out.endObject();
+        }
+
+        @Override
+        public DeviceStatusDto read(JsonReader in) throws IOException {
+            DeviceStatusDto dto = new DeviceStatusDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "DeviceId":
+                        dto.setDeviceId(readString(in));
+                        break;
+                    case "Status":
+                        dto.setStatus(readString(in));
+                        break;
+                    case "BatteryLevel":
+                        dto.setBatteryLevel(readInteger(in));
+                        break;
+                    case "CurrentMaterialId":
+                        dto.setCurrentMaterialId(readString(in));
+                        break;
+                    case "StudentView":
+                        dto.setStudentView(readString(in));
+                        break;
+                    case "Timestamp":
+                        dto.setTimestamp(readLong(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+    }
+
+    // ========== Token helpers (mirror Gson's built-in primitive adapters) ==========
+
+    /**
+     * Reads a nullable string, coercing booleans and numbers as Gson's STRING adapter does.
+     *
+     * @param in The reader positioned at the value
+     * @return The string value, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static String readString(@NonNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a nullable integer, accepting numeric strings as Gson's INTEGER adapter does.
+     *
+     * @param in The reader positioned at the value
+     * @return The integer value, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static Integer readInteger(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads a nullable long, accepting numeric strings as Gson's LONG adapter does.
+     *
+     * @param in The reader positioned at the value
+     * @return The long value, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static Long readLong(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads a nullable boolean, accepting string literals as Gson's BOOLEAN adapter does.
+     *
+     * @param in The reader positioned at the value
+     * @return The boolean value, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static Boolean readBoolean(@NonNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * Reads a nullable JSON array of strings.
+     *
+     * @param in The reader positioned at the value
+     * @return The list, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static List<String> readStringList(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(readString(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Writes a nullable list of strings as a JSON array.
+     *
+     * @param out    The writer
+     * @param values The values to write, or null
+     * @throws IOException if writing fails
+     */
+    private static void writeStringList(@NonNull JsonWriter out,
+                                        @Nullable List<String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Reads a nullable JSON array of objects using the given element adapter.
+     * Null elements are preserved, as in Gson's collection adapter.
+     *
+     * @param in      The reader positioned at the value
+     * @param element The adapter for each element
+     * @param <E>     The element type
+     * @return The list, or null for JSON null
+     * @throws IOException if the token cannot be read
+     */
+    @Nullable
+    private static <E> List<E> readList(@NonNull JsonReader in,
+                                        @NonNull TypeAdapter<E> element) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                list.add(null);
+            } else {
+                list.add(element.read(in));
+            }
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Writes a nullable list of objects as a JSON array using the given element adapter.
+     *
+     * @param out     The writer
+     * @param values  The values to write, or null
+     * @param element The adapter for each element
+     * @param <E>     The element type
+     * @throws IOException if writing fails
+     */
+    private static <E> void writeList(@NonNull JsonWriter out,
+                                      @Nullable List<E> values,
+                                      @NonNull TypeAdapter<E> element) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (E value : values) {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                element.write(out, value);
+            }
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,40 @@
+package com.manuscripta.student.network.metrics;
+
+/**
+ * Phases of an HTTP call measured by {@link HttpTimingEventListener}.
+ *
+ * <p>Phases are recorded independently, so a call that reuses a pooled connection records
+ * no {@link #DNS} or {@link #CONNECT} sample.</p>
+ */
+public enum HttpPhase {
+    /**
+     * Hostname resolution. Usually absent, as the teacher server is addressed by IP.
+     */
+    DNS,
+
+    /**
+     * TCP connection establishment to the teacher server.
+     */
+    CONNECT,
+
+    /**
+     * Writing request headers and body to the socket.
+     */
+    REQUEST_WRITE,
+
+    /**
+     * Time from the end of the request write until response headers start arriving.
+     * Dominated by server processing time on the teacher laptop.
+     */
+    TIME_TO_FIRST_BYTE,
+
+    /**
+     * Reading the response body, including any parsing done while the body streams.
+     */
+    BODY_READ,
+
+    /**
+     * Whole call, from call start until the call ends or fails.
+     */
+    TOTAL
+}
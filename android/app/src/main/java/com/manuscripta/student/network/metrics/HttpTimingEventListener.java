@@ -0,0 +1,263 @@
+package com.manuscripta.student.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp {@link EventListener} that records per-phase durations of each call into an
+ * {@link HttpTimingStore}.
+ *
+ * <p>One listener is created per call by {@link Factory}. OkHttp delivers a call's events
+ * sequentially, so the start timestamps are plain fields. Because {@code RetryInterceptor}
+ * runs as an application interceptor, a retried call produces several request/response
+ * cycles under the same listener; each cycle is recorded as its own sample.</p>
+ *
+ * <p>Requests are grouped by endpoint template rather than by URL (see
+ * {@link #toEndpointTemplate(List)}), so timings for {@code /attachments/{id}} aggregate
+ * across all attachments.</p>
+ */
+public class HttpTimingEventListener extends EventListener {
+
+    /** Leading path segments shared by every API endpoint, stripped from templates. */
+    private static final List<String> API_PREFIX = Arrays.asList("api", "v1");
+
+    /** Resources whose path parameter is the device ID, per API Contract §2. */
+    private static final Set<String> DEVICE_SCOPED_RESOURCES = new HashSet<>(Arrays.asList(
+            "distribution", "feedback", "config"));
+
+    /** The store receiving samples. */
+    private final HttpTimingStore store;
+
+    /** The endpoint template for this call. */
+    private final String endpoint;
+
+    /** Call start timestamp in nanoseconds; 0 when not in progress. */
+    private long callStartNs;
+
+    /** DNS lookup start timestamp in nanoseconds; 0 when not in progress. */
+    private long dnsStartNs;
+
+    /** Connect start timestamp in nanoseconds; 0 when not in progress. */
+    private long connectStartNs;
+
+    /** Request write start timestamp in nanoseconds; 0 when not in progress. */
+    private long requestStartNs;
+
+    /** Request write end timestamp in nanoseconds; 0 once response headers arrive. */
+    private long requestEndNs;
+
+    /** Response body start timestamp in nanoseconds; 0 when not in progress. */
+    private long responseBodyStartNs;
+
+    /**
+     * Creates a listener for a single call.
+     *
+     * @param store    The store receiving samples
+     * @param endpoint The endpoint template for the call
+     */
+    HttpTimingEventListener(@NonNull HttpTimingStore store, @NonNull String endpoint) {
+        this.store = store;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName,
+                       @NonNull List<InetAddress> inetAddressList) {
+        dnsStartNs = recordSince(HttpPhase.DNS, dnsStartNs);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                             @NonNull Proxy proxy) {
+        connectStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        connectStartNs = recordSince(HttpPhase.CONNECT, connectStartNs);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                              @NonNull Proxy proxy, @Nullable Protocol protocol,
+                              @NonNull IOException ioe) {
+        connectStartNs = recordSince(HttpPhase.CONNECT, connectStartNs);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        // Requests without a body finish writing here; for requests with a body,
+        // requestBodyEnd overwrites this timestamp.
+        requestEndNs = System.nanoTime();
+        if (request.body() == null) {
+            requestStartNs = recordSince(HttpPhase.REQUEST_WRITE, requestStartNs);
+        }
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        requestEndNs = System.nanoTime();
+        requestStartNs = recordSince(HttpPhase.REQUEST_WRITE, requestStartNs);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        requestEndNs = recordSince(HttpPhase.TIME_TO_FIRST_BYTE, requestEndNs);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        // No timing; the body phase starts separately.
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        responseBodyStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        responseBodyStartNs = recordSince(HttpPhase.BODY_READ, responseBodyStartNs);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        callStartNs = recordSince(HttpPhase.TOTAL, callStartNs);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        callStartNs = recordSince(HttpPhase.TOTAL, callStartNs);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNs} if the phase was started.
+     *
+     * @param phase   The phase to record
+     * @param startNs The phase start timestamp, or 0 if it was not started
+     * @return 0, for resetting the caller's start field
+     */
+    private long recordSince(@NonNull HttpPhase phase, long startNs) {
+        if (startNs != 0) {
+            store.record(endpoint, phase, System.nanoTime() - startNs);
+        }
+        return 0;
+    }
+
+    /**
+     * Converts URL path segments to an endpoint template.
+     *
+     * <p>The {@code /api/v1} prefix is removed. Segments made only of lowercase letters are
+     * kept as static path components; any other segment is a path parameter and is replaced
+     * with {@code {deviceId}} for device-scoped resources or {@code {id}} otherwise. For
+     * example {@code /api/v1/attachments/550e8400-...} becomes {@code /attachments/{id}} and
+     * {@code /api/v1/responses/batch} is unchanged apart from the prefix.</p>
+     *
+     * @param segments The decoded path segments of the request URL
+     * @return The endpoint template, starting with '/'
+     */
+    @NonNull
+    static String toEndpointTemplate(@NonNull List<String> segments) {
+        int start = 0;
+        while (start < segments.size() && start < API_PREFIX.size()
+                && API_PREFIX.get(start).equals(segments.get(start))) {
+            start++;
+        }
+        StringBuilder template = new StringBuilder();
+        String resource = null;
+        for (int i = start; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/');
+            if (isStaticSegment(segment)) {
+                template.append(segment);
+                if (resource == null) {
+                    resource = segment;
+                }
+            } else if (resource != null && DEVICE_SCOPED_RESOURCES.contains(resource)) {
+                template.append("{deviceId}");
+            } else {
+                template.append("{id}");
+            }
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    /**
+     * Checks whether a path segment is a static component rather than a parameter.
+     *
+     * @param segment The path segment
+     * @return true if the segment contains only lowercase ASCII letters
+     */
+    private static boolean isStaticSegment(@NonNull String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Factory creating one {@link HttpTimingEventListener} per call.
+     */
+    public static class Factory implements EventListener.Factory {
+
+        /** The store receiving samples from all calls. */
+        private final HttpTimingStore store;
+
+        /**
+         * Creates a factory recording into the given store.
+         *
+         * @param store The store receiving samples
+         * @throws IllegalArgumentException if store is null
+         */
+        public Factory(@NonNull HttpTimingStore store) {
+            if (store == null) {
+                throw new IllegalArgumentException("HttpTimingStore cannot be null");
+            }
+            this.store = store;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            String endpoint = toEndpointTemplate(call.request().url().pathSegments());
+            return new HttpTimingEventListener(store, endpoint);
+        }
+    }
+}
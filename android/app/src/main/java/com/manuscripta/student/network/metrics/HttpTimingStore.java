@@ -0,0 +1,110 @@
+package com.manuscripta.student.network.metrics;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.manuscripta.student.utils.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Always-on store of HTTP phase timings, keyed by endpoint template and {@link HttpPhase}.
+ *
+ * <p>Populated by {@link HttpTimingEventListener}. Endpoint templates such as
+ * {@code /distribution/{deviceId}} keep the key space bounded regardless of how many devices
+ * or attachments are requested, so memory use is fixed after the first call to each
+ * endpoint.</p>
+ *
+ * <p>The split between phases shows where a slow material load is spent:
+ * {@link HttpPhase#CONNECT} points at the Wi-Fi or access point,
+ * {@link HttpPhase#TIME_TO_FIRST_BYTE} at the teacher laptop, and
+ * {@link HttpPhase#BODY_READ} at transfer size or client-side parsing.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+public class HttpTimingStore {
+
+    /** Tag for logging. */
+    private static final String TAG = "HttpTimingStore";
+
+    /** Histograms per endpoint template; inner maps are populated eagerly and never mutated. */
+    private final Map<String, Map<HttpPhase, LatencyHistogram>> histograms =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Records a phase duration for an endpoint.
+     *
+     * @param endpoint      The endpoint template (e.g. {@code /attachments/{id}})
+     * @param phase         The measured phase
+     * @param durationNanos The duration in nanoseconds
+     */
+    public void record(@NonNull String endpoint, @NonNull HttpPhase phase, long durationNanos) {
+        histograms.computeIfAbsent(endpoint, key -> createPhaseMap())
+                .get(phase)
+                .record(durationNanos);
+    }
+
+    /**
+     * Gets the histogram for an endpoint and phase.
+     *
+     * @param endpoint The endpoint template
+     * @param phase    The phase
+     * @return The live histogram, or an empty one if the endpoint has not been called
+     */
+    @NonNull
+    public LatencyHistogram getHistogram(@NonNull String endpoint, @NonNull HttpPhase phase) {
+        Map<HttpPhase, LatencyHistogram> phases = histograms.get(endpoint);
+        return phases != null ? phases.get(phase) : new LatencyHistogram();
+    }
+
+    /**
+     * Gets a view of all recorded histograms, sorted by endpoint template.
+     *
+     * @return Unmodifiable map of endpoint template to per-phase histograms
+     */
+    @NonNull
+    public Map<String, Map<HttpPhase, LatencyHistogram>> getAll() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * Writes a one-line summary per endpoint and phase to the log.
+     */
+    public void logSummary() {
+        for (Map.Entry<String, Map<HttpPhase, LatencyHistogram>> endpoint
+                : getAll().entrySet()) {
+            for (Map.Entry<HttpPhase, LatencyHistogram> phase : endpoint.getValue().entrySet()) {
+                if (phase.getValue().getCount() > 0) {
+                    Log.i(TAG, endpoint.getKey() + " " + phase.getKey() + " "
+                            + phase.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all recorded timings.
+     */
+    public void clear() {
+        histograms.clear();
+    }
+
+    /**
+     * Creates a map with one empty histogram per phase.
+     *
+     * @return Unmodifiable phase map
+     */
+    @NonNull
+    private static Map<HttpPhase, LatencyHistogram> createPhaseMap() {
+        Map<HttpPhase, LatencyHistogram> phases = new EnumMap<>(HttpPhase.class);
+        for (HttpPhase phase : HttpPhase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        return Collections.unmodifiableMap(phases);
+    }
+}
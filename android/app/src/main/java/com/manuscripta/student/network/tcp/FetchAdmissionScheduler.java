@@ -0,0 +1,314 @@
+package com.manuscripta.student.network.tcp;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.manuscripta.student.network.tcp.message.DistributeMaterialMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads signal-triggered HTTP fetches across a classroom so that a single broadcast
+ * does not make every tablet hit the teacher's machine at the same instant.
+ *
+ * <p>When the server broadcasts {@code DISTRIBUTE_MATERIAL} or {@code RETURN_FEEDBACK},
+ * each device delays its fetch before running it:</p>
+ * <ul>
+ *   <li>If the signal carries a slot number, the fetch starts at
+ *       {@code slot * slotWidthMs}, capped at {@code maxSpreadMs} so that a large slot
+ *       cannot hold a fetch back for longer than the widest spread window. The server's
+ *       assignment always takes precedence over the jitter.</li>
+ *   <li>Otherwise the delay is a fixed fraction of the current spread window. The fraction
+ *       is derived from a hash of the device ID, so each device lands at the same point
+ *       in the window on every signal, and the devices in a classroom are spread
+ *       evenly across it.</li>
+ * </ul>
+ *
+ * <p>The spread window adapts to observed fetch duration. Each fetch is timed, and an
+ * exponentially weighted moving average of the durations, multiplied by
+ * {@code spreadPerLatency}, gives the window, clamped to {@code [minSpreadMs, maxSpreadMs]}.
+ * A loaded server responds slowly, which widens the window, and a quiet one narrows it.
+ * Server back-pressure via {@code Retry-After} is honoured by {@code RetryInterceptor}
+ * inside the fetch. The time spent waiting therefore counts towards the measured
+ * duration and widens the window for later signals.</p>
+ *
+ * <p>A signal that arrives while a fetch for the same key is still waiting to start is
+ * coalesced into it. Fetches run one at a time on a single background thread.</p>
+ */
+public class FetchAdmissionScheduler {
+
+    /** Tag for logging. */
+    private static final String TAG = "FetchAdmissionScheduler";
+
+    /** Default spread window before any fetch latency has been observed. */
+    private static final long DEFAULT_INITIAL_SPREAD_MS = 2000L;
+
+    /** Default lower bound for the spread window. */
+    private static final long DEFAULT_MIN_SPREAD_MS = 500L;
+
+    /** Default upper bound for the spread window. */
+    private static final long DEFAULT_MAX_SPREAD_MS = 10000L;
+
+    /** Default multiplier from mean fetch latency to spread window. */
+    private static final double DEFAULT_SPREAD_PER_LATENCY = 8.0;
+
+    /** Default delay between consecutive server-assigned slots. */
+    private static final long DEFAULT_SLOT_WIDTH_MS = 250L;
+
+    /** Weight given to the newest latency sample in the moving average. */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    /** FNV-1a 64-bit offset basis. */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /** FNV-1a 64-bit prime. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** First multiplier of the MurmurHash3 64-bit finaliser. */
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+    /** Second multiplier of the MurmurHash3 64-bit finaliser. */
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    /**
+     * Supplies the device ID used to derive the per-device jitter.
+     */
+    public interface DeviceIdProvider {
+        /**
+         * Returns the ID of this device.
+         *
+         * @return The device ID, or null if the device is not paired.
+         */
+        @Nullable
+        String getDeviceId();
+    }
+
+    /** Provider for the device ID. */
+    private final DeviceIdProvider deviceIdProvider;
+
+    /** Spread window used until the first latency sample is recorded. */
+    private final long initialSpreadMs;
+
+    /** Lower bound for the spread window. */
+    private final long minSpreadMs;
+
+    /** Upper bound for the spread window. */
+    private final long maxSpreadMs;
+
+    /** Multiplier from mean fetch latency to spread window. */
+    private final double spreadPerLatency;
+
+    /** Delay between consecutive server-assigned slots. */
+    private final long slotWidthMs;
+
+    /** Executor that runs delayed fetches. */
+    private final ScheduledExecutorService executor;
+
+    /** Fetches waiting to start, keyed by fetch kind. */
+    private final Map<String, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+    /** Lock guarding the latency average. */
+    private final Object latencyLock = new Object();
+
+    /** Moving average of fetch duration in milliseconds, or negative if none observed. */
+    private double meanLatencyMs = -1;
+
+    /**
+     * Creates a FetchAdmissionScheduler with the default policy.
+     *
+     * @param deviceIdProvider Provider for the device ID
+     */
+    public FetchAdmissionScheduler(@NonNull DeviceIdProvider deviceIdProvider) {
+        this(deviceIdProvider, DEFAULT_INITIAL_SPREAD_MS, DEFAULT_MIN_SPREAD_MS,
+                DEFAULT_MAX_SPREAD_MS, DEFAULT_SPREAD_PER_LATENCY, DEFAULT_SLOT_WIDTH_MS);
+    }
+
+    /**
+     * Creates a FetchAdmissionScheduler with a custom policy.
+     *
+     * @param deviceIdProvider Provider for the device ID
+     * @param initialSpreadMs  Spread window before any latency is observed
+     * @param minSpreadMs      Lower bound for the spread window
+     * @param maxSpreadMs      Upper bound for the spread window
+     * @param spreadPerLatency Multiplier from mean fetch latency to spread window
+     * @param slotWidthMs      Delay between consecutive server-assigned slots; the resulting
+     *                         delay is capped at maxSpreadMs
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public FetchAdmissionScheduler(@NonNull DeviceIdProvider deviceIdProvider,
+                                   long initialSpreadMs, long minSpreadMs, long maxSpreadMs,
+                                   double spreadPerLatency, long slotWidthMs) {
+        if (deviceIdProvider == null) {
+            throw new IllegalArgumentException("deviceIdProvider cannot be null");
+        }
+        if (minSpreadMs < 0) {
+            throw new IllegalArgumentException("minSpreadMs must be non-negative");
+        }
+        if (maxSpreadMs < minSpreadMs) {
+            throw new IllegalArgumentException("maxSpreadMs must be >= minSpreadMs");
+        }
+        if (initialSpreadMs < minSpreadMs || initialSpreadMs > maxSpreadMs) {
+            throw new IllegalArgumentException(
+                    "initialSpreadMs must be between minSpreadMs and maxSpreadMs");
+        }
+        if (spreadPerLatency <= 0) {
+            throw new IllegalArgumentException("spreadPerLatency must be positive");
+        }
+        if (slotWidthMs < 0) {
+            throw new IllegalArgumentException("slotWidthMs must be non-negative");
+        }
+
+        this.deviceIdProvider = deviceIdProvider;
+        this.initialSpreadMs = initialSpreadMs;
+        this.minSpreadMs = minSpreadMs;
+        this.maxSpreadMs = maxSpreadMs;
+        this.spreadPerLatency = spreadPerLatency;
+        this.slotWidthMs = slotWidthMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fetch-admission");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a signal-triggered fetch.
+     *
+     * <p>If a fetch with the same key is already waiting to start, this call is a no-op.</p>
+     *
+     * @param key   Identifies the kind of fetch, for coalescing
+     * @param slot  Server-assigned slot, or {@link DistributeMaterialMessage#NO_SLOT}
+     * @param fetch The fetch to run
+     * @return true if a new fetch was scheduled, false if it was coalesced or rejected
+     */
+    public boolean schedule(@NonNull String key, int slot, @NonNull Runnable fetch) {
+        if (executor.isShutdown()) {
+            return false;
+        }
+        long delayMs = computeDelayMs(slot);
+        boolean[] scheduled = {false};
+        pending.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isDone()) {
+                return existing;
+            }
+            scheduled[0] = true;
+            return executor.schedule(() -> run(key, fetch), delayMs, TimeUnit.MILLISECONDS);
+        });
+        if (scheduled[0]) {
+            Log.d(TAG, "Scheduled " + key + " fetch in " + delayMs + "ms");
+        } else {
+            Log.d(TAG, "Coalesced " + key + " fetch into pending one");
+        }
+        return scheduled[0];
+    }
+
+    /**
+     * Computes the admission delay for a fetch.
+     *
+     * @param slot Server-assigned slot, or {@link DistributeMaterialMessage#NO_SLOT}
+     * @return The delay in milliseconds
+     */
+    @VisibleForTesting
+    long computeDelayMs(int slot) {
+        if (slot >= 0) {
+            return Math.min(slot * slotWidthMs, maxSpreadMs);
+        }
+        String deviceId = deviceIdProvider.getDeviceId();
+        if (deviceId == null || deviceId.isEmpty()) {
+            return 0;
+        }
+        return (long) (jitterFraction(deviceId) * getSpreadMs());
+    }
+
+    /**
+     * Returns the current spread window.
+     *
+     * @return The spread window in milliseconds
+     */
+    public long getSpreadMs() {
+        synchronized (latencyLock) {
+            if (meanLatencyMs < 0) {
+                return initialSpreadMs;
+            }
+            long spread = (long) (meanLatencyMs * spreadPerLatency);
+            return Math.max(minSpreadMs, Math.min(maxSpreadMs, spread));
+        }
+    }
+
+    /**
+     * Records the duration of a completed fetch.
+     *
+     * @param latencyMs The fetch duration in milliseconds
+     */
+    @VisibleForTesting
+    void recordLatency(long latencyMs) {
+        synchronized (latencyLock) {
+            if (meanLatencyMs < 0) {
+                meanLatencyMs = latencyMs;
+            } else {
+                meanLatencyMs += LATENCY_SMOOTHING * (latencyMs - meanLatencyMs);
+            }
+        }
+    }
+
+    /**
+     * Maps a device ID to a stable fraction in {@code [0, 1)}.
+     *
+     * <p>Uses 64-bit FNV-1a followed by the MurmurHash3 finaliser. Without the finaliser,
+     * IDs that differ only in their last character would map to almost the same fraction,
+     * because FNV leaves the top bits of the hash nearly unchanged by the final byte.</p>
+     *
+     * @param deviceId The device ID
+     * @return A fraction that is the same for every call with the same ID
+     */
+    @VisibleForTesting
+    static double jitterFraction(@NonNull String deviceId) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : deviceId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> 33;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> 33;
+        // Top 53 bits fill a double's mantissa exactly
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Stops accepting fetches and cancels any that have not yet started.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        pending.clear();
+    }
+
+    /**
+     * Runs a fetch and records its duration.
+     *
+     * @param key   The fetch key
+     * @param fetch The fetch to run
+     */
+    private void run(@NonNull String key, @NonNull Runnable fetch) {
+        pending.remove(key);
+        long start = System.nanoTime();
+        try {
+            fetch.run();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Scheduled " + key + " fetch failed", e);
+        } finally {
+            recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
@@ -55,6 +55,10 @@ public class HeartbeatManager implements TcpMessageListener {
 
     /** Tag for logging. */
     private static final String TAG = "HeartbeatManager";
+    /** Fetch scheduler key for material fetches. */
+    private static final String FETCH_KEY_MATERIALS = "materials";
+    /** Fetch scheduler key for feedback fetches. */
+    private static final String FETCH_KEY_FEEDBACK = "feedback";
 
     /**
      * Provides the current device status for heartbeat messages.
@@ -145,6 +149,9 @@ public class HeartbeatManager implements TcpMessageListener {
     /** Callback for when an unpair command is received. */
     @Nullable
     private volatile UnpairCallback unpairCallback;
+    /** Optional scheduler that spreads material/feedback fetches across the classroom. */
+    @Nullable
+    private volatile FetchAdmissionScheduler fetchScheduler;
     /** Executor owned by this manager for dispatching material/feedback callbacks. */
     private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
 
@@ -226,6 +233,19 @@ public class HeartbeatManager implements TcpMessageListener {
         this.feedbackCallback = callback;
     }
 
+    /**
+     * Sets the scheduler used to admit material and feedback fetches.
+     * When set, the callbacks for DISTRIBUTE_MATERIAL and RETURN_FEEDBACK are delayed by
+     * the scheduler instead of running immediately. The scheduler is not owned by this
+     * manager and is left running by {@link #destroy()}; fetches it admits after then are
+     * skipped.
+     *
+     * @param scheduler The fetch admission scheduler, or null to run fetches immediately.
+     */
+    public void setFetchScheduler(@Nullable FetchAdmissionScheduler scheduler) {
+        this.fetchScheduler = scheduler;
+    }
+
     /**
      * Sets the callback for lock/unlock state changes.
      *
@@ -343,13 +363,15 @@ public class HeartbeatManager implements TcpMessageListener {
             Log.d(TAG, "Received DISTRIBUTE_MATERIAL signal");
             MaterialAvailableCallback callback = this.materialCallback;
             if (callback != null) {
-                callbackExecutor.execute(callback::onMaterialsAvailable);
+                int slot = ((DistributeMaterialMessage) message).getSlot();
+                dispatchFetch(FETCH_KEY_MATERIALS, slot, callback::onMaterialsAvailable);
             }
         } else if (message instanceof ReturnFeedbackMessage) {
             Log.d(TAG, "Received RETURN_FEEDBACK signal");
             FeedbackAvailableCallback callback = this.feedbackCallback;
             if (callback != null) {
-                callbackExecutor.execute(callback::onFeedbackAvailable);
+                dispatchFetch(FETCH_KEY_FEEDBACK, DistributeMaterialMessage.NO_SLOT,
+                        callback::onFeedbackAvailable);
             }
         } else if (message instanceof LockScreenMessage) {
             Log.d(TAG, "Received LOCK_SCREEN signal");
@@ -393,6 +415,27 @@ public class HeartbeatManager implements TcpMessageListener {
 
     // ========== Internal methods ==========
 
+    /**
+     * Dispatches a signal-triggered fetch through the fetch scheduler if one is set,
+     * or immediately on the callback executor otherwise.
+     *
+     * @param key   The fetch key used for coalescing.
+     * @param slot  The server-assigned slot, or {@link DistributeMaterialMessage#NO_SLOT}.
+     * @param fetch The fetch to run.
+     */
+    private void dispatchFetch(@NonNull String key, int slot, @NonNull Runnable fetch) {
+        FetchAdmissionScheduler scheduler = this.fetchScheduler;
+        if (scheduler != null) {
+            scheduler.schedule(key, slot, () -> {
+                if (!destroyed.get()) {
+                    fetch.run();
+                }
+            });
+        } else {
+            callbackExecutor.execute(fetch);
+        }
+    }
+
     private void startInternal() {
         if (running.get()) {
             return;
@@ -93,7 +93,7 @@ public final class TcpMessageDecoder {
             case UNLOCK_SCREEN -> new UnlockScreenMessage();
             case REFRESH_CONFIG -> new RefreshConfigMessage();
             case UNPAIR -> new UnpairMessage();
-            case DISTRIBUTE_MATERIAL -> new DistributeMaterialMessage();
+            case DISTRIBUTE_MATERIAL -> createDistributeMaterialMessage(operand);
             case HAND_ACK -> createHandAckMessage(operand);
             case RETURN_FEEDBACK -> new ReturnFeedbackMessage();
             case PAIRING_ACK -> new PairingAckMessage();
@@ -105,6 +105,29 @@ public final class TcpMessageDecoder {
         };
     }
 
+    /**
+     * Creates a DistributeMaterialMessage from the operand.
+     *
+     * @param operand Either empty, or a 2-byte little-endian fetch slot.
+     * @return The DistributeMaterialMessage.
+     * @throws TcpProtocolException If the operand has any other length.
+     */
+    @NonNull
+    private DistributeMaterialMessage createDistributeMaterialMessage(@NonNull byte[] operand)
+            throws TcpProtocolException {
+        if (operand.length == 0) {
+            return new DistributeMaterialMessage();
+        }
+        if (operand.length != DistributeMaterialMessage.SLOT_OPERAND_SIZE) {
+            throw new TcpProtocolException(
+                    TcpProtocolException.ErrorType.MALFORMED_DATA,
+                    "DISTRIBUTE_MATERIAL slot operand must be "
+                            + DistributeMaterialMessage.SLOT_OPERAND_SIZE + " bytes");
+        }
+        int slot = (operand[0] & 0xFF) | ((operand[1] & 0xFF) << 8);
+        return new DistributeMaterialMessage(slot);
+    }
+
     /**
      * Creates a StatusUpdateMessage from the operand.
      *
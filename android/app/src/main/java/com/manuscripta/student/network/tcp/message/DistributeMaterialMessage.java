@@ -16,7 +16,9 @@ import com.manuscripta.student.network.tcp.TcpOpcode;
  *   <li>Client sends DISTRIBUTE_ACK to confirm receipt</li>
  * </ol>
  *
- * <p>This message has no operand payload.
+ * <p>The message normally has no operand payload. A server may append an optional 2-byte
+ * little-endian slot number to spread the resulting fetches across a classroom; see
+ * {@link com.manuscripta.student.network.tcp.FetchAdmissionScheduler}.
  */
 public final class DistributeMaterialMessage extends TcpMessage {
 
@@ -26,20 +28,67 @@ public final class DistributeMaterialMessage extends TcpMessage {
     private static final byte[] EMPTY_OPERAND = new byte[0];
 
     /**
-     * Creates a new DistributeMaterialMessage.
+     * Slot value indicating that the server did not assign a fetch slot.
+     */
+    public static final int NO_SLOT = -1;
+
+    /**
+     * Largest slot number representable in the 2-byte operand.
+     */
+    public static final int MAX_SLOT = 0xFFFF;
+
+    /**
+     * Size of the optional slot operand in bytes.
+     */
+    public static final int SLOT_OPERAND_SIZE = 2;
+
+    /**
+     * The fetch slot assigned by the server, or {@link #NO_SLOT}.
+     */
+    private final int slot;
+
+    /**
+     * Creates a new DistributeMaterialMessage without a fetch slot.
      */
     public DistributeMaterialMessage() {
         super(TcpOpcode.DISTRIBUTE_MATERIAL);
+        this.slot = NO_SLOT;
+    }
+
+    /**
+     * Creates a new DistributeMaterialMessage carrying a fetch slot.
+     *
+     * @param slot The slot number assigned by the server, in the range 0 to {@link #MAX_SLOT}.
+     * @throws IllegalArgumentException if slot is out of range.
+     */
+    public DistributeMaterialMessage(int slot) {
+        super(TcpOpcode.DISTRIBUTE_MATERIAL);
+        if (slot < 0 || slot > MAX_SLOT) {
+            throw new IllegalArgumentException("slot must be between 0 and " + MAX_SLOT);
+        }
+        this.slot = slot;
+    }
+
+    /**
+     * Returns the fetch slot assigned by the server.
+     *
+     * @return The slot number, or {@link #NO_SLOT} if none was assigned.
+     */
+    public int getSlot() {
+        return slot;
     }
 
     /**
-     * Returns an empty operand as this message has no payload.
+     * Returns the operand for this message.
      *
-     * @return An empty byte array.
+     * @return An empty byte array, or the slot number as 2 little-endian bytes.
      */
     @NonNull
     @Override
     public byte[] getOperand() {
-        return EMPTY_OPERAND;
+        if (slot == NO_SLOT) {
+            return EMPTY_OPERAND;
+        }
+        return new byte[]{(byte) (slot & 0xFF), (byte) ((slot >> 8) & 0xFF)};
     }
 }
@@ -23,6 +23,7 @@ import com.manuscripta.student.domain.model.Feedback;
 import com.manuscripta.student.databinding.ActivityMainBinding;
 import com.manuscripta.student.domain.model.Configuration;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
 import com.manuscripta.student.domain.model.Question;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.ui.feedback.FeedbackFragment;
@@ -31,6 +32,7 @@ import com.manuscripta.student.ui.quiz.QuizFragment;
 import com.manuscripta.student.ui.quiz.QuizViewModel;
 import com.manuscripta.student.ui.reading.ReadingFragment;
 import com.manuscripta.student.ui.renderer.AttachmentImageLoader;
+import com.manuscripta.student.ui.renderer.RenderCache;
 import com.manuscripta.student.ui.worksheet.WorksheetFragment;
 import com.manuscripta.student.ui.worksheet.WorksheetViewModel;
 import com.manuscripta.student.network.tcp.RaiseHandManager;
@@ -81,8 +83,12 @@ public class MainActivity extends AppCompatActivity {
     @Nullable
     private Fragment currentFragment;
 
-    /** Cached list of all distributed materials for the dropdown. */
-    private final List<Material> allMaterials = new ArrayList<>();
+    /** Cached summaries of all distributed materials for the dropdown. */
+    private final List<MaterialSummary> allMaterials = new ArrayList<>();
+
+    /** ID of a material picked from the dropdown whose full content is still loading. */
+    @Nullable
+    private String pendingSelectionId;
 
     /** Cached list of all received feedback items for the dropdown. */
     private final List<Feedback> allFeedback = new ArrayList<>();
@@ -154,6 +160,10 @@ public class MainActivity extends AppCompatActivity {
     @Inject
     FileStorageManager fileStorageManager;
 
+    /** Parsed content and decoded images shared by the renderers, injected by Hilt. */
+    @Inject
+    RenderCache renderCache;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -175,6 +185,19 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Saved answers and status are written behind; make them durable before we can be killed
+        if (isFinishing()) {
+            viewModel.flushPendingWrites();
+        } else {
+            // Rotation and other pauses must not block the main thread. If the app goes to
+            // the background, onTrimMemory(TRIM_MEMORY_UI_HIDDEN) waits for the flush.
+            viewModel.flushPendingWritesInBackground();
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -194,21 +217,20 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Selects the given material, switching to the appropriate fragment
-     * based on the material type and loading its data.
+     * Selects the given material. Its full content is loaded in the background and
+     * the matching fragment is shown once it arrives.
      *
-     * @param material The material to display.
+     * @param material The summary of the material to display.
      */
-    void selectMaterial(@NonNull Material material) {
+    void selectMaterial(@NonNull MaterialSummary material) {
         Log.d(TAG, "Selecting material: " + material.getTitle()
                 + " (" + material.getType() + ")");
-        viewModel.setCurrentMaterial(material);
+        pendingSelectionId = material.getId();
+        viewModel.selectMaterial(material.getId());
         if (binding != null) {
             binding.materialDropdown.setText(material.getTitle());
             binding.teacherFeedbackPanel.hide();
         }
-        showFragmentForMaterial(material);
-        updateFooterVisibility();
     }
 
     /**
@@ -443,8 +465,7 @@ public class MainActivity extends AppCompatActivity {
                 boolean immediate = config == null
                         || config.getFeedbackStyle() == FeedbackStyle.IMMEDIATE;
                 if (immediate) {
-                    java.util.List<String> opts = QuizFragment.parseOptions(
-                            question.getOptions());
+                    java.util.List<String> opts = question.getOptionList();
                     String correctText = QuizFragment.resolveCorrectAnswer(
                             question.getCorrectAnswer(), opts);
                     List<ImmediateFeedbackRow> rows = new ArrayList<>();
@@ -473,7 +494,7 @@ public class MainActivity extends AppCompatActivity {
     private WorksheetFragment createWorksheetFragment() {
         WorksheetFragment worksheet = WorksheetFragment.newInstance();
         worksheet.setAttachmentImageLoader(
-            new AttachmentImageLoader(apiService, fileStorageManager));
+            new AttachmentImageLoader(apiService, fileStorageManager, renderCache));
         worksheet.setFileStorageManager(fileStorageManager);
         worksheet.setSubmitListener(answers -> {
             Log.d(TAG, "Worksheet answers submitted: " + answers.size());
@@ -495,7 +516,7 @@ public class MainActivity extends AppCompatActivity {
         ReadingFragment reading = ReadingFragment.newInstance();
         reading.setAttachmentImageLoader(
                 new AttachmentImageLoader(
-                        apiService, fileStorageManager));
+                        apiService, fileStorageManager, renderCache));
         reading.setFileStorageManager(fileStorageManager);
         return reading;
     }
@@ -511,13 +532,13 @@ public class MainActivity extends AppCompatActivity {
             ReadingFragment reading = (ReadingFragment) currentFragment;
             reading.setAttachmentImageLoader(
                     new AttachmentImageLoader(
-                            apiService, fileStorageManager));
+                            apiService, fileStorageManager, renderCache));
             reading.setFileStorageManager(fileStorageManager);
             reading.resetRenderer();
         } else if (currentFragment instanceof WorksheetFragment) {
             WorksheetFragment worksheet = (WorksheetFragment) currentFragment;
             worksheet.setAttachmentImageLoader(
-                new AttachmentImageLoader(apiService, fileStorageManager));
+                new AttachmentImageLoader(apiService, fileStorageManager, renderCache));
             worksheet.setFileStorageManager(fileStorageManager);
             worksheet.setSubmitListener(answers -> {
                         Log.d(TAG, "Worksheet answers submitted: "
@@ -555,8 +576,7 @@ public class MainActivity extends AppCompatActivity {
                                     == FeedbackStyle.IMMEDIATE;
                             if (immediate) {
                                 java.util.List<String> opts =
-                                        QuizFragment.parseOptions(
-                                                question.getOptions());
+                                        question.getOptionList();
                                 String correctText =
                                         QuizFragment.resolveCorrectAnswer(
                                                 question.getCorrectAnswer(),
@@ -670,7 +690,9 @@ public class MainActivity extends AppCompatActivity {
                 if (binding != null) {
                     binding.materialDropdown.setText(material.getTitle());
                 }
-                if (currentFragment == null) {
+                if (currentFragment == null
+                        || material.getId().equals(pendingSelectionId)) {
+                    pendingSelectionId = null;
                     showFragmentForMaterial(material);
                 } else {
                     updateFragmentData();
@@ -989,7 +1011,7 @@ public class MainActivity extends AppCompatActivity {
 
         String trimmed = rawAnswer.trim();
         if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE) {
-            List<String> options = QuizFragment.parseOptions(question.getOptions());
+            List<String> options = question.getOptionList();
             try {
                 int selectedIndex = Integer.parseInt(trimmed);
                 if (selectedIndex >= 0 && selectedIndex < options.size()) {
@@ -1019,7 +1041,7 @@ public class MainActivity extends AppCompatActivity {
         submitted = submitted.trim();
 
         if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE) {
-            List<String> options = QuizFragment.parseOptions(question.getOptions());
+            List<String> options = question.getOptionList();
             try {
                 int selectedIndex = Integer.parseInt(submitted);
                 if (selectedIndex < 0 || selectedIndex >= options.size()) {
@@ -1046,7 +1068,7 @@ public class MainActivity extends AppCompatActivity {
     @NonNull
     private String resolveWorksheetCorrectAnswer(@NonNull Question question) {
         if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE) {
-            List<String> options = QuizFragment.parseOptions(question.getOptions());
+            List<String> options = question.getOptionList();
             return QuizFragment.resolveCorrectAnswer(
                     question.getCorrectAnswer(), options);
         }
@@ -1060,6 +1082,7 @@ public class MainActivity extends AppCompatActivity {
     private void clearMaterialState() {
         Log.d(TAG, "Clearing material state");
         currentFragment = null;
+        pendingSelectionId = null;
         allMaterials.clear();
         allFeedback.clear();
         if (binding != null) {
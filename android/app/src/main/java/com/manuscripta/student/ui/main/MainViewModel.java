@@ -1,35 +1,37 @@
 package com.manuscripta.student.ui.main;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
 
-import com.manuscripta.student.data.local.QuestionDao;
-import com.manuscripta.student.data.model.QuestionEntity;
 import com.manuscripta.student.data.model.QuestionType;
-import com.manuscripta.student.data.model.SessionStatus;
 import com.manuscripta.student.data.repository.ConfigRepository;
 import com.manuscripta.student.data.repository.DeviceStatusRepository;
 import com.manuscripta.student.data.repository.FeedbackRepository;
 import com.manuscripta.student.data.repository.MaterialRepository;
 import com.manuscripta.student.data.repository.SessionRepository;
-import com.manuscripta.student.domain.mapper.QuestionMapper;
 import com.manuscripta.student.domain.model.Configuration;
 import com.manuscripta.student.domain.model.Feedback;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
 import com.manuscripta.student.domain.model.Question;
-import com.manuscripta.student.domain.model.Session;
+import com.manuscripta.student.ui.renderer.MaterialPreloader;
 import com.manuscripta.student.utils.ConnectionManager;
+import com.manuscripta.student.utils.ListDiff;
 
 import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -50,9 +52,6 @@ public class MainViewModel extends ViewModel {
     /** Repository for materials. */
     private final MaterialRepository materialRepository;
 
-    /** DAO for question access. */
-    private final QuestionDao questionDao;
-
     /** Repository for configuration. */
     private final ConfigRepository configRepository;
 
@@ -68,17 +67,35 @@ public class MainViewModel extends ViewModel {
     /** Repository for feedback. */
     private final FeedbackRepository feedbackRepository;
 
-    /** Repository for responses. */
+    /** Repository for responses, flushed on lifecycle events. */
     private final com.manuscripta.student.data.repository.ResponseRepository responseRepository;
 
+    /** Warms the materials listed after the one opened. */
+    private final MaterialPreloader materialPreloader;
+
     /** The currently distributed material. */
     private final MediatorLiveData<Material> currentMaterial = new MediatorLiveData<>();
 
-    /** Observable list of all distributed materials for the dropdown menu. */
-    private final LiveData<List<Material>> allMaterials;
+    /** Observable summaries of all distributed materials for the dropdown menu. */
+    private final LiveData<List<MaterialSummary>> allMaterials;
+
+    /** Observable changes to the material summaries. */
+    private final LiveData<ListDiff<MaterialSummary>> materialChanges;
+
+    /**
+     * ID of the most recently selected material. Background reloads of the current
+     * material are discarded if the selection has moved on since they were queued.
+     */
+    private volatile String selectedMaterialId;
 
-    /** The questions for the current material. */
-    private final MutableLiveData<List<Question>> currentQuestions = new MutableLiveData<>();
+    /** ID of the material whose questions are observed, or null for none. */
+    private final MutableLiveData<String> questionsMaterialId = new MutableLiveData<>();
+
+    /** The questions for the current material, observed from the database. */
+    private final LiveData<List<Question>> currentQuestions;
+
+    /** Keeps {@link #currentQuestions} active; removed in {@link #onCleared()}. */
+    private final Observer<List<Question>> currentQuestionsObserver = questions -> { };
 
     /** The tablet configuration (observes repository for refresh updates). */
     private final MediatorLiveData<Configuration> configuration = new MediatorLiveData<>();
@@ -98,48 +115,74 @@ public class MainViewModel extends ViewModel {
     /** Map from feedback ID to resolved material title, for dropdown labelling. */
     private final MutableLiveData<Map<String, String>> feedbackMaterialTitles = new MutableLiveData<>();
 
+    /**
+     * Memoised material titles by feedback ID, so each feedback emission only queries the
+     * feedback not seen before. Only accessed on {@link #dbExecutor}.
+     */
+    private final Map<String, String> materialTitleCache = new HashMap<>();
+
+    /** Material titles by material ID as last seen, to detect renames. Only accessed on {@link #dbExecutor}. */
+    private final Map<String, String> knownMaterialTitles = new HashMap<>();
+
+    /** Whether {@link #knownMaterialTitles} has been filled. Only accessed on {@link #dbExecutor}. */
+    private boolean materialTitlesKnown;
+
+    /** The most recent feedback list. Only accessed on {@link #dbExecutor}. */
+    private List<Feedback> latestFeedback;
+
+    /** Resolves the material titles of new feedback; removed in {@link #onCleared()}. */
+    private final Observer<List<Feedback>> feedbackObserver;
+
+    /** Drops the memoised titles of renamed materials; removed in {@link #onCleared()}. */
+    private final Observer<ListDiff<MaterialSummary>> materialTitlesObserver;
+
     /**
      * Constructor for MainViewModel with Hilt injection.
      *
      * @param materialRepository The material repository
-     * @param questionDao        The question DAO for accessing questions
      * @param configRepository   The configuration repository
      * @param connectionManager  The connection manager
      * @param sessionRepository  The session repository for lifecycle management
      * @param deviceStatusRepository  The device status repository for lock state
      * @param feedbackRepository The feedback repository for teacher feedback
-     * @param responseRepository The response repository for resolving feedback titles
+     * @param responseRepository The response repository, flushed on lifecycle events
+     * @param materialPreloader  Warms the materials listed after the one opened
      */
     @Inject
     // CHECKSTYLE:OFF ParameterNumber - Hilt-injected dependencies
     public MainViewModel(@NonNull MaterialRepository materialRepository,
-                         @NonNull QuestionDao questionDao,
                          @NonNull ConfigRepository configRepository,
                          @NonNull ConnectionManager connectionManager,
                          @NonNull SessionRepository sessionRepository,
                          @NonNull DeviceStatusRepository deviceStatusRepository,
                          @NonNull FeedbackRepository feedbackRepository,
-                         @NonNull com.manuscripta.student.data.repository.ResponseRepository responseRepository) {
+                         @NonNull com.manuscripta.student.data.repository.ResponseRepository responseRepository,
+                         @NonNull MaterialPreloader materialPreloader) {
         // CHECKSTYLE:ON ParameterNumber
         this.materialRepository = materialRepository;
-        this.questionDao = questionDao;
         this.configRepository = configRepository;
         this.connectionManager = connectionManager;
         this.sessionRepository = sessionRepository;
         this.deviceStatusRepository = deviceStatusRepository;
         this.feedbackRepository = feedbackRepository;
         this.responseRepository = responseRepository;
+        this.materialPreloader = materialPreloader;
+
+        allMaterials = materialRepository.getMaterialSummariesLiveData();
+        materialChanges = materialRepository.getMaterialSummaryChanges();
 
-        allMaterials = materialRepository.getMaterialsLiveData();
+        // Follow the selected material's questions; Room re-runs the query when the
+        // questions table changes, and only changes to this material's questions emit
+        currentQuestions = Transformations.switchMap(
+                Transformations.distinctUntilChanged(questionsMaterialId),
+                this::observeQuestions);
+        // Kept active so that getQuizQuestions and getWorksheetQuestions see the latest
+        currentQuestions.observeForever(currentQuestionsObserver);
 
         configuration.setValue(configRepository.getConfig());
 
         // Observe config changes pushed by server via REFRESH_CONFIG
-        configuration.addSource(configRepository.getConfigLiveData(), config -> {
-            if (config != null) {
-                configuration.setValue(config);
-            }
-        });
+        configuration.addSource(configRepository.getConfigLiveData(), this::applyConfiguration);
 
         screenLocked = Transformations.map(
                 deviceStatusRepository.getDeviceStatusLiveData(),
@@ -149,32 +192,43 @@ public class MainViewModel extends ViewModel {
         );
 
         // Observe feedback to resolve and cache material titles for dropdown labels
-        feedbackRepository.getFeedbackLiveData().observeForever(feedbackList -> {
+        feedbackObserver = feedbackList -> {
             if (feedbackList != null) {
                 dbExecutor.execute(() -> resolveAndPostMaterialTitles(feedbackList));
             }
-        });
+        };
+        feedbackRepository.getFeedbackLiveData().observeForever(feedbackObserver);
 
-        // Observe materials from the repository to auto-select when distribution arrives
-        currentMaterial.addSource(materialRepository.getMaterialsLiveData(), materials -> {
-            if (materials != null && !materials.isEmpty()) {
+        // A renamed material invalidates the memoised titles of its feedback
+        materialTitlesObserver = changes -> {
+            if (changes != null) {
+                dbExecutor.execute(() -> onMaterialTitlesChanged(changes));
+            }
+        };
+        materialChanges.observeForever(materialTitlesObserver);
+
+        // Observe materials from the repository to auto-select when distribution arrives.
+        // The list only holds summaries, so full materials are loaded by ID.
+        currentMaterial.addSource(materialChanges, changes -> {
+            if (changes == null) {
+                return;
+            }
+            List<MaterialSummary> summaries = changes.getItems();
+            if (!summaries.isEmpty()) {
                 Material existing = currentMaterial.getValue();
                 if (existing == null) {
                     // No material selected yet — auto-select the first one
-                    setCurrentMaterial(materials.get(0));
-                } else {
-                    // Refresh the current material if it was updated in the new distribution
-                    for (Material m : materials) {
-                        if (m.getId().equals(existing.getId())) {
-                            currentMaterial.setValue(m);
-                            break;
-                        }
-                    }
+                    selectMaterial(summaries.get(0).getId());
+                } else if (changes.isAddedOrChanged(existing.getId())) {
+                    // The new distribution updated the current material
+                    reloadCurrentMaterial(existing.getId());
                 }
             } else {
                 // Materials list became empty (e.g., after database clear during pairing)
+                selectedMaterialId = null;
+                materialPreloader.cancel();
                 currentMaterial.setValue(null);
-                currentQuestions.postValue(new ArrayList<>());
+                questionsMaterialId.setValue(null);
             }
         });
     }
@@ -192,10 +246,10 @@ public class MainViewModel extends ViewModel {
     /**
      * Gets the observable list of all distributed materials.
      *
-     * @return LiveData containing all materials for the dropdown menu
+     * @return LiveData containing summaries of all materials for the dropdown menu
      */
     @NonNull
-    public LiveData<List<Material>> getAllMaterials() {
+    public LiveData<List<MaterialSummary>> getAllMaterials() {
         return allMaterials;
     }
 
@@ -276,9 +330,11 @@ public class MainViewModel extends ViewModel {
      * @param material The material to set as current
      */
     public void setCurrentMaterial(@NonNull Material material) {
+        selectedMaterialId = material.getId();
         currentMaterial.setValue(material);
-        loadQuestionsForMaterial(material.getId());
+        questionsMaterialId.setValue(material.getId());
         activateSessionForMaterial(material.getId());
+        dbExecutor.execute(() -> preloadFollowing(material.getId()));
     }
 
     /**
@@ -288,9 +344,46 @@ public class MainViewModel extends ViewModel {
      * @param material The material to set as current
      */
     public void setCurrentMaterialAsync(@NonNull Material material) {
+        selectedMaterialId = material.getId();
         currentMaterial.postValue(material);
-        loadQuestionsForMaterial(material.getId());
+        questionsMaterialId.postValue(material.getId());
         activateSessionForMaterial(material.getId());
+        dbExecutor.execute(() -> preloadFollowing(material.getId()));
+    }
+
+    /**
+     * Loads a material by ID on a background thread and sets it as current, loading its
+     * questions and activating its session as {@link #setCurrentMaterial} does.
+     * Nothing happens if the material no longer exists.
+     *
+     * @param materialId The ID of the material to select
+     */
+    public void selectMaterial(@NonNull String materialId) {
+        selectedMaterialId = materialId;
+        dbExecutor.execute(() -> {
+            Material material = materialRepository.getMaterialById(materialId);
+            if (material != null && materialId.equals(selectedMaterialId)) {
+                currentMaterial.postValue(material);
+                questionsMaterialId.postValue(materialId);
+                activateSessionForMaterial(materialId);
+                preloadFollowing(materialId);
+            }
+        });
+    }
+
+    /**
+     * Re-reads the current material on a background thread and posts it if it is still
+     * the selected one.
+     *
+     * @param materialId The ID of the current material
+     */
+    private void reloadCurrentMaterial(@NonNull String materialId) {
+        dbExecutor.execute(() -> {
+            Material material = materialRepository.getMaterialById(materialId);
+            if (material != null && materialId.equals(selectedMaterialId)) {
+                currentMaterial.postValue(material);
+            }
+        });
     }
 
     /**
@@ -301,22 +394,45 @@ public class MainViewModel extends ViewModel {
      * @param materialId The material ID to activate a session for
      */
     private void activateSessionForMaterial(@NonNull String materialId) {
-        dbExecutor.execute(() -> {
-            List<Session> sessions = sessionRepository.getSessionsByMaterialId(materialId);
-            for (Session session : sessions) {
-                if (session.getStatus() == SessionStatus.RECEIVED) {
-                    sessionRepository.activateSession(session.getId());
-                    break;
-                }
-            }
-        });
+        dbExecutor.execute(() -> sessionRepository.activateReceivedSession(materialId));
+    }
+
+    /**
+     * Commits every saved response that is still waiting for its group commit, and
+     * every device status change waiting for its coalesced write, so answers and status
+     * survive the process being killed once the app is in the background. Each flush waits
+     * only briefly; writes that outlast the wait finish in the background.
+     */
+    public void flushPendingWrites() {
+        responseRepository.flushPendingResponses();
+        deviceStatusRepository.flushPendingStatus();
+    }
+
+    /**
+     * Starts the same flush as {@link #flushPendingWrites()} on the database executor and
+     * returns at once, for pauses that must not hold up the main thread.
+     */
+    public void flushPendingWritesInBackground() {
+        dbExecutor.execute(this::flushPendingWrites);
     }
 
     /**
      * Refreshes the configuration from the repository.
      */
     public void refreshConfiguration() {
-        configuration.setValue(configRepository.getConfig());
+        applyConfiguration(configRepository.getConfig());
+    }
+
+    /**
+     * Publishes a configuration unless it equals the current one, so observers only
+     * re-apply text size and styling when something actually changed.
+     *
+     * @param config The configuration to publish, ignored if null
+     */
+    private void applyConfiguration(@Nullable Configuration config) {
+        if (config != null && !config.equals(configuration.getValue())) {
+            configuration.setValue(config);
+        }
     }
 
     /**
@@ -346,11 +462,13 @@ public class MainViewModel extends ViewModel {
      * @param materialId The ID of the material to load
      */
     public void loadMaterial(@NonNull String materialId) {
+        selectedMaterialId = materialId;
         dbExecutor.execute(() -> {
             Material material = materialRepository.getMaterialById(materialId);
             if (material != null) {
                 currentMaterial.postValue(material);
-                loadQuestionsForMaterial(materialId);
+                questionsMaterialId.postValue(materialId);
+                preloadFollowing(materialId);
             }
         });
     }
@@ -391,61 +509,112 @@ public class MainViewModel extends ViewModel {
     }
 
     /**
-     * Loads questions for a given material ID from the DAO.
+     * Observes the questions of a material. Emits only when a question of that material
+     * is added, changed or removed, not on every write to the questions table. Questions
+     * the repository holds in memory are emitted before the query's first result.
      *
-     * @param materialId The material ID to load questions for
+     * @param materialId The material ID to observe questions for, or null for none
+     * @return LiveData containing the questions of the material
      */
-    private void loadQuestionsForMaterial(@NonNull String materialId) {
-        dbExecutor.execute(() -> {
-            List<QuestionEntity> entities = questionDao.getByMaterialId(materialId);
-            List<Question> questions = new ArrayList<>();
-            for (QuestionEntity entity : entities) {
-                questions.add(QuestionMapper.toDomain(entity));
-            }
-            currentQuestions.postValue(questions);
-        });
+    @NonNull
+    private LiveData<List<Question>> observeQuestions(@Nullable String materialId) {
+        if (materialId == null) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+        return Transformations.map(ListDiff.diffing(
+                materialRepository.observeQuestionsForMaterial(materialId), Question::getId),
+                ListDiff::getItems);
+    }
+
+    /**
+     * Starts warming the materials listed after the given one, once it has been loaded,
+     * so the warming never delays what is on screen. Must be called on
+     * {@link #dbExecutor}.
+     *
+     * @param materialId The ID of the material opened
+     */
+    private void preloadFollowing(@NonNull String materialId) {
+        ListDiff<MaterialSummary> changes = materialChanges.getValue();
+        if (changes != null && materialId.equals(selectedMaterialId)) {
+            materialPreloader.preloadAfter(materialId, changes.getItems());
+        }
     }
 
     /**
      * Resolves material titles for all feedback items and posts the result map.
-     * Must be called on a background thread.
+     * Titles already memoised are reused, so only feedback not seen before is queried,
+     * in a single JOIN. Must be called on {@link #dbExecutor}.
      *
      * @param feedbackList The list of feedback items to resolve titles for
      */
     private void resolveAndPostMaterialTitles(@NonNull List<Feedback> feedbackList) {
-        Map<String, String> titleMap = new HashMap<>();
+        latestFeedback = feedbackList;
+        Set<String> currentIds = new HashSet<>();
+        List<String> unresolved = new ArrayList<>();
         for (Feedback feedback : feedbackList) {
-            String materialTitle = resolveMaterialTitleForFeedback(feedback);
-            titleMap.put(feedback.getId(), materialTitle != null ? materialTitle : "");
+            currentIds.add(feedback.getId());
+            if (!materialTitleCache.containsKey(feedback.getId())) {
+                unresolved.add(feedback.getId());
+            }
+        }
+        // Forget feedback that has been deleted
+        materialTitleCache.keySet().retainAll(currentIds);
+
+        Map<String, String> titleMap = new HashMap<>(materialTitleCache);
+        if (!unresolved.isEmpty()) {
+            try {
+                Map<String, String> resolved = feedbackRepository.getMaterialTitles(unresolved);
+                for (String feedbackId : unresolved) {
+                    String title = resolved.getOrDefault(feedbackId, "");
+                    materialTitleCache.put(feedbackId, title);
+                    titleMap.put(feedbackId, title);
+                }
+            } catch (Exception e) {
+                // Not memoised, so the next emission retries them
+                Log.w(TAG, "Failed to resolve material titles for "
+                        + unresolved.size() + " feedback items", e);
+                for (String feedbackId : unresolved) {
+                    titleMap.put(feedbackId, "");
+                }
+            }
         }
         feedbackMaterialTitles.postValue(titleMap);
     }
 
     /**
-     * Resolves the material title for a single feedback item by walking the
-     * feedback → response → question → material chain.
-     * Must be called on a background thread.
+     * Drops the memoised feedback titles if an existing material has been renamed, and
+     * resolves the latest feedback again. New materials cannot have feedback yet, and
+     * the feedback of a deleted material is deleted with it, so only changed summaries
+     * are compared. Must be called on {@link #dbExecutor}.
      *
-     * @param feedback The feedback item
-     * @return The material title, or null if any step in the chain is missing
-     */
-    private String resolveMaterialTitleForFeedback(@NonNull Feedback feedback) {
-        try {
-            com.manuscripta.student.domain.model.Response response =
-                    responseRepository.getResponseById(feedback.getResponseId());
-            if (response == null) {
-                return null;
+     * @param changes The changes to the material summaries since the last emission
+     */
+    private void onMaterialTitlesChanged(@NonNull ListDiff<MaterialSummary> changes) {
+        if (!materialTitlesKnown) {
+            // The repository outlives this ViewModel, so the first diff seen may be any
+            // one; take every title from its full list
+            for (MaterialSummary summary : changes.getItems()) {
+                knownMaterialTitles.put(summary.getId(), summary.getTitle());
             }
-            QuestionEntity question = questionDao.getById(response.getQuestionId());
-            if (question == null) {
-                return null;
+            materialTitlesKnown = true;
+            return;
+        }
+        boolean renamed = false;
+        for (MaterialSummary summary : changes.getChanged()) {
+            String previous = knownMaterialTitles.put(summary.getId(), summary.getTitle());
+            if (previous != null && !previous.equals(summary.getTitle())) {
+                renamed = true;
+            }
+        }
+        for (MaterialSummary summary : changes.getAdded()) {
+            knownMaterialTitles.put(summary.getId(), summary.getTitle());
+        }
+        knownMaterialTitles.keySet().removeAll(changes.getRemovedKeys());
+        if (renamed) {
+            materialTitleCache.clear();
+            if (latestFeedback != null) {
+                resolveAndPostMaterialTitles(latestFeedback);
             }
-            Material material = materialRepository.getMaterialById(question.getMaterialId());
-            return material != null ? material.getTitle() : null;
-        } catch (Exception e) {
-            Log.w(TAG, "Failed to resolve material title for feedback "
-                    + feedback.getId(), e);
-            return null;
         }
     }
 
@@ -458,4 +627,18 @@ public class MainViewModel extends ViewModel {
     public LiveData<Map<String, String>> getFeedbackMaterialTitles() {
         return feedbackMaterialTitles;
     }
+
+    /**
+     * Detaches from the repositories, which outlive this ViewModel, abandons warming the
+     * following materials, and lets the background executor finish its queued work.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        currentQuestions.removeObserver(currentQuestionsObserver);
+        feedbackRepository.getFeedbackLiveData().removeObserver(feedbackObserver);
+        materialChanges.removeObserver(materialTitlesObserver);
+        materialPreloader.cancel();
+        dbExecutor.shutdown();
+    }
 }
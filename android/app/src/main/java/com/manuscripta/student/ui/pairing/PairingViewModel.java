@@ -9,8 +9,7 @@ import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
-import com.manuscripta.student.data.local.ManuscriptaDatabase;
-import com.manuscripta.student.data.repository.MaterialRepository;
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.dto.DeviceInfoDto;
 import com.manuscripta.student.network.tcp.PairingCallback;
@@ -54,11 +53,8 @@ public class PairingViewModel extends ViewModel {
     /** The Retrofit API service for HTTP registration. */
     private final ApiService apiService;
 
-    /** The Room database, cleared on each new pairing. */
-    private final ManuscriptaDatabase database;
-
-    /** The material repository, used to reset LiveData after database clear. */
-    private final MaterialRepository materialRepository;
+    /** Clears the Room database on each new pairing and compacts it afterwards. */
+    private final DatabaseReclaimer databaseReclaimer;
 
     /** Overall pairing phase exposed to the UI. */
     private final MutableLiveData<PairingPhase> pairingPhase =
@@ -116,23 +112,17 @@ public class PairingViewModel extends ViewModel {
      * @param discoveryManager The UDP discovery manager
      * @param pairingManager   The TCP pairing manager
      * @param apiService       The Retrofit API service
-     * @param database         The Room database to clear on pairing
-     * @param materialRepository The material repository to reset LiveData after DB clear
+     * @param databaseReclaimer The database reclaimer, used to clear the database on pairing
      */
     @Inject
     public PairingViewModel(@NonNull UdpDiscoveryManager discoveryManager,
                             @NonNull PairingManager pairingManager,
                             @NonNull ApiService apiService,
-                            @NonNull ManuscriptaDatabase database,
-                            @NonNull MaterialRepository materialRepository) {
-        if (materialRepository == null) {
-            throw new IllegalArgumentException("MaterialRepository cannot be null");
-        }
+                            @NonNull DatabaseReclaimer databaseReclaimer) {
         this.discoveryManager = discoveryManager;
         this.pairingManager = pairingManager;
         this.apiService = apiService;
-        this.database = database;
-        this.materialRepository = materialRepository;
+        this.databaseReclaimer = databaseReclaimer;
 
         pairingManager.setPairingCallback(pairingCallback);
         discoveryManager.addListener(discoveryListener);
@@ -330,8 +320,8 @@ public class PairingViewModel extends ViewModel {
         statusMessage.postValue("Paired successfully");
 
         Executors.newSingleThreadExecutor().execute(() -> {
-            database.clearAllTables();
-            materialRepository.resetLiveData();
+            // Observers of the cleared tables are notified by Room
+            databaseReclaimer.clearAll();
             Log.i(TAG, "Local database cleared \u2014 navigating");
             pairingComplete.postValue(true);
         });
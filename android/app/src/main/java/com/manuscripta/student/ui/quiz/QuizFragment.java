@@ -16,10 +16,6 @@ import com.manuscripta.student.data.model.QuestionType;
 import com.manuscripta.student.databinding.FragmentQuizBinding;
 import com.manuscripta.student.domain.model.Question;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -120,7 +116,7 @@ public class QuizFragment extends Fragment {
         binding.textQuestion.setText(question.getQuestionText());
 
         if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE) {
-            List<String> options = parseOptions(question.getOptions());
+            List<String> options = question.getOptionList();
             adapter.setOptions(options);
         }
     }
@@ -196,7 +192,7 @@ public class QuizFragment extends Fragment {
             return;
         }
 
-        List<String> options = parseOptions(currentQuestion.getOptions());
+        List<String> options = currentQuestion.getOptionList();
         String answer = String.valueOf(selected);
         String correctText = resolveCorrectAnswer(currentQuestion.getCorrectAnswer(), options);
         String selectedText = selected < options.size() ? options.get(selected) : "";
@@ -229,24 +225,4 @@ public class QuizFragment extends Fragment {
         }
         return correctAnswer;
     }
-
-    /**
-     * Parses a JSON array string into a list of option strings.
-     *
-     * @param json The JSON array string to parse.
-     * @return A list of option strings, or an empty list if parsing fails.
-     */
-    @NonNull
-    public static List<String> parseOptions(@NonNull String json) {
-        List<String> result = new ArrayList<>();
-        try {
-            JSONArray array = new JSONArray(json);
-            for (int i = 0; i < array.length(); i++) {
-                result.add(array.getString(i));
-            }
-        } catch (JSONException e) {
-            // Return empty list for unparseable options
-        }
-        return result;
-    }
 }
@@ -7,6 +7,7 @@ import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.utils.FileStorageManager;
@@ -26,6 +27,11 @@ import retrofit2.Response;
  * local cache first (via {@link FileStorageManager}) and falling back
  * to the network (via {@link ApiService}) as specified in Material
  * Encoding §3.</p>
+ *
+ * <p>Given a {@link RenderCache}, images are decoded downsampled to
+ * the screen's longer side and held there, so an image shown before or
+ * warmed by {@link MaterialPreloader} is displayed without decoding
+ * it again.</p>
  */
 public class AttachmentImageLoader {
 
@@ -44,6 +50,10 @@ public class AttachmentImageLoader {
     @NonNull
     private final ExecutorService executor;
 
+    /** Cache of decoded images (may be null). */
+    @Nullable
+    private final RenderCache renderCache;
+
     /**
      * Creates a new AttachmentImageLoader with a default executor.
      *
@@ -53,7 +63,23 @@ public class AttachmentImageLoader {
     public AttachmentImageLoader(
             @NonNull ApiService apiService,
             @NonNull FileStorageManager fileStorageManager) {
-        this(apiService, fileStorageManager,
+        this(apiService, fileStorageManager, (RenderCache) null);
+    }
+
+    /**
+     * Creates a new AttachmentImageLoader with a default executor,
+     * holding decoded images in the given cache.
+     *
+     * @param apiService         the API service for network requests
+     * @param fileStorageManager the file storage manager for cache
+     * @param renderCache        the cache of decoded images, or null
+     *                           to decode full size on every load
+     */
+    public AttachmentImageLoader(
+            @NonNull ApiService apiService,
+            @NonNull FileStorageManager fileStorageManager,
+            @Nullable RenderCache renderCache) {
+        this(apiService, fileStorageManager, renderCache,
                 Executors.newFixedThreadPool(2));
     }
 
@@ -69,17 +95,46 @@ public class AttachmentImageLoader {
             @NonNull ApiService apiService,
             @NonNull FileStorageManager fileStorageManager,
             @NonNull ExecutorService executor) {
+        this(apiService, fileStorageManager, null, executor);
+    }
+
+    /**
+     * Creates a new AttachmentImageLoader with a custom executor and
+     * cache. Primarily for testing.
+     *
+     * @param apiService         the API service for network requests
+     * @param fileStorageManager the file storage manager for cache
+     * @param renderCache        the cache of decoded images, or null
+     * @param executor           the executor for background tasks
+     */
+    AttachmentImageLoader(
+            @NonNull ApiService apiService,
+            @NonNull FileStorageManager fileStorageManager,
+            @Nullable RenderCache renderCache,
+            @NonNull ExecutorService executor) {
         this.apiService = apiService;
         this.fileStorageManager = fileStorageManager;
+        this.renderCache = renderCache;
         this.executor = executor;
     }
 
+    /**
+     * Gets the cache this loader holds decoded images in.
+     *
+     * @return the render cache, or null if none
+     */
+    @Nullable
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
     /**
      * Loads an attachment image into the specified ImageView.
      *
      * <p>First checks the local cache via FileStorageManager. If not
      * found, downloads from the server via ApiService and caches
-     * the result. Loading runs on a background thread.</p>
+     * the result. Loading runs on a background thread, unless the
+     * image is held decoded in the render cache.</p>
      *
      * @param attachmentId the UUID of the attachment to load
      * @param materialId   the UUID of the parent material
@@ -91,10 +146,20 @@ public class AttachmentImageLoader {
             @NonNull ImageView imageView) {
         Log.d(TAG, "loadImage called: attachment="
                 + attachmentId + " material=" + materialId);
+        Bitmap held = renderCache != null
+                ? renderCache.getBitmap(attachmentId)
+                : null;
+        if (held != null) {
+            imageView.setImageBitmap(held);
+            return;
+        }
         executor.execute(() -> {
             Bitmap bitmap = loadBitmap(
                     attachmentId, materialId);
             if (bitmap != null) {
+                if (renderCache != null) {
+                    renderCache.putBitmap(attachmentId, bitmap);
+                }
                 Log.d(TAG, "Loaded bitmap "
                         + bitmap.getWidth() + "x"
                         + bitmap.getHeight()
@@ -127,6 +192,31 @@ public class AttachmentImageLoader {
         return loadFromNetwork(attachmentId, materialId);
     }
 
+    /**
+     * Decodes an image from local storage into the render cache ahead
+     * of display, if it fits within the share of the cache's budget
+     * left to such images. Never downloads.
+     *
+     * @param attachmentId the attachment UUID
+     * @param materialId   the material UUID
+     * @return true if the image is held decoded
+     */
+    @WorkerThread
+    boolean preloadBitmap(
+            @NonNull String attachmentId,
+            @NonNull String materialId) {
+        if (renderCache == null) {
+            return false;
+        }
+        if (renderCache.holdsBitmap(attachmentId)) {
+            return true;
+        }
+        Bitmap bitmap = loadFromCache(attachmentId, materialId);
+        return bitmap != null
+                && renderCache.putPreloadedBitmap(
+                        attachmentId, bitmap);
+    }
+
     /**
      * Attempts to load an image from the local file cache.
      *
@@ -140,6 +230,11 @@ public class AttachmentImageLoader {
             @NonNull String materialId) {
         File file = fileStorageManager.getAttachmentFile(
                 materialId, attachmentId);
+        if (file == null) {
+            // Shared with another material that already has it
+            file = fileStorageManager.reuseStoredAttachment(
+                    materialId, attachmentId);
+        }
         Log.d(TAG, "loadFromCache: file="
                 + (file != null ? file.getAbsolutePath()
                         : "null")
@@ -198,7 +293,14 @@ public class AttachmentImageLoader {
      */
     @Nullable
     Bitmap decodeBitmapFromFile(@NonNull String path) {
-        return BitmapFactory.decodeFile(path);
+        if (renderCache == null) {
+            return BitmapFactory.decodeFile(path);
+        }
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, bounds);
+        return BitmapFactory.decodeFile(path,
+                sampledOptions(bounds.outWidth, bounds.outHeight));
     }
 
     /**
@@ -210,8 +312,55 @@ public class AttachmentImageLoader {
      */
     @Nullable
     Bitmap decodeBitmapFromBytes(@NonNull byte[] data) {
-        return BitmapFactory.decodeByteArray(
-                data, 0, data.length);
+        if (renderCache == null) {
+            return BitmapFactory.decodeByteArray(
+                    data, 0, data.length);
+        }
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, bounds);
+        return BitmapFactory.decodeByteArray(data, 0, data.length,
+                sampledOptions(bounds.outWidth, bounds.outHeight));
+    }
+
+    /**
+     * Builds decoding options that downsample an image so its longer
+     * side is no less than the render cache's image dimension. Only
+     * called when there is a render cache.
+     *
+     * @param width  the width of the encoded image in pixels
+     * @param height the height of the encoded image in pixels
+     * @return the decoding options
+     */
+    @NonNull
+    private BitmapFactory.Options sampledOptions(int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(
+                width, height, renderCache.getMaxImageDimensionPx());
+        return options;
+    }
+
+    /**
+     * Calculates the largest power-of-two sample size that keeps the
+     * longer side of a decoded image at least the given length, so
+     * tall, narrow images are downsampled as well as wide ones.
+     *
+     * @param width        the width of the encoded image in pixels
+     * @param height       the height of the encoded image in pixels
+     * @param maxDimension the longest side the image is displayed at
+     * @return the sample size, at least 1
+     */
+    static int calculateInSampleSize(int width, int height,
+                                     int maxDimension) {
+        int sampleSize = 1;
+        if (maxDimension <= 0) {
+            return sampleSize;
+        }
+        int longerSide = Math.max(width, height);
+        while (longerSide / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
     }
 
     /**
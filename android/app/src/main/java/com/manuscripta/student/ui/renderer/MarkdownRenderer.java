@@ -112,6 +112,12 @@ public class MarkdownRenderer {
     /** Scale factor applied to text sizes, derived from config. */
     private float textScaleFactor = 1.0f;
 
+    /**
+     * Parsed content shared across renderers, taken from the image loader (may be null).
+     */
+    @Nullable
+    private final RenderCache renderCache;
+
     /**
      * Creates a new MarkdownRenderer with the given context.
      *
@@ -119,7 +125,8 @@ public class MarkdownRenderer {
      * @param questionBlockRenderer renderer for embedded questions
      * @param attachmentImageLoader loader for attachment images,
      *                              or null if image loading is
-     *                              not required
+     *                              not required; its render cache,
+     *                              if any, also holds parsed content
      * @param fileStorageManager    file storage manager for PDF
      *                              attachments, or null if not
      *                              required
@@ -136,6 +143,9 @@ public class MarkdownRenderer {
         this.questionBlockRenderer = questionBlockRenderer;
         this.attachmentImageLoader = attachmentImageLoader;
         this.fileStorageManager = fileStorageManager;
+        this.renderCache = attachmentImageLoader != null
+                ? attachmentImageLoader.getRenderCache()
+                : null;
         this.executor = Executors.newSingleThreadExecutor();
     }
 
@@ -171,7 +181,9 @@ public class MarkdownRenderer {
      * @param markwon               pre-configured Markwon instance
      * @param questionBlockRenderer renderer for embedded questions
      * @param attachmentImageLoader loader for attachment images,
-     *                              or null if not required
+     *                              or null if not required; its
+     *                              render cache, if any, also holds
+     *                              parsed content
      * @param fileStorageManager    file storage manager for PDF
      *                              attachments, or null if not
      *                              required
@@ -186,6 +198,9 @@ public class MarkdownRenderer {
         this.questionBlockRenderer = questionBlockRenderer;
         this.attachmentImageLoader = attachmentImageLoader;
         this.fileStorageManager = fileStorageManager;
+        this.renderCache = attachmentImageLoader != null
+                ? attachmentImageLoader.getRenderCache()
+                : null;
         this.executor = Executors.newSingleThreadExecutor();
     }
 
@@ -194,9 +209,15 @@ public class MarkdownRenderer {
      * text size. A value of 1.0 uses the default sizes. The body
      * text size is computed as {@code BASE_BODY_SP * scaleFactor}.
      *
+     * <p>Setting the current scale factor again does nothing, so
+     * Markwon is only rebuilt when the size actually changes.</p>
+     *
      * @param scaleFactor the scale factor (e.g. 1.5 for 50% larger)
      */
     public void setTextScaleFactor(float scaleFactor) {
+        if (Float.compare(scaleFactor, textScaleFactor) == 0) {
+            return;
+        }
         this.textScaleFactor = scaleFactor;
         if (markwonContext != null) {
             this.markwon = buildMarkwon(
@@ -231,7 +252,9 @@ public class MarkdownRenderer {
                 + (attachmentImageLoader != null)
                 + " fsm=" + (fileStorageManager != null));
 
-        List<ContentSegment> segments = parseSegments(content);
+        List<ContentSegment> segments = renderCache != null
+                ? renderCache.getSegments(materialId, content)
+                : parseSegments(content);
         Log.d(TAG, "render: parsed " + segments.size()
                 + " segments");
         Context context = parent.getContext();
@@ -588,7 +611,7 @@ public class MarkdownRenderer {
      * @return an unmodifiable list of content segments
      */
     @NonNull
-    List<ContentSegment> parseSegments(@NonNull String content) {
+    static List<ContentSegment> parseSegments(@NonNull String content) {
         List<ContentSegment> segments = new ArrayList<>();
         String[] lines = content.split("\\r?\\n", -1);
         StringBuilder markdownBuffer = new StringBuilder();
@@ -637,7 +660,7 @@ public class MarkdownRenderer {
      * @param segments   the segment list to append to
      * @return the next line index to process
      */
-    private int processAdmonition(
+    private static int processAdmonition(
             @NonNull String markerType,
             @Nullable String attributes,
             @NonNull String[] lines,
@@ -677,7 +700,7 @@ public class MarkdownRenderer {
      * @param segments the segment list to append to
      * @return the next line index to process
      */
-    private int processCenterBlock(
+    private static int processCenterBlock(
             @NonNull String[] lines,
             int start,
             @NonNull List<ContentSegment> segments) {
@@ -709,7 +732,7 @@ public class MarkdownRenderer {
      * @param buffer   the markdown text buffer
      * @param segments the segment list to append to
      */
-    private void flushMarkdown(
+    private static void flushMarkdown(
             @NonNull StringBuilder buffer,
             @NonNull List<ContentSegment> segments) {
         String text = buffer.toString().trim();
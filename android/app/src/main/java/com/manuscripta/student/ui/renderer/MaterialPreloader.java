@@ -0,0 +1,221 @@
+package com.manuscripta.student.ui.renderer;
+
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.manuscripta.student.data.repository.MaterialRepository;
+import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the materials a student is likely to open next, so that opening one does not
+ * wait on reading its questions, parsing its content or decoding its images.
+ *
+ * <p>Materials are usually worked through in the order they are listed, so when one is
+ * opened the next {@link #MATERIALS_AHEAD} in that order are prepared on a single thread
+ * at the lowest priority: their questions are read into the repository's cache with
+ * their options decoded, their content is parsed into the {@link RenderCache}, and their
+ * images that are already stored locally are decoded there, within the share of the
+ * image budget left to images not yet on screen. Nothing is downloaded.</p>
+ *
+ * <p>Opening another material, or {@link #cancel()}, abandons the work in progress at the
+ * next step, so a student moving quickly through materials never waits behind work for
+ * a material they skipped.</p>
+ */
+public class MaterialPreloader {
+
+    /** Tag for logging. */
+    private static final String TAG = "MaterialPreloader";
+
+    /** Number of materials after the opened one that are warmed. */
+    static final int MATERIALS_AHEAD = 2;
+
+    /** The repository holding materials and their questions. */
+    @NonNull
+    private final MaterialRepository materialRepository;
+
+    /** The cache parsed content and decoded images are held in. */
+    @NonNull
+    private final RenderCache renderCache;
+
+    /** Decodes stored images into the render cache. */
+    @NonNull
+    private final AttachmentImageLoader imageLoader;
+
+    /** Runs the warming work, one material at a time. */
+    @NonNull
+    private final Executor executor;
+
+    /** Incremented whenever the work in progress is abandoned. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a new MaterialPreloader running on its own lowest-priority thread.
+     *
+     * @param materialRepository The repository holding materials and their questions
+     * @param renderCache        The cache parsed content and decoded images are held in
+     * @param imageLoader        Decodes stored images into the render cache
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public MaterialPreloader(@NonNull MaterialRepository materialRepository,
+                             @NonNull RenderCache renderCache,
+                             @NonNull AttachmentImageLoader imageLoader) {
+        this(materialRepository, renderCache, imageLoader, Executors.newSingleThreadExecutor(
+                runnable -> {
+                    Thread thread = new Thread(() -> {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_LOWEST);
+                        runnable.run();
+                    }, TAG);
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    /**
+     * Creates a new MaterialPreloader with a custom executor. Primarily for testing.
+     *
+     * @param materialRepository The repository holding materials and their questions
+     * @param renderCache        The cache parsed content and decoded images are held in
+     * @param imageLoader        Decodes stored images into the render cache
+     * @param executor           Runs the warming work
+     * @throws IllegalArgumentException if any argument is null
+     */
+    MaterialPreloader(@NonNull MaterialRepository materialRepository,
+                      @NonNull RenderCache renderCache,
+                      @NonNull AttachmentImageLoader imageLoader,
+                      @NonNull Executor executor) {
+        if (materialRepository == null) {
+            throw new IllegalArgumentException("MaterialRepository cannot be null");
+        }
+        if (renderCache == null) {
+            throw new IllegalArgumentException("RenderCache cannot be null");
+        }
+        if (imageLoader == null) {
+            throw new IllegalArgumentException("AttachmentImageLoader cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.materialRepository = materialRepository;
+        this.renderCache = renderCache;
+        this.imageLoader = imageLoader;
+        this.executor = executor;
+    }
+
+    /**
+     * Abandons any work in progress and warms the materials following the opened one.
+     *
+     * @param materialId The ID of the material opened
+     * @param materials  All materials, in the order they are listed
+     * @throws IllegalArgumentException if materialId or materials is null
+     */
+    public void preloadAfter(@NonNull String materialId, @NonNull List<MaterialSummary> materials) {
+        if (materialId == null) {
+            throw new IllegalArgumentException("Material ID cannot be null");
+        }
+        if (materials == null) {
+            throw new IllegalArgumentException("Materials cannot be null");
+        }
+        long current = generation.incrementAndGet();
+        List<String> next = nextMaterialIds(materialId, materials);
+        if (next.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            for (String nextId : next) {
+                if (!preload(nextId, current)) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Abandons any work in progress, for when the student leaves the materials.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Gets the IDs of the materials listed after the given one.
+     *
+     * @param materialId The ID of the material opened
+     * @param materials  All materials, in the order they are listed
+     * @return Up to {@link #MATERIALS_AHEAD} IDs, or none if the material is not listed
+     */
+    @NonNull
+    static List<String> nextMaterialIds(@NonNull String materialId,
+                                        @NonNull List<MaterialSummary> materials) {
+        for (int i = 0; i < materials.size(); i++) {
+            if (materialId.equals(materials.get(i).getId())) {
+                int end = Math.min(materials.size(), i + 1 + MATERIALS_AHEAD);
+                List<String> next = new ArrayList<>(end - i - 1);
+                for (int j = i + 1; j < end; j++) {
+                    next.add(materials.get(j).getId());
+                }
+                return next;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Warms one material, stopping at the first step after the work is abandoned.
+     *
+     * @param materialId The ID of the material to warm
+     * @param started    The generation the work was started in
+     * @return false if the work was abandoned
+     */
+    @WorkerThread
+    private boolean preload(@NonNull String materialId, long started) {
+        try {
+            if (generation.get() != started) {
+                return false;
+            }
+            for (Question question : materialRepository.getQuestionsForMaterial(materialId)) {
+                question.getOptionList();
+            }
+
+            if (generation.get() != started) {
+                return false;
+            }
+            Material material = materialRepository.getMaterialById(materialId);
+            if (material == null) {
+                return true;
+            }
+            List<ContentSegment> segments =
+                    renderCache.getSegments(materialId, material.getContent());
+
+            for (ContentSegment segment : segments) {
+                if (segment.getType() != ContentSegment.Type.IMAGE_EMBED) {
+                    continue;
+                }
+                if (generation.get() != started) {
+                    return false;
+                }
+                if (!renderCache.hasPreloadRoom()) {
+                    // Leave the rest to be decoded when displayed
+                    break;
+                }
+                imageLoader.preloadBitmap(segment.getContent(), materialId);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Warming is best effort; opening the material loads whatever is missing
+            Log.w(TAG, "Failed to preload material " + materialId + ": " + e.getMessage());
+            return true;
+        }
+    }
+}
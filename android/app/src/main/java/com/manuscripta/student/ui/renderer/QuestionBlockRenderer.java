@@ -15,13 +15,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
 import com.manuscripta.student.R;
 import com.manuscripta.student.data.model.QuestionType;
 import com.manuscripta.student.domain.model.Question;
+import com.manuscripta.student.domain.model.StoredLists;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -51,9 +49,6 @@ public class QuestionBlockRenderer {
     /** Prefix used to tag multiple-choice groups with question IDs. */
     private static final String TAG_MULTIPLE_CHOICE_PREFIX = "qa_mc:";
 
-    /** Gson instance for parsing option JSON arrays. */
-    private static final Gson GSON = new Gson();
-
     /** Base body text size in SP used by markdown body text. */
     private static final float BODY_TEXT_SP = 30f;
 
@@ -162,11 +157,11 @@ public class QuestionBlockRenderer {
         RadioGroup radioGroup = new RadioGroup(context);
         radioGroup.setOrientation(RadioGroup.VERTICAL);
 
-        String[] options = parseOptions(question.getOptions());
-        for (int i = 0; i < options.length; i++) {
+        List<String> options = question.getOptionList();
+        for (int i = 0; i < options.size(); i++) {
             RadioButton radioButton = new RadioButton(context);
             String label =
-                    getOptionLabel(i) + ") " + options[i];
+                    getOptionLabel(i) + ") " + options.get(i);
             radioButton.setText(label);
             radioButton.setTextSize(
                     TypedValue.COMPLEX_UNIT_SP,
@@ -215,59 +210,11 @@ public class QuestionBlockRenderer {
      *
      * @param optionsJson the JSON array string of options
      * @return an array of option strings
+     * @see StoredLists#decodeOptions(String)
      */
     @NonNull
     String[] parseOptions(@NonNull String optionsJson) {
-        if (optionsJson.isEmpty()) {
-            return new String[0];
-        }
-        String trimmed = optionsJson.trim();
-
-        if (!trimmed.startsWith("[")) {
-            return hasDelimitedOptions(trimmed)
-                    ? parseDelimitedOptions(trimmed)
-                    : new String[0];
-        }
-
-        try {
-            String[] options = GSON.fromJson(trimmed, String[].class);
-            return options != null ? options : new String[0];
-        } catch (JsonSyntaxException e) {
-            return hasDelimitedOptions(trimmed)
-                    ? parseDelimitedOptions(trimmed)
-                    : new String[0];
-        }
-    }
-
-    /**
-     * Checks whether raw option text appears to be a delimited list.
-     *
-     * @param optionsRaw raw options text
-     * @return true when a newline, pipe, or semicolon delimiter is present
-     */
-    private boolean hasDelimitedOptions(@NonNull String optionsRaw) {
-        return optionsRaw.contains("\n")
-                || optionsRaw.contains("|")
-                || optionsRaw.contains(";");
-    }
-
-    /**
-     * Parses non-JSON options from newline, pipe, or semicolon-delimited text.
-     *
-     * @param optionsRaw Raw options string
-     * @return parsed options, or an empty array if no options are found
-     */
-    @NonNull
-    private String[] parseDelimitedOptions(@NonNull String optionsRaw) {
-        String[] parts = optionsRaw.split("\\n|\\||;");
-        List<String> options = new ArrayList<>();
-        for (String part : parts) {
-            String trimmedPart = part.trim();
-            if (!trimmedPart.isEmpty()) {
-                options.add(trimmedPart);
-            }
-        }
-        return options.toArray(new String[0]);
+        return StoredLists.decodeOptions(optionsJson).toArray(new String[0]);
     }
 
     /**
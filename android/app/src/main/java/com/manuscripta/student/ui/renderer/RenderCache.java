@@ -0,0 +1,269 @@
+package com.manuscripta.student.ui.renderer;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds what rendering a material needs beyond its row: its content parsed into segments,
+ * and its attachment images decoded and downsampled to the screen's longer side.
+ *
+ * <p>Both are filled as materials are displayed and, ahead of display, by
+ * {@link MaterialPreloader}. Parsed segments are kept for the few materials used most
+ * recently and are only served for the content they were parsed from, so an updated
+ * material is parsed again. Bitmaps are kept within a byte budget, evicting the least
+ * recently used; a bitmap larger than the whole budget is not held. Images warmed ahead of
+ * display and not yet shown may only fill part of that budget, so they never push out the
+ * images of the material on screen; once shown, an image counts as displayed.</p>
+ */
+public class RenderCache {
+
+    /** Number of materials whose parsed content is held. */
+    static final int MAX_PARSED_MATERIALS = 8;
+
+    /** Share of the bitmap budget that images warmed and not yet shown may fill. */
+    static final int PRELOAD_BUDGET_DIVISOR = 2;
+
+    /** Parsed content by material ID, in access order. Guarded by itself. */
+    private final LinkedHashMap<String, ParsedContent> parsed =
+            new LinkedHashMap<String, ParsedContent>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedContent> eldest) {
+                    return size() > MAX_PARSED_MATERIALS;
+                }
+            };
+
+    /** Decoded attachment images by attachment ID, sized in bytes. */
+    @NonNull
+    private final LruCache<String, Bitmap> bitmaps;
+
+    /** The most bytes the held bitmaps may take. */
+    private final int maxBitmapBytes;
+
+    /** The longest side an image is decoded at, in pixels. */
+    private final int maxImageDimensionPx;
+
+    /** Images warmed ahead of display and not yet shown, by attachment ID. Guarded by itself. */
+    private final Map<String, Bitmap> preloaded = new HashMap<>();
+
+    /** Bytes taken by {@link #preloaded}. Guarded by {@link #preloaded}. */
+    private long preloadedBytes;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxBitmapBytes      The most bytes the held bitmaps may take
+     * @param maxImageDimensionPx The longest side an image is decoded at, in pixels, usually
+     *                            the screen's longer side
+     * @throws IllegalArgumentException if either limit is not positive
+     */
+    public RenderCache(int maxBitmapBytes, int maxImageDimensionPx) {
+        if (maxBitmapBytes <= 0) {
+            throw new IllegalArgumentException("Bitmap budget must be positive");
+        }
+        if (maxImageDimensionPx <= 0) {
+            throw new IllegalArgumentException("Image dimension must be positive");
+        }
+        this.maxBitmapBytes = maxBitmapBytes;
+        this.maxImageDimensionPx = maxImageDimensionPx;
+        this.bitmaps = new LruCache<String, Bitmap>(maxBitmapBytes) {
+            @Override
+            protected int sizeOf(@NonNull String key, @NonNull Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, @NonNull String key,
+                                        @NonNull Bitmap oldValue, @Nullable Bitmap newValue) {
+                forgetPreloaded(key, oldValue);
+            }
+        };
+    }
+
+    /**
+     * Gets a material's content parsed into segments, parsing it unless it was parsed
+     * already.
+     *
+     * @param materialId The material ID
+     * @param content    The material's content
+     * @return The segments, unmodifiable
+     */
+    @NonNull
+    List<ContentSegment> getSegments(@NonNull String materialId, @NonNull String content) {
+        synchronized (parsed) {
+            ParsedContent held = parsed.get(materialId);
+            if (held != null && held.content.equals(content)) {
+                return held.segments;
+            }
+        }
+        // Parsing runs outside the lock; a concurrent parse of the same content is harmless
+        List<ContentSegment> segments = MarkdownRenderer.parseSegments(content);
+        synchronized (parsed) {
+            parsed.put(materialId, new ParsedContent(content, segments));
+        }
+        return segments;
+    }
+
+    /**
+     * Gets a held attachment image for display, marking it most recently used. An image
+     * warmed ahead of display no longer counts against the preload share once it is shown.
+     *
+     * @param attachmentId The attachment ID
+     * @return The bitmap, or null if none is held
+     */
+    @Nullable
+    Bitmap getBitmap(@NonNull String attachmentId) {
+        Bitmap bitmap = bitmaps.get(attachmentId);
+        if (bitmap != null) {
+            forgetPreloaded(attachmentId, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Checks whether an attachment image is held, without counting it as shown.
+     *
+     * @param attachmentId The attachment ID
+     * @return true if the image is held
+     */
+    boolean holdsBitmap(@NonNull String attachmentId) {
+        return bitmaps.get(attachmentId) != null;
+    }
+
+    /**
+     * Holds an attachment image decoded for display, evicting the least recently used
+     * images if the budget is exceeded. An image larger than the whole budget is not held,
+     * since it would evict every other image and then itself.
+     *
+     * @param attachmentId The attachment ID
+     * @param bitmap       The decoded image
+     * @return true if the image is held
+     */
+    boolean putBitmap(@NonNull String attachmentId, @NonNull Bitmap bitmap) {
+        if (bitmap.getAllocationByteCount() > maxBitmapBytes) {
+            return false;
+        }
+        bitmaps.put(attachmentId, bitmap);
+        return true;
+    }
+
+    /**
+     * Holds an attachment image decoded ahead of display, if it fits within the share of
+     * the budget left to images warmed and not yet shown.
+     *
+     * @param attachmentId The attachment ID
+     * @param bitmap       The decoded image
+     * @return true if the image is held
+     */
+    boolean putPreloadedBitmap(@NonNull String attachmentId, @NonNull Bitmap bitmap) {
+        int size = bitmap.getAllocationByteCount();
+        synchronized (preloaded) {
+            if (preloadedBytes + size > maxBitmapBytes / PRELOAD_BUDGET_DIVISOR) {
+                return false;
+            }
+            Bitmap previous = preloaded.put(attachmentId, bitmap);
+            preloadedBytes += size - (previous != null ? previous.getAllocationByteCount() : 0);
+        }
+        bitmaps.put(attachmentId, bitmap);
+        return true;
+    }
+
+    /**
+     * Checks whether images warmed ahead of display and not yet shown take less than their
+     * share of the budget, so that decoding another may be worthwhile.
+     *
+     * @return true if there is room for more images decoded ahead of display
+     */
+    boolean hasPreloadRoom() {
+        synchronized (preloaded) {
+            return preloadedBytes < maxBitmapBytes / PRELOAD_BUDGET_DIVISOR;
+        }
+    }
+
+    /**
+     * Gets the longest side an image is decoded at.
+     *
+     * @return The length in pixels
+     */
+    int getMaxImageDimensionPx() {
+        return maxImageDimensionPx;
+    }
+
+    /**
+     * Gets the bytes taken by images warmed ahead of display and not yet shown.
+     *
+     * @return The size in bytes
+     */
+    long getPreloadedBytes() {
+        synchronized (preloaded) {
+            return preloadedBytes;
+        }
+    }
+
+    /**
+     * Gets the bytes taken by the held bitmaps.
+     *
+     * @return The size in bytes
+     */
+    int getBitmapBytes() {
+        return bitmaps.size();
+    }
+
+    /**
+     * Drops everything held, as when memory runs low or the database is cleared.
+     */
+    public void clear() {
+        synchronized (parsed) {
+            parsed.clear();
+        }
+        bitmaps.evictAll();
+    }
+
+    /**
+     * Stops counting an image against the preload share, if it is the one warmed for its
+     * attachment; called when it is shown or leaves the cache.
+     *
+     * @param attachmentId The attachment ID
+     * @param bitmap       The image shown or removed
+     */
+    private void forgetPreloaded(@NonNull String attachmentId, @NonNull Bitmap bitmap) {
+        synchronized (preloaded) {
+            if (preloaded.get(attachmentId) == bitmap) {
+                preloaded.remove(attachmentId);
+                preloadedBytes -= bitmap.getAllocationByteCount();
+            }
+        }
+    }
+
+    /**
+     * Content together with the segments parsed from it.
+     */
+    private static final class ParsedContent {
+
+        /** The content that was parsed. */
+        @NonNull
+        final String content;
+
+        /** The segments parsed from it. */
+        @NonNull
+        final List<ContentSegment> segments;
+
+        /**
+         * Creates an entry.
+         *
+         * @param content  The content that was parsed
+         * @param segments The segments parsed from it
+         */
+        ParsedContent(@NonNull String content, @NonNull List<ContentSegment> segments) {
+            this.content = content;
+            this.segments = segments;
+        }
+    }
+}
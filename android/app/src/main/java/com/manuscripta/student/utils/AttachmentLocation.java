@@ -0,0 +1,65 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+
+/**
+ * Where a stored attachment lives, as recorded by {@link FileStorageManager}'s in-memory
+ * index. Instances are immutable, so reading one never touches the file system.
+ */
+public final class AttachmentLocation {
+
+    /** The attachment file. */
+    @NonNull
+    private final File file;
+
+    /** The file size in bytes. */
+    private final long sizeBytes;
+
+    /** The MIME type guessed from the file extension. */
+    @NonNull
+    private final String mimeType;
+
+    /**
+     * Creates a new AttachmentLocation.
+     *
+     * @param file      The attachment file
+     * @param sizeBytes The file size in bytes
+     * @param mimeType  The MIME type of the content
+     */
+    public AttachmentLocation(@NonNull File file, long sizeBytes, @NonNull String mimeType) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * Gets the attachment file.
+     *
+     * @return The attachment file
+     */
+    @NonNull
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the file size.
+     *
+     * @return The size in bytes
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Gets the MIME type of the content.
+     *
+     * @return The MIME type, or {@code application/octet-stream} if the extension is unknown
+     */
+    @NonNull
+    public String getMimeType() {
+        return mimeType;
+    }
+}
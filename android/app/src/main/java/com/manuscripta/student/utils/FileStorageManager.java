@@ -1,16 +1,23 @@
-
 package com.manuscripta.student.utils;
 
 import android.content.Context;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility class for managing binary file storage (attachments such as PDFs and images)
@@ -19,20 +26,96 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <p>This class separates file system concerns from repository logic and provides
  * thread-safe operations for saving, retrieving, and deleting attachment files.</p>
  *
- * <p>Files are stored using a predictable path pattern:
- * {@code /internal/attachments/{materialId}/{attachmentId}.{ext}}</p>
+ * <p>Each attachment is recorded under a predictable path pattern:
+ * {@code /internal/attachments/{materialId}/{attachmentId}.{ext}.{sha256}.ref}</p>
+ *
+ * <p><b>Content addressing:</b> The bytes themselves live once per distinct content in
+ * {@code /internal/attachments/.blobs/{sha256}}, and the per-material path is an empty
+ * reference file naming its blob. A diagram or PDF shared by several materials therefore
+ * occupies disk space once, and readers are handed the blob itself. Hard links are not used,
+ * since Android forbids them for apps. Blobs are reference-counted per (material ID,
+ * attachment ID) in the index and deleted with their last reference. Blobs and private
+ * copies are written to a temporary name and renamed into place, so readers never see a
+ * partly written attachment.</p>
+ *
+ * <p><b>Location index:</b> Every stored attachment is recorded in a concurrent in-memory
+ * index from (material ID, attachment ID) to its file, size and MIME type, so lookups are
+ * two hash map reads with no locking and no file system calls. The index, together with
+ * the blob reference counts, is built from one scan of the attachment tree on first use,
+ * reading blob hashes from the reference file names; the scan also removes blobs,
+ * references and temporary files left behind by an interrupted save. Files that are not
+ * references, such as those saved before content addressing or when a blob could not be
+ * written, are indexed as private copies. Each entry also records when it was last saved
+ * or looked up, seeded from the file's modification time, for least-recently-used
+ * eviction.</p>
+ *
+ * <p><b>Clearing:</b> {@link #clearAllAttachments()} renames the attachment root to a trash
+ * directory and returns at once; the trash is deleted on a low-priority background thread.
+ * Trash left behind by a process that died mid-deletion is reclaimed the same way when the
+ * index is next loaded.</p>
+ *
+ * <p><b>Locking:</b> Writers for different (material ID, attachment ID) keys run in parallel
+ * on separate lock stripes; deleting a material or clearing everything takes every stripe.
+ * Blob reference counts have their own short-lived lock, always taken after any stripe.</p>
  */
 public class FileStorageManager {
 
     /** Name of the root directory for attachments within internal storage. */
     private static final String ATTACHMENTS_DIR = "attachments";
 
+    /** Name of the blob directory within the attachments root; never a valid material ID. */
+    private static final String BLOBS_DIR = ".blobs";
+
+    /** Prefix for temporary files, chosen so they never collide with an attachment file. */
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    /** Suffix of the reference files that record which blob holds an attachment. */
+    private static final String REF_SUFFIX = ".ref";
+
+    /** Length of a blob hash: SHA-256 in hex. */
+    private static final int HASH_LENGTH = 64;
+
+    /** Prefix for cleared attachment roots awaiting deletion, within the base directory. */
+    private static final String TRASH_PREFIX = ATTACHMENTS_DIR + ".trash-";
+
+    /** MIME type recorded when the file extension is not recognised. */
+    static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    /** Number of writer lock stripes. */
+    private static final int LOCK_STRIPES = 16;
+
     /** The base directory for file storage. */
     @NonNull
     private final File baseDirectory;
 
-    /** Lock for ensuring thread-safe access to file operations. */
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Runs the deletion of cleared attachment roots. */
+    @NonNull
+    private final Executor reclaimExecutor;
+
+    /** Writer locks, one per stripe of (material ID, attachment ID) keys. */
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    /** Serialises the scan that loads the index; taken before any stripe. */
+    private final Object loadLock = new Object();
+
+    /** Guards {@link #blobRefCounts}, {@link #blobsByAttachment} and the blob directory. */
+    private final Object blobLock = new Object();
+
+    /** Whether the index has been loaded from disk. */
+    private volatile boolean indexLoaded;
+
+    /** Stored attachments, keyed by material ID and then attachment ID. */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, IndexEntry>> index =
+            new ConcurrentHashMap<>();
+
+    /** Number of indexed (material ID, attachment ID) entries referencing each blob, by hash. */
+    private final Map<String, Integer> blobRefCounts = new HashMap<>();
+
+    /** The most recent blob stored for each attachment ID, used to skip repeat downloads. */
+    private final Map<String, BlobLink> blobsByAttachment = new HashMap<>();
+
+    /** Makes the names of blobs staged outside the blob lock unique. */
+    private final AtomicLong stagedBlobCounter = new AtomicLong();
 
     /**
      * Creates a new FileStorageManager instance using the app's internal storage.
@@ -45,6 +128,8 @@ public class FileStorageManager {
             throw new IllegalArgumentException("Context cannot be null");
         }
         this.baseDirectory = context.getApplicationContext().getFilesDir();
+        this.reclaimExecutor = FileStorageManager::reclaimInBackground;
+        initStripes();
     }
 
     /**
@@ -55,22 +140,40 @@ public class FileStorageManager {
      * @throws IllegalArgumentException if baseDirectory is null
      */
     public FileStorageManager(@NonNull File baseDirectory) {
+        this(baseDirectory, FileStorageManager::reclaimInBackground);
+    }
+
+    /**
+     * Creates a new FileStorageManager instance with a custom base directory and executor
+     * for deleting cleared attachments.
+     *
+     * @param baseDirectory   The base directory for file storage (must not be null)
+     * @param reclaimExecutor Runs the deletion of cleared attachment roots
+     * @throws IllegalArgumentException if baseDirectory is null
+     */
+    @VisibleForTesting
+    FileStorageManager(@NonNull File baseDirectory, @NonNull Executor reclaimExecutor) {
         if (baseDirectory == null) {
             throw new IllegalArgumentException("Base directory cannot be null");
         }
         this.baseDirectory = baseDirectory;
+        this.reclaimExecutor = reclaimExecutor;
+        initStripes();
     }
 
     /**
      * Saves an attachment file to internal storage.
      *
-     * <p>The file is saved at: {@code /internal/attachments/{materialId}/{attachmentId}.{ext}}</p>
+     * <p>The content is stored as a blob, written only if no identical content is stored
+     * yet, and recorded for the material by a reference file. If the blob cannot be written,
+     * a private copy is saved at {@code /internal/attachments/{materialId}/{attachmentId}.{ext}}
+     * instead. Whatever was saved earlier for the same attachment is replaced.</p>
      *
      * @param materialId   The unique identifier for the material (must not be null or empty)
      * @param attachmentId The unique identifier for the attachment (must not be null or empty)
      * @param extension    The file extension without the dot (must not be null or empty)
      * @param bytes        The binary content to save (must not be null)
-     * @return The saved file, or null if the save operation failed
+     * @return The file holding the saved content, or null if the save operation failed
      * @throws IllegalArgumentException if any parameter is null or empty (where applicable)
      */
     @Nullable
@@ -85,69 +188,207 @@ public class FileStorageManager {
             throw new IllegalArgumentException("Bytes cannot be null");
         }
 
-        lock.writeLock().lock();
+        ensureIndexLoaded();
+        String hash = Hashes.sha256Hex(bytes);
+        ReentrantLock stripe = stripeFor(materialId, attachmentId);
+        stripe.lock();
         try {
             File materialDir = getMaterialDirectory(materialId);
-            if (!materialDir.exists() && !createDirectory(materialDir)) {
+            if (!ensureDirectory(materialDir)) {
                 return null;
             }
 
+            File blobCandidate = stageBlob(hash, bytes);
+            if (blobCandidate != null) {
+                File reference = referenceBlob(materialDir, attachmentId, extension, hash,
+                        blobCandidate);
+                if (reference != null) {
+                    File blob = getBlob(hash);
+                    putEntry(materialId, attachmentId, reference, blob, bytes.length, hash);
+                    return blob;
+                }
+            }
+
+            // No blob: keep a private copy as before content addressing
             File attachmentFile = new File(materialDir, attachmentId + "." + extension);
-            if (!writeToFile(attachmentFile, bytes)) {
+            if (!writeAtomically(attachmentFile, bytes)) {
                 return null;
             }
+            putEntry(materialId, attachmentId, attachmentFile, attachmentFile, bytes.length, null);
             return attachmentFile;
         } finally {
-            lock.writeLock().unlock();
+            stripe.unlock();
         }
     }
 
     /**
-     * Retrieves an attachment file from internal storage.
+     * Gets an attachment for a material without downloading it, referencing content already
+     * stored for the same attachment ID under another material.
      *
-     * <p>This method searches for files matching the pattern:
-     * {@code /internal/attachments/{materialId}/{attachmentId}.*}</p>
+     * <p>Attachment IDs identify immutable server content, so a stored copy for any material
+     * is the same file this material needs. Callers should try this before downloading.</p>
      *
      * @param materialId   The unique identifier for the material (must not be null or empty)
      * @param attachmentId The unique identifier for the attachment (must not be null or empty)
-     * @return The attachment file if it exists, or null if not found
+     * @return The file holding the attachment's content, or null if the content is not
+     *         stored locally
      * @throws IllegalArgumentException if materialId or attachmentId is null or empty
      */
     @Nullable
-    public File getAttachmentFile(@NonNull String materialId,
-                                  @NonNull String attachmentId) {
+    public File reuseStoredAttachment(@NonNull String materialId,
+                                      @NonNull String attachmentId) {
         validateMaterialId(materialId);
         validateAttachmentId(attachmentId);
 
-        lock.readLock().lock();
+        ensureIndexLoaded();
+        IndexEntry existing = lookup(materialId, attachmentId);
+        if (existing != null) {
+            return existing.location.getFile();
+        }
+
+        ReentrantLock stripe = stripeFor(materialId, attachmentId);
+        stripe.lock();
         try {
-            File materialDir = getMaterialDirectory(materialId);
-            if (!materialDir.exists() || !materialDir.isDirectory()) {
-                return null;
+            existing = lookup(materialId, attachmentId);
+            if (existing != null) {
+                return existing.location.getFile();
             }
 
-            File[] files = listFilesWithFilter(materialDir, attachmentId);
+            BlobLink link;
+            synchronized (blobLock) {
+                link = blobsByAttachment.get(attachmentId);
+                if (link != null && !blobRefCounts.containsKey(link.hash)) {
+                    // Every material that held it has since been deleted
+                    blobsByAttachment.remove(attachmentId);
+                    link = null;
+                }
+            }
+            if (link == null) {
+                return null;
+            }
 
-            if (files != null && files.length > 0) {
-                return files[0];
+            File materialDir = getMaterialDirectory(materialId);
+            if (!ensureDirectory(materialDir)) {
+                return null;
             }
-            return null;
+            File blob = getBlob(link.hash);
+            File reference = referenceBlob(materialDir, attachmentId, link.extension, link.hash,
+                    blob);
+            if (reference == null) {
+                return null;
+            }
+            putEntry(materialId, attachmentId, reference, blob, blob.length(), link.hash);
+            return blob;
         } finally {
-            lock.readLock().unlock();
+            stripe.unlock();
         }
     }
 
     /**
-     * Lists files in a directory that match the attachment ID prefix.
-     * This method is protected to allow testing of failure scenarios.
+     * Retrieves an attachment file from internal storage: the content blob, or the private
+     * copy if the attachment has none.
+     *
+     * <p>Served from the in-memory index without locking or touching the file system.</p>
+     *
+     * @param materialId   The unique identifier for the material (must not be null or empty)
+     * @param attachmentId The unique identifier for the attachment (must not be null or empty)
+     * @return The attachment file if it exists, or null if not found
+     * @throws IllegalArgumentException if materialId or attachmentId is null or empty
+     */
+    @Nullable
+    public File getAttachmentFile(@NonNull String materialId,
+                                  @NonNull String attachmentId) {
+        AttachmentLocation location = getAttachmentLocation(materialId, attachmentId);
+        return location != null ? location.getFile() : null;
+    }
+
+    /**
+     * Retrieves the location, size and MIME type of a stored attachment.
      *
-     * @param directory    The directory to list files from
-     * @param attachmentId The attachment ID to filter by
-     * @return The array of matching files, or null if an I/O error occurs
+     * <p>Served from the in-memory index without locking or touching the file system.</p>
+     *
+     * @param materialId   The unique identifier for the material (must not be null or empty)
+     * @param attachmentId The unique identifier for the attachment (must not be null or empty)
+     * @return The attachment location, or null if not found
+     * @throws IllegalArgumentException if materialId or attachmentId is null or empty
      */
     @Nullable
-    protected File[] listFilesWithFilter(@NonNull File directory, @NonNull String attachmentId) {
-        return directory.listFiles((dir, name) -> name.startsWith(attachmentId + "."));
+    public AttachmentLocation getAttachmentLocation(@NonNull String materialId,
+                                                    @NonNull String attachmentId) {
+        validateMaterialId(materialId);
+        validateAttachmentId(attachmentId);
+
+        ensureIndexLoaded();
+        IndexEntry entry = lookup(materialId, attachmentId);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccessMillis = System.currentTimeMillis();
+        return entry.location;
+    }
+
+    /**
+     * Takes a snapshot of every indexed attachment for storage accounting. Served from the
+     * in-memory index without touching the file system.
+     *
+     * @return The stored attachments, in no particular order
+     */
+    @NonNull
+    public List<StoredAttachment> getStoredAttachments() {
+        ensureIndexLoaded();
+        List<StoredAttachment> stored = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentHashMap<String, IndexEntry>> material : index.entrySet()) {
+            for (Map.Entry<String, IndexEntry> attachment : material.getValue().entrySet()) {
+                IndexEntry entry = attachment.getValue();
+                stored.add(new StoredAttachment(material.getKey(), attachment.getKey(),
+                        entry.location, entry.lastAccessMillis, entry.blobHash));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Gets the space available to the app on the storage volume holding the attachments.
+     *
+     * @return The usable space in bytes
+     */
+    public long getUsableSpaceBytes() {
+        return baseDirectory.getUsableSpace();
+    }
+
+    /**
+     * Deletes a single attachment of a material, releasing its blob if no other attachment
+     * references it.
+     *
+     * @param materialId   The unique identifier for the material (must not be null or empty)
+     * @param attachmentId The unique identifier for the attachment (must not be null or empty)
+     * @return true if the attachment is gone (or was never stored), false if deletion failed
+     * @throws IllegalArgumentException if materialId or attachmentId is null or empty
+     */
+    public boolean deleteAttachment(@NonNull String materialId, @NonNull String attachmentId) {
+        validateMaterialId(materialId);
+        validateAttachmentId(attachmentId);
+
+        ensureIndexLoaded();
+        ReentrantLock stripe = stripeFor(materialId, attachmentId);
+        stripe.lock();
+        try {
+            ConcurrentHashMap<String, IndexEntry> entries = index.get(materialId);
+            IndexEntry entry = entries != null ? entries.get(attachmentId) : null;
+            if (entry == null) {
+                return true;
+            }
+            File file = entry.recordFile;
+            if (file.exists() && !deleteFile(file)) {
+                return false;
+            }
+            // The material's map stays, since other stripes may be adding to it
+            entries.remove(attachmentId);
+            releaseBlob(entry.blobHash);
+            return true;
+        } finally {
+            stripe.unlock();
+        }
     }
 
     /**
@@ -163,35 +404,73 @@ public class FileStorageManager {
     public boolean deleteAttachmentsForMaterial(@NonNull String materialId) {
         validateMaterialId(materialId);
 
-        lock.writeLock().lock();
+        ensureIndexLoaded();
+        lockAllStripes();
         try {
             File materialDir = getMaterialDirectory(materialId);
-            if (!materialDir.exists()) {
-                return true;
+            boolean deleted = !materialDir.exists() || deleteDirectoryRecursively(materialDir);
+
+            // Forget only the files that are actually gone, so a partial failure keeps
+            // the blobs of the files that remain
+            ConcurrentHashMap<String, IndexEntry> entries = index.get(materialId);
+            if (entries != null) {
+                for (Map.Entry<String, IndexEntry> entry : entries.entrySet()) {
+                    IndexEntry indexed = entry.getValue();
+                    if (deleted || !indexed.recordFile.exists()) {
+                        entries.remove(entry.getKey());
+                        releaseBlob(indexed.blobHash);
+                    }
+                }
+                if (entries.isEmpty()) {
+                    index.remove(materialId);
+                }
             }
-            return deleteDirectoryRecursively(materialDir);
+            return deleted;
         } finally {
-            lock.writeLock().unlock();
+            unlockAllStripes();
         }
     }
 
     /**
      * Clears all attachment files from internal storage.
      *
-     * <p>This performs a full cache clear of all stored attachments.</p>
+     * <p>This performs a full cache clear of all stored attachments. The attachment root is
+     * renamed out of the way, so the cost does not grow with the number of files; the
+     * renamed tree is deleted in the background. If the rename fails, the files are deleted
+     * before returning.</p>
      *
      * @return true if all attachments were successfully cleared, false otherwise
      */
     public boolean clearAllAttachments() {
-        lock.writeLock().lock();
-        try {
-            File attachmentsDir = getAttachmentsRootDirectory();
-            if (!attachmentsDir.exists()) {
-                return true;
+        synchronized (loadLock) {
+            lockAllStripes();
+            try {
+                synchronized (blobLock) {
+                    if (!indexLoaded) {
+                        reclaimLeftoverTrash();
+                    }
+                    index.clear();
+                    blobRefCounts.clear();
+                    blobsByAttachment.clear();
+
+                    File attachmentsDir = getAttachmentsRootDirectory();
+                    File trash = new File(baseDirectory, TRASH_PREFIX + System.nanoTime());
+                    if (!attachmentsDir.exists() || renameFile(attachmentsDir, trash)) {
+                        scheduleReclaim(trash);
+                        indexLoaded = true;
+                        return true;
+                    }
+                    boolean deleted = deleteDirectoryRecursively(attachmentsDir);
+                    if (!deleted) {
+                        // Index whatever survived so it can still be found and deleted
+                        scanAttachmentTree();
+                    }
+                    indexLoaded = true;
+                    return deleted;
+                }
+            } finally {
+                unlockAllStripes();
             }
-            return deleteDirectoryRecursively(attachmentsDir);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
@@ -205,6 +484,27 @@ public class FileStorageManager {
         return new File(baseDirectory, ATTACHMENTS_DIR);
     }
 
+    /**
+     * Gets the directory holding the content-addressed blobs.
+     *
+     * @return The blob directory
+     */
+    @NonNull
+    File getBlobDirectory() {
+        return new File(getAttachmentsRootDirectory(), BLOBS_DIR);
+    }
+
+    /**
+     * Gets the blob file for a content hash.
+     *
+     * @param hash The SHA-256 hash of the content, in lowercase hex
+     * @return The blob file, which may not exist
+     */
+    @NonNull
+    private File getBlob(@NonNull String hash) {
+        return new File(getBlobDirectory(), hash);
+    }
+
     /**
      * Gets the directory for a specific material's attachments.
      *
@@ -216,6 +516,310 @@ public class FileStorageManager {
         return new File(getAttachmentsRootDirectory(), materialId);
     }
 
+    /**
+     * Looks up an indexed attachment.
+     *
+     * @param materialId   The material ID
+     * @param attachmentId The attachment ID
+     * @return The index entry, or null if not stored
+     */
+    @Nullable
+    private IndexEntry lookup(@NonNull String materialId, @NonNull String attachmentId) {
+        ConcurrentHashMap<String, IndexEntry> entries = index.get(materialId);
+        return entries != null ? entries.get(attachmentId) : null;
+    }
+
+    /**
+     * Records a stored attachment in the index and releases whatever it replaces: the blob
+     * the previous entry referenced, and the previous reference or private copy if it was
+     * a different file. Must be called with the key's stripe held.
+     *
+     * @param materialId   The material ID
+     * @param attachmentId The attachment ID
+     * @param recordFile   The reference file, or the private copy itself
+     * @param file         The file holding the content
+     * @param sizeBytes    The content size in bytes
+     * @param blobHash     The hash of the referenced blob, or null for a private copy
+     */
+    private void putEntry(@NonNull String materialId,
+                          @NonNull String attachmentId,
+                          @NonNull File recordFile,
+                          @NonNull File file,
+                          long sizeBytes,
+                          @Nullable String blobHash) {
+        String mimeType = guessMimeType(extensionOf(recordFile.getName()));
+        IndexEntry entry = new IndexEntry(new AttachmentLocation(file, sizeBytes, mimeType),
+                recordFile, blobHash, System.currentTimeMillis());
+        IndexEntry previous = index.computeIfAbsent(materialId, id -> new ConcurrentHashMap<>())
+                .put(attachmentId, entry);
+        if (previous == null) {
+            return;
+        }
+        if (!previous.recordFile.equals(recordFile)) {
+            deleteFile(previous.recordFile);
+        }
+        releaseBlob(previous.blobHash);
+    }
+
+    /**
+     * Writes content to a uniquely named staging file in the blob directory, unless a blob
+     * with that content already exists. Runs without the blob lock so large writes do not
+     * block other materials.
+     *
+     * @param hash  The SHA-256 hash of the content, in lowercase hex
+     * @param bytes The content
+     * @return The existing blob, the staged file, or null if it could not be written
+     */
+    @Nullable
+    private File stageBlob(@NonNull String hash, @NonNull byte[] bytes) {
+        File blobDir = getBlobDirectory();
+        if (!ensureDirectory(blobDir)) {
+            return null;
+        }
+        File blob = getBlob(hash);
+        if (blob.exists()) {
+            return blob;
+        }
+        File staged = new File(blobDir,
+                TEMP_PREFIX + hash + "-" + stagedBlobCounter.incrementAndGet());
+        if (!writeToFile(staged, bytes)) {
+            deleteFile(staged);
+            return null;
+        }
+        return staged;
+    }
+
+    /**
+     * Moves a staged blob into place if needed, writes the material's reference file for it
+     * and counts the new reference. Must be called with the key's stripe held.
+     *
+     * @param materialDir   The material directory
+     * @param attachmentId  The attachment ID
+     * @param extension     The file extension, without the dot
+     * @param hash          The blob hash
+     * @param blobCandidate The blob itself or a staged copy of its content
+     * @return The reference file, or null if the blob could not be stored or referenced
+     */
+    @Nullable
+    private File referenceBlob(@NonNull File materialDir,
+                               @NonNull String attachmentId,
+                               @NonNull String extension,
+                               @NonNull String hash,
+                               @NonNull File blobCandidate) {
+        synchronized (blobLock) {
+            File blob = getBlob(hash);
+            if (!blobCandidate.equals(blob)) {
+                if (blob.exists()) {
+                    // Another writer stored the same content first
+                    deleteFile(blobCandidate);
+                } else if (!blobCandidate.renameTo(blob)) {
+                    deleteFile(blobCandidate);
+                    return null;
+                }
+            } else if (!blob.exists()) {
+                // Its last reference was released after it was looked up
+                return null;
+            }
+
+            File reference = new File(materialDir,
+                    attachmentId + "." + extension + "." + hash + REF_SUFFIX);
+            // Empty, so a partial write cannot leave it in an invalid state
+            if (!writeToFile(reference, new byte[0])) {
+                deleteFile(reference);
+                if (!blobRefCounts.containsKey(hash)) {
+                    deleteFile(blob);
+                }
+                return null;
+            }
+            blobRefCounts.merge(hash, 1, Integer::sum);
+            blobsByAttachment.put(attachmentId, new BlobLink(hash, extension));
+            return reference;
+        }
+    }
+
+    /**
+     * Drops one reference to a blob and deletes it when none remain.
+     *
+     * @param hash The blob hash, or null for a private copy, which holds no reference
+     */
+    private void releaseBlob(@Nullable String hash) {
+        if (hash == null) {
+            return;
+        }
+        synchronized (blobLock) {
+            Integer count = blobRefCounts.get(hash);
+            if (count == null || count <= 1) {
+                blobRefCounts.remove(hash);
+                deleteFile(getBlob(hash));
+            } else {
+                blobRefCounts.put(hash, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Writes bytes to a temporary file beside the target and renames it into place.
+     *
+     * @param target The file to write
+     * @param bytes  The bytes to write
+     * @return true if the target now holds the bytes, false otherwise
+     */
+    private boolean writeAtomically(@NonNull File target, @NonNull byte[] bytes) {
+        File temp = new File(target.getParentFile(), TEMP_PREFIX + target.getName());
+        if (!writeToFile(temp, bytes)) {
+            deleteFile(temp);
+            return false;
+        }
+        if (!temp.renameTo(target)) {
+            deleteFile(temp);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Loads the index from one scan of the attachment tree, if it is not loaded yet.
+     */
+    private void ensureIndexLoaded() {
+        if (indexLoaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (indexLoaded) {
+                return;
+            }
+            synchronized (blobLock) {
+                scanAttachmentTree();
+            }
+            reclaimLeftoverTrash();
+            indexLoaded = true;
+        }
+    }
+
+    /**
+     * Schedules deletion of cleared attachment roots that an earlier process did not finish
+     * deleting. Must be called with the load lock held, before the index is first loaded.
+     */
+    private void reclaimLeftoverTrash() {
+        File[] trash = baseDirectory.listFiles((dir, name) -> name.startsWith(TRASH_PREFIX));
+        if (trash != null) {
+            for (File directory : trash) {
+                scheduleReclaim(directory);
+            }
+        }
+    }
+
+    /**
+     * Deletes a cleared attachment root on the reclaim executor. Deletion that fails is
+     * retried the next time the index is loaded.
+     *
+     * @param trash The renamed attachment root; nothing happens if it does not exist
+     */
+    private void scheduleReclaim(@NonNull File trash) {
+        if (!trash.exists()) {
+            return;
+        }
+        reclaimExecutor.execute(() -> deleteDirectoryRecursively(trash));
+    }
+
+    /**
+     * Runs a reclaim task on a new low-priority daemon thread, so that deleting a large
+     * tree never competes with the UI or with downloads.
+     *
+     * @param task The task to run
+     */
+    private static void reclaimInBackground(@NonNull Runnable task) {
+        Thread thread = new Thread(task, "attachment-reclaim");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Indexes every attachment file on disk and counts blob references, reading blob hashes
+     * from reference file names. Temporary files, references to missing blobs and blobs no
+     * attachment references are deleted. Must be called with the blob lock held and no
+     * concurrent writers.
+     */
+    private void scanAttachmentTree() {
+        Map<String, File> blobsByHash = new HashMap<>();
+        File[] blobs = getBlobDirectory().listFiles();
+        if (blobs != null) {
+            for (File blob : blobs) {
+                if (blob.getName().startsWith(TEMP_PREFIX)) {
+                    deleteFile(blob);
+                } else {
+                    blobsByHash.put(blob.getName(), blob);
+                }
+            }
+        }
+
+        File[] materialDirs = getAttachmentsRootDirectory().listFiles();
+        if (materialDirs != null) {
+            for (File materialDir : materialDirs) {
+                if (!BLOBS_DIR.equals(materialDir.getName())) {
+                    scanMaterialDirectory(materialDir, blobsByHash);
+                }
+            }
+        }
+
+        for (Map.Entry<String, File> blob : blobsByHash.entrySet()) {
+            if (!blobRefCounts.containsKey(blob.getKey())) {
+                deleteFile(blob.getValue());
+            }
+        }
+    }
+
+    /**
+     * Indexes the attachment files of one material directory.
+     *
+     * @param materialDir The material directory
+     * @param blobsByHash The blobs on disk, keyed by hash
+     */
+    private void scanMaterialDirectory(@NonNull File materialDir,
+                                       @NonNull Map<String, File> blobsByHash) {
+        File[] files = materialDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        String materialId = materialDir.getName();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(TEMP_PREFIX)) {
+                deleteFile(file);
+                continue;
+            }
+            String hash = null;
+            File content = file;
+            if (isReferenceName(name)) {
+                String withHash = name.substring(0, name.length() - REF_SUFFIX.length());
+                hash = withHash.substring(withHash.length() - HASH_LENGTH);
+                content = blobsByHash.get(hash);
+                if (content == null) {
+                    // Its blob was lost with an interrupted save or clear
+                    deleteFile(file);
+                    continue;
+                }
+                name = withHash.substring(0, withHash.length() - HASH_LENGTH - 1);
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot <= 0 || dot == name.length() - 1 || !file.isFile()) {
+                continue;
+            }
+            String attachmentId = name.substring(0, dot);
+            String extension = name.substring(dot + 1);
+            IndexEntry entry = new IndexEntry(
+                    new AttachmentLocation(content, content.length(), guessMimeType(extension)),
+                    file, hash, file.lastModified());
+            index.computeIfAbsent(materialId, id -> new ConcurrentHashMap<>())
+                    .put(attachmentId, entry);
+            if (hash != null) {
+                blobRefCounts.merge(hash, 1, Integer::sum);
+                blobsByAttachment.put(attachmentId, new BlobLink(hash, extension));
+            }
+        }
+    }
+
     /**
      * Recursively deletes a directory and all its contents.
      *
@@ -240,6 +844,16 @@ public class FileStorageManager {
         return deleteFile(directory);
     }
 
+    /**
+     * Ensures a directory exists, tolerating another writer creating it concurrently.
+     *
+     * @param directory The directory
+     * @return true if the directory exists, false if it could not be created
+     */
+    private boolean ensureDirectory(@NonNull File directory) {
+        return directory.isDirectory() || createDirectory(directory) || directory.isDirectory();
+    }
+
     /**
      * Creates a directory. This method is protected to allow testing of failure scenarios.
      *
@@ -251,7 +865,9 @@ public class FileStorageManager {
     }
 
     /**
-     * Writes bytes to a file. This method is protected to allow testing of failure scenarios.
+     * Writes bytes to a file and syncs them to storage before returning, so that a file
+     * renamed into place afterwards cannot be left truncated by a crash or power loss.
+     * This method is protected to allow testing of failure scenarios.
      *
      * @param file  The file to write to
      * @param bytes The bytes to write
@@ -260,12 +876,25 @@ public class FileStorageManager {
     protected boolean writeToFile(@NonNull File file, @NonNull byte[] bytes) {
         try (FileOutputStream fos = new FileOutputStream(file)) {
             fos.write(bytes);
+            fos.getFD().sync();
             return true;
         } catch (IOException e) {
             return false;
         }
     }
 
+    /**
+     * Renames a file or directory. This method is protected to allow testing of failure
+     * scenarios.
+     *
+     * @param source The file or directory to rename
+     * @param target The new name
+     * @return true if the rename was successful, false otherwise
+     */
+    protected boolean renameFile(@NonNull File source, @NonNull File target) {
+        return source.renameTo(target);
+    }
+
     /**
      * Deletes a file or directory. This method is protected to allow testing of failure scenarios.
      *
@@ -276,6 +905,84 @@ public class FileStorageManager {
         return file.delete();
     }
 
+    /**
+     * Gets the writer lock stripe for an attachment key.
+     *
+     * @param materialId   The material ID
+     * @param attachmentId The attachment ID
+     * @return The stripe's lock
+     */
+    @NonNull
+    private ReentrantLock stripeFor(@NonNull String materialId, @NonNull String attachmentId) {
+        int hash = 31 * materialId.hashCode() + attachmentId.hashCode();
+        return stripes[(hash & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    /**
+     * Takes every stripe, always in the same order.
+     */
+    private void lockAllStripes() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    /**
+     * Releases every stripe taken by {@link #lockAllStripes()}.
+     */
+    private void unlockAllStripes() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    /**
+     * Creates the writer lock stripes.
+     */
+    private void initStripes() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Checks whether a file name has the shape of a reference file:
+     * {@code {attachmentId}.{ext}.{sha256}.ref}.
+     *
+     * @param name The file name
+     * @return true if the name is a reference file name, false otherwise
+     */
+    private static boolean isReferenceName(@NonNull String name) {
+        int hashStart = name.length() - REF_SUFFIX.length() - HASH_LENGTH;
+        return name.endsWith(REF_SUFFIX) && hashStart > 0 && name.charAt(hashStart - 1) == '.';
+    }
+
+    /**
+     * Gets the attachment's extension from the name of its reference file or private copy.
+     *
+     * @param name The file name
+     * @return The extension, without the dot
+     */
+    @NonNull
+    private static String extensionOf(@NonNull String name) {
+        String fileName = isReferenceName(name)
+                ? name.substring(0, name.length() - REF_SUFFIX.length() - HASH_LENGTH - 1)
+                : name;
+        return fileName.substring(fileName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Guesses a MIME type from a file extension.
+     *
+     * @param extension The extension, without the dot
+     * @return The MIME type, or {@link #DEFAULT_MIME_TYPE} if the extension is unknown
+     */
+    @NonNull
+    private static String guessMimeType(@NonNull String extension) {
+        String mimeType = URLConnection.guessContentTypeFromName("attachment." + extension);
+        return mimeType != null ? mimeType : DEFAULT_MIME_TYPE;
+    }
+
     /**
      * Validates that the material ID is not null or empty and does not contain path traversal.
      *
@@ -289,6 +996,9 @@ public class FileStorageManager {
         if (containsPathTraversalCharacters(materialId)) {
             throw new IllegalArgumentException("Material ID contains invalid path characters");
         }
+        if (BLOBS_DIR.equals(materialId)) {
+            throw new IllegalArgumentException("Material ID is reserved");
+        }
     }
 
     /**
@@ -330,4 +1040,70 @@ public class FileStorageManager {
     private boolean containsPathTraversalCharacters(@NonNull String input) {
         return input.contains("..") || input.contains("/") || input.contains("\\");
     }
+
+    /**
+     * An indexed attachment: where its content is, the file recording it for the material,
+     * which blob it references, and when it was last used.
+     */
+    private static final class IndexEntry {
+
+        /** The attachment's location, size and MIME type. */
+        @NonNull
+        final AttachmentLocation location;
+
+        /** The reference file, or the private copy itself; deleted with the attachment. */
+        @NonNull
+        final File recordFile;
+
+        /** The hash of the referenced blob, or null for a private copy. */
+        @Nullable
+        final String blobHash;
+
+        /** When the attachment was last saved or looked up, in epoch milliseconds. */
+        volatile long lastAccessMillis;
+
+        /**
+         * Creates an IndexEntry.
+         *
+         * @param location         The attachment's location
+         * @param recordFile       The reference file, or the private copy itself
+         * @param blobHash         The referenced blob's hash, or null for a private copy
+         * @param lastAccessMillis When the attachment was last saved or looked up
+         */
+        IndexEntry(@NonNull AttachmentLocation location,
+                   @NonNull File recordFile,
+                   @Nullable String blobHash,
+                   long lastAccessMillis) {
+            this.location = location;
+            this.recordFile = recordFile;
+            this.blobHash = blobHash;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+
+    /**
+     * The blob most recently stored for an attachment ID, with the file extension it was
+     * saved under.
+     */
+    private static final class BlobLink {
+
+        /** The blob hash. */
+        @NonNull
+        final String hash;
+
+        /** The file extension, without the dot. */
+        @NonNull
+        final String extension;
+
+        /**
+         * Creates a BlobLink.
+         *
+         * @param hash      The blob hash
+         * @param extension The file extension, without the dot
+         */
+        BlobLink(@NonNull String hash, @NonNull String extension) {
+            this.hash = hash;
+            this.extension = extension;
+        }
+    }
 }
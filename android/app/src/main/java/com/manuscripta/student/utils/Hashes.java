@@ -0,0 +1,73 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashing shared by the content-addressed stores and the distribution manifest.
+ *
+ * <p>Hashes are rendered as lowercase hexadecimal, which is how they are stored in file
+ * names and in the manifest, so every caller must produce them the same way.</p>
+ */
+public final class Hashes {
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private Hashes() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Creates a SHA-256 digest, for hashing content fed in several parts.
+     *
+     * @return A new digest instance
+     */
+    @NonNull
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java and Android runtime is required to provide SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of content as lowercase hex.
+     *
+     * @param bytes The content
+     * @return The hex hash
+     * @throws IllegalArgumentException if bytes is null
+     */
+    @NonNull
+    public static String sha256Hex(@NonNull byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Bytes cannot be null");
+        }
+        return toHex(newSha256().digest(bytes));
+    }
+
+    /**
+     * Encodes bytes as lowercase hexadecimal.
+     *
+     * @param bytes The bytes to encode
+     * @return The hex string
+     * @throws IllegalArgumentException if bytes is null
+     */
+    @NonNull
+    public static String toHex(@NonNull byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Bytes cannot be null");
+        }
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & 0xFF;
+            hex[i * 2] = Character.forDigit(value >>> 4, 16);
+            hex[i * 2 + 1] = Character.forDigit(value & 0x0F, 16);
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,141 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets.
+ *
+ * <p>Bucket {@code i} counts samples in {@code [2^(i-1), 2^i)} microseconds, with bucket 0
+ * holding sub-microsecond samples and the last bucket absorbing everything above 2^30
+ * microseconds, roughly 18 minutes. Recording a sample is two atomic increments and one
+ * atomic add, so the histogram is cheap enough to keep enabled in release builds.
+ * Percentiles are reported as the upper bound of the bucket they fall in, which is accurate
+ * to within a factor of two.</p>
+ */
+public final class LatencyHistogram {
+
+    /** Number of buckets; bucket 31 covers samples of 2^30 microseconds and above. */
+    static final int BUCKET_COUNT = 32;
+
+    /** Sample counts per bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Total number of recorded samples. */
+    private final AtomicLong count = new AtomicLong();
+
+    /** Sum of all recorded samples in nanoseconds. */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /**
+     * Records a single sample. Negative durations are ignored.
+     *
+     * @param durationNanos The sample duration in nanoseconds
+     */
+    public void record(long durationNanos) {
+        if (durationNanos < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucketFor(durationNanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(durationNanos);
+    }
+
+    /**
+     * Gets the number of recorded samples.
+     *
+     * @return The sample count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the mean sample duration.
+     *
+     * @return The mean in milliseconds, or 0 if no samples were recorded
+     */
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) totalNanos.get() / n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Estimates the given percentile.
+     *
+     * @param percentile The percentile in the range (0, 100]
+     * @return The upper bound of the bucket containing the percentile, in milliseconds,
+     *         or 0 if no samples were recorded
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    public double getPercentileMillis(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]");
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100d);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return bucketUpperBoundMicros(i) / 1000d;
+            }
+        }
+        return bucketUpperBoundMicros(BUCKET_COUNT - 1) / 1000d;
+    }
+
+    /**
+     * Clears all recorded samples.
+     * Not atomic with respect to concurrent {@link #record(long)} calls.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+    }
+
+    /**
+     * Maps a duration to its bucket index.
+     *
+     * @param durationNanos The non-negative duration in nanoseconds
+     * @return The bucket index
+     */
+    static int bucketFor(long durationNanos) {
+        long micros = durationNanos / 1000;
+        int index = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Gets the exclusive upper bound of a bucket.
+     *
+     * @param index The bucket index
+     * @return The upper bound in microseconds
+     */
+    static long bucketUpperBoundMicros(int index) {
+        return 1L << index;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "n=%d mean=%.1fms p50<=%.1fms p90<=%.1fms p99<=%.1fms",
+                getCount(), getMeanMillis(), getPercentileMillis(50),
+                getPercentileMillis(90), getPercentileMillis(99));
+    }
+}
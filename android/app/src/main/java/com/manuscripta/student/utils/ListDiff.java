@@ -0,0 +1,218 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The difference between two emissions of an observable list, matched by key.
+ *
+ * <p>Room re-runs an observable query whenever any table it reads is written, so a list
+ * observer is woken by writes that leave its rows exactly as they were, such as a
+ * distribution that touches only other materials' questions. {@link #diffing} compares
+ * each emission with the one before it and passes on only those that added, changed or
+ * removed an item, together with which ones, so observers can react to just those items
+ * instead of treating every emission as a new list.</p>
+ *
+ * @param <T> The type of list item, which must implement {@code equals}
+ */
+public final class ListDiff<T> {
+
+    /** The list as emitted. */
+    @NonNull
+    private final List<T> items;
+
+    /** Items whose key was not in the previous list. */
+    @NonNull
+    private final List<T> added;
+
+    /** Items whose key was in the previous list with an unequal item. */
+    @NonNull
+    private final List<T> changed;
+
+    /** Keys in the previous list that are no longer present. */
+    @NonNull
+    private final Set<String> removedKeys;
+
+    /** Gets the key identifying an item across lists. */
+    @NonNull
+    private final Function<T, String> keyOf;
+
+    /**
+     * Creates a diff.
+     *
+     * @param items       The list as emitted
+     * @param added       Items whose key was not in the previous list
+     * @param changed     Items whose key was in the previous list with an unequal item
+     * @param removedKeys Keys in the previous list that are no longer present
+     * @param keyOf       Gets the key identifying an item across lists
+     */
+    private ListDiff(@NonNull List<T> items,
+                     @NonNull List<T> added,
+                     @NonNull List<T> changed,
+                     @NonNull Set<String> removedKeys,
+                     @NonNull Function<T, String> keyOf) {
+        this.items = Collections.unmodifiableList(items);
+        this.added = Collections.unmodifiableList(added);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removedKeys = Collections.unmodifiableSet(removedKeys);
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Compares a list with the one before it. Every item of the first list is added.
+     *
+     * @param previous The previous list, or null if this is the first
+     * @param current  The current list
+     * @param keyOf    Gets the key identifying an item across lists
+     * @param <T>      The type of list item
+     * @return The difference
+     * @throws IllegalArgumentException if current or keyOf is null
+     */
+    @NonNull
+    public static <T> ListDiff<T> compute(@Nullable List<T> previous,
+                                          @NonNull List<T> current,
+                                          @NonNull Function<T, String> keyOf) {
+        if (current == null) {
+            throw new IllegalArgumentException("Current list cannot be null");
+        }
+        if (keyOf == null) {
+            throw new IllegalArgumentException("Key function cannot be null");
+        }
+        List<T> currentItems = new ArrayList<>(current);
+        if (previous == null || previous.isEmpty()) {
+            return new ListDiff<>(currentItems, currentItems, Collections.emptyList(),
+                    Collections.emptySet(), keyOf);
+        }
+        Map<String, T> before = new HashMap<>(previous.size() * 2);
+        for (T item : previous) {
+            before.put(keyOf.apply(item), item);
+        }
+        List<T> added = new ArrayList<>();
+        List<T> changed = new ArrayList<>();
+        for (T item : currentItems) {
+            String key = keyOf.apply(item);
+            T old = before.remove(key);
+            if (old == null) {
+                added.add(item);
+            } else if (!old.equals(item)) {
+                changed.add(item);
+            }
+        }
+        return new ListDiff<>(currentItems, added, changed, new HashSet<>(before.keySet()),
+                keyOf);
+    }
+
+    /**
+     * Wraps an observable list so that it emits a diff against the previous list, and only
+     * when an item was added, changed or removed. The first list is always emitted, with
+     * every item added. Null emissions are ignored.
+     *
+     * @param source The observable list
+     * @param keyOf  Gets the key identifying an item across lists
+     * @param <T>    The type of list item
+     * @return The observable diffs
+     * @throws IllegalArgumentException if source or keyOf is null
+     */
+    @NonNull
+    public static <T> LiveData<ListDiff<T>> diffing(@NonNull LiveData<List<T>> source,
+                                                    @NonNull Function<T, String> keyOf) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source cannot be null");
+        }
+        if (keyOf == null) {
+            throw new IllegalArgumentException("Key function cannot be null");
+        }
+        MediatorLiveData<ListDiff<T>> result = new MediatorLiveData<>();
+        result.addSource(source, list -> {
+            if (list == null) {
+                return;
+            }
+            ListDiff<T> last = result.getValue();
+            ListDiff<T> diff = compute(last != null ? last.items : null, list, keyOf);
+            if (last == null || diff.hasChanges()) {
+                result.setValue(diff);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the list as emitted.
+     *
+     * @return The items, in emitted order
+     */
+    @NonNull
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the items whose key was not in the previous list.
+     *
+     * @return The added items, in emitted order
+     */
+    @NonNull
+    public List<T> getAdded() {
+        return added;
+    }
+
+    /**
+     * Gets the items whose key was in the previous list with an unequal item.
+     *
+     * @return The changed items, in emitted order
+     */
+    @NonNull
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Gets the keys in the previous list that are no longer present.
+     *
+     * @return The removed keys
+     */
+    @NonNull
+    public Set<String> getRemovedKeys() {
+        return removedKeys;
+    }
+
+    /**
+     * Checks whether anything was added, changed or removed.
+     *
+     * @return true if the list differs from the previous one
+     */
+    public boolean hasChanges() {
+        return !added.isEmpty() || !changed.isEmpty() || !removedKeys.isEmpty();
+    }
+
+    /**
+     * Checks whether the item with the given key was added or changed.
+     *
+     * @param key The key of the item
+     * @return true if an item with the key is among the added or changed items
+     */
+    public boolean isAddedOrChanged(@NonNull String key) {
+        for (T item : changed) {
+            if (key.equals(keyOf.apply(item))) {
+                return true;
+            }
+        }
+        for (T item : added) {
+            if (key.equals(keyOf.apply(item))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A snapshot of one attachment in {@link FileStorageManager}'s index, as used for storage
+ * accounting and eviction.
+ */
+public final class StoredAttachment {
+
+    /** The material the attachment is stored for. */
+    @NonNull
+    private final String materialId;
+
+    /** The attachment ID. */
+    @NonNull
+    private final String attachmentId;
+
+    /** The attachment's file, size and MIME type. */
+    @NonNull
+    private final AttachmentLocation location;
+
+    /** When the attachment was last saved or looked up, in epoch milliseconds. */
+    private final long lastAccessMillis;
+
+    /** The hash of the content blob shared by identical attachments, or null for a private copy. */
+    @Nullable
+    private final String contentHash;
+
+    /**
+     * Creates a new StoredAttachment.
+     *
+     * @param materialId       The material the attachment is stored for
+     * @param attachmentId     The attachment ID
+     * @param location         The attachment's file, size and MIME type
+     * @param lastAccessMillis When the attachment was last saved or looked up
+     * @param contentHash      The content blob hash, or null for a private copy
+     */
+    public StoredAttachment(@NonNull String materialId,
+                            @NonNull String attachmentId,
+                            @NonNull AttachmentLocation location,
+                            long lastAccessMillis,
+                            @Nullable String contentHash) {
+        this.materialId = materialId;
+        this.attachmentId = attachmentId;
+        this.location = location;
+        this.lastAccessMillis = lastAccessMillis;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Gets the material the attachment is stored for.
+     *
+     * @return The material ID
+     */
+    @NonNull
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    /**
+     * Gets the attachment ID.
+     *
+     * @return The attachment ID
+     */
+    @NonNull
+    public String getAttachmentId() {
+        return attachmentId;
+    }
+
+    /**
+     * Gets the attachment's file, size and MIME type.
+     *
+     * @return The attachment location
+     */
+    @NonNull
+    public AttachmentLocation getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets when the attachment was last saved or looked up.
+     *
+     * @return The time in epoch milliseconds
+     */
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    /**
+     * Gets the hash of the content blob. Attachments with the same hash share their bytes
+     * on disk, so the space is only freed when the last of them is deleted.
+     *
+     * @return The content hash, or null if the attachment is a private copy
+     */
+    @Nullable
+    public String getContentHash() {
+        return contentHash;
+    }
+}
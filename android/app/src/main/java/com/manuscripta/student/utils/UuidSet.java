@@ -0,0 +1,346 @@
+package com.manuscripta.student.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent set of ID strings that stores canonical UUIDs as two longs.
+ *
+ * <p>IDs in canonical lowercase form ({@code xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx}) are
+ * parsed into their most and least significant bits and kept in an open-addressing table
+ * with linear probing, at 16 bytes per slot instead of a {@code String} and a
+ * {@code HashMap} node per entry. Any other string is kept in a fallback set, so the set
+ * behaves exactly like a {@code Set<String>} for every input.</p>
+ *
+ * <p>{@link #contains} never locks. Writers are serialised on the set's monitor. An add
+ * writes the low bits of a free slot before publishing the high bits, and an empty slot
+ * is one whose high bits are zero, so a concurrent reader sees either the whole key or
+ * an empty slot. Removals and resizes build a new table and swap it in. UUIDs whose high
+ * bits are zero (no RFC 4122 version) go to the fallback set.</p>
+ */
+public final class UuidSet {
+
+    /** Length of a canonical UUID string. */
+    private static final int UUID_LENGTH = 36;
+
+    /** Smallest number of slots in the table. Always a power of two. */
+    private static final int MIN_CAPACITY = 16;
+
+    /** The table is grown once more than half its slots are used. */
+    private static final int MAX_LOAD_DIVISOR = 2;
+
+    /** Current table. Replaced wholesale on resize and removal. */
+    private volatile Table table;
+
+    /** IDs that are not canonical UUIDs. */
+    private final Set<String> others = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates an empty set.
+     */
+    public UuidSet() {
+        this.table = new Table(MIN_CAPACITY);
+    }
+
+    /**
+     * Checks whether the set contains an ID.
+     *
+     * @param id The ID to look up
+     * @return true if the ID has been added and not removed since
+     */
+    public boolean contains(@NonNull String id) {
+        long[] key = parse(id);
+        if (key == null) {
+            return others.contains(id);
+        }
+        return table.indexOf(key[0], key[1]) >= 0;
+    }
+
+    /**
+     * Adds an ID.
+     *
+     * @param id The ID to add
+     * @return true if the ID was not already present
+     */
+    public boolean add(@NonNull String id) {
+        long[] key = parse(id);
+        if (key == null) {
+            return others.add(id);
+        }
+        synchronized (this) {
+            return insert(key[0], key[1]);
+        }
+    }
+
+    /**
+     * Adds every ID in a collection, growing the table at most once.
+     *
+     * @param ids The IDs to add
+     */
+    public void addAll(@NonNull Collection<String> ids) {
+        synchronized (this) {
+            ensureCapacity(table.size + ids.size());
+            for (String id : ids) {
+                long[] key = parse(id);
+                if (key == null) {
+                    others.add(id);
+                } else {
+                    insert(key[0], key[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id The ID to remove
+     * @return true if the ID was present
+     */
+    public boolean remove(@NonNull String id) {
+        long[] key = parse(id);
+        if (key == null) {
+            return others.remove(id);
+        }
+        synchronized (this) {
+            Table current = table;
+            int index = current.indexOf(key[0], key[1]);
+            if (index < 0) {
+                return false;
+            }
+            // Linear probing cannot simply empty a slot, so rebuild without the key
+            Table rebuilt = new Table(current.capacity());
+            for (int slot = 0; slot < current.capacity(); slot++) {
+                long high = current.high(slot);
+                if (high != 0 && slot != index) {
+                    rebuilt.put(high, current.low(slot));
+                }
+            }
+            table = rebuilt;
+            return true;
+        }
+    }
+
+    /**
+     * Removes every ID.
+     */
+    public void clear() {
+        synchronized (this) {
+            table = new Table(MIN_CAPACITY);
+            others.clear();
+        }
+    }
+
+    /**
+     * Gets the number of IDs in the set.
+     *
+     * @return The number of IDs
+     */
+    public int size() {
+        return table.size + others.size();
+    }
+
+    /**
+     * Inserts a parsed UUID, growing the table if needed. Callers must hold the monitor.
+     *
+     * @param high The most significant bits
+     * @param low  The least significant bits
+     * @return true if the key was not already present
+     */
+    private boolean insert(long high, long low) {
+        if (table.indexOf(high, low) >= 0) {
+            return false;
+        }
+        ensureCapacity(table.size + 1);
+        table.put(high, low);
+        return true;
+    }
+
+    /**
+     * Replaces the table with a larger one if it cannot hold the given number of keys
+     * within the load factor. Callers must hold the monitor.
+     *
+     * @param expectedSize The number of keys the table must hold
+     */
+    private void ensureCapacity(int expectedSize) {
+        Table current = table;
+        if ((long) expectedSize * MAX_LOAD_DIVISOR <= current.capacity()) {
+            return;
+        }
+        int capacity = current.capacity();
+        while ((long) expectedSize * MAX_LOAD_DIVISOR > capacity) {
+            capacity <<= 1;
+        }
+        Table grown = new Table(capacity);
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            long high = current.high(slot);
+            if (high != 0) {
+                grown.put(high, current.low(slot));
+            }
+        }
+        table = grown;
+    }
+
+    /**
+     * Parses a canonical lowercase UUID string.
+     *
+     * <p>Only the exact canonical form is accepted, so that distinct strings never map
+     * to the same key. {@link java.util.UUID#fromString} is more lenient than that and
+     * throws on failure, which would be costly for non-UUID IDs.</p>
+     *
+     * @param id The string to parse
+     * @return The most and least significant bits, or null if the string is not a
+     *         canonical UUID or its high bits are zero
+     */
+    @Nullable
+    static long[] parse(@NonNull String id) {
+        if (id.length() != UUID_LENGTH) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                value = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits < 16) {
+                high = (high << 4) | value;
+            } else {
+                low = (low << 4) | value;
+            }
+            digits++;
+        }
+        if (high == 0) {
+            return null;
+        }
+        return new long[] {high, low};
+    }
+
+    /**
+     * Mixes the bits of a key into a slot hash (the MurmurHash3 64-bit finaliser).
+     *
+     * @param high The most significant bits
+     * @param low  The least significant bits
+     * @return The hash
+     */
+    private static long hash(long high, long low) {
+        long h = high * 31 + low;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Open-addressing table of two-long keys. Slot {@code i} occupies indices
+     * {@code 2i} (high bits) and {@code 2i + 1} (low bits) of the array.
+     */
+    private static final class Table {
+
+        /** Interleaved high and low bits of each slot. */
+        private final AtomicLongArray slots;
+
+        /** Mask selecting a slot index from a hash. */
+        private final int mask;
+
+        /** Number of occupied slots. Written under the set's monitor. */
+        private volatile int size;
+
+        /**
+         * Creates an empty table.
+         *
+         * @param capacity Number of slots, a power of two
+         */
+        Table(int capacity) {
+            this.slots = new AtomicLongArray(capacity * 2);
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Gets the number of slots.
+         *
+         * @return The capacity
+         */
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Gets the high bits stored in a slot.
+         *
+         * @param slot The slot index
+         * @return The high bits, or zero if the slot is empty
+         */
+        long high(int slot) {
+            return slots.get(slot * 2);
+        }
+
+        /**
+         * Gets the low bits stored in a slot.
+         *
+         * @param slot The slot index
+         * @return The low bits
+         */
+        long low(int slot) {
+            return slots.get(slot * 2 + 1);
+        }
+
+        /**
+         * Finds the slot holding a key.
+         *
+         * @param high The most significant bits
+         * @param low  The least significant bits
+         * @return The slot index, or -1 if the key is absent
+         */
+        int indexOf(long high, long low) {
+            int slot = (int) hash(high, low) & mask;
+            while (true) {
+                long storedHigh = high(slot);
+                if (storedHigh == 0) {
+                    return -1;
+                }
+                if (storedHigh == high && low(slot) == low) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Stores a key that is known to be absent. The table must have a free slot.
+         *
+         * @param high The most significant bits, not zero
+         * @param low  The least significant bits
+         */
+        void put(long high, long low) {
+            int slot = (int) hash(high, low) & mask;
+            while (high(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            // Low bits first: readers treat the slot as empty until the high bits land
+            slots.set(slot * 2 + 1, low);
+            slots.set(slot * 2, high);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.manuscripta.student.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Minimal measurement helpers shared by JVM micro-benchmarks.
+ *
+ * <p>Each measurement runs a warm-up phase so the JIT has compiled the hot path, then times
+ * a fixed number of iterations with {@link System#nanoTime()}. Allocation per operation is
+ * read from HotSpot's per-thread allocation counter when the running JVM exposes it, and
+ * reported as {@code -1} otherwise.</p>
+ */
+public final class BenchmarkSupport {
+
+    /** Number of untimed iterations run before measuring. */
+    private static final int WARMUP_ITERATIONS = 200;
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private BenchmarkSupport() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Result of a single benchmark measurement.
+     */
+    public static final class Measurement {
+
+        /** Human-readable name of the measured operation. */
+        public final String name;
+
+        /** Mean wall-clock time per operation in nanoseconds. */
+        public final double nanosPerOp;
+
+        /** Mean bytes allocated per operation, or -1 if unavailable. */
+        public final double bytesPerOp;
+
+        Measurement(String name, double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        /**
+         * Gets the throughput in operations per second.
+         *
+         * @return Operations per second
+         */
+        public double opsPerSecond() {
+            return nanosPerOp > 0 ? 1_000_000_000d / nanosPerOp : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %12.1f ops/s %12.0f ns/op %12.0f B/op",
+                    name, opsPerSecond(), nanosPerOp, bytesPerOp);
+        }
+    }
+
+    /**
+     * Measures the given operation.
+     *
+     * @param name       Name used when printing the result
+     * @param iterations Number of timed iterations
+     * @param operation  The operation; its result is consumed to prevent dead-code elimination
+     * @return The measurement, which is also printed to standard output
+     * @throws Exception if the operation throws
+     */
+    public static Measurement measure(String name, int iterations, Callable<?> operation)
+            throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.call();
+        }
+
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = currentThreadAllocatedBytes();
+
+        double bytesPerOp = allocatedBefore >= 0 && allocatedAfter >= 0
+                ? (double) (allocatedAfter - allocatedBefore) / iterations
+                : -1;
+        Measurement measurement =
+                new Measurement(name, (double) elapsed / iterations, bytesPerOp);
+        System.out.println(measurement + (sink == null ? " (null result)" : ""));
+        return measurement;
+    }
+
+    /**
+     * Reads the allocation counter for the current thread.
+     *
+     * @return Bytes allocated by the current thread so far, or -1 if unsupported
+     */
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
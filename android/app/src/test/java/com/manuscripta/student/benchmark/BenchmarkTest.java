@@ -0,0 +1,13 @@
+package com.manuscripta.student.benchmark;
+
+/**
+ * Marker interface for JUnit {@code @Category} filtering.
+ *
+ * <p>Micro-benchmarks are annotated with {@code @Category(BenchmarkTest.class)} so they
+ * can be excluded from the default {@code ./gradlew test} run and included explicitly
+ * with {@code ./gradlew test -Pbenchmark}. Benchmarks report their measurements through
+ * standard output and only assert on correctness, never on timings, so results from
+ * shared CI machines cannot cause spurious failures.</p>
+ */
+public interface BenchmarkTest {
+}
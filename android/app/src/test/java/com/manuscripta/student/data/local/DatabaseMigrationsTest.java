@@ -0,0 +1,281 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.room.migration.Migration;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.manuscripta.student.data.model.FeedbackCursorEntity;
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link DatabaseMigrations}.
+ *
+ * <p>A database is created with the version 10 schema, filled with data, and then opened
+ * through Room with the migrations registered. Room validates the migrated schema
+ * against the entities when it opens the database and throws if they differ.</p>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class DatabaseMigrationsTest {
+
+    private static final String DB_NAME = "migration-test.db";
+
+    /** The version 10 schema, as Room generated it from the entities at that version. */
+    private static final String[] SCHEMA_V10 = {
+        "CREATE TABLE IF NOT EXISTS `materials` (`id` TEXT NOT NULL, `type` TEXT NOT NULL, "
+                + "`title` TEXT NOT NULL, `content` TEXT, `metadata` TEXT, "
+                + "`vocabularyTerms` TEXT, `timestamp` INTEGER NOT NULL, PRIMARY KEY(`id`))",
+        "CREATE TABLE IF NOT EXISTS `questions` (`id` TEXT NOT NULL, "
+                + "`materialId` TEXT NOT NULL, `questionText` TEXT NOT NULL, "
+                + "`questionType` TEXT NOT NULL, `options` TEXT, `correctAnswer` TEXT, "
+                + "`maxScore` INTEGER DEFAULT NULL, PRIMARY KEY(`id`), "
+                + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                + "ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_questions_materialId` ON `questions` (`materialId`)",
+        "CREATE TABLE IF NOT EXISTS `responses` (`id` TEXT NOT NULL, "
+                + "`questionId` TEXT NOT NULL, `answer` TEXT NOT NULL, "
+                + "`isCorrect` INTEGER NOT NULL, `timestamp` INTEGER NOT NULL, "
+                + "`synced` INTEGER NOT NULL, `deviceId` TEXT NOT NULL, PRIMARY KEY(`id`), "
+                + "FOREIGN KEY(`questionId`) REFERENCES `questions`(`id`) "
+                + "ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_responses_questionId` ON `responses` (`questionId`)",
+        "CREATE TABLE IF NOT EXISTS `sessions` (`id` TEXT NOT NULL, "
+                + "`materialId` TEXT NOT NULL, `startTime` INTEGER NOT NULL, "
+                + "`endTime` INTEGER NOT NULL, `status` TEXT NOT NULL, "
+                + "`deviceId` TEXT NOT NULL, PRIMARY KEY(`id`), "
+                + "FOREIGN KEY(`materialId`) REFERENCES `materials`(`id`) "
+                + "ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_sessions_materialId` ON `sessions` (`materialId`)",
+        "CREATE TABLE IF NOT EXISTS `device_status` (`deviceId` TEXT NOT NULL, "
+                + "`status` TEXT NOT NULL, `batteryLevel` INTEGER NOT NULL, "
+                + "`currentMaterialId` TEXT, `studentView` TEXT, "
+                + "`lastUpdated` INTEGER NOT NULL, PRIMARY KEY(`deviceId`))",
+        "CREATE TABLE IF NOT EXISTS `feedback` (`id` TEXT NOT NULL, "
+                + "`responseId` TEXT NOT NULL, `text` TEXT, `marks` INTEGER, "
+                + "PRIMARY KEY(`id`), FOREIGN KEY(`responseId`) REFERENCES `responses`(`id`) "
+                + "ON UPDATE NO ACTION ON DELETE CASCADE )",
+        "CREATE INDEX IF NOT EXISTS `index_feedback_responseId` ON `feedback` (`responseId`)"
+    };
+
+    private Context context;
+    private ManuscriptaDatabase database;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(DB_NAME);
+    }
+
+    /**
+     * Creates a version 10 database holding one material with a question, a response,
+     * feedback and an active session.
+     */
+    private void createVersion10Database() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(
+                context.getDatabasePath(DB_NAME), null);
+        try {
+            for (String sql : SCHEMA_V10) {
+                db.execSQL(sql);
+            }
+            db.execSQL("INSERT INTO materials VALUES ('mat-1', 'WORKSHEET', 'Title', "
+                    + "'Content', '{}', '[]', 1000)");
+            db.execSQL("INSERT INTO questions VALUES ('q-1', 'mat-1', 'Question?', "
+                    + "'WRITTEN_ANSWER', '', '', NULL)");
+            db.execSQL("INSERT INTO responses VALUES ('r-1', 'q-1', 'Answer', 0, 2000, 0, "
+                    + "'device-1')");
+            db.execSQL("INSERT INTO feedback VALUES ('f-1', 'r-1', 'Good', 3)");
+            db.execSQL("INSERT INTO sessions VALUES ('s-1', 'mat-1', 1500, 0, 'ACTIVE', "
+                    + "'device-1')");
+            db.setVersion(10);
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Opens the test database through Room with the production migrations.
+     *
+     * @return The opened database
+     */
+    private ManuscriptaDatabase openWithMigrations() {
+        database = Room.databaseBuilder(context, ManuscriptaDatabase.class, DB_NAME)
+                .addMigrations(DatabaseMigrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        // Opening triggers the migrations and Room's schema validation
+        database.getOpenHelper().getWritableDatabase();
+        return database;
+    }
+
+    /**
+     * Lists the names of the indices Room created on a table.
+     *
+     * @param table The table name
+     * @return The index names
+     */
+    private Set<String> indexNames(String table) {
+        Set<String> names = new HashSet<>();
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase()
+                .query("PRAGMA index_list(`" + table + "`)")) {
+            int name = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(name));
+            }
+        }
+        return names;
+    }
+
+    @Test
+    public void testMigrateFrom10_keepsData() {
+        createVersion10Database();
+
+        ManuscriptaDatabase db = openWithMigrations();
+
+        assertNotNull(db.materialDao().getById("mat-1"));
+        assertNotNull(db.questionDao().getById("q-1"));
+        assertNotNull(db.responseDao().getById("r-1"));
+        assertNotNull(db.feedbackDao().getById("f-1"));
+        assertEquals(SessionStatus.ACTIVE, db.sessionDao().getById("s-1").getStatus());
+    }
+
+    @Test
+    public void testMigrateFrom10_seedsManifestForExistingMaterials() {
+        createVersion10Database();
+
+        List<MaterialManifestEntity> manifest =
+                openWithMigrations().distributionDao().getManifest();
+
+        assertEquals(1, manifest.size());
+        assertEquals("mat-1", manifest.get(0).getMaterialId());
+        assertEquals("", manifest.get(0).getContentHash());
+    }
+
+    @Test
+    public void testMigrateFrom10_feedbackCursorTableUsable() {
+        createVersion10Database();
+
+        ManuscriptaDatabase db = openWithMigrations();
+        db.feedbackDao().upsertCursor(new FeedbackCursorEntity("device-1", "c1"));
+
+        assertEquals("c1", db.feedbackDao().getCursor("device-1"));
+    }
+
+    @Test
+    public void testMigrateFrom10_tombstoneTableUsable() {
+        createVersion10Database();
+
+        ManuscriptaDatabase db = openWithMigrations();
+        db.responseDao().markSynced("r-1");
+
+        assertEquals(1, db.responseDao().pruneSyncedBefore(3000L));
+        assertEquals(Collections.singletonList("q-1"),
+                db.responseDao().getTombstonedQuestionIds());
+    }
+
+    @Test
+    public void testMigrateFrom10_keepsContentInlineWithoutHash() {
+        createVersion10Database();
+
+        ManuscriptaDatabase db = openWithMigrations();
+
+        MaterialEntity material = db.materialDao().getById("mat-1");
+        assertEquals("Content", material.getContent());
+        assertNull(material.getContentHash());
+        assertTrue(db.materialDao().getContentHashes().isEmpty());
+    }
+
+    @Test
+    public void testMigrateFrom10_storesIdsInBinaryForm() {
+        createVersion10Database();
+        String materialId = "550e8400-e29b-41d4-a716-446655440000";
+        SQLiteDatabase old = SQLiteDatabase.openDatabase(
+                context.getDatabasePath(DB_NAME).getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        try {
+            old.execSQL("INSERT INTO materials VALUES ('" + materialId + "', 'READING', "
+                    + "'Title', 'Content', '{}', '[]', 1000)");
+            old.execSQL("INSERT INTO sessions VALUES ('s-2', '" + materialId + "', 1500, 0, "
+                    + "'RECEIVED', 'device-1')");
+        } finally {
+            old.close();
+        }
+
+        ManuscriptaDatabase db = openWithMigrations();
+
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase().query(
+                "SELECT typeof(id), length(id) FROM materials ORDER BY length(id)")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("blob", cursor.getString(0));
+            // "mat-1" keeps its text, the UUID shrinks to 16 bytes
+            assertEquals(5, cursor.getInt(1));
+            assertTrue(cursor.moveToNext());
+            assertEquals(IdCodec.UUID_BYTES, cursor.getInt(1));
+        }
+        assertNotNull(db.materialDao().getById(materialId));
+        assertEquals(materialId, db.sessionDao().getById("s-2").getMaterialId());
+        assertEquals(1, db.sessionDao().getByMaterialId(materialId).size());
+        assertEquals("q-1", db.responseDao().getById("r-1").getQuestionId());
+    }
+
+    @Test
+    public void testMigrateFrom10_createsNewIndices() {
+        createVersion10Database();
+
+        openWithMigrations();
+
+        Set<String> responseIndices = indexNames("responses");
+        assertTrue(responseIndices.contains("index_responses_questionId_timestamp"));
+        assertTrue(responseIndices.contains("index_responses_synced_timestamp"));
+        assertTrue(responseIndices.contains("index_responses_deviceId"));
+        Set<String> sessionIndices = indexNames("sessions");
+        assertTrue(sessionIndices.contains("index_sessions_materialId_startTime"));
+        assertTrue(sessionIndices.contains("index_sessions_status_startTime"));
+    }
+
+    @Test
+    public void testDestructiveVersions_coverDevelopmentSchemasOnly() {
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9},
+                DatabaseMigrations.destructiveVersions());
+    }
+
+    @Test
+    public void testAll_chainsToCurrentVersion() {
+        int version = DatabaseMigrations.FIRST_MIGRATED_VERSION;
+        for (Migration migration : DatabaseMigrations.ALL) {
+            assertEquals(version, migration.startVersion);
+            version = migration.endVersion;
+        }
+        assertEquals(16, version);
+    }
+}
@@ -0,0 +1,205 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.manuscripta.student.data.model.DeviceStatus;
+import com.manuscripta.student.data.model.DeviceStatusEntity;
+import com.manuscripta.student.data.model.FeedbackCursorEntity;
+import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.data.model.ResponseEntity;
+import com.manuscripta.student.data.model.SessionEntity;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link DatabaseReclaimer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class DatabaseReclaimerTest {
+
+    private ManuscriptaDatabase database;
+    private List<Runnable> scheduled;
+    private DatabaseReclaimer reclaimer;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, ManuscriptaDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        scheduled = new ArrayList<>();
+        reclaimer = new DatabaseReclaimer(database, scheduled::add);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    public void testConstructor_nullDatabase_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DatabaseReclaimer(null, Runnable::run));
+    }
+
+    @Test
+    public void testClearAll_deletesEveryRowAndSchedulesReclaim() {
+        database.distributionDao().applyDelta(
+                Collections.singletonList(new MaterialEntity("mat-1", MaterialType.WORKSHEET,
+                        "Title", "Content", "{}", "[]", 1000L)),
+                Collections.singletonList(new QuestionEntity("q-1", "mat-1", "Why?",
+                        QuestionType.WRITTEN_ANSWER, "", "", null)),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.singletonList(new SessionEntity("s-1", "mat-1", 1L, 0L,
+                        SessionStatus.ACTIVE, "device-1")));
+        database.responseDao().insert(new ResponseEntity("r-1", "q-1", "answer", false, 1L,
+                true, "device-1"));
+        database.feedbackDao().insert(new FeedbackEntity("f-1", "r-1", "Good", 5));
+        database.feedbackDao().upsertCursor(new FeedbackCursorEntity("device-1", "cursor-1"));
+        database.deviceStatusDao().insert(new DeviceStatusEntity("device-1",
+                DeviceStatus.ON_TASK, 100, "mat-1", null, 1L));
+
+        reclaimer.clearAll();
+
+        assertEquals(0, database.materialDao().getCount());
+        assertEquals(0, database.questionDao().getCount());
+        assertEquals(0, database.sessionDao().getCount());
+        assertEquals(0, database.responseDao().getCount());
+        assertEquals(0, database.feedbackDao().getCount());
+        assertEquals(0, database.deviceStatusDao().getCount());
+        assertTrue(database.distributionDao().getManifest().isEmpty());
+        assertNull(database.feedbackDao().getCursor("device-1"));
+        assertEquals(1, scheduled.size());
+
+        // The rebuild runs on an empty database without disturbing it
+        scheduled.get(0).run();
+        assertEquals(0, database.materialDao().getCount());
+    }
+
+    @Test
+    public void testClearAll_runsClearListenerAfterDeleting() {
+        database.materialDao().insert(new MaterialEntity("mat-1", MaterialType.READING,
+                "Title", "Content", "{}", "[]", 1000L));
+        int[] countSeen = {-1};
+        reclaimer.addClearListener(() -> countSeen[0] = database.materialDao().getCount());
+
+        reclaimer.clearAll();
+
+        assertEquals(0, countSeen[0]);
+    }
+
+    @Test
+    public void testClearAll_runsEveryListenerEvenIfOneFails() {
+        int[] runs = {0};
+        reclaimer.addClearListener(() -> {
+            throw new IllegalStateException("Cache unavailable");
+        });
+        reclaimer.addClearListener(() -> runs[0]++);
+
+        reclaimer.clearAll();
+
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void testRemoveClearListener_notRunAgain() {
+        int[] runs = {0};
+        Runnable listener = () -> runs[0]++;
+        reclaimer.addClearListener(listener);
+        reclaimer.removeClearListener(listener);
+
+        reclaimer.clearAll();
+
+        assertEquals(0, runs[0]);
+    }
+
+    @Test
+    public void testScheduleReclaim_whileOnePending_coalesces() {
+        reclaimer.scheduleReclaim();
+        reclaimer.scheduleReclaim();
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+        reclaimer.scheduleReclaim();
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    public void testScheduleReclaim_failure_doesNotPropagate() {
+        ManuscriptaDatabase failing = mock(ManuscriptaDatabase.class);
+        doThrow(new IllegalStateException("closed")).when(failing).reclaimFreePages();
+
+        new DatabaseReclaimer(failing, Runnable::run).scheduleReclaim();
+
+        verify(failing).reclaimFreePages();
+    }
+
+    @Test
+    public void testCompactIncrementally_firstRunConvertsFile() {
+        assertFalse(database.reclaimFreePages(10));
+
+        reclaimer.compactIncrementally(10);
+
+        assertTrue(database.reclaimFreePages(10));
+    }
+
+    @Test
+    public void testCompactIncrementally_returnsFreedPages() {
+        reclaimer.compactIncrementally(10);
+        List<MaterialEntity> materials = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            materials.add(new MaterialEntity("mat-" + i, MaterialType.READING, "Title",
+                    new String(new char[2000]).replace('\0', 'x'), "{}", "[]", i));
+        }
+        database.materialDao().insertAll(materials);
+        database.materialDao().deleteAll();
+        int freePages = database.getFreePageCount();
+        assertTrue(freePages > 10);
+
+        reclaimer.compactIncrementally(10);
+
+        assertEquals(freePages - 10, database.getFreePageCount());
+    }
+
+    @Test
+    public void testCompactIncrementally_alreadyIncremental_doesNotRebuild() {
+        ManuscriptaDatabase incremental = mock(ManuscriptaDatabase.class);
+        when(incremental.reclaimFreePages(5)).thenReturn(true);
+
+        new DatabaseReclaimer(incremental, Runnable::run).compactIncrementally(5);
+
+        verify(incremental, never()).reclaimFreePages();
+    }
+}
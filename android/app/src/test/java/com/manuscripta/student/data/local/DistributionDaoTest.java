@@ -0,0 +1,277 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.data.model.ResponseEntity;
+import com.manuscripta.student.data.model.SessionEntity;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link DistributionDao}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class DistributionDaoTest {
+
+    private ManuscriptaDatabase database;
+    private DistributionDao distributionDao;
+    private MaterialDao materialDao;
+    private QuestionDao questionDao;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, ManuscriptaDatabase.class)
+                .allowMainThreadQueries()
+                .fallbackToDestructiveMigration()
+                .build();
+        distributionDao = database.distributionDao();
+        materialDao = database.materialDao();
+        questionDao = database.questionDao();
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    private MaterialEntity material(String id, String title) {
+        return new MaterialEntity(id, MaterialType.WORKSHEET, title, "Content", "{}", "[]",
+                1000L);
+    }
+
+    private QuestionEntity question(String id, String materialId, String text) {
+        return new QuestionEntity(id, materialId, text, QuestionType.WRITTEN_ANSWER, "", "",
+                null);
+    }
+
+    @Test
+    public void testGetManifest_empty() {
+        assertTrue(distributionDao.getManifest().isEmpty());
+    }
+
+    @Test
+    public void testApplyDelta_insertsMaterialsQuestionsAndManifest() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Arrays.asList(question("q-1", "mat-1", "One"), question("q-2", "mat-1", "Two")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+
+        assertNotNull(materialDao.getById("mat-1"));
+        assertEquals(2, questionDao.getCountByMaterialId("mat-1"));
+        List<MaterialManifestEntity> manifest = distributionDao.getManifest();
+        assertEquals(1, manifest.size());
+        assertEquals("hash-1", manifest.get(0).getContentHash());
+    }
+
+    @Test
+    public void testSetContentHash_updatesOnlyGivenMaterials() {
+        distributionDao.applyDelta(
+                Arrays.asList(material("mat-1", "One"), material("mat-2", "Two")),
+                Collections.emptyList(),
+                Arrays.asList(new MaterialManifestEntity("mat-1", "hash-1"),
+                        new MaterialManifestEntity("mat-2", "hash-2")),
+                Collections.emptyList());
+
+        distributionDao.setContentHash(Collections.singletonList("mat-1"), "");
+
+        Map<String, String> hashes = new HashMap<>();
+        for (MaterialManifestEntity entry : distributionDao.getManifest()) {
+            hashes.put(entry.getMaterialId(), entry.getContentHash());
+        }
+        assertEquals("", hashes.get("mat-1"));
+        assertEquals("hash-2", hashes.get("mat-2"));
+    }
+
+    @Test
+    public void testApplyDelta_updateKeepsSessionsAndResponses() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Collections.singletonList(question("q-1", "mat-1", "One")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+        database.sessionDao().insert(new SessionEntity("s-1", "mat-1", 1L, 0L,
+                SessionStatus.ACTIVE, "device-1"));
+        database.responseDao().insert(new ResponseEntity("r-1", "q-1", "answer", false, 1L,
+                false, "device-1"));
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Revised title")),
+                Collections.singletonList(question("q-1", "mat-1", "One, revised")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-2")),
+                Collections.emptyList());
+
+        assertEquals("Revised title", materialDao.getById("mat-1").getTitle());
+        assertEquals("One, revised", questionDao.getById("q-1").getQuestionText());
+        assertNotNull(database.sessionDao().getById("s-1"));
+        assertNotNull(database.responseDao().getById("r-1"));
+        assertEquals("hash-2", distributionDao.getManifest().get(0).getContentHash());
+    }
+
+    @Test
+    public void testApplyDelta_removesQuestionsNoLongerInMaterial() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Arrays.asList(question("q-1", "mat-1", "One"), question("q-2", "mat-1", "Two")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Collections.singletonList(question("q-2", "mat-1", "Two")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-2")),
+                Collections.emptyList());
+
+        assertNull(questionDao.getById("q-1"));
+        assertNotNull(questionDao.getById("q-2"));
+    }
+
+    @Test
+    public void testApplyDelta_materialWithNoQuestions_clearsQuestions() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Collections.singletonList(question("q-1", "mat-1", "One")),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-2")),
+                Collections.emptyList());
+
+        assertEquals(0, questionDao.getCountByMaterialId("mat-1"));
+    }
+
+    @Test
+    public void testApplyDelta_leavesOtherMaterialsUntouched() {
+        distributionDao.applyDelta(
+                Arrays.asList(material("mat-1", "One"), material("mat-2", "Two")),
+                Arrays.asList(question("q-1", "mat-1", "One"), question("q-2", "mat-2", "Two")),
+                Arrays.asList(new MaterialManifestEntity("mat-1", "hash-1"),
+                        new MaterialManifestEntity("mat-2", "hash-2")),
+                Collections.emptyList());
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "One, revised")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-3")),
+                Collections.emptyList());
+
+        assertNotNull(questionDao.getById("q-2"));
+        assertEquals("Two", materialDao.getById("mat-2").getTitle());
+    }
+
+    @Test
+    public void testApplyDelta_insertsSessionsAndPausesActiveSession() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "One")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+        database.sessionDao().insert(new SessionEntity("s-active", "mat-1", 1L, 0L,
+                SessionStatus.ACTIVE, "device-1"));
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-2", "Two")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-2", "hash-2")),
+                Collections.singletonList(new SessionEntity("s-new", "mat-2", 0L, 0L,
+                        SessionStatus.RECEIVED, "device-1")));
+
+        assertEquals(SessionStatus.PAUSED,
+                database.sessionDao().getById("s-active").getStatus());
+        assertEquals(SessionStatus.RECEIVED, database.sessionDao().getById("s-new").getStatus());
+    }
+
+    @Test
+    public void testApplyDelta_noSessions_leavesActiveSession() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "One")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+        database.sessionDao().insert(new SessionEntity("s-active", "mat-1", 1L, 0L,
+                SessionStatus.ACTIVE, "device-1"));
+
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "One, revised")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-2")),
+                Collections.emptyList());
+
+        assertEquals(SessionStatus.ACTIVE,
+                database.sessionDao().getById("s-active").getStatus());
+    }
+
+    @Test
+    public void testApplyDelta_failingSessionInsert_rollsBackWholeChunk() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "One")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.singletonList(new SessionEntity("s-1", "mat-1", 0L, 0L,
+                        SessionStatus.RECEIVED, "device-1")));
+
+        try {
+            distributionDao.applyDelta(
+                    Collections.singletonList(material("mat-2", "Two")),
+                    Collections.singletonList(question("q-2", "mat-2", "Q")),
+                    Collections.singletonList(new MaterialManifestEntity("mat-2", "hash-2")),
+                    // Duplicate session ID violates the primary key
+                    Collections.singletonList(new SessionEntity("s-1", "mat-2", 0L, 0L,
+                            SessionStatus.RECEIVED, "device-1")));
+            fail("Expected the duplicate session to abort the transaction");
+        } catch (SQLiteConstraintException expected) {
+            // Expected
+        }
+
+        assertNull(materialDao.getById("mat-2"));
+        assertNull(questionDao.getById("q-2"));
+        assertEquals(1, distributionDao.getManifest().size());
+    }
+
+    @Test
+    public void testManifest_deletedWithMaterial() {
+        distributionDao.applyDelta(
+                Collections.singletonList(material("mat-1", "Title")),
+                Collections.emptyList(),
+                Collections.singletonList(new MaterialManifestEntity("mat-1", "hash-1")),
+                Collections.emptyList());
+
+        materialDao.deleteById("mat-1");
+
+        assertTrue(distributionDao.getManifest().isEmpty());
+    }
+}
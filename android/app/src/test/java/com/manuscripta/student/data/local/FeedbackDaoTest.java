@@ -11,6 +11,7 @@ import androidx.room.Room;
 import androidx.test.core.app.ApplicationProvider;
 
 import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.FeedbackMaterialTitleTuple;
 import com.manuscripta.student.data.model.MaterialEntity;
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.data.model.QuestionEntity;
@@ -24,7 +25,9 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -290,4 +293,133 @@ public class FeedbackDaoTest {
         assertNotNull(feedbackList);
         assertTrue(feedbackList.isEmpty());
     }
+
+    @Test
+    public void testGetMaterialTitles_resolvesChainAcrossMaterials() {
+        materialDao.insert(new MaterialEntity("mat-2", MaterialType.READING, "Second Reading",
+                "Content", "{}", "[]", System.currentTimeMillis()));
+        questionDao.insert(new QuestionEntity("q-2", "mat-2", "Why?",
+                QuestionType.WRITTEN_ANSWER, "", "", null));
+        responseDao.insert(new ResponseEntity("r-2", "q-2", "Because", false,
+                System.currentTimeMillis(), true, "device-1"));
+        feedbackDao.insert(createFeedback("f-1", "r-1"));
+        feedbackDao.insert(createFeedback("f-2", "r-2"));
+
+        List<FeedbackMaterialTitleTuple> rows =
+                feedbackDao.getMaterialTitles(Arrays.asList("f-1", "f-2", "missing"));
+
+        assertEquals(2, rows.size());
+        for (FeedbackMaterialTitleTuple row : rows) {
+            if ("f-1".equals(row.getFeedbackId())) {
+                assertEquals("Test Worksheet", row.getMaterialTitle());
+            } else {
+                assertEquals("f-2", row.getFeedbackId());
+                assertEquals("Second Reading", row.getMaterialTitle());
+            }
+        }
+    }
+
+    @Test
+    public void testGetMaterialTitles_onlyRequestedIds() {
+        feedbackDao.insert(createFeedback("f-1", "r-1"));
+
+        assertTrue(feedbackDao.getMaterialTitles(Collections.singletonList("other")).isEmpty());
+    }
+
+    @Test
+    public void testGetByIds() {
+        feedbackDao.insert(new FeedbackEntity("f-1", "r-1", "One", null));
+
+        List<FeedbackEntity> found = feedbackDao.getByIds(Arrays.asList("f-1", "missing"));
+
+        assertEquals(1, found.size());
+        assertEquals("f-1", found.get(0).getId());
+    }
+
+    @Test
+    public void testGetCursor_noneStored_returnsNull() {
+        assertNull(feedbackDao.getCursor("device-1"));
+    }
+
+    @Test
+    public void testApplyIncrement_insertsNewFeedbackAndCursor() {
+        List<FeedbackEntity> written = feedbackDao.applyIncrement("device-1",
+                Collections.singletonList(new FeedbackEntity("f-1", "r-1", "One", 5)),
+                "cursor-1");
+
+        assertEquals(1, written.size());
+        assertNotNull(feedbackDao.getById("f-1"));
+        assertEquals("cursor-1", feedbackDao.getCursor("device-1"));
+    }
+
+    @Test
+    public void testApplyIncrement_skipsUnchangedFeedback() {
+        feedbackDao.insert(new FeedbackEntity("f-1", "r-1", "One", 5));
+
+        List<FeedbackEntity> written = feedbackDao.applyIncrement("device-1",
+                Collections.singletonList(new FeedbackEntity("f-1", "r-1", "One", 5)), null);
+
+        assertTrue(written.isEmpty());
+        assertNull(feedbackDao.getCursor("device-1"));
+    }
+
+    @Test
+    public void testApplyIncrement_writesChangedFeedback() {
+        feedbackDao.insert(new FeedbackEntity("f-1", "r-1", "One", 5));
+
+        List<FeedbackEntity> written = feedbackDao.applyIncrement("device-1",
+                Arrays.asList(new FeedbackEntity("f-1", "r-1", "One", 6),
+                        new FeedbackEntity("f-2", "r-1", "Two", null)),
+                "cursor-2");
+
+        assertEquals(2, written.size());
+        assertEquals(Integer.valueOf(6), feedbackDao.getById("f-1").getMarks());
+        assertEquals(2, feedbackDao.getCount());
+    }
+
+    @Test
+    public void testApplyIncrement_moreIdsThanOneQuery() {
+        List<FeedbackEntity> received = new ArrayList<>();
+        for (int i = 0; i < FeedbackDao.MAX_IDS_PER_QUERY + 10; i++) {
+            received.add(new FeedbackEntity("f-" + i, "r-1", "Text " + i, null));
+        }
+        feedbackDao.applyIncrement("device-1", received, null);
+
+        List<FeedbackEntity> written = feedbackDao.applyIncrement("device-1", received, null);
+
+        assertTrue(written.isEmpty());
+        assertEquals(received.size(), feedbackDao.getCount());
+    }
+
+    @Test
+    public void testApplyIncrement_afterPrune_skipsFeedbackOfPrunedResponses() {
+        responseDao.insert(new ResponseEntity("r-old", "q-1", "3", false, 1000L, true,
+                "device-1"));
+        feedbackDao.insert(new FeedbackEntity("f-old", "r-old", "Old", 1));
+        assertEquals(1, responseDao.pruneSyncedBefore(2000L));
+        assertNull(feedbackDao.getById("f-old"));
+
+        // A server ignoring the cursor returns the whole history, pruned feedback included
+        List<FeedbackEntity> written = feedbackDao.applyIncrement("device-1",
+                Arrays.asList(new FeedbackEntity("f-old", "r-old", "Old", 1),
+                        new FeedbackEntity("f-1", "r-1", "New", 5)),
+                "cursor-1");
+
+        assertEquals(1, written.size());
+        assertEquals("f-1", written.get(0).getId());
+        assertNotNull(feedbackDao.getById("f-1"));
+        assertNull(feedbackDao.getById("f-old"));
+        assertEquals("cursor-1", feedbackDao.getCursor("device-1"));
+    }
+
+    @Test
+    public void testApplyIncrement_cursorReplacedAndClearedByDeleteAllCursors() {
+        feedbackDao.applyIncrement("device-1", Collections.emptyList(), "cursor-1");
+        feedbackDao.applyIncrement("device-1", Collections.emptyList(), "cursor-2");
+        assertEquals("cursor-2", feedbackDao.getCursor("device-1"));
+
+        feedbackDao.deleteAllCursors();
+
+        assertNull(feedbackDao.getCursor("device-1"));
+    }
 }
@@ -0,0 +1,78 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unit tests for {@link IdCodec}.
+ */
+public class IdCodecTest {
+
+    private static final String UUID_ID = "550e8400-e29b-41d4-a716-446655440000";
+
+    @Test
+    public void testEncode_canonicalUuid_sixteenBytes() {
+        byte[] key = IdCodec.encode(UUID_ID);
+
+        assertEquals(IdCodec.UUID_BYTES, key.length);
+        assertEquals((byte) 0x55, key[0]);
+        assertEquals((byte) 0x00, key[15]);
+        assertEquals(UUID_ID, IdCodec.decode(key));
+    }
+
+    @Test
+    public void testEncode_randomUuids_roundTrip() {
+        for (int i = 0; i < 1000; i++) {
+            String id = UUID.randomUUID().toString();
+            assertEquals(id, IdCodec.decode(IdCodec.encode(id)));
+        }
+    }
+
+    @Test
+    public void testEncode_otherIds_keptAsText() {
+        for (String id : Arrays.asList("mat-1", "legacy-id", "", "élève",
+                UUID_ID.toUpperCase(), UUID_ID.replace('-', '_'), UUID_ID.replace('0', 'g'))) {
+            byte[] key = IdCodec.encode(id);
+            assertEquals(id, IdCodec.decode(key));
+        }
+        assertArrayEquals("mat-1".getBytes(), IdCodec.encode("mat-1"));
+    }
+
+    @Test
+    public void testEncode_sixteenByteText_notMistakenForUuid() {
+        String id = "0123456789abcdef";
+
+        byte[] key = IdCodec.encode(id);
+
+        assertEquals(IdCodec.UUID_BYTES + 1, key.length);
+        assertEquals(id, IdCodec.decode(key));
+    }
+
+    @Test
+    public void testEncodeAll_decodeAll_keepOrder() {
+        List<String> ids = Arrays.asList(UUID_ID, "q-1", "q-2");
+
+        assertEquals(ids, IdCodec.decodeAll(IdCodec.encodeAll(ids)));
+    }
+
+    @Test
+    public void testConverters_passNullThrough() {
+        assertNull(IdCodec.toKey(null));
+        assertNull(IdCodec.fromKey(null));
+        assertEquals(UUID_ID, IdCodec.fromKey(IdCodec.toKey(UUID_ID)));
+    }
+
+    @Test
+    public void testEncode_null_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.decode(null));
+    }
+}
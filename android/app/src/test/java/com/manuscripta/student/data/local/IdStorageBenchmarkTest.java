@@ -0,0 +1,206 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.manuscripta.student.benchmark.BenchmarkSupport;
+import com.manuscripta.student.benchmark.BenchmarkTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares UUID keys stored as text against the 16-byte form written through {@link IdCodec}:
+ * the space taken by the tables and their indices, and the time to look rows up by primary
+ * and foreign key.
+ *
+ * <p>Run with {@code ./gradlew test -Pbenchmark --tests "*IdStorageBenchmarkTest"}.
+ * Lookup results are printed as time per lookup; the binary keys are asserted to take
+ * less than two thirds of the space of the text keys.</p>
+ */
+@Category(BenchmarkTest.class)
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class IdStorageBenchmarkTest {
+
+    /** Materials stored, a term's worth. */
+    private static final int MATERIALS = 500;
+
+    /** Questions per material. */
+    private static final int QUESTIONS_PER_MATERIAL = 10;
+
+    /** Timed lookups. */
+    private static final int ITERATIONS = 20_000;
+
+    private final List<String> materialIds = new ArrayList<>();
+    private final List<String> questionIds = new ArrayList<>();
+    private SQLiteDatabase textDb;
+    private SQLiteDatabase blobDb;
+
+    @Before
+    public void setUp() {
+        for (int m = 0; m < MATERIALS; m++) {
+            materialIds.add(UUID.randomUUID().toString());
+            for (int q = 0; q < QUESTIONS_PER_MATERIAL; q++) {
+                questionIds.add(UUID.randomUUID().toString());
+            }
+        }
+        textDb = createDatabase("TEXT", false);
+        blobDb = createDatabase("BLOB", true);
+    }
+
+    @After
+    public void tearDown() {
+        textDb.close();
+        blobDb.close();
+    }
+
+    @Test
+    public void benchmarkStorageSize() {
+        long textBytes = fileSize(textDb);
+        long blobBytes = fileSize(blobDb);
+
+        assertEquals(MATERIALS * QUESTIONS_PER_MATERIAL, count(textDb));
+        assertEquals(MATERIALS * QUESTIONS_PER_MATERIAL, count(blobDb));
+        assertTrue(blobBytes > 0);
+        // 16 bytes against 36 characters per key, in each row and index entry
+        assertTrue("binary keys took " + blobBytes + " of " + textBytes + " bytes",
+                blobBytes * 3 < textBytes * 2);
+    }
+
+    @Test
+    public void benchmarkPrimaryKeyLookup() throws Exception {
+        SQLiteStatement text = textDb.compileStatement(
+                "SELECT materialId FROM questions WHERE id = ?");
+        SQLiteStatement blob = blobDb.compileStatement(
+                "SELECT length(materialId) FROM questions WHERE id = ?");
+        int[] next = {0};
+
+        BenchmarkSupport.measure("text primary key", ITERATIONS, () -> {
+            text.bindString(1, questionIds.get(next[0]++ % questionIds.size()));
+            return text.simpleQueryForString();
+        });
+        BenchmarkSupport.measure("binary primary key", ITERATIONS, () -> {
+            blob.bindBlob(1, IdCodec.encode(questionIds.get(next[0]++ % questionIds.size())));
+            return blob.simpleQueryForLong();
+        });
+
+        blob.bindBlob(1, IdCodec.encode(questionIds.get(0)));
+        assertEquals(IdCodec.UUID_BYTES, blob.simpleQueryForLong());
+    }
+
+    @Test
+    public void benchmarkForeignKeyLookup() throws Exception {
+        SQLiteStatement text = textDb.compileStatement(
+                "SELECT COUNT(*) FROM questions WHERE materialId = ?");
+        SQLiteStatement blob = blobDb.compileStatement(
+                "SELECT COUNT(*) FROM questions WHERE materialId = ?");
+        int[] next = {0};
+
+        BenchmarkSupport.measure("text foreign key", ITERATIONS, () -> {
+            text.bindString(1, materialIds.get(next[0]++ % MATERIALS));
+            return text.simpleQueryForLong();
+        });
+        BenchmarkSupport.measure("binary foreign key", ITERATIONS, () -> {
+            blob.bindBlob(1, IdCodec.encode(materialIds.get(next[0]++ % MATERIALS)));
+            return blob.simpleQueryForLong();
+        });
+
+        blob.bindBlob(1, IdCodec.encode(materialIds.get(0)));
+        assertEquals(QUESTIONS_PER_MATERIAL, blob.simpleQueryForLong());
+    }
+
+    /**
+     * Creates an in-memory database holding the materials and questions with the given key
+     * type, shaped like the production tables.
+     *
+     * @param keyType The declared type of the ID columns
+     * @param binary  Whether to store IDs through {@link IdCodec}
+     * @return The populated database
+     */
+    private SQLiteDatabase createDatabase(String keyType, boolean binary) {
+        SQLiteDatabase db = SQLiteDatabase.create(null);
+        db.execSQL("CREATE TABLE materials (id " + keyType + " NOT NULL, title TEXT NOT NULL, "
+                + "PRIMARY KEY(id))");
+        db.execSQL("CREATE TABLE questions (id " + keyType + " NOT NULL, materialId " + keyType
+                + " NOT NULL, questionText TEXT NOT NULL, PRIMARY KEY(id), "
+                + "FOREIGN KEY(materialId) REFERENCES materials(id) ON DELETE CASCADE)");
+        db.execSQL("CREATE INDEX index_questions_materialId ON questions (materialId)");
+        SQLiteStatement material = db.compileStatement("INSERT INTO materials VALUES (?, ?)");
+        SQLiteStatement question = db.compileStatement("INSERT INTO questions VALUES (?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (int m = 0; m < MATERIALS; m++) {
+                bindId(material, 1, materialIds.get(m), binary);
+                material.bindString(2, "Material " + m);
+                material.executeInsert();
+                for (int q = 0; q < QUESTIONS_PER_MATERIAL; q++) {
+                    bindId(question, 1, questionIds.get(m * QUESTIONS_PER_MATERIAL + q), binary);
+                    bindId(question, 2, materialIds.get(m), binary);
+                    question.bindString(3, "Question " + q);
+                    question.executeInsert();
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return db;
+    }
+
+    /**
+     * Binds an ID in text or binary form.
+     *
+     * @param statement The statement
+     * @param index     The parameter index
+     * @param id        The ID
+     * @param binary    Whether to bind the binary form
+     */
+    private static void bindId(SQLiteStatement statement, int index, String id, boolean binary) {
+        if (binary) {
+            statement.bindBlob(index, IdCodec.encode(id));
+        } else {
+            statement.bindString(index, id);
+        }
+    }
+
+    /**
+     * Gets the space a database takes, as pages in use times page size.
+     *
+     * @param db The database
+     * @return The size in bytes
+     */
+    private static long fileSize(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery("SELECT page_count * page_size "
+                + "FROM pragma_page_count(), pragma_page_size()", null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    /**
+     * Counts the questions in a database.
+     *
+     * @param db The database
+     * @return The number of questions
+     */
+    private static int count(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM questions", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
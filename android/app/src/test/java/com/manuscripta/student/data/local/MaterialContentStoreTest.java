@@ -0,0 +1,153 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link MaterialContentStore}.
+ */
+public class MaterialContentStoreTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File directory;
+    private MaterialContentStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File(tempFolder.getRoot(), "content");
+        store = new MaterialContentStore(directory);
+    }
+
+    @Test
+    public void testConstructor_nullDirectory_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialContentStore((File) null));
+    }
+
+    @Test
+    public void testIsOffRow_onlyContentOverLimit() {
+        assertFalse(MaterialContentStore.isOffRow(null));
+        assertFalse(MaterialContentStore.isOffRow(repeat("x", MaterialContentStore.INLINE_MAX_CHARS)));
+        assertTrue(MaterialContentStore.isOffRow(
+                repeat("x", MaterialContentStore.INLINE_MAX_CHARS + 1)));
+    }
+
+    @Test
+    public void testPutAndRead_roundTripsCompressed() {
+        String content = repeat("| $x^2$ | Plants convert light energy. |\n", 500);
+
+        String hash = store.put(content);
+
+        assertNotNull(hash);
+        assertEquals(64, hash.length());
+        assertEquals(content, store.read(hash));
+        assertTrue(new File(directory, hash).length() < content.length() / 4);
+    }
+
+    @Test
+    public void testPutAndRead_multiByteCharacters() {
+        String content = repeat("élève 学生 📚 ", 300);
+
+        assertEquals(content, store.read(store.put(content)));
+    }
+
+    @Test
+    public void testPut_sameContent_storedOnce() {
+        String content = repeat("Shared paragraph. ", 200);
+
+        String first = store.put(content);
+        String second = store.put(content);
+
+        assertEquals(first, second);
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void testPut_nullContent_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> store.put(null));
+    }
+
+    @Test
+    public void testRead_missingFile_returnsNull() {
+        assertNull(store.read(repeat("a", 64)));
+    }
+
+    @Test
+    public void testRead_truncatedFile_returnsNull() throws IOException {
+        String hash = store.put(repeat("Some text that compresses. ", 400));
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, hash), "rw")) {
+            file.setLength(file.length() / 2);
+        }
+
+        assertNull(store.read(hash));
+    }
+
+    @Test
+    public void testRead_invalidHash_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> store.read(null));
+        assertThrows(IllegalArgumentException.class, () -> store.read("../materials"));
+        assertThrows(IllegalArgumentException.class, () -> store.read(repeat("A", 64)));
+    }
+
+    @Test
+    public void testRetainOnly_deletesUnreferencedFiles() throws IOException {
+        String kept = store.put(repeat("Kept. ", 300));
+        String dropped = store.put(repeat("Dropped. ", 300));
+        assertTrue(new File(directory, ".tmp-leftover").createNewFile());
+        Set<String> referenced = new HashSet<>(Collections.singletonList(kept));
+
+        int deleted = store.retainOnly(referenced);
+
+        assertEquals(2, deleted);
+        assertNotNull(store.read(kept));
+        assertNull(store.read(dropped));
+    }
+
+    @Test
+    public void testRetainOnly_noDirectory_deletesNothing() {
+        assertEquals(0, store.retainOnly(Collections.emptySet()));
+    }
+
+    @Test
+    public void testClear_deletesEverything() {
+        String hash = store.put(repeat("Content. ", 300));
+
+        store.clear();
+
+        assertNull(store.read(hash));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    /**
+     * Repeats a string.
+     *
+     * @param text  The string
+     * @param count The number of copies
+     * @return The copies, concatenated
+     */
+    private static String repeat(String text, int count) {
+        StringBuilder builder = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -11,6 +11,7 @@ import androidx.room.Room;
 import androidx.test.core.app.ApplicationProvider;
 
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
 
 import org.junit.After;
@@ -21,6 +22,7 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -209,4 +211,69 @@ public class MaterialDaoTest {
         assertNotNull(materials);
         assertTrue(materials.isEmpty());
     }
+
+    @Test
+    public void testGetAllSummaries_orderedByTimestampDescending() {
+        materialDao.insertAll(Arrays.asList(
+                new MaterialEntity("mat-old", MaterialType.READING, "Old", "Content", "{}", "[]",
+                        1000L),
+                new MaterialEntity("mat-new", MaterialType.POLL, "New", "Content", "{}", "[]",
+                        2000L)));
+
+        List<MaterialSummaryTuple> summaries = materialDao.getAllSummaries();
+
+        assertEquals(2, summaries.size());
+        assertEquals("mat-new", summaries.get(0).getId());
+        assertEquals(MaterialType.POLL, summaries.get(0).getType());
+        assertEquals("New", summaries.get(0).getTitle());
+        assertEquals(2000L, summaries.get(0).getTimestamp());
+        assertEquals("mat-old", summaries.get(1).getId());
+    }
+
+    @Test
+    public void testGetAllSummariesEmpty() {
+        assertTrue(materialDao.getAllSummaries().isEmpty());
+    }
+
+    @Test
+    public void testContentOutsideRow_roundTripsHash() {
+        materialDao.insert(new MaterialEntity("mat-1", MaterialType.READING, "Title", null,
+                "hash-1", "{}", "[]", 1000L));
+
+        MaterialEntity retrieved = materialDao.getById("mat-1");
+
+        assertNull(retrieved.getContent());
+        assertEquals("hash-1", retrieved.getContentHash());
+    }
+
+    @Test
+    public void testGetContentHashes_distinctAndNonNull() {
+        materialDao.insertAll(Arrays.asList(
+                new MaterialEntity("mat-1", MaterialType.READING, "A", null, "hash-1", "{}", "[]",
+                        1L),
+                new MaterialEntity("mat-2", MaterialType.READING, "B", null, "hash-1", "{}", "[]",
+                        2L),
+                defaultMaterial));
+
+        assertEquals(Collections.singletonList("hash-1"), materialDao.getContentHashes());
+    }
+
+    @Test
+    public void testMoveContentOffRow_longInlineContent() {
+        String longContent = new String(new char[50]).replace('\0', 'x');
+        materialDao.insertAll(Arrays.asList(
+                new MaterialEntity("mat-long", MaterialType.READING, "Long", longContent, "{}",
+                        "[]", 1L),
+                defaultMaterial));
+
+        List<String> ids = materialDao.getIdsWithInlineContentOver(20);
+        assertEquals(Collections.singletonList("mat-long"), ids);
+
+        materialDao.moveContentOffRow("mat-long", "hash-long");
+
+        MaterialEntity moved = materialDao.getById("mat-long");
+        assertNull(moved.getContent());
+        assertEquals("hash-long", moved.getContentHash());
+        assertTrue(materialDao.getIdsWithInlineContentOver(20).isEmpty());
+    }
 }
@@ -0,0 +1,252 @@
+package com.manuscripta.student.data.local;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.data.model.ResponseEntity;
+import com.manuscripta.student.data.model.SessionEntity;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query-plan regression tests for the hot DAO queries.
+ *
+ * <p>The tables are filled with tens of thousands of rows and each query is run through
+ * {@code EXPLAIN QUERY PLAN}. Every table access must go through an index, and no query
+ * may sort through a temporary B-tree. The SQL strings mirror the {@code @Query}
+ * annotations of the DAOs and must be kept in step with them.</p>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class QueryPlanTest {
+
+    private static final int MATERIALS = 200;
+    private static final int QUESTIONS_PER_MATERIAL = 100;
+    private static final int DEVICES = 4;
+
+    private ManuscriptaDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, ManuscriptaDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        database.runInTransaction(this::populate);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    /**
+     * Inserts 200 materials, 20,000 questions, 20,000 responses (most of them synced),
+     * 10,000 feedback items and 2,000 sessions.
+     */
+    private void populate() {
+        List<MaterialEntity> materials = new ArrayList<>();
+        List<QuestionEntity> questions = new ArrayList<>();
+        List<ResponseEntity> responses = new ArrayList<>();
+        List<FeedbackEntity> feedback = new ArrayList<>();
+        List<SessionEntity> sessions = new ArrayList<>();
+        SessionStatus[] statuses = SessionStatus.values();
+        long time = 1000L;
+        for (int m = 0; m < MATERIALS; m++) {
+            String materialId = "mat-" + m;
+            materials.add(new MaterialEntity(materialId, MaterialType.WORKSHEET, "Title " + m,
+                    "Content", "{}", "[]", time));
+            for (int s = 0; s < 10; s++) {
+                sessions.add(new SessionEntity("s-" + m + "-" + s, materialId, time++, 0L,
+                        statuses[s % statuses.length], "device-" + (s % DEVICES)));
+            }
+            for (int q = 0; q < QUESTIONS_PER_MATERIAL; q++) {
+                String questionId = "q-" + m + "-" + q;
+                questions.add(new QuestionEntity(questionId, materialId, "Question?",
+                        QuestionType.WRITTEN_ANSWER, "", "", null));
+                String responseId = "r-" + m + "-" + q;
+                responses.add(new ResponseEntity(responseId, questionId, "Answer", false,
+                        time++, q % 10 != 0, "device-" + (q % DEVICES)));
+                if (q % 2 == 0) {
+                    feedback.add(new FeedbackEntity("f-" + m + "-" + q, responseId, "Good",
+                            null));
+                }
+            }
+        }
+        database.materialDao().insertAll(materials);
+        database.questionDao().insertAll(questions);
+        database.responseDao().insertAll(responses);
+        database.feedbackDao().insertAll(feedback);
+        database.sessionDao().insertAll(sessions);
+    }
+
+    /**
+     * Runs EXPLAIN QUERY PLAN and returns the detail column of every row.
+     *
+     * @param sql  The query
+     * @param args The bind arguments
+     * @return The plan rows
+     */
+    private List<String> plan(String sql, Object... args) {
+        SupportSQLiteDatabase db = database.getOpenHelper().getReadableDatabase();
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                rows.add(cursor.getString(detail));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Asserts that every table access in the plan uses an index and that nothing is
+     * sorted through a temporary B-tree.
+     *
+     * @param sql  The query
+     * @param args The bind arguments
+     */
+    private void assertIndexed(String sql, Object... args) {
+        List<String> rows = plan(sql, args);
+        assertFalse("Empty plan for " + sql, rows.isEmpty());
+        for (String row : rows) {
+            if (row.startsWith("SCAN") || row.startsWith("SEARCH")) {
+                assertTrue("Unindexed access in " + sql + ": " + row, row.contains(" USING "));
+            }
+            assertFalse("Temporary sort in " + sql + ": " + row, row.contains("TEMP B-TREE"));
+        }
+    }
+
+    // ========== ResponseDao ==========
+
+    @Test
+    public void responseDao_getUnsynced_usesIndex() {
+        assertIndexed("SELECT * FROM responses WHERE synced = 0 ORDER BY timestamp ASC");
+    }
+
+    @Test
+    public void responseDao_getUnsyncedCount_usesIndex() {
+        assertIndexed("SELECT COUNT(*) FROM responses WHERE synced = 0");
+    }
+
+    @Test
+    public void responseDao_getByQuestionId_usesIndex() {
+        assertIndexed("SELECT * FROM responses WHERE questionId = ? ORDER BY timestamp DESC",
+                "q-1-1");
+    }
+
+    @Test
+    public void responseDao_tombstoneSyncedBefore_usesIndex() {
+        assertIndexed("INSERT OR IGNORE INTO response_tombstones (questionId) "
+                + "SELECT questionId FROM responses WHERE synced = 1 AND timestamp < ?", 5000L);
+    }
+
+    @Test
+    public void responseDao_deleteSyncedBefore_usesIndex() {
+        assertIndexed("DELETE FROM responses WHERE synced = 1 AND timestamp < ?", 5000L);
+    }
+
+    @Test
+    public void responseDao_getCountByQuestionId_usesIndex() {
+        assertIndexed("SELECT COUNT(*) FROM responses WHERE questionId = ?", "q-1-1");
+    }
+
+    @Test
+    public void responseDao_getRespondedQuestionIds_usesIndex() {
+        assertIndexed("SELECT DISTINCT questionId FROM responses");
+    }
+
+    // ========== QuestionDao ==========
+
+    @Test
+    public void questionDao_getByMaterialId_usesIndex() {
+        assertIndexed("SELECT * FROM questions WHERE materialId = ?", "mat-1");
+    }
+
+    @Test
+    public void questionDao_getCountByMaterialId_usesIndex() {
+        assertIndexed("SELECT COUNT(*) FROM questions WHERE materialId = ?", "mat-1");
+    }
+
+    // ========== SessionDao ==========
+
+    @Test
+    public void sessionDao_getActiveSession_usesIndex() {
+        assertIndexed("SELECT * FROM sessions WHERE status = 'ACTIVE' LIMIT 1");
+    }
+
+    @Test
+    public void sessionDao_deleteEndedBefore_usesIndex() {
+        assertIndexed("DELETE FROM sessions WHERE status IN (?, ?) "
+                + "AND MAX(endTime, startTime) < ?", "COMPLETED", "CANCELLED", 5000L);
+    }
+
+    @Test
+    public void sessionDao_getByStatus_usesIndex() {
+        assertIndexed("SELECT * FROM sessions WHERE status = ? ORDER BY startTime DESC",
+                "RECEIVED");
+    }
+
+    @Test
+    public void sessionDao_getCountByStatus_usesIndex() {
+        assertIndexed("SELECT COUNT(*) FROM sessions WHERE status = ?", "RECEIVED");
+    }
+
+    @Test
+    public void sessionDao_getByMaterialId_usesIndex() {
+        assertIndexed("SELECT * FROM sessions WHERE materialId = ? ORDER BY startTime DESC",
+                "mat-1");
+    }
+
+    @Test
+    public void distributionDao_pauseActiveSessions_usesIndex() {
+        assertIndexed("UPDATE sessions SET endTime = ?, status = 'PAUSED' "
+                + "WHERE status = 'ACTIVE'", 1L);
+    }
+
+    // ========== FeedbackDao ==========
+
+    @Test
+    public void feedbackDao_getByResponseId_usesIndex() {
+        assertIndexed("SELECT * FROM feedback WHERE responseId = ?", "r-1-2");
+    }
+
+    @Test
+    public void feedbackDao_getAllByDeviceId_usesIndexOnBothTables() {
+        assertIndexed("SELECT f.* FROM feedback f "
+                + "INNER JOIN responses r ON f.responseId = r.id "
+                + "WHERE r.deviceId = ?", "device-1");
+    }
+
+    @Test
+    public void feedbackDao_getMaterialTitles_primaryKeyLookupsOnly() {
+        assertIndexed("SELECT f.id AS feedbackId, m.title AS materialTitle FROM feedback f "
+                + "INNER JOIN responses r ON f.responseId = r.id "
+                + "INNER JOIN questions q ON r.questionId = q.id "
+                + "INNER JOIN materials m ON q.materialId = m.id "
+                + "WHERE f.id IN (?, ?, ?)", "f-1-0", "f-2-2", "f-3-4");
+    }
+}
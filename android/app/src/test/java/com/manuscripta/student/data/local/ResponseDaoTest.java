@@ -11,6 +11,7 @@ import android.content.Context;
 import androidx.room.Room;
 import androidx.test.core.app.ApplicationProvider;
 
+import com.manuscripta.student.data.model.FeedbackEntity;
 import com.manuscripta.student.data.model.MaterialEntity;
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.data.model.QuestionEntity;
@@ -317,4 +318,103 @@ public class ResponseDaoTest {
         assertEquals("4", retrieved.getAnswer());
         assertEquals(1, responseDao.getCount());
     }
+
+    @Test
+    public void testGetRespondedQuestionIds_distinct() {
+        QuestionEntity q2 = new QuestionEntity("q-2", "mat-1", "What is 3+3?",
+                QuestionType.MULTIPLE_CHOICE, "[\"5\", \"6\", \"7\"]", "6", null);
+        questionDao.insert(q2);
+        responseDao.insert(createResponse("r-1", "q-1"));
+        responseDao.insert(createResponse("r-2", "q-1"));
+        responseDao.insert(createResponse("r-3", "q-2"));
+
+        List<String> questionIds = responseDao.getRespondedQuestionIds();
+
+        assertEquals(2, questionIds.size());
+        assertTrue(questionIds.containsAll(Arrays.asList("q-1", "q-2")));
+    }
+
+    @Test
+    public void testGetRespondedQuestionIds_empty() {
+        assertTrue(responseDao.getRespondedQuestionIds().isEmpty());
+    }
+
+    // ========== Retention ==========
+
+    private ResponseEntity createResponse(String id, String questionId, long timestamp,
+                                          boolean synced) {
+        return new ResponseEntity(id, questionId, "4", true, timestamp, synced,
+                "device-test-123");
+    }
+
+    private void insertQuestion(String id) {
+        questionDao.insert(new QuestionEntity(id, "mat-1", "Question?",
+                QuestionType.WRITTEN_ANSWER, "", "", null));
+    }
+
+    @Test
+    public void testPruneSyncedBefore_deletesOnlyOldSyncedResponses() {
+        insertQuestion("q-2");
+        insertQuestion("q-3");
+        responseDao.insert(createResponse("r-old-synced", "q-1", 1000L, true));
+        responseDao.insert(createResponse("r-old-unsynced", "q-2", 1000L, false));
+        responseDao.insert(createResponse("r-new-synced", "q-3", 5000L, true));
+
+        int deleted = responseDao.pruneSyncedBefore(2000L);
+
+        assertEquals(1, deleted);
+        assertNull(responseDao.getById("r-old-synced"));
+        assertNotNull(responseDao.getById("r-old-unsynced"));
+        assertNotNull(responseDao.getById("r-new-synced"));
+    }
+
+    @Test
+    public void testPruneSyncedBefore_leavesTombstonePerQuestion() {
+        insertQuestion("q-2");
+        responseDao.insert(createResponse("r-1", "q-1", 1000L, true));
+        responseDao.insert(createResponse("r-2", "q-1", 1100L, true));
+        responseDao.insert(createResponse("r-3", "q-2", 5000L, true));
+
+        responseDao.pruneSyncedBefore(2000L);
+        // A second pass over an already tombstoned question is harmless
+        responseDao.insert(createResponse("r-4", "q-1", 1200L, true));
+        responseDao.pruneSyncedBefore(2000L);
+
+        assertEquals(Arrays.asList("q-1"), responseDao.getTombstonedQuestionIds());
+        assertEquals(Arrays.asList("q-2"), responseDao.getRespondedQuestionIds());
+    }
+
+    @Test
+    public void testPruneSyncedBefore_cascadesToFeedback() {
+        responseDao.insert(createResponse("r-1", "q-1", 1000L, true));
+        database.feedbackDao().insert(new FeedbackEntity("f-1", "r-1", "Good", 5));
+
+        responseDao.pruneSyncedBefore(2000L);
+
+        assertEquals(0, database.feedbackDao().getCount());
+    }
+
+    @Test
+    public void testTombstone_deletedWithQuestion() {
+        responseDao.insert(createResponse("r-1", "q-1", 1000L, true));
+        responseDao.pruneSyncedBefore(2000L);
+
+        questionDao.deleteById("q-1");
+
+        assertTrue(responseDao.getTombstonedQuestionIds().isEmpty());
+    }
+
+    @Test
+    public void testDeleteTombstone() {
+        insertQuestion("q-2");
+        responseDao.insert(createResponse("r-1", "q-1", 1000L, true));
+        responseDao.insert(createResponse("r-2", "q-2", 1000L, true));
+        responseDao.pruneSyncedBefore(2000L);
+
+        responseDao.deleteTombstone("q-1");
+        assertEquals(Arrays.asList("q-2"), responseDao.getTombstonedQuestionIds());
+
+        responseDao.deleteAllTombstones();
+        assertTrue(responseDao.getTombstonedQuestionIds().isEmpty());
+    }
 }
@@ -23,6 +23,7 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -90,6 +91,32 @@ public class SessionDaoTest {
         assertEquals(SessionStatus.ACTIVE, retrieved.getStatus());
     }
 
+    @Test
+    public void testApplyTransition_updatesAndInsertsTogether() {
+        sessionDao.insert(createSession("s-1", "mat-1"));
+        SessionEntity paused = new SessionEntity(
+                "s-1", "mat-1", 1000L, 2000L, SessionStatus.PAUSED, "device-1");
+        SessionEntity created = new SessionEntity(
+                "s-2", "mat-1", 0L, 0L, SessionStatus.RECEIVED, "device-1");
+
+        sessionDao.applyTransition(Collections.singletonList(paused), created);
+
+        SessionEntity first = sessionDao.getById("s-1");
+        assertEquals(SessionStatus.PAUSED, first.getStatus());
+        assertEquals(2000L, first.getEndTime());
+        assertEquals(SessionStatus.RECEIVED, sessionDao.getById("s-2").getStatus());
+    }
+
+    @Test
+    public void testApplyTransition_missingSession_notResurrected() {
+        SessionEntity deleted = new SessionEntity(
+                "gone", "mat-1", 1000L, 2000L, SessionStatus.PAUSED, "device-1");
+
+        sessionDao.applyTransition(Collections.singletonList(deleted), null);
+
+        assertNull(sessionDao.getById("gone"));
+    }
+
     @Test
     public void testGetAll() {
         sessionDao.insert(createSession("s-1", "mat-1"));
@@ -143,6 +170,48 @@ public class SessionDaoTest {
         assertEquals("s-2", completedSessions.get(0).getId());
     }
 
+    @Test
+    public void testGetMaterialIdsWithStatus() {
+        materialDao.insert(new MaterialEntity("mat-2", MaterialType.WORKSHEET, "Second",
+                "Content", "{}", "[]", System.currentTimeMillis()));
+        sessionDao.insert(new SessionEntity(
+            "s-1", "mat-1", System.currentTimeMillis(), 0, SessionStatus.ACTIVE, "device-1"));
+        sessionDao.insert(new SessionEntity(
+            "s-2", "mat-1", System.currentTimeMillis(), 0, SessionStatus.PAUSED, "device-1"));
+        sessionDao.insert(new SessionEntity(
+            "s-3", "mat-2", System.currentTimeMillis(), System.currentTimeMillis(),
+            SessionStatus.COMPLETED, "device-1"));
+
+        List<String> open = sessionDao.getMaterialIdsWithStatus(
+                Arrays.asList(SessionStatus.ACTIVE, SessionStatus.PAUSED));
+        assertEquals(Collections.singletonList("mat-1"), open);
+
+        List<String> finished = sessionDao.getMaterialIdsWithStatus(
+                Collections.singletonList(SessionStatus.COMPLETED));
+        assertEquals(Collections.singletonList("mat-2"), finished);
+    }
+
+    @Test
+    public void testDeleteEndedBefore_deletesOnlyOldFinishedSessions() {
+        sessionDao.insert(new SessionEntity("s-old-done", "mat-1", 100L, 1000L,
+                SessionStatus.COMPLETED, "device-1"));
+        sessionDao.insert(new SessionEntity("s-old-cancelled", "mat-1", 500L, 0L,
+                SessionStatus.CANCELLED, "device-1"));
+        sessionDao.insert(new SessionEntity("s-new-done", "mat-1", 100L, 5000L,
+                SessionStatus.COMPLETED, "device-1"));
+        sessionDao.insert(new SessionEntity("s-old-active", "mat-1", 100L, 0L,
+                SessionStatus.ACTIVE, "device-1"));
+
+        int deleted = sessionDao.deleteEndedBefore(
+                Arrays.asList(SessionStatus.COMPLETED, SessionStatus.CANCELLED), 2000L);
+
+        assertEquals(2, deleted);
+        assertNull(sessionDao.getById("s-old-done"));
+        assertNull(sessionDao.getById("s-old-cancelled"));
+        assertNotNull(sessionDao.getById("s-new-done"));
+        assertNotNull(sessionDao.getById("s-old-active"));
+    }
+
     @Test
     public void testGetActiveSession() {
         SessionEntity active = new SessionEntity(
@@ -0,0 +1,19 @@
+package com.manuscripta.student.data.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link FeedbackCursorEntity} entity.
+ */
+public class FeedbackCursorEntityTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        FeedbackCursorEntity entry = new FeedbackCursorEntity("device-1", "cursor-1");
+
+        assertEquals("device-1", entry.getDeviceId());
+        assertEquals("cursor-1", entry.getCursor());
+    }
+}
@@ -2,6 +2,7 @@ package com.manuscripta.student.data.model;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,5 +35,15 @@ public class MaterialEntityTest {
         assertEquals("Metadata", materialEntity.getMetadata());
         assertEquals("Vocab", materialEntity.getVocabularyTerms());
         assertEquals(1L, materialEntity.getTimestamp());
+        assertNull(materialEntity.getContentHash());
+    }
+
+    @Test
+    public void testConstructor_contentOutsideRow() {
+        MaterialEntity entity = new MaterialEntity("id", MaterialType.READING, "Title", null,
+                "hash", "Metadata", "Vocab", 1L);
+
+        assertNull(entity.getContent());
+        assertEquals("hash", entity.getContentHash());
     }
 }
@@ -0,0 +1,19 @@
+package com.manuscripta.student.data.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MaterialManifestEntity} entity.
+ */
+public class MaterialManifestEntityTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        MaterialManifestEntity entry = new MaterialManifestEntity("mat-1", "abc123");
+
+        assertEquals("mat-1", entry.getMaterialId());
+        assertEquals("abc123", entry.getContentHash());
+    }
+}
@@ -0,0 +1,22 @@
+package com.manuscripta.student.data.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MaterialSummaryTuple}.
+ */
+public class MaterialSummaryTupleTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        MaterialSummaryTuple tuple = new MaterialSummaryTuple("mat-1", MaterialType.READING,
+                "Title", 1234567890L);
+
+        assertEquals("mat-1", tuple.getId());
+        assertEquals(MaterialType.READING, tuple.getType());
+        assertEquals("Title", tuple.getTitle());
+        assertEquals(1234567890L, tuple.getTimestamp());
+    }
+}
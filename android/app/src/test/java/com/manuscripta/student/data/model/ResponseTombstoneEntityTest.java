@@ -0,0 +1,18 @@
+package com.manuscripta.student.data.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ResponseTombstoneEntity} entity.
+ */
+public class ResponseTombstoneEntityTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        ResponseTombstoneEntity tombstone = new ResponseTombstoneEntity("q-1");
+
+        assertEquals("q-1", tombstone.getQuestionId());
+    }
+}
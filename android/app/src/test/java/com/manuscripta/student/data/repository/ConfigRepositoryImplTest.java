@@ -12,6 +12,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +36,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import retrofit2.Call;
 import retrofit2.Response;
@@ -43,6 +47,9 @@ public class ConfigRepositoryImplTest {
 
     private static final String TEST_DEVICE_ID = "device-123";
 
+    /** Leaves the snapshot unloaded so each test can stub preferences before the first read. */
+    private static final Executor NO_PRELOAD = runnable -> { };
+
     @Rule
     public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
 
@@ -67,7 +74,7 @@ public class ConfigRepositoryImplTest {
         when(editor.putString(anyString(), anyString())).thenReturn(editor);
         when(editor.putBoolean(anyString(), anyBoolean())).thenReturn(editor);
 
-        repository = new ConfigRepositoryImpl(preferences, apiService, tcpSocketManager);
+        repository = new ConfigRepositoryImpl(preferences, apiService, tcpSocketManager, NO_PRELOAD);
     }
 
     @Test
@@ -214,6 +221,8 @@ public class ConfigRepositoryImplTest {
 
     @Test
     public void testGetConfigLiveDataReturnsNonNull() {
+        repository = new ConfigRepositoryImpl(preferences, apiService, tcpSocketManager, Runnable::run);
+
         LiveData<Configuration> liveData = repository.getConfigLiveData();
         assertNotNull(liveData);
         assertNotNull(liveData.getValue());
@@ -233,6 +242,80 @@ public class ConfigRepositoryImplTest {
         assertEquals(24, liveData.getValue().getTextSize());
     }
 
+    @Test
+    public void testPreload_readsPreferencesOnceForRepeatedGets() {
+        when(preferences.getBoolean("config_has_stored", false)).thenReturn(true);
+        when(preferences.getInt(eq("config_text_size"), anyInt())).thenReturn(30);
+        repository = new ConfigRepositoryImpl(preferences, apiService, tcpSocketManager, Runnable::run);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(30, repository.getConfig().getTextSize());
+        }
+
+        verify(preferences, times(1)).getInt(eq("config_text_size"), anyInt());
+    }
+
+    @Test
+    public void testFetchAndStoreConfig_unchanged_skipsWriteAndPost() throws Exception {
+        ConfigResponseDto dto = new ConfigResponseDto(24, "NEUTRAL", false, true, false, "MASCOT2");
+        when(apiService.getConfig(TEST_DEVICE_ID)).thenReturn(call);
+        when(call.execute()).thenReturn(Response.success(dto));
+        List<Configuration> emitted = new ArrayList<>();
+        repository.getConfigLiveData().observeForever(emitted::add);
+
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+        when(preferences.getBoolean("config_has_stored", false)).thenReturn(true);
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+
+        verify(editor, times(1)).apply();
+        assertEquals(1, emitted.size());
+        assertEquals(24, repository.getConfig().getTextSize());
+    }
+
+    @Test
+    public void testFetchAndStoreConfig_changed_replacesSnapshot() throws Exception {
+        when(apiService.getConfig(TEST_DEVICE_ID)).thenReturn(call);
+        when(call.execute()).thenReturn(
+                Response.success(new ConfigResponseDto(24, "NEUTRAL", false, true, false, "MASCOT2")),
+                Response.success(new ConfigResponseDto(28, "NEUTRAL", false, true, false, "MASCOT2")));
+
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+        when(preferences.getBoolean("config_has_stored", false)).thenReturn(true);
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+
+        verify(editor, times(2)).apply();
+        assertEquals(28, repository.getConfig().getTextSize());
+        assertEquals(28, repository.getConfigLiveData().getValue().getTextSize());
+    }
+
+    @Test
+    public void testFetchAndStoreConfig_defaultsNeverStored_stillWritten() throws Exception {
+        Configuration defaults = Configuration.createDefault();
+        ConfigResponseDto dto = new ConfigResponseDto(defaults.getTextSize(),
+                defaults.getFeedbackStyle().name(), defaults.isTtsEnabled(),
+                defaults.isAiScaffoldingEnabled(), defaults.isSummarisationEnabled(),
+                defaults.getMascotSelection().name());
+        when(apiService.getConfig(TEST_DEVICE_ID)).thenReturn(call);
+        when(call.execute()).thenReturn(Response.success(dto));
+
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+
+        verify(editor).putBoolean("config_has_stored", true);
+    }
+
+    @Test
+    public void testClearConfig_resetsSnapshotToDefaults() throws Exception {
+        ConfigResponseDto dto = new ConfigResponseDto(24, "NEUTRAL", false, true, false, "MASCOT2");
+        when(apiService.getConfig(TEST_DEVICE_ID)).thenReturn(call);
+        when(call.execute()).thenReturn(Response.success(dto));
+        repository.fetchAndStoreConfig(TEST_DEVICE_ID);
+
+        repository.clearConfig();
+
+        assertEquals(Configuration.createDefault(), repository.getConfig());
+        assertEquals(Configuration.createDefault(), repository.getConfigLiveData().getValue());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testGetConfigLiveDataAfterDestroy() {
         repository.destroy();
@@ -3,10 +3,15 @@ package com.manuscripta.student.data.repository;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,6 +30,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -45,10 +53,13 @@ public class DeviceStatusRepositoryImplTest {
     private static final String TEST_MATERIAL_ID = "material-456";
     private static final int TEST_BATTERY_LEVEL = 75;
 
+    /** An interval long enough that no timed write fires during a test. */
+    private static final long NEVER_MS = 60_000L;
+
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        repository = new DeviceStatusRepositoryImpl(mockDao);
+        repository = new DeviceStatusRepositoryImpl(mockDao, NEVER_MS);
     }
 
     // ========== Constructor tests ==========
@@ -64,6 +75,12 @@ public class DeviceStatusRepositoryImplTest {
                 () -> new DeviceStatusRepositoryImpl(null));
     }
 
+    @Test
+    public void testConstructor_negativeInterval_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeviceStatusRepositoryImpl(mockDao, -1L));
+    }
+
     // ========== getDeviceStatus tests ==========
 
     @Test
@@ -89,6 +106,31 @@ public class DeviceStatusRepositoryImplTest {
         assertNull(result);
     }
 
+    @Test
+    public void testGetDeviceStatus_trackedDevice_servedFromMemory() {
+        repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.ON_TASK, TEST_MATERIAL_ID, null);
+
+        com.manuscripta.student.domain.model.DeviceStatus result =
+                repository.getDeviceStatus(TEST_DEVICE_ID);
+
+        assertNotNull(result);
+        assertEquals(DeviceStatus.ON_TASK, result.getStatus());
+        verify(mockDao, never()).getById(anyString());
+    }
+
+    @Test
+    public void testGetDeviceStatus_queuedUntrackedDevice_servedFromQueue() {
+        repository.updateStatus("other-device", DeviceStatus.LOCKED, null, null);
+        repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
+
+        com.manuscripta.student.domain.model.DeviceStatus result =
+                repository.getDeviceStatus("other-device");
+
+        assertNotNull(result);
+        assertEquals(DeviceStatus.LOCKED, result.getStatus());
+        verify(mockDao, never()).getById(anyString());
+    }
+
     @Test
     public void testGetDeviceStatus_nullDeviceId_throwsException() {
         assertThrows(IllegalArgumentException.class,
@@ -128,19 +170,59 @@ public class DeviceStatusRepositoryImplTest {
     // ========== updateStatus tests ==========
 
     @Test
-    public void testUpdateStatus_insertsEntityIntoDao() {
+    public void testUpdateStatus_writesEntityOnFlush() {
         repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.ON_TASK, TEST_MATERIAL_ID, null);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        DeviceStatusEntity captured = captor.getValue();
+        DeviceStatusEntity captured = flushAndCaptureSingle();
         assertEquals(TEST_DEVICE_ID, captured.getDeviceId());
         assertEquals(DeviceStatus.ON_TASK, captured.getStatus());
         assertEquals(TEST_MATERIAL_ID, captured.getCurrentMaterialId());
     }
 
+    @Test
+    public void testUpdateStatus_beforeInterval_notWritten() {
+        repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.ON_TASK, TEST_MATERIAL_ID, null);
+
+        verify(mockDao, never()).insert(any(DeviceStatusEntity.class));
+        verify(mockDao, never()).insertAll(anyList());
+        assertEquals(1, repository.getPendingWriteCount());
+    }
+
+    @Test
+    public void testUpdateStatus_afterInterval_writtenWithoutFlush() {
+        DeviceStatusRepositoryImpl fast = new DeviceStatusRepositoryImpl(mockDao, 10L);
+
+        fast.updateStatus(TEST_DEVICE_ID, DeviceStatus.ON_TASK, TEST_MATERIAL_ID, null);
+
+        verify(mockDao, timeout(5000)).insertAll(anyList());
+    }
+
+    @Test
+    public void testUpdateStatus_severalTransitions_coalescedIntoOneWrite() {
+        repository.setIdle(TEST_DEVICE_ID);
+        repository.setOnTask(TEST_DEVICE_ID, TEST_MATERIAL_ID);
+        repository.setLocked(TEST_DEVICE_ID);
+
+        DeviceStatusEntity captured = flushAndCaptureSingle();
+        assertEquals(DeviceStatus.LOCKED, captured.getStatus());
+        verify(mockDao, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    public void testUpdateStatus_writeFails_retriedOnNextFlush() {
+        doThrow(new IllegalStateException("disk full"))
+                .doNothing()
+                .when(mockDao).insertAll(anyList());
+        repository.setLocked(TEST_DEVICE_ID);
+
+        assertTrue(repository.flushPendingStatus());
+        assertEquals(1, repository.getPendingWriteCount());
+        assertTrue(repository.flushPendingStatus());
+
+        verify(mockDao, times(2)).insertAll(anyList());
+        assertEquals(0, repository.getPendingWriteCount());
+    }
+
     @Test
     public void testUpdateStatus_updatesLiveData() {
         repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.ON_TASK, TEST_MATERIAL_ID, null);
@@ -178,15 +260,15 @@ public class DeviceStatusRepositoryImplTest {
         // First initialise with a device
         repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
 
-        DeviceStatusEntity entity = createTestEntity(TEST_DEVICE_ID, DeviceStatus.IDLE);
-        when(mockDao.getById(TEST_DEVICE_ID)).thenReturn(entity);
-
         repository.updateBatteryLevel(TEST_BATTERY_LEVEL);
 
         assertEquals(TEST_BATTERY_LEVEL, repository.getCurrentBatteryLevel());
 
-        // Verify DAO persistence (insert called twice: once for updateStatus, once for battery)
-        verify(mockDao, times(2)).insert(any(DeviceStatusEntity.class));
+        // No read-modify-write: the status and the battery tick share one write
+        verify(mockDao, never()).getById(anyString());
+        DeviceStatusEntity captured = flushAndCaptureSingle();
+        assertEquals(DeviceStatus.IDLE, captured.getStatus());
+        assertEquals(TEST_BATTERY_LEVEL, captured.getBatteryLevel());
 
         // Verify LiveData was updated with new battery level
         com.manuscripta.student.domain.model.DeviceStatus liveDataValue =
@@ -220,21 +302,44 @@ public class DeviceStatusRepositoryImplTest {
     }
 
     @Test
-    public void testUpdateBatteryLevel_entityNotFound_updatesMemoryOnly() {
-        // Set a current device via updateStatus (this inserts an entity)
-        repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
-
-        // Simulate entity not found in database when updating battery level
-        when(mockDao.getById(TEST_DEVICE_ID)).thenReturn(null);
-
+    public void testUpdateBatteryLevel_noTrackedDevice_updatesMemoryOnly() {
         repository.updateBatteryLevel(TEST_BATTERY_LEVEL);
 
-        // Battery level should still be updated in memory
         assertEquals(TEST_BATTERY_LEVEL, repository.getCurrentBatteryLevel());
+        assertTrue(repository.flushPendingStatus());
+        verify(mockDao, never()).insertAll(anyList());
+
+        // The stored level is used by the next status update
+        repository.setIdle(TEST_DEVICE_ID);
+        assertEquals(TEST_BATTERY_LEVEL, flushAndCaptureSingle().getBatteryLevel());
+    }
 
-        // DAO insert called once for updateStatus, but not again for battery update
-        // since entity was not found
-        verify(mockDao, times(1)).insert(any(DeviceStatusEntity.class));
+    @Test
+    public void testUpdateBatteryLevel_manyTicks_coalescedIntoOneWrite() {
+        repository.setOnTask(TEST_DEVICE_ID, TEST_MATERIAL_ID);
+
+        for (int level = 99; level >= 50; level--) {
+            repository.updateBatteryLevel(level);
+        }
+
+        DeviceStatusEntity captured = flushAndCaptureSingle();
+        assertEquals(50, captured.getBatteryLevel());
+        assertEquals(DeviceStatus.ON_TASK, captured.getStatus());
+        assertEquals(TEST_MATERIAL_ID, captured.getCurrentMaterialId());
+        verify(mockDao, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    public void testUpdateBatteryLevel_unchangedLevel_doesNotQueueWrite() {
+        repository.setIdle(TEST_DEVICE_ID);
+        assertTrue(repository.flushPendingStatus());
+        com.manuscripta.student.domain.model.DeviceStatus before =
+                repository.getDeviceStatusLiveData().getValue();
+
+        repository.updateBatteryLevel(100);
+
+        assertEquals(0, repository.getPendingWriteCount());
+        assertSame(before, repository.getDeviceStatusLiveData().getValue());
     }
 
     // ========== setOnTask tests ==========
@@ -243,11 +348,7 @@ public class DeviceStatusRepositoryImplTest {
     public void testSetOnTask_updatesStatusToOnTask() {
         repository.setOnTask(TEST_DEVICE_ID, TEST_MATERIAL_ID);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        DeviceStatusEntity captured = captor.getValue();
+        DeviceStatusEntity captured = flushAndCaptureSingle();
         assertEquals(DeviceStatus.ON_TASK, captured.getStatus());
         assertEquals(TEST_MATERIAL_ID, captured.getCurrentMaterialId());
     }
@@ -258,11 +359,7 @@ public class DeviceStatusRepositoryImplTest {
     public void testSetIdle_updatesStatusToIdle() {
         repository.setIdle(TEST_DEVICE_ID);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        assertEquals(DeviceStatus.IDLE, captor.getValue().getStatus());
+        assertEquals(DeviceStatus.IDLE, flushAndCaptureSingle().getStatus());
     }
 
     // ========== setLocked tests ==========
@@ -271,11 +368,7 @@ public class DeviceStatusRepositoryImplTest {
     public void testSetLocked_updatesStatusToLocked() {
         repository.setLocked(TEST_DEVICE_ID);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        assertEquals(DeviceStatus.LOCKED, captor.getValue().getStatus());
+        assertEquals(DeviceStatus.LOCKED, flushAndCaptureSingle().getStatus());
     }
 
     // ========== setDisconnected tests ==========
@@ -284,11 +377,7 @@ public class DeviceStatusRepositoryImplTest {
     public void testSetDisconnected_updatesStatusToDisconnected() {
         repository.setDisconnected(TEST_DEVICE_ID);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        assertEquals(DeviceStatus.DISCONNECTED, captor.getValue().getStatus());
+        assertEquals(DeviceStatus.DISCONNECTED, flushAndCaptureSingle().getStatus());
     }
 
     // ========== clearDeviceStatus tests ==========
@@ -316,8 +405,6 @@ public class DeviceStatusRepositoryImplTest {
     public void testClearDeviceStatus_currentDevice_resetsBatteryLevel() {
         // First set the current device and update battery level
         repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
-        DeviceStatusEntity entity = createTestEntity(TEST_DEVICE_ID, DeviceStatus.IDLE);
-        when(mockDao.getById(TEST_DEVICE_ID)).thenReturn(entity);
         repository.updateBatteryLevel(50);
         assertEquals(50, repository.getCurrentBatteryLevel());
 
@@ -328,6 +415,17 @@ public class DeviceStatusRepositoryImplTest {
         assertEquals(100, repository.getCurrentBatteryLevel());
     }
 
+    @Test
+    public void testClearDeviceStatus_queuedWrite_notWrittenAfterDelete() {
+        repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
+
+        repository.clearDeviceStatus(TEST_DEVICE_ID);
+        assertTrue(repository.flushPendingStatus());
+
+        verify(mockDao).deleteById(TEST_DEVICE_ID);
+        verify(mockDao, never()).insertAll(anyList());
+    }
+
     @Test
     public void testClearDeviceStatus_nullDeviceId_throwsException() {
         assertThrows(IllegalArgumentException.class,
@@ -366,6 +464,18 @@ public class DeviceStatusRepositoryImplTest {
         verify(mockDao).deleteAll();
     }
 
+    @Test
+    public void testClearAllDeviceStatus_dropsQueuedWrites() {
+        repository.setIdle(TEST_DEVICE_ID);
+        repository.setLocked("other-device");
+
+        repository.clearAllDeviceStatus();
+        assertTrue(repository.flushPendingStatus());
+
+        verify(mockDao, never()).insertAll(anyList());
+        assertEquals(0, repository.getPendingWriteCount());
+    }
+
     @Test
     public void testClearAllDeviceStatus_clearsLiveData() {
         // First set a device
@@ -380,8 +490,6 @@ public class DeviceStatusRepositoryImplTest {
     public void testClearAllDeviceStatus_resetsBatteryLevel() {
         // First set a device and update battery level
         repository.updateStatus(TEST_DEVICE_ID, DeviceStatus.IDLE, null, null);
-        DeviceStatusEntity entity = createTestEntity(TEST_DEVICE_ID, DeviceStatus.IDLE);
-        when(mockDao.getById(TEST_DEVICE_ID)).thenReturn(entity);
         repository.updateBatteryLevel(50);
         assertEquals(50, repository.getCurrentBatteryLevel());
 
@@ -400,11 +508,7 @@ public class DeviceStatusRepositoryImplTest {
 
         repository.initialiseDeviceStatus(TEST_DEVICE_ID);
 
-        ArgumentCaptor<DeviceStatusEntity> captor =
-                ArgumentCaptor.forClass(DeviceStatusEntity.class);
-        verify(mockDao).insert(captor.capture());
-
-        assertEquals(DeviceStatus.IDLE, captor.getValue().getStatus());
+        assertEquals(DeviceStatus.IDLE, flushAndCaptureSingle().getStatus());
     }
 
     @Test
@@ -415,7 +519,10 @@ public class DeviceStatusRepositoryImplTest {
         repository.initialiseDeviceStatus(TEST_DEVICE_ID);
 
         // Should not insert new entity
+        assertTrue(repository.flushPendingStatus());
         verify(mockDao, never()).insert(any());
+        verify(mockDao, never()).insertAll(anyList());
+        assertEquals(TEST_BATTERY_LEVEL, repository.getCurrentBatteryLevel());
 
         // Should load existing status into LiveData
         com.manuscripta.student.domain.model.DeviceStatus liveDataValue =
@@ -424,6 +531,20 @@ public class DeviceStatusRepositoryImplTest {
         assertEquals(DeviceStatus.ON_TASK, liveDataValue.getStatus());
     }
 
+    @Test
+    public void testInitialiseDeviceStatus_alreadyTracked_doesNotReadDatabase() {
+        when(mockDao.getById(TEST_DEVICE_ID)).thenReturn(null);
+        repository.initialiseDeviceStatus(TEST_DEVICE_ID);
+
+        // As the heartbeat provider does on every beat
+        for (int i = 0; i < 10; i++) {
+            repository.initialiseDeviceStatus(TEST_DEVICE_ID);
+            assertNotNull(repository.getDeviceStatus(TEST_DEVICE_ID));
+        }
+
+        verify(mockDao, times(1)).getById(TEST_DEVICE_ID);
+    }
+
     @Test
     public void testInitialiseDeviceStatus_nullDeviceId_throwsException() {
         assertThrows(IllegalArgumentException.class,
@@ -466,8 +587,13 @@ public class DeviceStatusRepositoryImplTest {
 
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        // Verify all 10 inserts were called
-        verify(mockDao, times(threadCount)).insert(any(DeviceStatusEntity.class));
+        // Every device's latest status is written, all in one call
+        List<DeviceStatusEntity> written = flushAndCapture();
+        Set<String> deviceIds = new HashSet<>();
+        for (DeviceStatusEntity entity : written) {
+            deviceIds.add(entity.getDeviceId());
+        }
+        assertEquals(threadCount, deviceIds.size());
     }
 
     @Test
@@ -494,8 +620,8 @@ public class DeviceStatusRepositoryImplTest {
 
         assertTrue(latch.await(5, TimeUnit.SECONDS));
 
-        // Verify all 10 inserts were called (all targeting same device)
-        verify(mockDao, times(threadCount)).insert(any(DeviceStatusEntity.class));
+        // The ten transitions of one device coalesce into a single row
+        assertEquals(TEST_DEVICE_ID, flushAndCaptureSingle().getDeviceId());
 
         // Verify final state is consistent (LiveData has a value for TEST_DEVICE_ID)
         com.manuscripta.student.domain.model.DeviceStatus finalStatus =
@@ -504,8 +630,58 @@ public class DeviceStatusRepositoryImplTest {
         assertEquals(TEST_DEVICE_ID, finalStatus.getDeviceId());
     }
 
+    @Test
+    public void testConcurrentBatteryAndStatus_noUpdateLost() throws InterruptedException {
+        repository.setIdle(TEST_DEVICE_ID);
+        CountDownLatch done = new CountDownLatch(2);
+
+        new Thread(() -> {
+            for (int level = 99; level >= 40; level--) {
+                repository.updateBatteryLevel(level);
+            }
+            done.countDown();
+        }).start();
+        new Thread(() -> {
+            for (int i = 0; i < 60; i++) {
+                repository.setOnTask(TEST_DEVICE_ID, "material-" + i);
+            }
+            done.countDown();
+        }).start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        com.manuscripta.student.domain.model.DeviceStatus finalStatus =
+                repository.getDeviceStatus(TEST_DEVICE_ID);
+        assertNotNull(finalStatus);
+        assertEquals(40, finalStatus.getBatteryLevel());
+        assertEquals("material-59", finalStatus.getCurrentMaterialId());
+    }
+
     // ========== Helper methods ==========
 
+    /**
+     * Flushes the write queue and captures the entities of the only write.
+     *
+     * @return The written entities
+     */
+    @SuppressWarnings("unchecked")
+    private List<DeviceStatusEntity> flushAndCapture() {
+        assertTrue(repository.flushPendingStatus());
+        ArgumentCaptor<List<DeviceStatusEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockDao).insertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    /**
+     * Flushes the write queue and captures the single entity written.
+     *
+     * @return The written entity
+     */
+    private DeviceStatusEntity flushAndCaptureSingle() {
+        List<DeviceStatusEntity> written = flushAndCapture();
+        assertEquals(1, written.size());
+        return written.get(0);
+    }
+
     private DeviceStatusEntity createTestEntity(String deviceId, DeviceStatus status) {
         return new DeviceStatusEntity(
                 deviceId,
@@ -0,0 +1,194 @@
+package com.manuscripta.student.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.manuscripta.student.network.dto.DistributionBundleDto;
+import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link DistributionDelta}.
+ */
+public class DistributionDeltaTest {
+
+    private static MaterialDto material(String id, String title) {
+        return new MaterialDto(id, "READING", title, "Content", null, null, 1000L);
+    }
+
+    private static QuestionDto question(String id, String materialId, String text) {
+        return new QuestionDto(id, materialId, "WRITTEN_ANSWER", text, null, null, null);
+    }
+
+    @Test
+    public void testCompute_nullArguments_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DistributionDelta.compute(null, Collections.emptyMap()));
+        assertThrows(IllegalArgumentException.class,
+                () -> DistributionDelta.compute(new DistributionBundleDto(), null));
+    }
+
+    @Test
+    public void testCompute_emptyBundle_isEmpty() {
+        DistributionDelta delta =
+                DistributionDelta.compute(new DistributionBundleDto(), Collections.emptyMap());
+
+        assertTrue(delta.isEmpty());
+        assertTrue(delta.getUnchangedMaterialIds().isEmpty());
+    }
+
+    @Test
+    public void testCompute_emptyManifest_everythingIsNew() {
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Arrays.asList(material("m1", "One"), material("m2", "Two")),
+                Collections.singletonList(question("q1", "m1", "Q")));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, Collections.emptyMap());
+
+        assertEquals(2, delta.getChangedMaterials().size());
+        assertEquals(Arrays.asList("m1", "m2"), delta.getNewMaterialIds());
+        assertEquals(1, delta.getChangedQuestions().size());
+        assertFalse(delta.isEmpty());
+    }
+
+    @Test
+    public void testCompute_matchingManifest_everythingUnchanged() {
+        MaterialDto m1 = material("m1", "One");
+        QuestionDto q1 = question("q1", "m1", "Q");
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(m1), Collections.singletonList(q1));
+        Map<String, String> manifest = new HashMap<>();
+        manifest.put("m1", DistributionDelta.contentHash(m1, Collections.singletonList(q1)));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, manifest);
+
+        assertTrue(delta.isEmpty());
+        assertEquals(Collections.singletonList("m1"), delta.getUnchangedMaterialIds());
+        assertNull(delta.getContentHash("m1"));
+    }
+
+    @Test
+    public void testCompute_changedQuestion_marksMaterialChangedButNotNew() {
+        MaterialDto m1 = material("m1", "One");
+        Map<String, String> manifest = new HashMap<>();
+        manifest.put("m1", DistributionDelta.contentHash(m1,
+                Collections.singletonList(question("q1", "m1", "Old"))));
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(m1),
+                Collections.singletonList(question("q1", "m1", "New")));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, manifest);
+
+        assertEquals(1, delta.getChangedMaterials().size());
+        assertTrue(delta.getNewMaterialIds().isEmpty());
+        assertEquals("New", delta.getChangedQuestions().get(0).getQuestionText());
+        assertNotEquals(manifest.get("m1"), delta.getContentHash("m1"));
+    }
+
+    @Test
+    public void testCompute_mixedBundle_onlyChangedQuestionsIncluded() {
+        MaterialDto m1 = material("m1", "One");
+        QuestionDto q1 = question("q1", "m1", "Q1");
+        Map<String, String> manifest = new HashMap<>();
+        manifest.put("m1", DistributionDelta.contentHash(m1, Collections.singletonList(q1)));
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Arrays.asList(m1, material("m2", "Two")),
+                Arrays.asList(q1, question("q2", "m2", "Q2")));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, manifest);
+
+        assertEquals(Collections.singletonList("m1"), delta.getUnchangedMaterialIds());
+        assertEquals("m2", delta.getChangedMaterials().get(0).getId());
+        List<QuestionDto> questions = delta.getChangedQuestions();
+        assertEquals(1, questions.size());
+        assertEquals("q2", questions.get(0).getId());
+    }
+
+    @Test
+    public void testCompute_questionForStoredMaterial_included() {
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.emptyList(),
+                Collections.singletonList(question("q1", "stored", "Q")));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle,
+                Collections.singletonMap("stored", "hash"));
+
+        assertTrue(delta.getChangedMaterials().isEmpty());
+        assertEquals(1, delta.getChangedQuestions().size());
+        assertTrue(delta.getDroppedQuestions().isEmpty());
+    }
+
+    @Test
+    public void testCompute_questionForUnknownMaterial_dropped() {
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(material("m1", "One")),
+                Arrays.asList(question("q1", "m1", "Q1"), question("q2", "elsewhere", "Q2"),
+                        question("q3", null, "Q3")));
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, Collections.emptyMap());
+
+        assertEquals(1, delta.getChangedQuestions().size());
+        assertEquals("q1", delta.getChangedQuestions().get(0).getId());
+        assertEquals(2, delta.getDroppedQuestions().size());
+        assertEquals("q2", delta.getDroppedQuestions().get(0).getId());
+    }
+
+    @Test
+    public void testCompute_materialWithoutId_passedThroughForValidation() {
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(material(null, "No id")), Collections.emptyList());
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, Collections.emptyMap());
+
+        assertEquals(1, delta.getChangedMaterials().size());
+        assertTrue(delta.getNewMaterialIds().isEmpty());
+    }
+
+    @Test
+    public void testCompute_duplicateMaterialId_includedOnce() {
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Arrays.asList(material("m1", "One"), material("m1", "One")),
+                Collections.emptyList());
+
+        DistributionDelta delta = DistributionDelta.compute(bundle, Collections.emptyMap());
+
+        assertEquals(1, delta.getChangedMaterials().size());
+    }
+
+    @Test
+    public void testContentHash_independentOfQuestionOrder() {
+        MaterialDto m1 = material("m1", "One");
+        QuestionDto a = question("a", "m1", "A");
+        QuestionDto b = question("b", "m1", "B");
+
+        assertEquals(DistributionDelta.contentHash(m1, Arrays.asList(a, b)),
+                DistributionDelta.contentHash(m1, Arrays.asList(b, a)));
+    }
+
+    @Test
+    public void testContentHash_sensitiveToMaterialFields() {
+        assertNotEquals(DistributionDelta.contentHash(material("m1", "One"), null),
+                DistributionDelta.contentHash(material("m1", "One!"), null));
+    }
+
+    @Test
+    public void testContentHash_isLowercaseSha256Hex() {
+        String hash = DistributionDelta.contentHash(material("m1", "One"),
+                Collections.emptyList());
+
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]+"));
+    }
+}
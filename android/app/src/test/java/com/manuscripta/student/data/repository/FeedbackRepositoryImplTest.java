@@ -8,6 +8,8 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -16,6 +18,7 @@ import static org.mockito.Mockito.when;
 
 import com.manuscripta.student.data.local.FeedbackDao;
 import com.manuscripta.student.data.model.FeedbackEntity;
+import com.manuscripta.student.data.model.FeedbackMaterialTitleTuple;
 import com.manuscripta.student.domain.model.Feedback;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.FeedbackDto;
@@ -29,9 +32,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import okhttp3.MediaType;
 import okhttp3.ResponseBody;
@@ -129,13 +134,13 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(feedbackResponse);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then
-        verify(mockDao).insertAll(anyList());
+        verify(mockDao).applyIncrement(eq(TEST_DEVICE_ID), anyList(), isNull());
         verify(mockAckRetrySender).send(any(FeedbackAckMessage.class), anyString());
     }
 
@@ -146,13 +151,13 @@ public class FeedbackRepositoryImplTest {
                 ResponseBody.create(MediaType.parse("application/json"), "Not found"));
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then — no entities, no ACKs
-        verify(mockDao, never()).insertAll(anyList());
+        verify(mockDao, never()).applyIncrement(anyString(), anyList(), any());
         verify(mockAckRetrySender, never()).send(any(), anyString());
     }
 
@@ -163,7 +168,7 @@ public class FeedbackRepositoryImplTest {
                 ResponseBody.create(MediaType.parse("application/json"), "Server error"));
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When/Then
         IOException exception = assertThrows(
@@ -180,13 +185,13 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(null);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then — no entities, no ACKs
-        verify(mockDao, never()).insertAll(anyList());
+        verify(mockDao, never()).applyIncrement(anyString(), anyList(), any());
         verify(mockAckRetrySender, never()).send(any(), anyString());
     }
 
@@ -198,13 +203,13 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(feedbackResponse);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then — no entities, no ACKs
-        verify(mockDao, never()).insertAll(anyList());
+        verify(mockDao, never()).applyIncrement(anyString(), anyList(), any());
         verify(mockAckRetrySender, never()).send(any(), anyString());
     }
 
@@ -216,13 +221,13 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(feedbackResponse);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then — no entities, no ACKs
-        verify(mockDao, never()).insertAll(anyList());
+        verify(mockDao, never()).applyIncrement(anyString(), anyList(), any());
         verify(mockAckRetrySender, never()).send(any(), anyString());
     }
 
@@ -237,13 +242,13 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(feedbackResponse);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then - should still insert (only the valid one) and ACK only the valid one
-        verify(mockDao).insertAll(anyList());
+        verify(mockDao).applyIncrement(eq(TEST_DEVICE_ID), anyList(), isNull());
         verify(mockAckRetrySender, times(1)).send(any(FeedbackAckMessage.class), anyString());
     }
 
@@ -256,16 +261,67 @@ public class FeedbackRepositoryImplTest {
         Response<FeedbackResponse> response = Response.success(feedbackResponse);
         Call<FeedbackResponse> mockCall = mock(Call.class);
         when(mockCall.execute()).thenReturn(response);
-        when(mockApiService.getFeedback(TEST_DEVICE_ID)).thenReturn(mockCall);
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
 
         // When
         repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
 
         // Then - ACK is delegated to the retry sender, feedback still stored
-        verify(mockDao).insertAll(anyList());
+        verify(mockDao).applyIncrement(eq(TEST_DEVICE_ID), anyList(), isNull());
         verify(mockAckRetrySender).send(any(FeedbackAckMessage.class), anyString());
     }
 
+    @Test
+    public void testFetchAndStoreFeedback_storedCursor_sentAsSince() throws Exception {
+        // Given
+        when(mockDao.getCursor(TEST_DEVICE_ID)).thenReturn("cursor-1");
+        Call<FeedbackResponse> mockCall = mock(Call.class);
+        when(mockCall.execute()).thenReturn(
+                Response.success(new FeedbackResponse(Collections.emptyList(), "cursor-1")));
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, "cursor-1")).thenReturn(mockCall);
+
+        // When
+        repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
+
+        // Then - unchanged cursor and nothing new, so nothing is written
+        verify(mockApiService).getFeedbackSince(TEST_DEVICE_ID, "cursor-1");
+        verify(mockDao, never()).applyIncrement(anyString(), anyList(), any());
+    }
+
+    @Test
+    public void testFetchAndStoreFeedback_newCursor_storedWithFeedback() throws Exception {
+        // Given
+        when(mockDao.getCursor(TEST_DEVICE_ID)).thenReturn("cursor-1");
+        FeedbackDto dto = new FeedbackDto(TEST_FEEDBACK_ID, TEST_RESPONSE_ID, "Good", 70);
+        Call<FeedbackResponse> mockCall = mock(Call.class);
+        when(mockCall.execute()).thenReturn(Response.success(
+                new FeedbackResponse(Collections.singletonList(dto), "cursor-2")));
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, "cursor-1")).thenReturn(mockCall);
+
+        // When
+        repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
+
+        // Then
+        verify(mockDao).applyIncrement(eq(TEST_DEVICE_ID), anyList(), eq("cursor-2"));
+    }
+
+    @Test
+    public void testFetchAndStoreFeedback_newCursorWithoutFeedback_advancesCursor()
+            throws Exception {
+        // Given
+        Call<FeedbackResponse> mockCall = mock(Call.class);
+        when(mockCall.execute()).thenReturn(
+                Response.success(new FeedbackResponse(Collections.emptyList(), "cursor-2")));
+        when(mockApiService.getFeedbackSince(TEST_DEVICE_ID, null)).thenReturn(mockCall);
+
+        // When
+        repository.fetchAndStoreFeedback(TEST_DEVICE_ID);
+
+        // Then
+        verify(mockDao).applyIncrement(TEST_DEVICE_ID, Collections.emptyList(), "cursor-2");
+        verify(mockAckRetrySender, never()).send(any(), anyString());
+    }
+
     // ==================== getFeedbackForResponse Tests ====================
 
     @Test
@@ -349,6 +405,55 @@ public class FeedbackRepositoryImplTest {
         assertEquals(2, result.size());
     }
 
+    // ==================== getMaterialTitles Tests ====================
+
+    @Test
+    public void testGetMaterialTitles_mapsRowsByFeedbackId() {
+        // Given
+        when(mockDao.getMaterialTitles(Arrays.asList("f-1", "f-2", "f-3"))).thenReturn(Arrays.asList(
+                new FeedbackMaterialTitleTuple("f-1", "Worksheet"),
+                new FeedbackMaterialTitleTuple("f-3", "Reading")));
+
+        // When
+        Map<String, String> result =
+                repository.getMaterialTitles(Arrays.asList("f-1", "f-2", "f-3"));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("Worksheet", result.get("f-1"));
+        assertEquals("Reading", result.get("f-3"));
+        assertNull(result.get("f-2"));
+    }
+
+    @Test
+    public void testGetMaterialTitles_manyIds_chunkedBelowBindLimit() {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < FeedbackDao.MAX_IDS_PER_QUERY * 2 + 1; i++) {
+            ids.add("f-" + i);
+        }
+        when(mockDao.getMaterialTitles(anyList())).thenReturn(Collections.emptyList());
+
+        // When
+        repository.getMaterialTitles(ids);
+
+        // Then
+        verify(mockDao, times(3)).getMaterialTitles(anyList());
+    }
+
+    @Test
+    public void testGetMaterialTitles_emptyIds_noQuery() {
+        assertTrue(repository.getMaterialTitles(Collections.emptyList()).isEmpty());
+
+        verify(mockDao, never()).getMaterialTitles(anyList());
+    }
+
+    @Test
+    public void testGetMaterialTitles_nullIds_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.getMaterialTitles(null));
+    }
+
     // ==================== deleteAllFeedback Tests ====================
 
     @Test
@@ -358,6 +463,7 @@ public class FeedbackRepositoryImplTest {
 
         // Then
         verify(mockDao).deleteAll();
+        verify(mockDao).deleteAllCursors();
     }
 
     // ==================== getFeedbackCount Tests ====================
@@ -2,36 +2,55 @@ package com.manuscripta.student.data.repository;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
+import com.manuscripta.student.data.local.DistributionDao;
+import com.manuscripta.student.data.local.MaterialContentStore;
 import com.manuscripta.student.data.local.MaterialDao;
 import com.manuscripta.student.data.local.QuestionDao;
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialManifestEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.data.model.SessionEntity;
+import com.manuscripta.student.data.model.SessionStatus;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.Question;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.dto.DistributionBundleDto;
 import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
 import com.manuscripta.student.network.tcp.AckRetrySender;
 import com.manuscripta.student.network.tcp.TcpSocketManager;
 import com.manuscripta.student.network.tcp.message.DistributeAckMessage;
 import com.manuscripta.student.utils.FileStorageManager;
+import com.manuscripta.student.utils.ListDiff;
 
+import java.io.File;
 import java.io.IOException;
 
 import okhttp3.MediaType;
@@ -67,9 +86,15 @@ public class MaterialRepositoryImplTest {
     @Mock
     private QuestionDao mockQuestionDao;
 
+    @Mock
+    private DistributionDao mockDistributionDao;
+
     @Mock
     private FileStorageManager mockFileStorageManager;
 
+    @Mock
+    private MaterialContentStore mockContentStore;
+
     @Mock
     private ApiService mockApiService;
 
@@ -79,29 +104,30 @@ public class MaterialRepositoryImplTest {
     @Mock
     private AckRetrySender mockAckRetrySender;
 
-    @Mock
-    private SessionRepository mockSessionRepository;
-
     @Mock
     private Call<DistributionBundleDto> mockDistributionCall;
 
     @Mock
     private Call<ResponseBody> mockAttachmentCall;
 
+    private MutableLiveData<List<MaterialSummaryTuple>> summariesLiveData;
     private MaterialRepositoryImpl repository;
 
     private static final String TEST_MATERIAL_ID = "test-material-123";
     private static final String TEST_DEVICE_ID = "test-device-456";
     private static final String TEST_ATTACHMENT_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String CONTENT_HASH =
+            "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
     private static final String CONTENT_WITH_ATTACHMENT =
             "Content /attachments/" + TEST_ATTACHMENT_ID;
 
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        when(mockDao.getAll()).thenReturn(new ArrayList<>());
-        repository = new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockFileStorageManager,
-                mockApiService, mockTcpSocketManager, mockAckRetrySender, mockSessionRepository);
+        summariesLiveData = new MutableLiveData<>(new ArrayList<>());
+        when(mockDao.getAllSummariesLive()).thenReturn(summariesLiveData);
+        repository = new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                mockContentStore, mockApiService, mockTcpSocketManager, mockAckRetrySender);
     }
 
     // ========== Constructor tests ==========
@@ -114,56 +140,59 @@ public class MaterialRepositoryImplTest {
     @Test
     public void testConstructor_nullDao_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(null, mockQuestionDao, mockFileStorageManager,
-                        mockApiService, mockTcpSocketManager, mockAckRetrySender,
-                        mockSessionRepository));
+                () -> new MaterialRepositoryImpl(null, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                        mockContentStore, mockApiService, mockTcpSocketManager, mockAckRetrySender));
     }
 
     @Test
     public void testConstructor_nullQuestionDao_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(mockDao, null, mockFileStorageManager,
-                        mockApiService, mockTcpSocketManager, mockAckRetrySender,
-                        mockSessionRepository));
+                () -> new MaterialRepositoryImpl(mockDao, null, mockDistributionDao, mockFileStorageManager,
+                        mockContentStore, mockApiService, mockTcpSocketManager, mockAckRetrySender));
     }
 
     @Test
-    public void testConstructor_nullFileStorageManager_throwsException() {
+    public void testConstructor_nullDistributionDao_throwsException() {
         assertThrows(IllegalArgumentException.class,
                 () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, null,
-                        mockApiService, mockTcpSocketManager, mockAckRetrySender,
-                        mockSessionRepository));
+                        mockFileStorageManager, mockContentStore, mockApiService, mockTcpSocketManager,
+                        mockAckRetrySender));
     }
 
     @Test
-    public void testConstructor_nullApiService_throwsException() {
+    public void testConstructor_nullFileStorageManager_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockFileStorageManager,
-                        null, mockTcpSocketManager, mockAckRetrySender,
-                        mockSessionRepository));
+                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao, null, mockContentStore,
+                        mockApiService, mockTcpSocketManager, mockAckRetrySender));
     }
 
     @Test
-    public void testConstructor_nullTcpSocketManager_throwsException() {
+    public void testConstructor_nullContentStore_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockFileStorageManager,
-                        mockApiService, null, mockAckRetrySender,
-                        mockSessionRepository));
+                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao,
+                        mockFileStorageManager, null, mockApiService, mockTcpSocketManager,
+                        mockAckRetrySender));
     }
 
     @Test
-    public void testConstructor_nullAckRetrySender_throwsException() {
+    public void testConstructor_nullApiService_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                        mockContentStore, null, mockTcpSocketManager, mockAckRetrySender));
+    }
+
+    @Test
+    public void testConstructor_nullTcpSocketManager_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockFileStorageManager,
-                        mockApiService, mockTcpSocketManager, null,
-                        mockSessionRepository));
+                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                        mockContentStore, mockApiService, null, mockAckRetrySender));
     }
 
     @Test
-    public void testConstructor_nullSessionRepository_throwsException() {
+    public void testConstructor_nullAckRetrySender_throwsException() {
         assertThrows(IllegalArgumentException.class,
-                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockFileStorageManager,
-                        mockApiService, mockTcpSocketManager, mockAckRetrySender, null));
+                () -> new MaterialRepositoryImpl(mockDao, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                        mockContentStore, mockApiService, mockTcpSocketManager, null));
     }
 
     // ========== getMaterialById tests ==========
@@ -252,49 +281,78 @@ public class MaterialRepositoryImplTest {
                 () -> repository.getMaterialsByType(null));
     }
 
-    // ========== getMaterialsLiveData tests ==========
+    // ========== getMaterialSummariesLiveData tests ==========
 
     @Test
-    public void testGetMaterialsLiveData_returnsNonNullLiveData() {
-        LiveData<List<Material>> liveData = repository.getMaterialsLiveData();
+    public void testGetMaterialSummariesLiveData_returnsNonNullLiveData() {
+        LiveData<List<MaterialSummary>> liveData = repository.getMaterialSummariesLiveData();
 
         assertNotNull(liveData);
     }
 
     @Test
-    public void testGetMaterialsLiveData_initialValue_isEmpty() {
-        LiveData<List<Material>> liveData = repository.getMaterialsLiveData();
+    public void testGetMaterialSummariesLiveData_initialValue_isEmpty() {
+        LiveData<List<MaterialSummary>> liveData = repository.getMaterialSummariesLiveData();
+        liveData.observeForever(summaries -> { });
 
         assertNotNull(liveData.getValue());
         assertTrue(liveData.getValue().isEmpty());
     }
 
-    // ========== saveMaterial tests ==========
+    @Test
+    public void testGetMaterialSummariesLiveData_followsDatabase() {
+        LiveData<List<MaterialSummary>> liveData = repository.getMaterialSummariesLiveData();
+        liveData.observeForever(summaries -> { });
+
+        summariesLiveData.setValue(Collections.singletonList(createTuple(TEST_MATERIAL_ID, "Title")));
+
+        assertEquals(1, liveData.getValue().size());
+        assertEquals(TEST_MATERIAL_ID, liveData.getValue().get(0).getId());
+        verify(mockDao, never()).getAll();
+    }
 
     @Test
-    public void testSaveMaterial_insertsIntoDao() {
-        Material material = createTestDomainMaterial(TEST_MATERIAL_ID);
+    public void testGetMaterialSummaryChanges_unchangedRows_notEmitted() {
+        List<ListDiff<MaterialSummary>> emitted = new ArrayList<>();
+        repository.getMaterialSummaryChanges().observeForever(emitted::add);
+        List<MaterialSummaryTuple> rows = Collections.singletonList(
+                createTuple(TEST_MATERIAL_ID, "Title"));
 
-        repository.saveMaterial(material);
+        summariesLiveData.setValue(rows);
+        summariesLiveData.setValue(new ArrayList<>(rows));
 
-        ArgumentCaptor<MaterialEntity> captor = ArgumentCaptor.forClass(MaterialEntity.class);
-        verify(mockDao).insert(captor.capture());
-        assertEquals(TEST_MATERIAL_ID, captor.getValue().getId());
+        // The initial empty list, then the added material; the re-run changes nothing
+        assertEquals(2, emitted.size());
+        assertEquals(1, emitted.get(1).getAdded().size());
     }
 
     @Test
-    public void testSaveMaterial_refreshesLiveData() {
+    public void testGetMaterialSummaryChanges_reportsChangedAndRemoved() {
+        List<ListDiff<MaterialSummary>> emitted = new ArrayList<>();
+        repository.getMaterialSummaryChanges().observeForever(emitted::add);
+        summariesLiveData.setValue(Arrays.asList(
+                createTuple("mat-1", "Old"), createTuple("mat-2", "Kept")));
+
+        summariesLiveData.setValue(Collections.singletonList(createTuple("mat-1", "New")));
+
+        ListDiff<MaterialSummary> last = emitted.get(emitted.size() - 1);
+        assertTrue(last.getAdded().isEmpty());
+        assertEquals(1, last.getChanged().size());
+        assertEquals("New", last.getChanged().get(0).getTitle());
+        assertEquals(Collections.singleton("mat-2"), last.getRemovedKeys());
+    }
+
+    // ========== saveMaterial tests ==========
+
+    @Test
+    public void testSaveMaterial_insertsIntoDao() {
         Material material = createTestDomainMaterial(TEST_MATERIAL_ID);
-        List<MaterialEntity> entities = Collections.singletonList(
-                createTestEntity(TEST_MATERIAL_ID)
-        );
-        when(mockDao.getAll()).thenReturn(entities);
 
         repository.saveMaterial(material);
 
-        List<Material> liveDataValue = repository.getMaterialsLiveData().getValue();
-        assertNotNull(liveDataValue);
-        assertEquals(1, liveDataValue.size());
+        ArgumentCaptor<MaterialEntity> captor = ArgumentCaptor.forClass(MaterialEntity.class);
+        verify(mockDao).insert(captor.capture());
+        assertEquals(TEST_MATERIAL_ID, captor.getValue().getId());
     }
 
     @Test
@@ -380,6 +438,176 @@ public class MaterialRepositoryImplTest {
         verify(mockFileStorageManager).clearAllAttachments();
     }
 
+    @Test
+    public void testDeleteAllMaterials_notifiesSessionsChanged() {
+        Runnable listener = mock(Runnable.class);
+        repository.setSessionsChangedListener(listener);
+
+        repository.deleteAllMaterials();
+
+        verify(listener).run();
+    }
+
+    @Test
+    public void testDiscardLocalCopies_clearsFilesAndContentWithoutTouchingDao() {
+        repository.discardLocalCopies();
+
+        verify(mockFileStorageManager).clearAllAttachments();
+        verify(mockContentStore).clear();
+        verify(mockDao, never()).deleteAll();
+    }
+
+    @Test
+    public void testDeleteMaterial_notifiesSessionsChanged() {
+        Runnable listener = mock(Runnable.class);
+        repository.setSessionsChangedListener(listener);
+
+        repository.deleteMaterial(TEST_MATERIAL_ID);
+
+        verify(listener).run();
+    }
+
+    // ========== getQuestionsForMaterial tests ==========
+
+    @Test
+    public void testGetQuestionsForMaterial_mapsQuestions() {
+        when(mockQuestionDao.getByMaterialId(TEST_MATERIAL_ID))
+                .thenReturn(Collections.singletonList(createQuestionEntity("q-1", TEST_MATERIAL_ID)));
+
+        List<Question> questions = repository.getQuestionsForMaterial(TEST_MATERIAL_ID);
+
+        assertEquals(1, questions.size());
+        assertEquals("q-1", questions.get(0).getId());
+    }
+
+    @Test
+    public void testGetQuestionsForMaterial_secondReadServedFromCache() {
+        when(mockQuestionDao.getByMaterialId(TEST_MATERIAL_ID))
+                .thenReturn(Collections.singletonList(createQuestionEntity("q-1", TEST_MATERIAL_ID)));
+
+        List<Question> first = repository.getQuestionsForMaterial(TEST_MATERIAL_ID);
+        List<Question> second = repository.getQuestionsForMaterial(TEST_MATERIAL_ID);
+
+        assertSame(first, second);
+        verify(mockQuestionDao, times(1)).getByMaterialId(TEST_MATERIAL_ID);
+    }
+
+    @Test
+    public void testGetQuestionsForMaterial_invalidId_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.getQuestionsForMaterial(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.getQuestionsForMaterial("  "));
+    }
+
+    @Test
+    public void testSaveMaterial_invalidatesOnlyItsQuestions() {
+        when(mockQuestionDao.getByMaterialId(anyString())).thenReturn(Collections.emptyList());
+        repository.getQuestionsForMaterial("mat1");
+        repository.getQuestionsForMaterial("mat2");
+
+        repository.saveMaterial(createTestDomainMaterial("mat1"));
+        repository.getQuestionsForMaterial("mat1");
+        repository.getQuestionsForMaterial("mat2");
+
+        verify(mockQuestionDao, times(2)).getByMaterialId("mat1");
+        verify(mockQuestionDao, times(1)).getByMaterialId("mat2");
+    }
+
+    @Test
+    public void testDeleteMaterial_invalidatesItsQuestions() {
+        when(mockQuestionDao.getByMaterialId(TEST_MATERIAL_ID)).thenReturn(Collections.emptyList());
+        repository.getQuestionsForMaterial(TEST_MATERIAL_ID);
+
+        repository.deleteMaterial(TEST_MATERIAL_ID);
+        repository.getQuestionsForMaterial(TEST_MATERIAL_ID);
+
+        verify(mockQuestionDao, times(2)).getByMaterialId(TEST_MATERIAL_ID);
+    }
+
+    @Test
+    public void testInvalidateQuestions_dropsEveryMaterial() {
+        when(mockQuestionDao.getByMaterialId(anyString())).thenReturn(Collections.emptyList());
+        repository.getQuestionsForMaterial("mat1");
+        repository.getQuestionsForMaterial("mat2");
+
+        repository.invalidateQuestions();
+        repository.getQuestionsForMaterial("mat1");
+        repository.getQuestionsForMaterial("mat2");
+
+        verify(mockQuestionDao, times(2)).getByMaterialId("mat1");
+        verify(mockQuestionDao, times(2)).getByMaterialId("mat2");
+    }
+
+    @Test
+    public void testObserveQuestions_firstEmissionServedFromCache() {
+        when(mockQuestionDao.getByMaterialId("mat1"))
+                .thenReturn(Collections.singletonList(createQuestionEntity("q1", "mat1")));
+        when(mockQuestionDao.getByMaterialIdLive("mat1")).thenReturn(new MutableLiveData<>());
+        repository.getQuestionsForMaterial("mat1");
+
+        List<List<Question>> emitted = new ArrayList<>();
+        repository.observeQuestionsForMaterial("mat1").observeForever(emitted::add);
+
+        assertEquals(1, emitted.size());
+        assertEquals("q1", emitted.get(0).get(0).getId());
+    }
+
+    @Test
+    public void testObserveQuestions_queryResultHeldForLaterReads() {
+        MutableLiveData<List<QuestionEntity>> rows = new MutableLiveData<>();
+        when(mockQuestionDao.getByMaterialIdLive("mat1")).thenReturn(rows);
+        List<List<Question>> emitted = new ArrayList<>();
+        repository.observeQuestionsForMaterial("mat1").observeForever(emitted::add);
+
+        rows.setValue(Collections.singletonList(createQuestionEntity("q1", "mat1")));
+        List<Question> questions = repository.getQuestionsForMaterial("mat1");
+
+        assertEquals(1, emitted.size());
+        assertEquals("q1", questions.get(0).getId());
+        verify(mockQuestionDao, never()).getByMaterialId("mat1");
+    }
+
+    @Test
+    public void testObserveQuestions_resultRacingAWriteNotHeld() {
+        when(mockQuestionDao.getByMaterialId("mat1")).thenReturn(Collections.emptyList());
+        MutableLiveData<List<QuestionEntity>> rows = new MutableLiveData<>();
+        when(mockQuestionDao.getByMaterialIdLive("mat1")).thenReturn(rows);
+        repository.observeQuestionsForMaterial("mat1").observeForever(questions -> { });
+
+        // The result may have been read before the write, so it is passed on but not held
+        repository.invalidateQuestions();
+        rows.setValue(Collections.singletonList(createQuestionEntity("q1", "mat1")));
+        repository.getQuestionsForMaterial("mat1");
+
+        verify(mockQuestionDao).getByMaterialId("mat1");
+    }
+
+    @Test
+    public void testObserveQuestions_emptyId_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.observeQuestionsForMaterial(""));
+    }
+
+    @Test
+    public void testSyncMaterials_invalidatesWrittenMaterialsQuestions() throws Exception {
+        when(mockQuestionDao.getByMaterialId(anyString())).thenReturn(Collections.emptyList());
+        repository.getQuestionsForMaterial("mat-1");
+        repository.getQuestionsForMaterial("mat-2");
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+        repository.getQuestionsForMaterial("mat-1");
+        repository.getQuestionsForMaterial("mat-2");
+
+        verify(mockQuestionDao, times(2)).getByMaterialId("mat-1");
+        verify(mockQuestionDao, times(1)).getByMaterialId("mat-2");
+    }
+
     // ========== getMaterialCount tests ==========
 
     @Test
@@ -530,7 +758,7 @@ public class MaterialRepositoryImplTest {
         repository.syncMaterials(TEST_DEVICE_ID);
 
         // Materials still saved and callback fires
-        verify(mockDao).insert(any(MaterialEntity.class));
+        verify(mockDistributionDao).applyDelta(anyList(), anyList(), anyList(), anyList());
         assertTrue(callbackCalled[0]);
     }
 
@@ -548,6 +776,265 @@ public class MaterialRepositoryImplTest {
         verify(mockAckRetrySender, times(2)).send(any(DistributeAckMessage.class), anyString());
     }
 
+    // ========== Delta sync tests ==========
+
+    @Test
+    public void testSyncMaterials_unchangedMaterial_skipsWritesDownloadsAndSession()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", CONTENT_WITH_ATTACHMENT,
+                null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockDistributionDao.getManifest()).thenReturn(Collections.singletonList(
+                new MaterialManifestEntity("mat-1",
+                        DistributionDelta.contentHash(dto, Collections.emptyList()))));
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockDistributionDao, never()).applyDelta(anyList(), anyList(), anyList(), anyList());
+        verify(mockApiService, never()).getAttachment(anyString());
+        verify(mockAckRetrySender).send(any(DistributeAckMessage.class), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSyncMaterials_changedMaterial_appliesDeltaWithoutNewSession()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "New title", null, null, null, 0L);
+        QuestionDto question = new QuestionDto("q-1", "mat-1", "MULTIPLE_CHOICE", "Pick",
+                Arrays.asList("A", "B"), "0", 1);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.singletonList(question));
+        when(mockDistributionDao.getManifest()).thenReturn(Collections.singletonList(
+                new MaterialManifestEntity("mat-1", "stale-hash")));
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        ArgumentCaptor<List<MaterialEntity>> materials = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<QuestionEntity>> questions = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<MaterialManifestEntity>> manifest =
+                ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<SessionEntity>> sessions = ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao).applyDelta(materials.capture(), questions.capture(),
+                manifest.capture(), sessions.capture());
+        assertEquals("New title", materials.getValue().get(0).getTitle());
+        assertEquals("q-1", questions.getValue().get(0).getId());
+        assertEquals(DistributionDelta.contentHash(dto, Collections.singletonList(question)),
+                manifest.getValue().get(0).getContentHash());
+        assertTrue(sessions.getValue().isEmpty());
+        verify(mockAckRetrySender).send(any(DistributeAckMessage.class), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSyncMaterials_questionForUnknownMaterial_droppedBeforeWrite()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        QuestionDto valid = new QuestionDto("q-1", "mat-1", "WRITTEN_ANSWER", "Why?",
+                null, null, null);
+        QuestionDto orphan = new QuestionDto("q-2", "mat-unknown", "WRITTEN_ANSWER", "How?",
+                null, null, null);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Arrays.asList(valid, orphan));
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        ArgumentCaptor<List<QuestionEntity>> questions = ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao).applyDelta(anyList(), questions.capture(), anyList(),
+                anyList());
+        assertEquals(1, questions.getValue().size());
+        assertEquals("q-1", questions.getValue().get(0).getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSyncMaterials_newMaterial_createsReceivedSessionInSameTransaction()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        ArgumentCaptor<List<SessionEntity>> sessions = ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao).applyDelta(anyList(), anyList(), anyList(),
+                sessions.capture());
+        assertEquals(1, sessions.getValue().size());
+        SessionEntity session = sessions.getValue().get(0);
+        assertEquals("mat-1", session.getMaterialId());
+        assertEquals(TEST_DEVICE_ID, session.getDeviceId());
+        assertEquals(SessionStatus.RECEIVED, session.getStatus());
+    }
+
+    @Test
+    public void testSyncMaterials_newMaterial_notifiesSessionsChanged() throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+        Runnable listener = mock(Runnable.class);
+        repository.setSessionsChangedListener(listener);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(listener).run();
+    }
+
+    @Test
+    public void testSyncMaterials_changedMaterialOnly_doesNotNotifySessionsChanged()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "New title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockDistributionDao.getManifest()).thenReturn(Collections.singletonList(
+                new MaterialManifestEntity("mat-1", "stale-hash")));
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+        Runnable listener = mock(Runnable.class);
+        repository.setSessionsChangedListener(listener);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(listener, never()).run();
+    }
+
+    @Test
+    public void testSyncMaterials_newMaterial_notifiesAttachmentsChanged() throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+        Runnable listener = mock(Runnable.class);
+        repository.setAttachmentsChangedListener(listener);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(listener).run();
+    }
+
+    @Test
+    public void testSyncMaterials_unchangedMaterial_doesNotNotifyAttachmentsChanged()
+            throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", null, null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockDistributionDao.getManifest()).thenReturn(Collections.singletonList(
+                new MaterialManifestEntity("mat-1",
+                        DistributionDelta.contentHash(dto, Collections.emptyList()))));
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+        Runnable listener = mock(Runnable.class);
+        repository.setAttachmentsChangedListener(listener);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(listener, never()).run();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSyncMaterials_largeBundle_writtenInBoundedChunks() throws Exception {
+        int count = DistributionDao.MAX_MATERIALS_PER_TRANSACTION * 2 + 1;
+        List<MaterialDto> dtos = new ArrayList<>();
+        List<QuestionDto> questionDtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            dtos.add(new MaterialDto("mat-" + i, "READING", "Title " + i, null, null, null, 0L));
+            questionDtos.add(new QuestionDto("q-" + i, "mat-" + i, "WRITTEN_ANSWER", "Why?",
+                    null, null, null));
+        }
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute())
+                .thenReturn(Response.success(new DistributionBundleDto(dtos, questionDtos)));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        ArgumentCaptor<List<MaterialEntity>> materials = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<QuestionEntity>> questions = ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao, times(3)).applyDelta(materials.capture(),
+                questions.capture(), anyList(), anyList());
+        assertEquals(DistributionDao.MAX_MATERIALS_PER_TRANSACTION,
+                materials.getAllValues().get(0).size());
+        assertEquals(1, materials.getAllValues().get(2).size());
+        // Each chunk carries exactly its own materials' questions
+        assertEquals("mat-" + (count - 1),
+                questions.getAllValues().get(2).get(0).getMaterialId());
+        verify(mockAckRetrySender, times(count))
+                .send(any(DistributeAckMessage.class), anyString());
+    }
+
+    @Test
+    public void testSyncMaterials_failedChunk_earlierChunksAcked()
+            throws Exception {
+        int count = DistributionDao.MAX_MATERIALS_PER_TRANSACTION + 1;
+        List<MaterialDto> dtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            dtos.add(new MaterialDto("mat-" + i, "READING", "Title " + i, null, null, null, 0L));
+        }
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(
+                Response.success(new DistributionBundleDto(dtos, Collections.emptyList())));
+        doNothing().doThrow(new RuntimeException("disk full")).when(mockDistributionDao)
+                .applyDelta(anyList(), anyList(), anyList(), anyList());
+        final boolean[] callbackCalled = {false};
+        repository.setMaterialAvailableCallback(() -> callbackCalled[0] = true);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockAckRetrySender, times(DistributionDao.MAX_MATERIALS_PER_TRANSACTION))
+                .send(any(DistributeAckMessage.class), anyString());
+        verify(mockContentStore).retainOnly(any());
+        assertFalse(callbackCalled[0]);
+        assertFalse(repository.isSyncing());
+    }
+
+    @Test
+    public void testSyncMaterials_invalidMaterial_notWrittenOrAcked() throws Exception {
+        MaterialDto invalid = new MaterialDto("mat-bad", "NOT_A_TYPE", "Title", null, null,
+                null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(invalid), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockDistributionDao, never()).applyDelta(anyList(), anyList(), anyList(), anyList());
+        verify(mockAckRetrySender, never()).send(any(DistributeAckMessage.class), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSyncMaterials_attachmentFails_manifestHashForcesRetry() throws Exception {
+        MaterialDto dto = new MaterialDto("mat-1", "READING", "Title", CONTENT_WITH_ATTACHMENT,
+                null, null, 0L);
+        DistributionBundleDto bundle = new DistributionBundleDto(
+                Collections.singletonList(dto), Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(bundle));
+        when(mockApiService.getAttachment(TEST_ATTACHMENT_ID)).thenReturn(mockAttachmentCall);
+        when(mockAttachmentCall.execute())
+                .thenReturn(Response.error(404, ResponseBody.create(null, "")));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        ArgumentCaptor<List<MaterialManifestEntity>> manifest =
+                ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao).applyDelta(anyList(), anyList(), manifest.capture(),
+                anyList());
+        assertNotEquals(DistributionDelta.contentHash(dto, Collections.emptyList()),
+                manifest.getValue().get(0).getContentHash());
+    }
+
     // ========== isSyncing tests ==========
 
     @Test
@@ -712,6 +1199,39 @@ public class MaterialRepositoryImplTest {
                 anyString());
     }
 
+    /**
+     * An attachment already stored under another material is linked, not downloaded.
+     *
+     * @throws IOException if mock setup fails
+     */
+    @Test
+    public void testSyncMaterials_attachmentAlreadyStored_skipsDownload()
+            throws IOException {
+        String attId =
+                "550e8400-e29b-41d4-a716-446655440009";
+        String content =
+                "![img](/attachments/" + attId + ")";
+        MaterialDto dto = new MaterialDto(
+                "mat-1", "READING", "Title", content,
+                null, null, 0L);
+        DistributionBundleDto bundle =
+                new DistributionBundleDto(
+                        Collections.singletonList(dto),
+                        Collections.emptyList());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID))
+                .thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute())
+                .thenReturn(Response.success(bundle));
+        when(mockFileStorageManager.reuseStoredAttachment("mat-1", attId))
+                .thenReturn(new File("linked.png"));
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockApiService, never()).getAttachment(anyString());
+        verify(mockFileStorageManager, never()).saveAttachment(
+                anyString(), anyString(), anyString(), any(byte[].class));
+    }
+
     /**
      * When attachment download fails, ACK is still sent.
      *
@@ -747,7 +1267,7 @@ public class MaterialRepositoryImplTest {
         repository.syncMaterials(TEST_DEVICE_ID);
 
         // Material is still saved to DB
-        verify(mockDao).insert(any(MaterialEntity.class));
+        verify(mockDistributionDao).applyDelta(anyList(), anyList(), anyList(), anyList());
         // ACK is sent despite attachment failure
         verify(mockAckRetrySender).send(
                 any(DistributeAckMessage.class),
@@ -786,7 +1306,7 @@ public class MaterialRepositoryImplTest {
 
         repository.syncMaterials(TEST_DEVICE_ID);
 
-        verify(mockDao).insert(any(MaterialEntity.class));
+        verify(mockDistributionDao).applyDelta(anyList(), anyList(), anyList(), anyList());
         verify(mockAckRetrySender).send(
                 any(DistributeAckMessage.class),
                 anyString());
@@ -849,8 +1369,8 @@ public class MaterialRepositoryImplTest {
         repository.syncMaterials(TEST_DEVICE_ID);
 
         // Should return early without processing
-        verify(mockDao, never()).insert(
-                any(MaterialEntity.class));
+        verify(mockDistributionDao, never()).applyDelta(
+                anyList(), anyList(), anyList(), anyList());
     }
 
     /**
@@ -906,6 +1426,187 @@ public class MaterialRepositoryImplTest {
         assertFalse(repository.isSyncing());
     }
 
+    // ========== Off-row content tests ==========
+
+    @Test
+    public void testSaveMaterial_longContent_storedOutsideRow() {
+        String content = longContent();
+        when(mockContentStore.put(content)).thenReturn(CONTENT_HASH);
+
+        repository.saveMaterial(new Material(TEST_MATERIAL_ID, MaterialType.READING, "Title",
+                content, "{}", "[]", 1000L));
+
+        ArgumentCaptor<MaterialEntity> captor = ArgumentCaptor.forClass(MaterialEntity.class);
+        verify(mockDao).insert(captor.capture());
+        assertNull(captor.getValue().getContent());
+        assertEquals(CONTENT_HASH, captor.getValue().getContentHash());
+    }
+
+    @Test
+    public void testSaveMaterial_longContentNotStored_keptInline() {
+        String content = longContent();
+        when(mockContentStore.put(content)).thenReturn(null);
+
+        repository.saveMaterial(new Material(TEST_MATERIAL_ID, MaterialType.READING, "Title",
+                content, "{}", "[]", 1000L));
+
+        ArgumentCaptor<MaterialEntity> captor = ArgumentCaptor.forClass(MaterialEntity.class);
+        verify(mockDao).insert(captor.capture());
+        assertEquals(content, captor.getValue().getContent());
+        assertNull(captor.getValue().getContentHash());
+    }
+
+    @Test
+    public void testSaveMaterial_shortContent_keptInline() {
+        repository.saveMaterial(createTestDomainMaterial(TEST_MATERIAL_ID));
+
+        verify(mockContentStore, never()).put(anyString());
+    }
+
+    @Test
+    public void testGetMaterialById_contentOutsideRow_readsStore() {
+        when(mockDao.getById(TEST_MATERIAL_ID)).thenReturn(createOffRowEntity(TEST_MATERIAL_ID));
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn("Stored content");
+
+        Material result = repository.getMaterialById(TEST_MATERIAL_ID);
+
+        assertEquals("Stored content", result.getContent());
+    }
+
+    @Test
+    public void testGetMaterialById_contentMissing_emptyWithoutWritingManifest() {
+        when(mockDao.getById(TEST_MATERIAL_ID)).thenReturn(createOffRowEntity(TEST_MATERIAL_ID));
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn(null);
+
+        Material result = repository.getMaterialById(TEST_MATERIAL_ID);
+
+        assertEquals("", result.getContent());
+        verify(mockDistributionDao, never()).setContentHash(anyList(), anyString());
+    }
+
+    @Test
+    public void testGetMaterialById_contentReplacedWhileReading_readsCurrentContent() {
+        String newHash = "b" + CONTENT_HASH.substring(1);
+        when(mockDao.getById(TEST_MATERIAL_ID)).thenReturn(createOffRowEntity(TEST_MATERIAL_ID),
+                new MaterialEntity(TEST_MATERIAL_ID, MaterialType.READING, "Test Title", null,
+                        newHash, "{}", "[]", 2000L));
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn(null);
+        when(mockContentStore.read(newHash)).thenReturn("New content");
+
+        Material result = repository.getMaterialById(TEST_MATERIAL_ID);
+
+        assertEquals("New content", result.getContent());
+        verify(mockDistributionDao, never()).setContentHash(anyList(), anyString());
+    }
+
+    @Test
+    public void testGetMaterialById_deletedWhileReading_returnsNull() {
+        when(mockDao.getById(TEST_MATERIAL_ID))
+                .thenReturn(createOffRowEntity(TEST_MATERIAL_ID), (MaterialEntity) null);
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn(null);
+
+        assertNull(repository.getMaterialById(TEST_MATERIAL_ID));
+    }
+
+    @Test
+    public void testSyncMaterials_contentMissing_requestsRedistribution() throws Exception {
+        when(mockDao.getById(TEST_MATERIAL_ID)).thenReturn(createOffRowEntity(TEST_MATERIAL_ID));
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn(null);
+        when(mockDistributionDao.getManifest()).thenReturn(new ArrayList<>());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(
+                new DistributionBundleDto(new ArrayList<>(), new ArrayList<>())));
+        repository.getMaterialById(TEST_MATERIAL_ID);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockDistributionDao).setContentHash(
+                Collections.singletonList(TEST_MATERIAL_ID),
+                MaterialRepositoryImpl.INCOMPLETE_CONTENT_HASH);
+    }
+
+    @Test
+    public void testSyncMaterials_missingContentRestored_leavesManifest() throws Exception {
+        when(mockDao.getById(TEST_MATERIAL_ID)).thenReturn(createOffRowEntity(TEST_MATERIAL_ID));
+        when(mockContentStore.read(CONTENT_HASH)).thenReturn(null, null, "Stored content");
+        when(mockDistributionDao.getManifest()).thenReturn(new ArrayList<>());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(
+                new DistributionBundleDto(new ArrayList<>(), new ArrayList<>())));
+        repository.getMaterialById(TEST_MATERIAL_ID);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        verify(mockDistributionDao, never()).setContentHash(anyList(), anyString());
+    }
+
+    @Test
+    public void testGetAllMaterials_contentOutsideRow_notRead() {
+        when(mockDao.getAll()).thenReturn(Collections.singletonList(
+                createOffRowEntity(TEST_MATERIAL_ID)));
+
+        List<Material> result = repository.getAllMaterials();
+
+        assertEquals("", result.get(0).getContent());
+        verify(mockContentStore, never()).read(anyString());
+    }
+
+    @Test
+    public void testDeleteMaterial_collectsUnreferencedContent() {
+        when(mockDao.getContentHashes()).thenReturn(Collections.singletonList(CONTENT_HASH));
+
+        repository.deleteMaterial(TEST_MATERIAL_ID);
+
+        verify(mockContentStore).retainOnly(Collections.singleton(CONTENT_HASH));
+    }
+
+    @Test
+    public void testDeleteAllMaterials_clearsContentStore() {
+        repository.deleteAllMaterials();
+
+        verify(mockContentStore).clear();
+    }
+
+    @Test
+    public void testSyncMaterials_longContent_storedBeforeTransaction() throws Exception {
+        String content = longContent();
+        MaterialDto dto = new MaterialDto(TEST_MATERIAL_ID, "READING", "Title", content,
+                "{}", new ArrayList<>(), 1000L);
+        when(mockDistributionDao.getManifest()).thenReturn(new ArrayList<>());
+        when(mockApiService.getDistribution(TEST_DEVICE_ID)).thenReturn(mockDistributionCall);
+        when(mockDistributionCall.execute()).thenReturn(Response.success(
+                new DistributionBundleDto(Collections.singletonList(dto), new ArrayList<>())));
+        when(mockContentStore.put(content)).thenReturn(CONTENT_HASH);
+
+        repository.syncMaterials(TEST_DEVICE_ID);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MaterialEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockDistributionDao).applyDelta(captor.capture(), anyList(), anyList(), anyList());
+        assertNull(captor.getValue().get(0).getContent());
+        assertEquals(CONTENT_HASH, captor.getValue().get(0).getContentHash());
+    }
+
+    @Test
+    public void testConstructor_movesInlineContentOutOfRows() {
+        String content = longContent();
+        MaterialDao dao = mock(MaterialDao.class);
+        when(dao.getAllSummariesLive()).thenReturn(new MutableLiveData<>());
+        MaterialContentStore store = mock(MaterialContentStore.class);
+        when(dao.getIdsWithInlineContentOver(MaterialContentStore.INLINE_MAX_CHARS))
+                .thenReturn(Collections.singletonList(TEST_MATERIAL_ID));
+        when(dao.getById(TEST_MATERIAL_ID)).thenReturn(new MaterialEntity(TEST_MATERIAL_ID,
+                MaterialType.READING, "Title", content, "{}", "[]", 1000L));
+        when(store.put(content)).thenReturn(CONTENT_HASH);
+
+        new MaterialRepositoryImpl(dao, mockQuestionDao, mockDistributionDao,
+                mockFileStorageManager, store, mockApiService, mockTcpSocketManager,
+                mockAckRetrySender);
+
+        verify(dao, timeout(1000)).moveContentOffRow(TEST_MATERIAL_ID, CONTENT_HASH);
+        verify(store, timeout(1000)).retainOnly(any());
+    }
+
     // ========== Helper methods ==========
 
     private MaterialEntity createTestEntity(String id) {
@@ -924,6 +1625,28 @@ public class MaterialRepositoryImplTest {
         );
     }
 
+    private MaterialSummaryTuple createTuple(String id, String title) {
+        return new MaterialSummaryTuple(id, MaterialType.READING, title, 1000L);
+    }
+
+    private MaterialEntity createOffRowEntity(String id) {
+        return new MaterialEntity(id, MaterialType.READING, "Test Title", null, CONTENT_HASH,
+                "{}", "[]", 1000L);
+    }
+
+    private String longContent() {
+        StringBuilder content = new StringBuilder();
+        while (content.length() <= MaterialContentStore.INLINE_MAX_CHARS) {
+            content.append("Plants convert light energy into chemical energy. ");
+        }
+        return content.toString();
+    }
+
+    private QuestionEntity createQuestionEntity(String id, String materialId) {
+        return new QuestionEntity(id, materialId, "Question text?",
+                QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]", "A", null);
+    }
+
     private Material createTestDomainMaterial(String id) {
         return new Material(
                 id,
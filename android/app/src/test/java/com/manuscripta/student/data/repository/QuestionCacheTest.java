@@ -0,0 +1,104 @@
+package com.manuscripta.student.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.domain.model.Question;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link QuestionCache}.
+ */
+public class QuestionCacheTest {
+
+    private QuestionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new QuestionCache(2);
+    }
+
+    @Test
+    public void testConstructor_nonPositiveMax_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new QuestionCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionCache(-1));
+    }
+
+    @Test
+    public void testGet_emptyCache_returnsNull() {
+        assertNull(cache.get("mat-1"));
+    }
+
+    @Test
+    public void testPutIfUnchanged_storesAndReturnsUnmodifiable() {
+        List<Question> questions = new ArrayList<>(questionsFor("mat-1"));
+
+        List<Question> held = cache.putIfUnchanged("mat-1", questions, cache.generation());
+
+        assertEquals(questions, held);
+        assertEquals(held, cache.get("mat-1"));
+        assertThrows(UnsupportedOperationException.class, () -> held.add(null));
+    }
+
+    @Test
+    public void testPutIfUnchanged_invalidatedSinceRead_notStored() {
+        long generation = cache.generation();
+        cache.invalidate(Collections.singletonList("mat-2"));
+
+        List<Question> held = cache.putIfUnchanged("mat-1", questionsFor("mat-1"), generation);
+
+        assertEquals(1, held.size());
+        assertNull(cache.get("mat-1"));
+    }
+
+    @Test
+    public void testPutIfUnchanged_evictsLeastRecentlyUsed() {
+        cache.putIfUnchanged("mat-1", questionsFor("mat-1"), cache.generation());
+        cache.putIfUnchanged("mat-2", questionsFor("mat-2"), cache.generation());
+        cache.get("mat-1");
+
+        cache.putIfUnchanged("mat-3", questionsFor("mat-3"), cache.generation());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("mat-1"));
+        assertNull(cache.get("mat-2"));
+        assertNotNull(cache.get("mat-3"));
+    }
+
+    @Test
+    public void testInvalidate_dropsOnlyGivenMaterials() {
+        cache.putIfUnchanged("mat-1", questionsFor("mat-1"), cache.generation());
+        cache.putIfUnchanged("mat-2", questionsFor("mat-2"), cache.generation());
+
+        cache.invalidate(Arrays.asList("mat-1", "mat-3"));
+
+        assertNull(cache.get("mat-1"));
+        assertNotNull(cache.get("mat-2"));
+    }
+
+    @Test
+    public void testClear_dropsEverything() {
+        cache.putIfUnchanged("mat-1", questionsFor("mat-1"), cache.generation());
+        long generation = cache.generation();
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(generation + 1, cache.generation());
+    }
+
+    private List<Question> questionsFor(String materialId) {
+        return Collections.singletonList(new Question("q-" + materialId, materialId, "Question text?",
+                QuestionType.WRITTEN_ANSWER, "", "Answer", null));
+    }
+}
@@ -7,10 +7,13 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,6 +25,9 @@ import com.manuscripta.student.network.ApiService;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -99,12 +105,12 @@ public class ResponseRepositoryImplTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(mockDao).insert(any(ResponseEntity.class));
+        }).when(mockDao).insertAll(anyList());
 
         repository.saveResponse(response);
 
         assertTrue(latch.await(5, TimeUnit.SECONDS));
-        verify(mockDao).insert(any(ResponseEntity.class));
+        verify(mockDao).insertAll(anyList());
     }
 
     @Test
@@ -114,12 +120,91 @@ public class ResponseRepositoryImplTest {
         doAnswer(invocation -> {
             latch.countDown();
             return null;
-        }).when(mockDao).insert(any(ResponseEntity.class));
+        }).when(mockDao).insertAll(anyList());
 
         repository.saveResponse(response);
 
         assertTrue(latch.await(5, TimeUnit.SECONDS));
-        verify(mockDao).insert(any(ResponseEntity.class));
+        verify(mockDao).insertAll(anyList());
+    }
+
+    @Test
+    public void testSaveResponse_severalSaves_groupCommittedTogether() {
+        ResponseRepositoryImpl repo = new TestableResponseRepository(mockDao, mockSyncEngine,
+                60_000L, 100);
+
+        repo.saveResponse(createTestResponse(false));
+        repo.saveResponse(createTestResponse(false));
+        repo.saveResponse(createTestResponse(false));
+        assertTrue(repo.flushPendingResponses());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ResponseEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockDao).insertAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        verify(mockDao, never()).insert(any(ResponseEntity.class));
+    }
+
+    @Test
+    public void testSaveResponse_thenRead_commitsBeforeReading() {
+        ResponseRepositoryImpl repo = new TestableResponseRepository(mockDao, mockSyncEngine,
+                60_000L, 100);
+        when(mockDao.getAll()).thenReturn(Collections.emptyList());
+
+        repo.saveResponse(createTestResponse(false));
+        repo.getAllResponses();
+
+        InOrder order = inOrder(mockDao);
+        order.verify(mockDao).insertAll(anyList());
+        order.verify(mockDao).getAll();
+    }
+
+    @Test
+    public void testSaveResponse_thenSync_commitsBeforeReadingQueue() throws InterruptedException {
+        ResponseRepositoryImpl repo = new TestableResponseRepository(mockDao, mockSyncEngine,
+                60_000L, 100);
+        CountDownLatch latch = new CountDownLatch(1);
+        when(mockDao.getUnsynced()).thenReturn(Collections.emptyList());
+
+        repo.saveResponse(createTestResponse(false));
+        repo.syncPendingResponses(new ResponseRepository.SyncCallback() {
+            @Override
+            public void onSyncSuccess(String responseId) { }
+
+            @Override
+            public void onSyncFailure(String responseId, String error) { }
+
+            @Override
+            public void onSyncComplete(int successCount, int failureCount) {
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        InOrder order = inOrder(mockDao);
+        order.verify(mockDao).insertAll(anyList());
+        order.verify(mockDao).getUnsynced();
+    }
+
+    @Test
+    public void testFlushPendingResponses_nothingPending_returnsTrueWithoutWriting() {
+        assertTrue(repository.flushPendingResponses());
+
+        verify(mockDao, never()).insertAll(anyList());
+    }
+
+    @Test
+    public void testGetCommitLatency_reportsCommittedResponses() {
+        assertEquals(0.0, repository.getCommitLatencyMillis(50), 0.0);
+
+        repository.saveResponse(createTestResponse(false));
+        repository.saveResponse(createTestResponse(false));
+
+        assertTrue(repository.flushPendingResponses());
+
+        assertEquals(2, repository.getCommittedResponseCount());
+        assertTrue(repository.getCommitLatencyMillis(50) > 0);
+        assertThrows(IllegalArgumentException.class, () -> repository.getCommitLatencyMillis(0));
     }
 
     @Test
@@ -349,6 +434,7 @@ public class ResponseRepositoryImplTest {
         repository.deleteResponsesByQuestionId(TEST_QUESTION_ID);
 
         verify(mockDao).deleteByQuestionId(TEST_QUESTION_ID);
+        verify(mockDao).deleteTombstone(TEST_QUESTION_ID);
     }
 
     @Test
@@ -388,6 +474,99 @@ public class ResponseRepositoryImplTest {
         repository.deleteAllResponses();
 
         verify(mockDao).deleteAll();
+        verify(mockDao).deleteAllTombstones();
+    }
+
+    // ==================== discardLocalState Tests ====================
+
+    @Test
+    public void testDiscardLocalState_dropsQueuedResponsesWithoutWriting() {
+        ResponseRepositoryImpl repo = new TestableResponseRepository(mockDao, mockSyncEngine,
+                60_000L, 100);
+        repo.saveResponse(createTestResponse(false));
+
+        repo.discardLocalState();
+        assertTrue(repo.flushPendingResponses());
+
+        verify(mockDao, never()).insertAll(anyList());
+        verify(mockDao, never()).insert(any(ResponseEntity.class));
+        assertEquals(0, repo.getWriteBuffer().getPendingCount());
+    }
+
+    @Test
+    public void testDiscardLocalState_forgetsAnsweredQuestions() {
+        repository.saveResponse(createTestResponse(false));
+
+        repository.discardLocalState();
+
+        assertFalse(repository.hasResponseForQuestion(TEST_QUESTION_ID));
+    }
+
+    // ==================== hasResponseForQuestion Tests ====================
+
+    @Test
+    public void testHasResponseForQuestion_afterSave_returnsTrue() {
+        assertFalse(repository.hasResponseForQuestion(TEST_QUESTION_ID));
+
+        repository.saveResponse(createTestResponse(false));
+
+        assertTrue(repository.hasResponseForQuestion(TEST_QUESTION_ID));
+    }
+
+    @Test
+    public void testHasResponseForQuestion_afterDeleteByQuestionId_returnsFalse() {
+        repository.saveResponse(createTestResponse(false));
+
+        repository.deleteResponsesByQuestionId(TEST_QUESTION_ID);
+
+        assertFalse(repository.hasResponseForQuestion(TEST_QUESTION_ID));
+    }
+
+    @Test
+    public void testHasResponseForQuestion_afterDeleteAll_returnsFalse() {
+        repository.saveResponse(createTestResponse(false));
+
+        repository.deleteAllResponses();
+
+        assertFalse(repository.hasResponseForQuestion(TEST_QUESTION_ID));
+    }
+
+    @Test
+    public void testHasResponseForQuestion_invalidId_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.hasResponseForQuestion(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.hasResponseForQuestion("  "));
+    }
+
+    @Test
+    public void testInitRespondedQuestionIds_includesTombstonedQuestions()
+            throws InterruptedException {
+        String pruned = "550e8400-e29b-41d4-a716-446655440001";
+        when(mockDao.getTombstonedQuestionIds()).thenReturn(Collections.singletonList(pruned));
+
+        ResponseRepositoryImpl realRepo = new ResponseRepositoryImpl(mockDao, mockSyncEngine);
+
+        verify(mockDao, timeout(1000)).getTombstonedQuestionIds();
+        Thread.sleep(200);
+        assertTrue(realRepo.hasResponseForQuestion(pruned));
+    }
+
+    @Test
+    public void testInitRespondedQuestionIds_readsDistinctQuestionIdsOnly()
+            throws InterruptedException {
+        String uuid = "550e8400-e29b-41d4-a716-446655440000";
+        when(mockDao.getRespondedQuestionIds()).thenReturn(Arrays.asList(uuid, "legacy-id"));
+
+        ResponseRepositoryImpl realRepo = new ResponseRepositoryImpl(mockDao, mockSyncEngine);
+
+        verify(mockDao, timeout(1000)).getRespondedQuestionIds();
+        // The index is filled on the same executor after the query returns
+        Thread.sleep(200);
+        assertTrue(realRepo.hasResponseForQuestion(uuid));
+        assertTrue(realRepo.hasResponseForQuestion("legacy-id"));
+        assertFalse(realRepo.hasResponseForQuestion(TEST_QUESTION_ID));
+        verify(mockDao, never()).getAll();
     }
 
     // ==================== syncPendingResponses Tests ====================
@@ -717,6 +896,11 @@ public class ResponseRepositoryImplTest {
             super(responseDao, syncEngine);
         }
 
+        TestableResponseRepository(ResponseDao responseDao, SyncEngine syncEngine,
+                                   long flushDelayMs, int maxBatchSize) {
+            super(responseDao, syncEngine, flushDelayMs, maxBatchSize);
+        }
+
         @Override
         protected void initRespondedQuestionIds() {
             // No-op: suppress background mock call during Mockito stub setup.
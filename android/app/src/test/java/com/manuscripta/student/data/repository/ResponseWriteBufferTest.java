@@ -0,0 +1,278 @@
+package com.manuscripta.student.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.manuscripta.student.data.local.ResponseDao;
+import com.manuscripta.student.data.model.ResponseEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ResponseWriteBuffer}.
+ */
+public class ResponseWriteBufferTest {
+
+    /** A delay long enough that no timed commit fires during a test. */
+    private static final long NEVER_MS = 60_000L;
+
+    private ResponseDao mockDao;
+    private ResponseWriteBuffer buffer;
+
+    @Before
+    public void setUp() {
+        mockDao = mock(ResponseDao.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    // ==================== Constructor Tests ====================
+
+    @Test
+    public void testConstructor_nullDao_throwsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> new ResponseWriteBuffer(null)
+        );
+        assertEquals("ResponseDao cannot be null", exception.getMessage());
+    }
+
+    @Test
+    public void testConstructor_negativeDelay_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResponseWriteBuffer(mockDao, -1L, 10));
+    }
+
+    @Test
+    public void testConstructor_nonPositiveBatchSize_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResponseWriteBuffer(mockDao, 10L, 0));
+    }
+
+    // ==================== Group commit Tests ====================
+
+    @Test
+    public void testFlush_severalQueued_oneTransactionInQueueOrder() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+        buffer.enqueue(entity("r-2"));
+        buffer.enqueue(entity("r-3"));
+
+        buffer.flush();
+
+        List<ResponseEntity> committed = captureSingleCommit();
+        assertEquals(3, committed.size());
+        assertEquals("r-1", committed.get(0).getId());
+        assertEquals("r-2", committed.get(1).getId());
+        assertEquals("r-3", committed.get(2).getId());
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(3, buffer.getCommittedCount());
+    }
+
+    @Test
+    public void testFlush_nothingQueued_doesNotWrite() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+
+        buffer.flush();
+
+        verify(mockDao, never()).insertAll(anyList());
+    }
+
+    @Test
+    public void testDiscardPending_dropsQueueWithoutWriting() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+        buffer.enqueue(entity("r-2"));
+
+        assertEquals(2, buffer.discardPending());
+        buffer.flush();
+
+        verify(mockDao, never()).insertAll(anyList());
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    public void testEnqueue_beforeFlush_notWritten() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+
+        buffer.enqueue(entity("r-1"));
+
+        verify(mockDao, never()).insertAll(anyList());
+        assertEquals(1, buffer.getPendingCount());
+    }
+
+    @Test
+    public void testEnqueue_afterDelay_committedWithoutExplicitFlush() {
+        buffer = new ResponseWriteBuffer(mockDao, 10L, 100);
+
+        buffer.enqueue(entity("r-1"));
+        buffer.enqueue(entity("r-2"));
+
+        verify(mockDao, timeout(5000)).insertAll(anyList());
+        // Queued behind the timed commit on the same thread, so it waits for it to finish
+        assertTrue(buffer.flushAndWait(5000));
+        assertEquals(2, buffer.getCommittedCount());
+    }
+
+    @Test
+    public void testEnqueue_reachesMaxBatchSize_commitsImmediately() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 2);
+
+        buffer.enqueue(entity("r-1"));
+        buffer.enqueue(entity("r-2"));
+
+        verify(mockDao, timeout(5000)).insertAll(anyList());
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    // ==================== Durability Tests ====================
+
+    @Test
+    public void testFlushAndWait_returnsOnlyAfterCommit() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+
+        assertTrue(buffer.flushAndWait(5000));
+
+        verify(mockDao).insertAll(anyList());
+        assertEquals(1, buffer.getCommittedCount());
+    }
+
+    @Test
+    public void testFlush_commitInProgress_waitsForIt() throws InterruptedException {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            commitStarted.countDown();
+            releaseCommit.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockDao).insertAll(anyList());
+        buffer.enqueue(entity("r-1"));
+        Thread committer = new Thread(buffer::flush);
+        committer.start();
+        assertTrue(commitStarted.await(5, TimeUnit.SECONDS));
+
+        Thread flusher = new Thread(buffer::flush);
+        flusher.start();
+        flusher.join(200);
+        boolean returnedEarly = !flusher.isAlive();
+        releaseCommit.countDown();
+        flusher.join(5000);
+        committer.join(5000);
+
+        // The second flush had nothing of its own, but may not return while r-1 is in flight
+        assertFalse(returnedEarly);
+        assertEquals(1, buffer.getCommittedCount());
+    }
+
+    @Test
+    public void testGroupCommitFails_retriesIndividuallyAndDropsBadRows() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        ResponseEntity good = entity("r-good");
+        ResponseEntity bad = entity("r-bad");
+        doThrow(new IllegalStateException("constraint")).when(mockDao).insertAll(anyList());
+        doThrow(new IllegalStateException("constraint")).when(mockDao).insert(bad);
+        buffer.enqueue(good);
+        buffer.enqueue(bad);
+
+        buffer.flush();
+
+        verify(mockDao).insert(good);
+        verify(mockDao).insert(bad);
+        assertEquals(1, buffer.getCommittedCount());
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    public void testGroupCommitSucceeds_noIndividualInserts() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+
+        buffer.flush();
+
+        verify(mockDao, never()).insert(any(ResponseEntity.class));
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testShutdown_commitsQueuedResponses() {
+        ResponseWriteBuffer local = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        local.enqueue(entity("r-1"));
+
+        local.shutdown();
+
+        verify(mockDao).insertAll(anyList());
+        assertEquals(1, local.getCommittedCount());
+    }
+
+    // ==================== Metric Tests ====================
+
+    @Test
+    public void testCommitLatency_recordedOncePerResponse() {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+        buffer.enqueue(entity("r-2"));
+        buffer.flush();
+        buffer.enqueue(entity("r-3"));
+        buffer.flush();
+
+        assertEquals(3, buffer.getCommitLatency().getCount());
+        verify(mockDao, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    public void testCommitLatency_includesTimeQueued() throws InterruptedException {
+        buffer = new ResponseWriteBuffer(mockDao, NEVER_MS, 100);
+        buffer.enqueue(entity("r-1"));
+        Thread.sleep(50);
+
+        buffer.flush();
+
+        assertTrue(buffer.getCommitLatency().getMeanMillis() >= 50.0);
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Captures the responses passed to the only {@code insertAll} call.
+     *
+     * @return The committed responses
+     */
+    @SuppressWarnings("unchecked")
+    private List<ResponseEntity> captureSingleCommit() {
+        ArgumentCaptor<List<ResponseEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockDao).insertAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private static ResponseEntity entity(String id) {
+        return new ResponseEntity(id, "question-1", "Answer", false,
+                System.currentTimeMillis(), false, "device-1");
+    }
+}
@@ -0,0 +1,159 @@
+package com.manuscripta.student.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.manuscripta.student.data.local.DatabaseReclaimer;
+import com.manuscripta.student.data.local.ResponseDao;
+import com.manuscripta.student.data.local.SessionDao;
+import com.manuscripta.student.data.model.SessionStatus;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link RetentionManager}.
+ */
+public class RetentionManagerTest {
+
+    private static final long NOW = 100_000L;
+    private static final long RESPONSE_RETENTION = 10_000L;
+    private static final long SESSION_RETENTION = 20_000L;
+    private static final int VACUUM_PAGES = 64;
+
+    @Mock
+    private ResponseDao mockResponseDao;
+
+    @Mock
+    private SessionDao mockSessionDao;
+
+    @Mock
+    private SessionRepository mockSessionRepository;
+
+    @Mock
+    private DatabaseReclaimer mockDatabaseReclaimer;
+
+    private List<Runnable> scheduled;
+    private RetentionManager manager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduled = new ArrayList<>();
+        manager = new RetentionManager(mockResponseDao, mockSessionDao, mockSessionRepository,
+                mockDatabaseReclaimer, RESPONSE_RETENTION, SESSION_RETENTION, VACUUM_PAGES,
+                scheduled::add);
+    }
+
+    // ==================== Constructor Tests ====================
+
+    @Test
+    public void testConstructor_nullResponseDao_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(null,
+                mockSessionDao, mockSessionRepository, mockDatabaseReclaimer));
+    }
+
+    @Test
+    public void testConstructor_nullSessionDao_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                null, mockSessionRepository, mockDatabaseReclaimer));
+    }
+
+    @Test
+    public void testConstructor_nullSessionRepository_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                mockSessionDao, null, mockDatabaseReclaimer));
+    }
+
+    @Test
+    public void testConstructor_nullDatabaseReclaimer_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                mockSessionDao, mockSessionRepository, null));
+    }
+
+    @Test
+    public void testConstructor_negativeRetention_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                mockSessionDao, mockSessionRepository, mockDatabaseReclaimer, -1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                mockSessionDao, mockSessionRepository, mockDatabaseReclaimer, 0, -1, 1));
+    }
+
+    @Test
+    public void testConstructor_nonPositiveVacuumPages_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionManager(mockResponseDao,
+                mockSessionDao, mockSessionRepository, mockDatabaseReclaimer, 0, 0, 0));
+    }
+
+    // ==================== runMaintenance Tests ====================
+
+    @Test
+    public void testRunMaintenance_prunesWithConfiguredCutoffs() {
+        when(mockResponseDao.pruneSyncedBefore(anyLong())).thenReturn(3);
+        when(mockSessionDao.deleteEndedBefore(anyList(), anyLong())).thenReturn(2);
+
+        int pruned = manager.runMaintenance(NOW);
+
+        assertEquals(5, pruned);
+        verify(mockResponseDao).pruneSyncedBefore(NOW - RESPONSE_RETENTION);
+        verify(mockSessionDao).deleteEndedBefore(argThat(statuses -> statuses.size() == 2
+                && statuses.contains(SessionStatus.COMPLETED)
+                && statuses.contains(SessionStatus.CANCELLED)), eq(NOW - SESSION_RETENTION));
+        verify(mockDatabaseReclaimer).compactIncrementally(VACUUM_PAGES);
+    }
+
+    @Test
+    public void testRunMaintenance_sessionsPruned_invalidatesSessionCache() {
+        when(mockSessionDao.deleteEndedBefore(anyList(), anyLong())).thenReturn(1);
+
+        manager.runMaintenance(NOW);
+
+        verify(mockSessionRepository).invalidateCache();
+    }
+
+    @Test
+    public void testRunMaintenance_noSessionsPruned_keepsSessionCache() {
+        manager.runMaintenance(NOW);
+
+        verify(mockSessionRepository, never()).invalidateCache();
+        verify(mockDatabaseReclaimer).compactIncrementally(VACUUM_PAGES);
+    }
+
+    // ==================== scheduleMaintenance Tests ====================
+
+    @Test
+    public void testScheduleMaintenance_whileOnePending_coalesces() {
+        manager.scheduleMaintenance();
+        manager.scheduleMaintenance();
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+        verify(mockResponseDao).pruneSyncedBefore(anyLong());
+
+        manager.scheduleMaintenance();
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    public void testScheduleMaintenance_failure_doesNotPropagate() {
+        when(mockResponseDao.pruneSyncedBefore(anyLong()))
+                .thenThrow(new IllegalStateException("closed"));
+
+        manager.scheduleMaintenance();
+        scheduled.get(0).run();
+
+        verify(mockDatabaseReclaimer, never()).compactIncrementally(VACUUM_PAGES);
+    }
+}
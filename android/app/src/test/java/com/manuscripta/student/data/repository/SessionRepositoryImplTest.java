@@ -7,11 +7,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -22,7 +25,9 @@ import com.manuscripta.student.domain.model.Session;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -66,8 +71,6 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testStartSession_noActiveSession_createsNewSession() {
-        when(mockDao.getActiveSession()).thenReturn(null);
-
         Session session = repository.startSession(TEST_MATERIAL_ID, TEST_DEVICE_ID);
 
         assertNotNull(session);
@@ -75,19 +78,26 @@ public class SessionRepositoryImplTest {
         assertEquals(TEST_DEVICE_ID, session.getDeviceId());
         assertEquals(SessionStatus.RECEIVED, session.getStatus());
         assertEquals(0, session.getStartTime()); // Not set until first interaction
-        verify(mockDao).insert(any(SessionEntity.class));
+        verify(mockDao).applyTransition(eq(Collections.emptyList()), any(SessionEntity.class));
     }
 
     @Test
     public void testStartSession_hasActiveSession_pausesExistingAndCreatesNew() {
-        SessionEntity activeEntity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(activeEntity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         Session session = repository.startSession(TEST_MATERIAL_ID, TEST_DEVICE_ID);
 
         assertNotNull(session);
-        verify(mockDao).endSession(eq(TEST_ID), anyLong(), eq(SessionStatus.PAUSED));
-        verify(mockDao).insert(any(SessionEntity.class));
+        SessionEntity inserted = captureInserted();
+        assertEquals(session.getId(), inserted.getId());
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(1, updated.size());
+        assertEquals(TEST_ID, updated.get(0).getId());
+        assertEquals(SessionStatus.PAUSED, updated.get(0).getStatus());
+        assertTrue(updated.get(0).getEndTime() > 0);
+        assertNull(repository.getActiveSession());
+        assertEquals(SessionStatus.RECEIVED,
+                repository.getSessionById(session.getId()).getStatus());
     }
 
     @Test
@@ -139,8 +149,8 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testGetActiveSession_hasActive_returnsSession() {
-        SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(entity);
+        seed(createTestEntity("paused-id", SessionStatus.PAUSED),
+                createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         Session result = repository.getActiveSession();
 
@@ -150,7 +160,7 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testGetActiveSession_noActive_returnsNull() {
-        when(mockDao.getActiveSession()).thenReturn(null);
+        seed(createTestEntity(TEST_ID, SessionStatus.PAUSED));
 
         Session result = repository.getActiveSession();
 
@@ -161,16 +171,13 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testHasActiveSession_hasActive_returnsTrue() {
-        SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(entity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         assertTrue(repository.hasActiveSession());
     }
 
     @Test
     public void testHasActiveSession_noActive_returnsFalse() {
-        when(mockDao.getActiveSession()).thenReturn(null);
-
         assertFalse(repository.hasActiveSession());
     }
 
@@ -179,17 +186,19 @@ public class SessionRepositoryImplTest {
     @Test
     public void testPauseSession_hasActive_updatesStatus() {
         SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(entity);
+        seed(entity);
 
         repository.pauseSession();
 
-        verify(mockDao).updateStatus(TEST_ID, SessionStatus.PAUSED);
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(1, updated.size());
+        assertEquals(SessionStatus.PAUSED, updated.get(0).getStatus());
+        assertEquals(entity.getEndTime(), updated.get(0).getEndTime());
+        assertFalse(repository.hasActiveSession());
     }
 
     @Test
     public void testPauseSession_noActive_throwsException() {
-        when(mockDao.getActiveSession()).thenReturn(null);
-
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
                 () -> repository.pauseSession()
@@ -201,26 +210,31 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testResumeSession_pausedSession_updatesStatus() {
-        SessionEntity pausedEntity = createTestEntity(TEST_ID, SessionStatus.PAUSED);
-        when(mockDao.getById(TEST_ID)).thenReturn(pausedEntity);
-        when(mockDao.getActiveSession()).thenReturn(null);
+        seed(createTestEntity(TEST_ID, SessionStatus.PAUSED));
 
         repository.resumeSession(TEST_ID);
 
-        verify(mockDao).updateStatus(TEST_ID, SessionStatus.ACTIVE);
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(1, updated.size());
+        assertEquals(SessionStatus.ACTIVE, updated.get(0).getStatus());
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
     }
 
     @Test
     public void testResumeSession_pausedSessionWithActiveSession_pausesActiveFirst() {
-        SessionEntity pausedEntity = createTestEntity(TEST_ID, SessionStatus.PAUSED);
-        SessionEntity activeEntity = createTestEntity("active-id", SessionStatus.ACTIVE);
-        when(mockDao.getById(TEST_ID)).thenReturn(pausedEntity);
-        when(mockDao.getActiveSession()).thenReturn(activeEntity);
+        seed(createTestEntity(TEST_ID, SessionStatus.PAUSED),
+                createTestEntity("active-id", SessionStatus.ACTIVE));
 
         repository.resumeSession(TEST_ID);
 
-        verify(mockDao).endSession(eq("active-id"), anyLong(), eq(SessionStatus.PAUSED));
-        verify(mockDao).updateStatus(TEST_ID, SessionStatus.ACTIVE);
+        // Both changes are written in one transition
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(2, updated.size());
+        assertEquals("active-id", updated.get(0).getId());
+        assertEquals(SessionStatus.PAUSED, updated.get(0).getStatus());
+        assertEquals(TEST_ID, updated.get(1).getId());
+        assertEquals(SessionStatus.ACTIVE, updated.get(1).getStatus());
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
     }
 
     @Test
@@ -243,8 +257,6 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testResumeSession_sessionNotFound_throwsException() {
-        when(mockDao.getById(anyString())).thenReturn(null);
-
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
                 () -> repository.resumeSession("non-existent")
@@ -254,8 +266,7 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testResumeSession_notPaused_throwsException() {
-        SessionEntity activeEntity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getById(TEST_ID)).thenReturn(activeEntity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -268,18 +279,18 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testCompleteSession_hasActive_endsSession() {
-        SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(entity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         repository.completeSession();
 
-        verify(mockDao).endSession(eq(TEST_ID), anyLong(), eq(SessionStatus.COMPLETED));
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(SessionStatus.COMPLETED, updated.get(0).getStatus());
+        assertTrue(updated.get(0).getEndTime() > 0);
+        assertFalse(repository.hasActiveSession());
     }
 
     @Test
     public void testCompleteSession_noActive_throwsException() {
-        when(mockDao.getActiveSession()).thenReturn(null);
-
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
                 () -> repository.completeSession()
@@ -291,18 +302,18 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testCancelSession_hasActive_endsSession() {
-        SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getActiveSession()).thenReturn(entity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         repository.cancelSession();
 
-        verify(mockDao).endSession(eq(TEST_ID), anyLong(), eq(SessionStatus.CANCELLED));
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(SessionStatus.CANCELLED, updated.get(0).getStatus());
+        assertTrue(updated.get(0).getEndTime() > 0);
+        assertFalse(repository.hasActiveSession());
     }
 
     @Test
     public void testCancelSession_noActive_throwsException() {
-        when(mockDao.getActiveSession()).thenReturn(null);
-
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
                 () -> repository.cancelSession()
@@ -314,16 +325,31 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testEndSession_completedStatus_endsSession() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+
         repository.endSession(TEST_ID, SessionStatus.COMPLETED);
 
-        verify(mockDao).endSession(eq(TEST_ID), anyLong(), eq(SessionStatus.COMPLETED));
+        assertEquals(SessionStatus.COMPLETED, captureUpdated().get(0).getStatus());
+        assertEquals(SessionStatus.COMPLETED, repository.getSessionById(TEST_ID).getStatus());
+        assertFalse(repository.hasActiveSession());
     }
 
     @Test
     public void testEndSession_cancelledStatus_endsSession() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+
         repository.endSession(TEST_ID, SessionStatus.CANCELLED);
 
-        verify(mockDao).endSession(eq(TEST_ID), anyLong(), eq(SessionStatus.CANCELLED));
+        assertEquals(SessionStatus.CANCELLED, captureUpdated().get(0).getStatus());
+        assertEquals(SessionStatus.CANCELLED, repository.getSessionById(TEST_ID).getStatus());
+        assertFalse(repository.hasActiveSession());
+    }
+
+    @Test
+    public void testEndSession_unknownSession_writesNothing() {
+        repository.endSession("non-existent", SessionStatus.COMPLETED);
+
+        verify(mockDao, never()).applyTransition(anyList(), any());
     }
 
     @Test
@@ -384,12 +410,31 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testActivateSession_receivedSession_activatesSession() {
-        SessionEntity receivedEntity = createTestEntity(TEST_ID, SessionStatus.RECEIVED);
-        when(mockDao.getById(TEST_ID)).thenReturn(receivedEntity);
+        seed(createTestEntity(TEST_ID, SessionStatus.RECEIVED));
+
+        repository.activateSession(TEST_ID);
+
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(1, updated.size());
+        assertEquals(SessionStatus.ACTIVE, updated.get(0).getStatus());
+        assertTrue(updated.get(0).getStartTime() > 0);
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
+    }
+
+    @Test
+    public void testActivateSession_otherSessionActive_pausesItInSameTransition() {
+        seed(createTestEntity(TEST_ID, SessionStatus.RECEIVED),
+                createTestEntity("active-id", SessionStatus.ACTIVE));
 
         repository.activateSession(TEST_ID);
 
-        verify(mockDao).activateSession(eq(TEST_ID), anyLong());
+        List<SessionEntity> updated = captureUpdated();
+        assertEquals(2, updated.size());
+        assertEquals("active-id", updated.get(0).getId());
+        assertEquals(SessionStatus.PAUSED, updated.get(0).getStatus());
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
+        assertEquals(1, repository.getSessionsByMaterialId(TEST_MATERIAL_ID).stream()
+                .filter(session -> session.getStatus() == SessionStatus.ACTIVE).count());
     }
 
     @Test
@@ -412,8 +457,6 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testActivateSession_sessionNotFound_throwsException() {
-        when(mockDao.getById(anyString())).thenReturn(null);
-
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
                 () -> repository.activateSession("non-existent")
@@ -423,8 +466,7 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testActivateSession_notReceived_throwsException() {
-        SessionEntity activeEntity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getById(TEST_ID)).thenReturn(activeEntity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -437,8 +479,7 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testGetSessionById_existingId_returnsSession() {
-        SessionEntity entity = createTestEntity(TEST_ID, SessionStatus.ACTIVE);
-        when(mockDao.getById(TEST_ID)).thenReturn(entity);
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
 
         Session result = repository.getSessionById(TEST_ID);
 
@@ -448,8 +489,6 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testGetSessionById_nonExistent_returnsNull() {
-        when(mockDao.getById(anyString())).thenReturn(null);
-
         Session result = repository.getSessionById("non-existent");
 
         assertNull(result);
@@ -477,22 +516,24 @@ public class SessionRepositoryImplTest {
 
     @Test
     public void testGetSessionsByMaterialId_hasSessions_returnsList() {
-        List<SessionEntity> entities = Arrays.asList(
-                createTestEntity("id1", SessionStatus.ACTIVE),
-                createTestEntity("id2", SessionStatus.COMPLETED)
-        );
-        when(mockDao.getByMaterialId(TEST_MATERIAL_ID)).thenReturn(entities);
+        seed(new SessionEntity("id1", TEST_MATERIAL_ID, 1000L, 0, SessionStatus.COMPLETED,
+                        TEST_DEVICE_ID),
+                new SessionEntity("id2", TEST_MATERIAL_ID, 2000L, 0, SessionStatus.ACTIVE,
+                        TEST_DEVICE_ID),
+                new SessionEntity("other", "other-material", 3000L, 0, SessionStatus.PAUSED,
+                        TEST_DEVICE_ID));
 
         List<Session> result = repository.getSessionsByMaterialId(TEST_MATERIAL_ID);
 
         assertNotNull(result);
         assertEquals(2, result.size());
+        // Newest first, as the DAO query orders them
+        assertEquals("id2", result.get(0).getId());
+        assertEquals("id1", result.get(1).getId());
     }
 
     @Test
     public void testGetSessionsByMaterialId_noSessions_returnsEmptyList() {
-        when(mockDao.getByMaterialId(anyString())).thenReturn(Collections.emptyList());
-
         List<Session> result = repository.getSessionsByMaterialId(TEST_MATERIAL_ID);
 
         assertNotNull(result);
@@ -508,6 +549,128 @@ public class SessionRepositoryImplTest {
         assertEquals("Material ID cannot be null or empty", exception.getMessage());
     }
 
+    // ==================== activateReceivedSession Tests ====================
+
+    @Test
+    public void testActivateReceivedSession_hasReceived_activatesIt() {
+        seed(createTestEntity("done-id", SessionStatus.COMPLETED),
+                createTestEntity(TEST_ID, SessionStatus.RECEIVED));
+
+        assertTrue(repository.activateReceivedSession(TEST_MATERIAL_ID));
+
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
+        verify(mockDao).applyTransition(anyList(), isNull());
+    }
+
+    @Test
+    public void testActivateReceivedSession_noReceived_writesNothing() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+
+        assertFalse(repository.activateReceivedSession(TEST_MATERIAL_ID));
+
+        verify(mockDao, never()).applyTransition(anyList(), any());
+    }
+
+    @Test
+    public void testActivateReceivedSession_nullId_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.activateReceivedSession(null));
+    }
+
+    // ==================== Session state Tests ====================
+
+    @Test
+    public void testLookups_loadStateOnce() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+
+        repository.getActiveSession();
+        repository.hasActiveSession();
+        repository.getSessionById(TEST_ID);
+        repository.getSessionsByMaterialId(TEST_MATERIAL_ID);
+        repository.pauseSession();
+        repository.resumeSession(TEST_ID);
+
+        verify(mockDao, times(1)).getAll();
+        verify(mockDao, never()).getActiveSession();
+        verify(mockDao, never()).getById(anyString());
+    }
+
+    @Test
+    public void testTransition_writeFails_stateUnchanged() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+        doThrow(new IllegalStateException("disk full"))
+                .when(mockDao).applyTransition(anyList(), any());
+
+        assertThrows(IllegalStateException.class, () -> repository.completeSession());
+
+        assertEquals(TEST_ID, repository.getActiveSession().getId());
+    }
+
+    @Test
+    public void testInvalidateCache_reloadsFromDatabase() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+        assertTrue(repository.hasActiveSession());
+        // A distribution pauses the active session without going through the repository
+        seed(createTestEntity(TEST_ID, SessionStatus.PAUSED));
+
+        repository.invalidateCache();
+
+        assertFalse(repository.hasActiveSession());
+        verify(mockDao, times(2)).getAll();
+    }
+
+    @Test
+    public void testDeleteSession_removesFromState() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+        assertTrue(repository.hasActiveSession());
+
+        repository.deleteSession(TEST_ID);
+
+        assertFalse(repository.hasActiveSession());
+        assertNull(repository.getSessionById(TEST_ID));
+    }
+
+    @Test
+    public void testDeleteAllSessions_clearsStateWithoutReloading() {
+        seed(createTestEntity(TEST_ID, SessionStatus.ACTIVE));
+        assertTrue(repository.hasActiveSession());
+
+        repository.deleteAllSessions();
+
+        assertFalse(repository.hasActiveSession());
+        verify(mockDao, times(1)).getAll();
+    }
+
+    @Test
+    public void testConcurrentTransitions_leaveOneActiveSession() throws InterruptedException {
+        List<SessionEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entities.add(new SessionEntity("s-" + i, "mat-" + i, 0L, 0L,
+                    SessionStatus.RECEIVED, TEST_DEVICE_ID));
+        }
+        when(mockDao.getAll()).thenReturn(entities);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String materialId = "mat-" + i;
+            threads.add(new Thread(() -> repository.activateReceivedSession(materialId)));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        int active = 0;
+        for (int i = 0; i < 50; i++) {
+            if (repository.getSessionById("s-" + i).getStatus() == SessionStatus.ACTIVE) {
+                active++;
+            }
+        }
+        assertEquals(1, active);
+        verify(mockDao, times(50)).applyTransition(anyList(), any());
+    }
+
     // ==================== getSessionsByStatus Tests ====================
 
     @Test
@@ -662,6 +825,23 @@ public class SessionRepositoryImplTest {
 
     // ==================== Helper Methods ====================
 
+    private void seed(SessionEntity... entities) {
+        when(mockDao.getAll()).thenReturn(Arrays.asList(entities));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SessionEntity> captureUpdated() {
+        ArgumentCaptor<List<SessionEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockDao).applyTransition(captor.capture(), any());
+        return captor.getValue();
+    }
+
+    private SessionEntity captureInserted() {
+        ArgumentCaptor<SessionEntity> captor = ArgumentCaptor.forClass(SessionEntity.class);
+        verify(mockDao).applyTransition(anyList(), captor.capture());
+        return captor.getValue();
+    }
+
     private SessionEntity createTestEntity(String id, SessionStatus status) {
         return new SessionEntity(
                 id,
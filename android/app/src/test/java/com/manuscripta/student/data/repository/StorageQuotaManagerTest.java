@@ -0,0 +1,233 @@
+package com.manuscripta.student.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.manuscripta.student.data.local.DistributionDao;
+import com.manuscripta.student.data.local.SessionDao;
+import com.manuscripta.student.data.model.SessionStatus;
+import com.manuscripta.student.utils.FileStorageManager;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link StorageQuotaManager}.
+ */
+public class StorageQuotaManagerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private SessionDao mockSessionDao;
+
+    @Mock
+    private DistributionDao mockDistributionDao;
+
+    private File baseDirectory;
+    private FileStorageManager fileStorageManager;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        baseDirectory = temporaryFolder.newFolder("files");
+        fileStorageManager = new FileStorageManager(baseDirectory);
+    }
+
+    /**
+     * Creates a manager that never needs to leave free space on the volume.
+     */
+    private StorageQuotaManager createManager(long quotaBytes) {
+        return new StorageQuotaManager(fileStorageManager, mockSessionDao, mockDistributionDao,
+                quotaBytes, 0);
+    }
+
+    /**
+     * Saves six bytes of content for a material, then waits so that later saves and lookups
+     * get a strictly later access time.
+     */
+    private void save(String materialId, String attachmentId, String content)
+            throws InterruptedException {
+        fileStorageManager.saveAttachment(materialId, attachmentId, "png", content.getBytes());
+        Thread.sleep(5);
+    }
+
+    private void givenMaterialsWithStatus(SessionStatus status, String... materialIds) {
+        when(mockSessionDao.getMaterialIdsWithStatus(argThat(statuses -> statuses != null
+                && statuses.contains(status)))).thenReturn(Arrays.asList(materialIds));
+    }
+
+    // ==================== Constructor Tests ====================
+
+    @Test
+    public void testConstructor_nullFileStorageManager_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StorageQuotaManager(null, mockSessionDao, mockDistributionDao));
+    }
+
+    @Test
+    public void testConstructor_nullSessionDao_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StorageQuotaManager(fileStorageManager, null, mockDistributionDao));
+    }
+
+    @Test
+    public void testConstructor_nullDistributionDao_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StorageQuotaManager(fileStorageManager, mockSessionDao, null));
+    }
+
+    @Test
+    public void testConstructor_negativeQuota_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StorageQuotaManager(fileStorageManager, mockSessionDao,
+                        mockDistributionDao, -1, 0));
+    }
+
+    @Test
+    public void testConstructor_negativeMinFree_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StorageQuotaManager(fileStorageManager, mockSessionDao,
+                        mockDistributionDao, 0, -1));
+    }
+
+    // ==================== enforceQuota Tests ====================
+
+    @Test
+    public void testEnforceQuota_withinQuota_evictsNothing() throws InterruptedException {
+        save("mat-a", "img", "aaaaaa");
+
+        assertEquals(0, createManager(6).enforceQuota());
+
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        verify(mockDistributionDao, never()).setContentHash(anyList(), anyString());
+    }
+
+    @Test
+    public void testEnforceQuota_overQuota_evictsLeastRecentlyUsed() throws InterruptedException {
+        save("mat-a", "img", "aaaaaa");
+        save("mat-b", "img", "bbbbbb");
+        save("mat-c", "img", "cccccc");
+        // Viewing mat-a makes mat-b the least recently used
+        fileStorageManager.getAttachmentLocation("mat-a", "img");
+
+        long freed = createManager(12).enforceQuota();
+
+        assertEquals(6, freed);
+        assertNull(fileStorageManager.getAttachmentFile("mat-b", "img"));
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-c", "img"));
+        verify(mockDistributionDao).setContentHash(Collections.singletonList("mat-b"),
+                MaterialRepositoryImpl.INCOMPLETE_CONTENT_HASH);
+    }
+
+    @Test
+    public void testEnforceQuota_openSession_neverEvicted() throws InterruptedException {
+        save("mat-a", "img", "aaaaaa");
+        save("mat-b", "img", "bbbbbb");
+        givenMaterialsWithStatus(SessionStatus.ACTIVE, "mat-a");
+
+        long freed = createManager(0).enforceQuota();
+
+        assertEquals(6, freed);
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        assertNull(fileStorageManager.getAttachmentFile("mat-b", "img"));
+    }
+
+    @Test
+    public void testEnforceQuota_finishedMaterialsEvictedFirst() throws InterruptedException {
+        save("mat-a", "img", "aaaaaa");
+        save("mat-b", "img", "bbbbbb");
+        givenMaterialsWithStatus(SessionStatus.COMPLETED, "mat-b");
+
+        createManager(6).enforceQuota();
+
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        assertNull(fileStorageManager.getAttachmentFile("mat-b", "img"));
+    }
+
+    @Test
+    public void testEnforceQuota_sharedContent_freedOnlyWithLastLink() throws InterruptedException {
+        save("mat-a", "img", "shared");
+        save("mat-b", "img", "shared");
+        save("mat-c", "img", "cccccc");
+
+        long freed = createManager(6).enforceQuota();
+
+        assertEquals(6, freed);
+        assertNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        assertNull(fileStorageManager.getAttachmentFile("mat-b", "img"));
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-c", "img"));
+    }
+
+    @Test
+    public void testEnforceQuota_lowFreeSpace_evictsBelowQuota() throws InterruptedException {
+        fileStorageManager = new FileStorageManager(baseDirectory) {
+            @Override
+            public long getUsableSpaceBytes() {
+                return 0;
+            }
+        };
+        save("mat-a", "img", "aaaaaa");
+        save("mat-b", "img", "bbbbbb");
+        StorageQuotaManager manager = new StorageQuotaManager(fileStorageManager, mockSessionDao,
+                mockDistributionDao, StorageQuotaManager.DEFAULT_QUOTA_BYTES, 6);
+
+        assertEquals(6, manager.enforceQuota());
+
+        assertNull(fileStorageManager.getAttachmentFile("mat-a", "img"));
+        assertNotNull(fileStorageManager.getAttachmentFile("mat-b", "img"));
+    }
+
+    // ==================== getUsage Tests ====================
+
+    @Test
+    public void testGetUsage_breaksDownByMaterialAndType() throws InterruptedException {
+        save("mat-a", "img", "shared");
+        save("mat-b", "img", "shared");
+        fileStorageManager.saveAttachment("mat-b", "doc", "pdf", "pdf".getBytes());
+
+        StorageUsage usage = createManager(100).getUsage();
+
+        assertEquals(9, usage.getTotalBytes());
+        assertEquals(3, usage.getAttachmentCount());
+        assertEquals(Long.valueOf(6), usage.getBytesByMaterial().get("mat-a"));
+        assertEquals(Long.valueOf(9), usage.getBytesByMaterial().get("mat-b"));
+        assertEquals(Long.valueOf(12), usage.getBytesByMimeType().get("image/png"));
+        assertEquals(Long.valueOf(3), usage.getBytesByMimeType().get("application/pdf"));
+        assertEquals(100, usage.getQuotaBytes());
+        assertEquals(0, usage.getEvictedAttachmentCount());
+    }
+
+    @Test
+    public void testGetUsage_countsEvictions() throws InterruptedException {
+        save("mat-a", "img", "aaaaaa");
+        save("mat-b", "img", "bbbbbb");
+        StorageQuotaManager manager = createManager(6);
+
+        manager.enforceQuota();
+        StorageUsage usage = manager.getUsage();
+
+        assertEquals(6, usage.getTotalBytes());
+        assertEquals(1, usage.getEvictedAttachmentCount());
+        assertEquals(6, usage.getEvictedBytes());
+    }
+}
@@ -6,7 +6,9 @@ import android.content.Context;
 
 import androidx.test.core.app.ApplicationProvider;
 
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.data.local.ManuscriptaDatabase;
+import com.manuscripta.student.data.local.MaterialContentStore;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,4 +41,19 @@ public class DatabaseModuleTest {
         ManuscriptaDatabase database = databaseModule.provideDatabase(context);
         assertNotNull(database);
     }
+
+    @Test
+    public void testProvideDatabaseReclaimer() {
+        Context context = ApplicationProvider.getApplicationContext();
+        ManuscriptaDatabase database = databaseModule.provideDatabase(context);
+        DatabaseReclaimer reclaimer = databaseModule.provideDatabaseReclaimer(database);
+        assertNotNull(reclaimer);
+    }
+
+    @Test
+    public void testProvideMaterialContentStore() {
+        Context context = ApplicationProvider.getApplicationContext();
+        MaterialContentStore store = databaseModule.provideMaterialContentStore(context);
+        assertNotNull(store);
+    }
 }
@@ -11,6 +11,8 @@ import com.manuscripta.student.network.interceptor.BaseUrlInterceptor;
 import com.manuscripta.student.network.interceptor.ErrorInterceptor;
 import com.manuscripta.student.network.interceptor.LoggingInterceptor;
 import com.manuscripta.student.network.interceptor.RetryInterceptor;
+import com.manuscripta.student.network.metrics.HttpTimingEventListener;
+import com.manuscripta.student.network.metrics.HttpTimingStore;
 import com.manuscripta.student.network.tcp.PairingManager;
 import com.manuscripta.student.utils.ConnectionManager;
 
@@ -44,13 +46,15 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
         assertNotNull(client);
     }
 
     @Test
     public void testProvideOkHttpClient_hasInterceptors() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         // Release builds have 4 interceptors (BaseUrl, Retry, Auth, Error);
         // debug builds have 5 (BaseUrl, Retry, Auth, Logging, Error)
@@ -60,7 +64,8 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient_hasRetryInterceptor() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         boolean hasRetryInterceptor = false;
         for (Interceptor interceptor : client.interceptors()) {
@@ -75,7 +80,8 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient_hasAuthInterceptor() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         boolean hasAuthInterceptor = false;
         for (Interceptor interceptor : client.interceptors()) {
@@ -90,7 +96,8 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient_hasLoggingInterceptor() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         boolean hasLoggingInterceptor = false;
         for (Interceptor interceptor : client.interceptors()) {
@@ -109,7 +116,8 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient_hasErrorInterceptor() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         boolean hasErrorInterceptor = false;
         for (Interceptor interceptor : client.interceptors()) {
@@ -124,14 +132,16 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideRetrofit() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
         Retrofit retrofit = networkModule.provideRetrofit(client);
         assertNotNull(retrofit);
     }
 
     @Test
     public void testProvideApiService() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
         Retrofit retrofit = networkModule.provideRetrofit(client);
         ApiService apiService = networkModule.provideApiService(retrofit);
         assertNotNull(apiService);
@@ -139,7 +149,8 @@ public class NetworkModuleTest {
 
     @Test
     public void testProvideOkHttpClient_interceptorOrder() {
-        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager);
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
 
         // Order: BaseUrl → Retry → Auth → [Logging (debug only)] → Error
         // Release: BaseUrl, Retry, Auth, Error (size 4);
@@ -161,4 +172,18 @@ public class NetworkModuleTest {
                        client.interceptors().get(3) instanceof LoggingInterceptor);
         }
     }
+
+    @Test
+    public void testProvideHttpTimingStore() {
+        assertNotNull(networkModule.provideHttpTimingStore());
+    }
+
+    @Test
+    public void testProvideOkHttpClient_hasTimingEventListenerFactory() {
+        OkHttpClient client = networkModule.provideOkHttpClient(mockConnectionManager, mockPairingManager,
+                new HttpTimingStore());
+
+        assertTrue("OkHttpClient should record HTTP phase timings",
+                   client.eventListenerFactory() instanceof HttpTimingEventListener.Factory);
+    }
 }
@@ -2,9 +2,11 @@ package com.manuscripta.student.di;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,9 +15,12 @@ import android.content.Context;
 
 import androidx.lifecycle.MutableLiveData;
 
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.data.local.DeviceStatusDao;
+import com.manuscripta.student.data.local.DistributionDao;
 import com.manuscripta.student.data.local.FeedbackDao;
 import com.manuscripta.student.data.local.ManuscriptaDatabase;
+import com.manuscripta.student.data.local.MaterialContentStore;
 import com.manuscripta.student.data.local.MaterialDao;
 import com.manuscripta.student.data.local.QuestionDao;
 import com.manuscripta.student.data.local.ResponseDao;
@@ -29,10 +34,13 @@ import com.manuscripta.student.data.repository.MaterialRepository;
 import com.manuscripta.student.data.repository.MaterialRepositoryImpl;
 import com.manuscripta.student.data.repository.ResponseRepository;
 import com.manuscripta.student.data.repository.ResponseRepositoryImpl;
+import com.manuscripta.student.data.repository.RetentionManager;
 import com.manuscripta.student.data.repository.SessionRepository;
 import com.manuscripta.student.data.repository.SessionRepositoryImpl;
+import com.manuscripta.student.data.repository.StorageQuotaManager;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.tcp.AckRetrySender;
+import com.manuscripta.student.network.tcp.FetchAdmissionScheduler;
 import com.manuscripta.student.network.tcp.HeartbeatManager;
 import com.manuscripta.student.network.tcp.PairingManager;
 import com.manuscripta.student.network.tcp.TcpSocketManager;
@@ -41,8 +49,11 @@ import com.manuscripta.student.network.tcp.message.LockScreenMessage;
 import com.manuscripta.student.network.tcp.message.ReturnFeedbackMessage;
 import com.manuscripta.student.network.tcp.message.UnlockScreenMessage;
 import com.manuscripta.student.network.tcp.message.UnpairMessage;
+import com.manuscripta.student.ui.renderer.MaterialPreloader;
+import com.manuscripta.student.ui.renderer.RenderCache;
 import com.manuscripta.student.utils.FileStorageManager;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -59,6 +70,7 @@ public class RepositoryModuleTest {
     private FeedbackDao mockFeedbackDao;
     private MaterialDao mockMaterialDao;
     private QuestionDao mockQuestionDao;
+    private DistributionDao mockDistributionDao;
     private FileStorageManager mockFileStorageManager;
     private ApiService mockApiService;
     private TcpSocketManager mockTcpSocketManager;
@@ -69,6 +81,8 @@ public class RepositoryModuleTest {
     private MaterialRepository mockMaterialRepository;
     private SessionRepository mockSessionRepository;
     private ConfigRepository mockConfigRepository;
+    private DatabaseReclaimer mockDatabaseReclaimer;
+    private FetchAdmissionScheduler fetchScheduler;
 
     @Before
     public void setUp() {
@@ -82,6 +96,7 @@ public class RepositoryModuleTest {
                 .thenReturn(new MutableLiveData<>(java.util.Collections.emptyList()));
         mockMaterialDao = mock(MaterialDao.class);
         mockQuestionDao = mock(QuestionDao.class);
+        mockDistributionDao = mock(DistributionDao.class);
         mockFileStorageManager = mock(FileStorageManager.class);
         mockApiService = mock(ApiService.class);
         mockTcpSocketManager = mock(TcpSocketManager.class);
@@ -92,6 +107,15 @@ public class RepositoryModuleTest {
         mockMaterialRepository = mock(MaterialRepository.class);
         mockSessionRepository = mock(SessionRepository.class);
         mockConfigRepository = mock(ConfigRepository.class);
+        mockDatabaseReclaimer = mock(DatabaseReclaimer.class);
+        // No admission spread, so signal-triggered fetches run straight away
+        fetchScheduler = new FetchAdmissionScheduler(mockPairingManager::getDeviceId,
+                0L, 0L, 0L, 1.0, 0L);
+    }
+
+    @After
+    public void tearDown() {
+        fetchScheduler.shutdown();
     }
 
     @Test
@@ -104,12 +128,24 @@ public class RepositoryModuleTest {
         verify(mockDatabase).sessionDao();
     }
 
+    @Test
+    public void testProvideDistributionDao_returnsDao() {
+        when(mockDatabase.distributionDao()).thenReturn(mockDistributionDao);
+
+        DistributionDao result = repositoryModule.provideDistributionDao(mockDatabase);
+
+        assertNotNull(result);
+        verify(mockDatabase).distributionDao();
+    }
+
     @Test
     public void testProvideSessionRepository_returnsRepository() {
-        SessionRepository result = repositoryModule.provideSessionRepository(mockSessionDao);
+        SessionRepository result = repositoryModule.provideSessionRepository(mockSessionDao,
+                mockDatabaseReclaimer);
 
         assertNotNull(result);
         assertTrue(result instanceof SessionRepositoryImpl);
+        verify(mockDatabaseReclaimer).addClearListener(any(Runnable.class));
     }
 
     @Test
@@ -124,10 +160,12 @@ public class RepositoryModuleTest {
 
     @Test
     public void testProvideResponseRepository_returnsRepository() {
-        ResponseRepository result = repositoryModule.provideResponseRepository(mockResponseDao, mockApiService);
+        ResponseRepository result = repositoryModule.provideResponseRepository(mockResponseDao, mockApiService,
+                mockDatabaseReclaimer);
 
         assertNotNull(result);
         assertTrue(result instanceof ResponseRepositoryImpl);
+        verify(mockDatabaseReclaimer).addClearListener(any(Runnable.class));
     }
 
     @Test
@@ -151,6 +189,22 @@ public class RepositoryModuleTest {
         assertNotNull(result);
     }
 
+    @Test
+    public void testProvideStorageQuotaManager_returnsManager() {
+        StorageQuotaManager result = repositoryModule.provideStorageQuotaManager(
+                mockFileStorageManager, mockSessionDao, mockDistributionDao);
+
+        assertNotNull(result);
+    }
+
+    @Test
+    public void testProvideRetentionManager_returnsManager() {
+        RetentionManager result = repositoryModule.provideRetentionManager(
+                mockResponseDao, mockSessionDao, mockSessionRepository, mockDatabaseReclaimer);
+
+        assertNotNull(result);
+    }
+
     @Test
     public void testProvideAckRetrySender_returnsSender() {
         AckRetrySender result = repositoryModule.provideAckRetrySender(mockTcpSocketManager);
@@ -160,14 +214,26 @@ public class RepositoryModuleTest {
 
     @Test
     public void testProvideMaterialRepository_returnsRepository() {
-        when(mockMaterialDao.getAll()).thenReturn(new java.util.ArrayList<>());
+        when(mockMaterialDao.getAllSummariesLive()).thenReturn(new MutableLiveData<>());
 
         MaterialRepository result = repositoryModule.provideMaterialRepository(
-                mockMaterialDao, mockQuestionDao, mockFileStorageManager, mockApiService,
-                mockTcpSocketManager, mockAckRetrySender, mockSessionRepository);
+                mockMaterialDao, mockQuestionDao, mockDistributionDao, mockFileStorageManager,
+                mock(MaterialContentStore.class), mockApiService, mockTcpSocketManager,
+                mockAckRetrySender, mockSessionRepository, mock(StorageQuotaManager.class),
+                mockDatabaseReclaimer);
 
         assertNotNull(result);
         assertTrue(result instanceof MaterialRepositoryImpl);
+        verify(mockDatabaseReclaimer).addClearListener(any(Runnable.class));
+    }
+
+    @Test
+    public void testProvideMaterialPreloader_returnsPreloader() {
+        MaterialPreloader result = repositoryModule.provideMaterialPreloader(
+                mockMaterialRepository, mock(RenderCache.class), mockApiService,
+                mockFileStorageManager);
+
+        assertNotNull(result);
     }
 
     @Test
@@ -201,10 +267,24 @@ public class RepositoryModuleTest {
 
     @Test
     public void testProvideDeviceStatusRepository_returnsRepository() {
-        DeviceStatusRepository result = repositoryModule.provideDeviceStatusRepository(mockDeviceStatusDao);
+        DeviceStatusRepository result = repositoryModule.provideDeviceStatusRepository(
+                mockDeviceStatusDao, mockDatabaseReclaimer);
 
         assertNotNull(result);
         assertTrue(result instanceof DeviceStatusRepositoryImpl);
+        verify(mockDatabaseReclaimer).addClearListener(any(Runnable.class));
+    }
+
+    @Test
+    public void testProvideFetchAdmissionScheduler_returnsScheduler() {
+        FetchAdmissionScheduler result =
+                repositoryModule.provideFetchAdmissionScheduler(mockPairingManager);
+
+        try {
+            assertNotNull(result);
+        } finally {
+            result.shutdown();
+        }
     }
 
     @Test
@@ -212,8 +292,8 @@ public class RepositoryModuleTest {
         HeartbeatManager result = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             assertNotNull(result);
@@ -230,13 +310,13 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new DistributeMaterialMessage());
 
-            verify(mockMaterialRepository, timeout(2000)).syncMaterials("device-1");
+            verify(mockMaterialRepository, timeout(5000)).syncMaterials("device-1");
         } finally {
             hm.destroy();
         }
@@ -250,13 +330,13 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new ReturnFeedbackMessage());
 
-            verify(mockFeedbackRepository, timeout(2000))
+            verify(mockFeedbackRepository, timeout(5000))
                     .fetchAndStoreFeedback("device-1");
         } finally {
             hm.destroy();
@@ -271,8 +351,8 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         // Trigger a heartbeat by starting and waiting for the first scheduled send
         try {
@@ -291,8 +371,8 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new DistributeMaterialMessage());
@@ -315,8 +395,8 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new DistributeMaterialMessage());
@@ -339,8 +419,8 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new LockScreenMessage());
@@ -360,8 +440,8 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new UnlockScreenMessage());
@@ -381,52 +461,22 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             hm.onMessageReceived(new UnpairMessage());
 
-            verify(mockSessionRepository, timeout(2000))
-                    .deleteAllSessions();
-            verify(mockMaterialRepository, timeout(2000))
-                    .deleteAllMaterials();
-            verify(mockFeedbackRepository, timeout(2000))
-                    .deleteAllFeedback();
+            verify(mockDatabaseReclaimer, timeout(2000))
+                    .clearAll();
             verify(mockConfigRepository, timeout(2000))
                     .clearConfig();
-            verify(mockDeviceStatusRepository, timeout(2000))
-                    .clearDeviceStatus("device-1");
             verify(mockTcpSocketManager, timeout(2000))
                     .disconnect();
             verify(mockPairingManager, timeout(2000))
                     .resetPairingData();
-        } finally {
-            hm.destroy();
-        }
-    }
-
-    @Test
-    public void testProvideHeartbeatManager_unpairCallback_handlesNoActiveSession()
-            throws InterruptedException {
-        when(mockPairingManager.getDeviceId()).thenReturn("device-1");
-        doThrow(new IllegalStateException("No active session"))
-                .when(mockSessionRepository).cancelSession();
-
-        HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
-                mockTcpSocketManager, mockPairingManager,
-                mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
-
-        try {
-            hm.onMessageReceived(new UnpairMessage());
-
-            // Should still proceed with cleanup despite cancelSession failing
-            verify(mockSessionRepository, timeout(2000))
-                    .deleteAllSessions();
-            verify(mockPairingManager, timeout(2000))
-                    .resetPairingData();
+            verify(mockMaterialRepository, never()).deleteAllMaterials();
+            verify(mockSessionRepository, never()).deleteAllSessions();
         } finally {
             hm.destroy();
         }
@@ -442,14 +492,14 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             // Should not throw — exception is caught internally
             hm.onMessageReceived(new DistributeMaterialMessage());
 
-            verify(mockMaterialRepository, timeout(2000))
+            verify(mockMaterialRepository, timeout(5000))
                     .syncMaterials("device-1");
         } finally {
             hm.destroy();
@@ -467,14 +517,14 @@ public class RepositoryModuleTest {
         HeartbeatManager hm = repositoryModule.provideHeartbeatManager(
                 mockTcpSocketManager, mockPairingManager,
                 mockMaterialRepository, mockFeedbackRepository,
-                mockDeviceStatusRepository, mockSessionRepository,
-                mockConfigRepository);
+                mockDeviceStatusRepository, mockConfigRepository, mockDatabaseReclaimer,
+                fetchScheduler);
 
         try {
             // Should not throw — exception is caught internally
             hm.onMessageReceived(new ReturnFeedbackMessage());
 
-            verify(mockFeedbackRepository, timeout(2000))
+            verify(mockFeedbackRepository, timeout(5000))
                     .fetchAndStoreFeedback("device-1");
         } finally {
             hm.destroy();
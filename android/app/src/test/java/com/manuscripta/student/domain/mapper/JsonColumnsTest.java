@@ -0,0 +1,54 @@
+package com.manuscripta.student.domain.mapper;
+
+import static org.junit.Assert.assertEquals;
+
+import com.manuscripta.student.domain.model.StoredLists;
+import com.manuscripta.student.domain.model.VocabularyTerm;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link JsonColumns}.
+ */
+public class JsonColumnsTest {
+
+    // ========== Options ==========
+
+    @Test
+    public void testEncodeOptions_roundTrips() {
+        List<String> options = Arrays.asList("x = \"1\"", "élève", "a|b");
+
+        assertEquals(options, StoredLists.decodeOptions(JsonColumns.encodeOptions(options)));
+    }
+
+    @Test
+    public void testEncodeOptions_emptyOrNull_emptyString() {
+        assertEquals("", JsonColumns.encodeOptions(null));
+        assertEquals("", JsonColumns.encodeOptions(Collections.emptyList()));
+    }
+
+    // ========== Vocabulary terms ==========
+
+    @Test
+    public void testVocabularyTerms_roundTrip() {
+        List<VocabularyTermDto> terms = Arrays.asList(
+                new VocabularyTermDto("osmosis", "diffusion of water"),
+                new VocabularyTermDto("cell", null));
+
+        String json = JsonColumns.encodeVocabularyTerms(terms);
+
+        assertEquals(Arrays.asList(new VocabularyTerm("osmosis", "diffusion of water"),
+                new VocabularyTerm("cell", null)), StoredLists.decodeVocabularyTerms(json));
+    }
+
+    @Test
+    public void testEncodeVocabularyTerms_emptyOrNull_emptyArray() {
+        assertEquals("[]", JsonColumns.encodeVocabularyTerms(null));
+        assertEquals("[]", JsonColumns.encodeVocabularyTerms(Collections.emptyList()));
+    }
+}
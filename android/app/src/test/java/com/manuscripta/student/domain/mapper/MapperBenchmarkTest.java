@@ -0,0 +1,128 @@
+package com.manuscripta.student.domain.mapper;
+
+import static org.junit.Assert.assertEquals;
+
+import com.manuscripta.student.benchmark.BenchmarkSupport;
+import com.manuscripta.student.benchmark.BenchmarkTest;
+import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionEntity;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.domain.model.Question;
+import com.manuscripta.student.domain.model.StoredLists;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures mapping a 500-material table to domain models with the JSON columns decoded
+ * lazily through {@link StoredLists}, against decoding every column up front, and reading
+ * a question's options repeatedly with and without the memoised decode.
+ *
+ * <p>Run with {@code ./gradlew test -Pbenchmark --tests "*MapperBenchmarkTest"}.
+ * Results are printed as throughput and bytes allocated per table.</p>
+ */
+@Category(BenchmarkTest.class)
+public class MapperBenchmarkTest {
+
+    /** Materials in the table, a term's worth. */
+    private static final int MATERIALS = 500;
+
+    /** Questions per material. */
+    private static final int QUESTIONS_PER_MATERIAL = 5;
+
+    /** Vocabulary terms per material. */
+    private static final int TERMS_PER_MATERIAL = 8;
+
+    /**
+     * Times a question's options are read while it is on screen: rendering, checking the
+     * answer and showing feedback.
+     */
+    private static final int OPTION_READS = 3;
+
+    /** Timed iterations, each over the whole table. */
+    private static final int ITERATIONS = 200;
+
+    private static List<MaterialEntity> materials;
+    private static List<QuestionEntity> questions;
+
+    @BeforeClass
+    public static void buildTable() {
+        List<VocabularyTermDto> terms = new ArrayList<>();
+        for (int t = 0; t < TERMS_PER_MATERIAL; t++) {
+            terms.add(new VocabularyTermDto("term" + t, "definition of term " + t));
+        }
+        String termsJson = JsonColumns.encodeVocabularyTerms(terms);
+        String optionsJson = JsonColumns.encodeOptions(
+                Arrays.asList("Option A", "Option B", "Option C", "Option D"));
+
+        materials = new ArrayList<>();
+        questions = new ArrayList<>();
+        for (int m = 0; m < MATERIALS; m++) {
+            String materialId = String.format("550e8400-e29b-41d4-a716-%012d", m);
+            materials.add(new MaterialEntity(materialId, MaterialType.WORKSHEET, "Material " + m,
+                    "# Section\nPlants convert light energy.", "{}", termsJson, 1702147200000L + m));
+            for (int q = 0; q < QUESTIONS_PER_MATERIAL; q++) {
+                questions.add(new QuestionEntity(
+                        String.format("660e8400-e29b-41d4-%04d-%012d", m, q), materialId,
+                        "Question " + q, QuestionType.MULTIPLE_CHOICE, optionsJson, "1", 1));
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkMapMaterialTable() throws Exception {
+        assertEquals(TERMS_PER_MATERIAL,
+                MaterialMapper.toDomain(materials.get(0)).getVocabularyTermList().size());
+
+        BenchmarkSupport.measure("map 500 materials, read titles", ITERATIONS, () -> {
+            int length = 0;
+            for (MaterialEntity entity : materials) {
+                length += MaterialMapper.toDomain(entity).getTitle().length();
+            }
+            return length;
+        });
+        BenchmarkSupport.measure("map 500 materials, decode terms", ITERATIONS, () -> {
+            int count = 0;
+            for (MaterialEntity entity : materials) {
+                count += MaterialMapper.toDomain(entity).getVocabularyTermList().size();
+            }
+            return count;
+        });
+    }
+
+    @Test
+    public void benchmarkReadQuestionOptions() throws Exception {
+        List<Question> domain = new ArrayList<>();
+        for (QuestionEntity entity : questions) {
+            domain.add(QuestionMapper.toDomain(entity));
+        }
+        assertEquals(4, domain.get(0).getOptionList().size());
+
+        BenchmarkSupport.measure("options decoded on every read", ITERATIONS, () -> {
+            int count = 0;
+            for (Question question : domain) {
+                for (int i = 0; i < OPTION_READS; i++) {
+                    count += StoredLists.decodeOptions(question.getOptions()).size();
+                }
+            }
+            return count;
+        });
+        BenchmarkSupport.measure("options memoised, fresh models", ITERATIONS, () -> {
+            int count = 0;
+            for (QuestionEntity entity : questions) {
+                Question question = QuestionMapper.toDomain(entity);
+                for (int i = 0; i < OPTION_READS; i++) {
+                    count += question.getOptionList().size();
+                }
+            }
+            return count;
+        });
+    }
+}
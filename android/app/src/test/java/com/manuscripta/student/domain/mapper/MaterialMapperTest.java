@@ -5,8 +5,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.manuscripta.student.data.model.MaterialEntity;
+import com.manuscripta.student.data.model.MaterialSummaryTuple;
 import com.manuscripta.student.data.model.MaterialType;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
 import com.manuscripta.student.network.dto.MaterialDto;
 import com.manuscripta.student.network.dto.VocabularyTermDto;
 
@@ -530,4 +532,43 @@ public class MaterialMapperTest {
         assertNotNull(dto.getVocabularyTerms());
         assertTrue(dto.getVocabularyTerms().isEmpty());
     }
+
+    @Test
+    public void testToSummaryFromTuple() {
+        // Given
+        MaterialSummaryTuple tuple = new MaterialSummaryTuple(
+                TEST_ID, MaterialType.POLL, TEST_TITLE, TEST_TIMESTAMP);
+
+        // When
+        MaterialSummary summary = MaterialMapper.toSummary(tuple);
+
+        // Then
+        assertEquals(TEST_ID, summary.getId());
+        assertEquals(MaterialType.POLL, summary.getType());
+        assertEquals(TEST_TITLE, summary.getTitle());
+        assertEquals(TEST_TIMESTAMP, summary.getTimestamp());
+    }
+
+    @Test
+    public void testToSummaryFromDomain() {
+        // Given
+        Material domain = new Material(
+                TEST_ID,
+                MaterialType.WORKSHEET,
+                TEST_TITLE,
+                TEST_CONTENT,
+                TEST_METADATA,
+                "[]",
+                TEST_TIMESTAMP
+        );
+
+        // When
+        MaterialSummary summary = MaterialMapper.toSummary(domain);
+
+        // Then
+        assertEquals(TEST_ID, summary.getId());
+        assertEquals(MaterialType.WORKSHEET, summary.getType());
+        assertEquals(TEST_TITLE, summary.getTitle());
+        assertEquals(TEST_TIMESTAMP, summary.getTimestamp());
+    }
 }
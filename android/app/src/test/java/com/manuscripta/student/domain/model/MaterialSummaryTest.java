@@ -0,0 +1,76 @@
+package com.manuscripta.student.domain.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.manuscripta.student.data.model.MaterialType;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MaterialSummary} domain model.
+ */
+public class MaterialSummaryTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        MaterialSummary summary = new MaterialSummary("test-id", MaterialType.WORKSHEET,
+                "Test Title", 1234567890L);
+
+        assertEquals("test-id", summary.getId());
+        assertEquals(MaterialType.WORKSHEET, summary.getType());
+        assertEquals("Test Title", summary.getTitle());
+        assertEquals(1234567890L, summary.getTimestamp());
+    }
+
+    @Test
+    public void testConstructor_invalidId_throws() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new MaterialSummary(null, MaterialType.READING, "Title", 0L));
+        assertEquals("MaterialSummary id cannot be null or empty", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialSummary("  ", MaterialType.READING, "Title", 0L));
+    }
+
+    @Test
+    public void testConstructor_nullType_throws() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new MaterialSummary("id", null, "Title", 0L));
+        assertEquals("MaterialSummary type cannot be null", exception.getMessage());
+    }
+
+    @Test
+    public void testConstructor_invalidTitle_throws() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new MaterialSummary("id", MaterialType.READING, "", 0L));
+        assertEquals("MaterialSummary title cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    public void testConstructor_negativeTimestamp_throws() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new MaterialSummary("id", MaterialType.READING, "Title", -1L));
+        assertEquals("MaterialSummary timestamp cannot be negative", exception.getMessage());
+    }
+
+    @Test
+    public void testEquals_sameFields_equalWithSameHashCode() {
+        MaterialSummary first = new MaterialSummary("id", MaterialType.READING, "Title", 5L);
+        MaterialSummary second = new MaterialSummary("id", MaterialType.READING, "Title", 5L);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void testEquals_anyFieldDiffers_notEqual() {
+        MaterialSummary summary = new MaterialSummary("id", MaterialType.READING, "Title", 5L);
+
+        assertNotEquals(summary, new MaterialSummary("other", MaterialType.READING, "Title", 5L));
+        assertNotEquals(summary, new MaterialSummary("id", MaterialType.POLL, "Title", 5L));
+        assertNotEquals(summary, new MaterialSummary("id", MaterialType.READING, "Renamed", 5L));
+        assertNotEquals(summary, new MaterialSummary("id", MaterialType.READING, "Title", 6L));
+        assertNotEquals(summary, null);
+    }
+}
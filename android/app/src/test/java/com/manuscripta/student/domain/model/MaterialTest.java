@@ -2,13 +2,18 @@ package com.manuscripta.student.domain.model;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import com.manuscripta.student.data.model.MaterialType;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Unit tests for {@link Material} domain model.
  */
@@ -272,4 +277,23 @@ public class MaterialTest {
         );
         assertEquals("Material timestamp cannot be negative", exception.getMessage());
     }
+
+    @Test
+    public void testGetVocabularyTermList_decodesOnceAndMemoises() {
+        Material withTerms = new Material("id", MaterialType.READING, "Title", "Content", "{}",
+                "[{\"Term\":\"osmosis\",\"Definition\":\"diffusion of water\"}]", 0L);
+
+        List<VocabularyTerm> terms = withTerms.getVocabularyTermList();
+
+        assertEquals(Collections.singletonList(
+                new VocabularyTerm("osmosis", "diffusion of water")), terms);
+        assertSame(terms, withTerms.getVocabularyTermList());
+        assertThrows(UnsupportedOperationException.class,
+                () -> terms.add(new VocabularyTerm("cell", null)));
+    }
+
+    @Test
+    public void testGetVocabularyTermList_invalid_empty() {
+        assertTrue(material.getVocabularyTermList().isEmpty());
+    }
 }
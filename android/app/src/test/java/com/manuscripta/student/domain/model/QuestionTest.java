@@ -1,14 +1,20 @@
 package com.manuscripta.student.domain.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import com.manuscripta.student.data.model.QuestionType;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Unit tests for {@link Question} domain model.
  */
@@ -258,4 +264,50 @@ public class QuestionTest {
         );
         assertEquals("Question correctAnswer cannot be null", exception.getMessage());
     }
+
+    @Test
+    public void testEquals_sameFields_equalWithSameHashCode() {
+        Question same = new Question("question-id", "material-id", "What is the question?",
+                QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\",\"C\",\"D\"]", "B", null);
+
+        assertEquals(question, same);
+        assertEquals(question.hashCode(), same.hashCode());
+    }
+
+    @Test
+    public void testEquals_fieldDiffers_notEqual() {
+        assertNotEquals(question, new Question("question-id", "material-id", "Reworded?",
+                QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\",\"C\",\"D\"]", "B", null));
+        assertNotEquals(question, new Question("question-id", "material-id",
+                "What is the question?", QuestionType.MULTIPLE_CHOICE,
+                "[\"A\",\"B\",\"C\",\"D\"]", "B", 2));
+        assertNotEquals(question, null);
+    }
+
+    @Test
+    public void testGetOptionList_decodesOnceAndMemoises() {
+        List<String> options = question.getOptionList();
+
+        assertEquals(Arrays.asList("A", "B", "C", "D"), options);
+        assertSame(options, question.getOptionList());
+        assertThrows(UnsupportedOperationException.class, () -> options.add("E"));
+    }
+
+    @Test
+    public void testGetOptionList_noOptions_empty() {
+        Question written = new Question("question-id", "material-id", "Explain.",
+                QuestionType.WRITTEN_ANSWER, "", "", null);
+
+        assertTrue(written.getOptionList().isEmpty());
+    }
+
+    @Test
+    public void testEquals_ignoresDecodedOptions() {
+        Question same = new Question("question-id", "material-id", "What is the question?",
+                QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\",\"C\",\"D\"]", "B", null);
+        same.getOptionList();
+
+        assertEquals(question, same);
+        assertEquals(question.hashCode(), same.hashCode());
+    }
 }
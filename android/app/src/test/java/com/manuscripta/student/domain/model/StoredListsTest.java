@@ -0,0 +1,86 @@
+package com.manuscripta.student.domain.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for {@link StoredLists}.
+ */
+public class StoredListsTest {
+
+    // ========== Options ==========
+
+    @Test
+    public void testDecodeOptions_jsonArray() {
+        assertEquals(Arrays.asList("A", "B", "C"), StoredLists.decodeOptions("[\"A\",\"B\",\"C\"]"));
+    }
+
+    @Test
+    public void testDecodeOptions_emptyOrMissing_empty() {
+        assertTrue(StoredLists.decodeOptions(null).isEmpty());
+        assertTrue(StoredLists.decodeOptions("").isEmpty());
+        assertTrue(StoredLists.decodeOptions("  ").isEmpty());
+        assertTrue(StoredLists.decodeOptions("[]").isEmpty());
+    }
+
+    @Test
+    public void testDecodeOptions_invalidJson_empty() {
+        assertTrue(StoredLists.decodeOptions("{not an array}").isEmpty());
+        assertTrue(StoredLists.decodeOptions("invalid json").isEmpty());
+    }
+
+    @Test
+    public void testDecodeOptions_delimitedText_split() {
+        assertEquals(Arrays.asList("Red", "Green", "Blue"),
+                StoredLists.decodeOptions("Red | Green ||Blue"));
+        assertEquals(Arrays.asList("One", "Two"), StoredLists.decodeOptions("One\nTwo;"));
+    }
+
+    @Test
+    public void testDecodeOptions_brokenJsonWithDelimiters_split() {
+        assertEquals(Arrays.asList("[A", "B"), StoredLists.decodeOptions("[A;B"));
+    }
+
+    @Test
+    public void testDecodeOptions_unmodifiable() {
+        List<String> options = StoredLists.decodeOptions("[\"A\"]");
+
+        assertThrows(UnsupportedOperationException.class, () -> options.add("B"));
+    }
+
+    // ========== Vocabulary terms ==========
+
+    @Test
+    public void testDecodeVocabularyTerms_objects() {
+        List<VocabularyTerm> terms = StoredLists.decodeVocabularyTerms(
+                "[{\"Term\":\"osmosis\",\"Definition\":\"diffusion of water\"},{\"Term\":\"cell\"}]");
+
+        assertEquals(Arrays.asList(new VocabularyTerm("osmosis", "diffusion of water"),
+                new VocabularyTerm("cell", null)), terms);
+        assertNull(terms.get(1).getDefinition());
+    }
+
+    @Test
+    public void testDecodeVocabularyTerms_unmodifiable() {
+        List<VocabularyTerm> terms = StoredLists.decodeVocabularyTerms("[{\"Term\":\"cell\"}]");
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> terms.add(new VocabularyTerm("a", "b")));
+    }
+
+    @Test
+    public void testDecodeVocabularyTerms_invalid_empty() {
+        assertTrue(StoredLists.decodeVocabularyTerms(null).isEmpty());
+        assertTrue(StoredLists.decodeVocabularyTerms("[]").isEmpty());
+        assertTrue(StoredLists.decodeVocabularyTerms("invalid json").isEmpty());
+        assertTrue(StoredLists.decodeVocabularyTerms("[\"vocab1\",\"vocab2\"]").isEmpty());
+        assertTrue(StoredLists.decodeVocabularyTerms("[{\"Term\":{}}]").isEmpty());
+    }
+}
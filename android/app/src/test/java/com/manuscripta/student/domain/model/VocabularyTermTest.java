@@ -0,0 +1,40 @@
+package com.manuscripta.student.domain.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link VocabularyTerm} domain model.
+ */
+public class VocabularyTermTest {
+
+    @Test
+    public void testConstructor_keepsParts() {
+        VocabularyTerm term = new VocabularyTerm("osmosis", "diffusion of water");
+
+        assertEquals("osmosis", term.getTerm());
+        assertEquals("diffusion of water", term.getDefinition());
+    }
+
+    @Test
+    public void testConstructor_missingParts_null() {
+        VocabularyTerm term = new VocabularyTerm(null, null);
+
+        assertNull(term.getTerm());
+        assertNull(term.getDefinition());
+    }
+
+    @Test
+    public void testEquals_comparesBothParts() {
+        VocabularyTerm term = new VocabularyTerm("cell", null);
+
+        assertEquals(term, new VocabularyTerm("cell", null));
+        assertEquals(term.hashCode(), new VocabularyTerm("cell", null).hashCode());
+        assertNotEquals(term, new VocabularyTerm("cell", "unit of life"));
+        assertNotEquals(term, new VocabularyTerm("tissue", null));
+        assertNotEquals(term, null);
+    }
+}
@@ -269,6 +269,36 @@ public class ApiServiceTest {
         assertEquals(404, response.code());
     }
 
+    @Test
+    public void testGetFeedbackSince_sendsCursorAndParsesNext()
+            throws IOException, InterruptedException {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"feedback\":[],\"cursor\":\"c-2\"}")
+                .setHeader("Content-Type", "application/json")
+                .setResponseCode(200));
+
+        Response<FeedbackResponse> response =
+                apiService.getFeedbackSince(TEST_DEVICE_ID, "c-1").execute();
+
+        assertEquals("c-2", response.body().getCursor());
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertEquals("/api/v1/feedback/" + TEST_DEVICE_ID + "?since=c-1", request.getPath());
+    }
+
+    @Test
+    public void testGetFeedbackSince_nullCursor_omitsParameter() throws IOException, InterruptedException {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"feedback\":[]}")
+                .setHeader("Content-Type", "application/json")
+                .setResponseCode(200));
+
+        Response<FeedbackResponse> response =
+                apiService.getFeedbackSince(TEST_DEVICE_ID, null).execute();
+
+        assertNull(response.body().getCursor());
+        assertEquals("/api/v1/feedback/" + TEST_DEVICE_ID, mockWebServer.takeRequest().getPath());
+    }
+
     // ========== GET /config/{deviceId} Tests ==========
 
     @Test
@@ -43,6 +43,23 @@ public class FeedbackResponseTest {
         assertEquals(feedbackList, response.getFeedback());
     }
 
+    @Test
+    public void testConstructorWithCursor() {
+        FeedbackResponse response = new FeedbackResponse(Collections.emptyList(), "cursor-1");
+
+        assertEquals("cursor-1", response.getCursor());
+        assertNull(new FeedbackResponse(null).getCursor());
+    }
+
+    @Test
+    public void testSetCursor() {
+        FeedbackResponse response = new FeedbackResponse();
+
+        response.setCursor("cursor-2");
+
+        assertEquals("cursor-2", response.getCursor());
+    }
+
     @Test
     public void testConstructorWithNullList() {
         FeedbackResponse response = new FeedbackResponse(null);
@@ -587,6 +587,54 @@ public class RetryInterceptorTest {
      * @param message HTTP status message
      * @return Mock response
      */
+    // ========== Retry-After tests ==========
+
+    @Test
+    public void testIntercept_retryAfterLongerThanBackoff_waitsRetryAfter() throws IOException {
+        TestableRetryInterceptor interceptor = new TestableRetryInterceptor(mockConnectionManager);
+        when(mockChain.proceed(any(Request.class)))
+                .thenAnswer(inv -> createResponse(503, "Service Unavailable", "5"))
+                .thenAnswer(inv -> createResponse(200, "OK"));
+
+        Response response = interceptor.intercept(mockChain);
+
+        assertEquals(200, response.code());
+        assertEquals(1, interceptor.getSleepCallCount());
+        assertEquals(5000L, interceptor.getLastSleepDuration());
+    }
+
+    @Test
+    public void testIntercept_retryAfterShorterThanBackoff_waitsBackoff() throws IOException {
+        TestableRetryInterceptor interceptor = new TestableRetryInterceptor(mockConnectionManager);
+        when(mockChain.proceed(any(Request.class)))
+                .thenAnswer(inv -> createResponse(429, "Too Many Requests", "0"))
+                .thenAnswer(inv -> createResponse(200, "OK"));
+
+        interceptor.intercept(mockChain);
+
+        assertEquals(1000L, interceptor.getLastSleepDuration());
+    }
+
+    @Test
+    public void testParseRetryAfterMs_cappedAtMaxBackoff() {
+        RetryInterceptor interceptor = new RetryInterceptor(mockConnectionManager);
+
+        assertEquals(32000L, interceptor.parseRetryAfterMs(
+                createResponse(503, "Service Unavailable", "120")));
+        assertEquals(32000L, interceptor.parseRetryAfterMs(
+                createResponse(503, "Service Unavailable", String.valueOf(Long.MAX_VALUE))));
+    }
+
+    @Test
+    public void testParseRetryAfterMs_absentOrUnparseable_returnsZero() {
+        RetryInterceptor interceptor = new RetryInterceptor(mockConnectionManager);
+
+        assertEquals(0L, interceptor.parseRetryAfterMs(createResponse(503, "Unavailable")));
+        assertEquals(0L, interceptor.parseRetryAfterMs(
+                createResponse(503, "Unavailable", "Wed, 21 Oct 2015 07:28:00 GMT")));
+        assertEquals(0L, interceptor.parseRetryAfterMs(createResponse(503, "Unavailable", "-3")));
+    }
+
     private Response createResponse(int code, String message) {
         return new Response.Builder()
                 .request(testRequest)
@@ -596,4 +644,15 @@ public class RetryInterceptorTest {
                 .body(ResponseBody.create("", MediaType.parse("text/plain")))
                 .build();
     }
+
+    private Response createResponse(int code, String message, String retryAfter) {
+        return new Response.Builder()
+                .request(testRequest)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(message)
+                .header("Retry-After", retryAfter)
+                .body(ResponseBody.create("", MediaType.parse("text/plain")))
+                .build();
+    }
 }
@@ -0,0 +1,102 @@
+package com.manuscripta.student.network.json;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.manuscripta.student.benchmark.BenchmarkSupport;
+import com.manuscripta.student.benchmark.BenchmarkTest;
+import com.manuscripta.student.network.dto.DistributionBundleDto;
+import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares distribution bundle parsing through reflective Gson against the streaming
+ * adapters in {@link DtoTypeAdapterFactory}.
+ *
+ * <p>Run with {@code ./gradlew test -Pbenchmark --tests "*DtoJsonBenchmarkTest"}.
+ * Results are printed as throughput and bytes allocated per bundle.</p>
+ */
+@Category(BenchmarkTest.class)
+public class DtoJsonBenchmarkTest {
+
+    /** Materials per bundle, roughly one lesson's worth. */
+    private static final int MATERIALS = 30;
+
+    /** Questions per material. */
+    private static final int QUESTIONS_PER_MATERIAL = 5;
+
+    /** Timed iterations for warm parsing. */
+    private static final int WARM_ITERATIONS = 500;
+
+    /** Timed iterations for cold parsing (fresh Gson per call). */
+    private static final int COLD_ITERATIONS = 200;
+
+    private static String bundleJson;
+    private static DistributionBundleDto expected;
+
+    @BeforeClass
+    public static void buildBundle() {
+        StringBuilder paragraph = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            paragraph.append("Plants convert light energy into chemical energy. ");
+        }
+        List<MaterialDto> materials = new ArrayList<>();
+        List<QuestionDto> questions = new ArrayList<>();
+        for (int m = 0; m < MATERIALS; m++) {
+            String materialId = String.format("550e8400-e29b-41d4-a716-%012d", m);
+            List<VocabularyTermDto> terms = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                terms.add(new VocabularyTermDto("term" + t, "definition of term " + t));
+            }
+            materials.add(new MaterialDto(materialId, "WORKSHEET", "Material " + m,
+                    "# Section\n" + paragraph + "\n![d](/attachments/" + materialId + ")",
+                    "{\"author\":\"Teacher\"}", terms, 1702147200000L + m));
+            for (int q = 0; q < QUESTIONS_PER_MATERIAL; q++) {
+                questions.add(new QuestionDto(
+                        String.format("660e8400-e29b-41d4-%04d-%012d", m, q), materialId,
+                        "MULTIPLE_CHOICE", "Question " + q,
+                        Arrays.asList("Option A", "Option B", "Option C", "Option D"),
+                        "1", 1));
+            }
+        }
+        expected = new DistributionBundleDto(materials, questions);
+        bundleJson = new Gson().toJson(expected);
+    }
+
+    @Test
+    public void benchmarkWarmParse() throws Exception {
+        Gson reflective = new Gson();
+        Gson streaming = DtoJson.getGson();
+
+        assertEquals(expected, reflective.fromJson(bundleJson, DistributionBundleDto.class));
+        assertEquals(expected, streaming.fromJson(bundleJson, DistributionBundleDto.class));
+
+        BenchmarkSupport.measure("reflective warm parse", WARM_ITERATIONS,
+                () -> reflective.fromJson(bundleJson, DistributionBundleDto.class));
+        BenchmarkSupport.measure("streaming warm parse", WARM_ITERATIONS,
+                () -> streaming.fromJson(bundleJson, DistributionBundleDto.class));
+    }
+
+    @Test
+    public void benchmarkColdParse() throws Exception {
+        // A fresh Gson per call approximates first use after process start, where
+        // reflective adapters must be built from class metadata.
+        BenchmarkSupport.measure("reflective cold parse", COLD_ITERATIONS,
+                () -> new Gson().fromJson(bundleJson, DistributionBundleDto.class));
+        BenchmarkSupport.measure("streaming cold parse", COLD_ITERATIONS,
+                () -> new GsonBuilder()
+                        .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+                        .create()
+                        .fromJson(bundleJson, DistributionBundleDto.class));
+    }
+}
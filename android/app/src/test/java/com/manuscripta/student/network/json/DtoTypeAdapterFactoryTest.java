@@ -0,0 +1,248 @@
+package com.manuscripta.student.network.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.manuscripta.student.network.FeedbackDto;
+import com.manuscripta.student.network.FeedbackResponse;
+import com.manuscripta.student.network.dto.BatchResponseDto;
+import com.manuscripta.student.network.dto.ConfigResponseDto;
+import com.manuscripta.student.network.dto.DeviceInfoDto;
+import com.manuscripta.student.network.dto.DeviceStatusDto;
+import com.manuscripta.student.network.dto.DistributionBundleDto;
+import com.manuscripta.student.network.dto.MaterialDto;
+import com.manuscripta.student.network.dto.QuestionDto;
+import com.manuscripta.student.network.dto.ResponseDto;
+import com.manuscripta.student.network.dto.VocabularyTermDto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link DtoTypeAdapterFactory}.
+ * Each adapter is checked for parity with Gson's reflective adapter, which is the
+ * behaviour the DTOs were originally designed against.
+ */
+public class DtoTypeAdapterFactoryTest {
+
+    /** Reflective Gson used as the reference implementation. */
+    private final Gson reflective = new Gson();
+
+    /** Gson with the streaming adapters registered. */
+    private final Gson streaming = DtoJson.getGson();
+
+    private static final String MATERIAL_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String QUESTION_ID = "660e8400-e29b-41d4-a716-446655440001";
+
+    private MaterialDto sampleMaterial() {
+        return new MaterialDto(MATERIAL_ID, "READING", "Photosynthesis",
+                "# Heading\n![d](/attachments/770e8400-e29b-41d4-a716-446655440002)",
+                "{\"author\":\"Teacher\"}",
+                Arrays.asList(new VocabularyTermDto("Chlorophyll", "Green pigment"),
+                        new VocabularyTermDto("Glucose", null)),
+                1702147200000L);
+    }
+
+    private QuestionDto sampleQuestion() {
+        return new QuestionDto(QUESTION_ID, MATERIAL_ID, "MULTIPLE_CHOICE", "Pick one",
+                Arrays.asList("A", "B", "C"), "0", 2);
+    }
+
+    @Test
+    public void testCreate_unknownType_returnsNull() {
+        TypeAdapter<String> adapter =
+                new DtoTypeAdapterFactory().create(streaming, TypeToken.get(String.class));
+        assertNull(adapter);
+    }
+
+    @Test
+    public void testMaterialDto_writeMatchesReflective() {
+        MaterialDto dto = sampleMaterial();
+        assertEquals(reflective.toJson(dto), streaming.toJson(dto));
+    }
+
+    @Test
+    public void testMaterialDto_roundTrip() {
+        MaterialDto dto = sampleMaterial();
+        String json = reflective.toJson(dto);
+        assertEquals(reflective.fromJson(json, MaterialDto.class),
+                streaming.fromJson(json, MaterialDto.class));
+        assertEquals(dto, streaming.fromJson(json, MaterialDto.class));
+    }
+
+    @Test
+    public void testMaterialDto_nullFieldsOmitted() {
+        MaterialDto dto = new MaterialDto(MATERIAL_ID, null, null, null, null, null, null);
+        assertEquals("{\"Id\":\"" + MATERIAL_ID + "\"}", streaming.toJson(dto));
+    }
+
+    @Test
+    public void testMaterialDto_serializeNulls_matchesReflective() {
+        MaterialDto dto = new MaterialDto(MATERIAL_ID, null, null, null, null, null, null);
+        Gson reflectiveNulls = new GsonBuilder().serializeNulls().create();
+        Gson streamingNulls = new GsonBuilder().serializeNulls()
+                .registerTypeAdapterFactory(new DtoTypeAdapterFactory()).create();
+        assertEquals(reflectiveNulls.toJson(dto), streamingNulls.toJson(dto));
+    }
+
+    @Test
+    public void testMaterialDto_unknownFieldsSkipped() {
+        String json = "{\"Id\":\"" + MATERIAL_ID + "\",\"Extra\":{\"a\":[1,2]},\"Title\":\"T\"}";
+        MaterialDto dto = streaming.fromJson(json, MaterialDto.class);
+        assertEquals(MATERIAL_ID, dto.getId());
+        assertEquals("T", dto.getTitle());
+    }
+
+    @Test
+    public void testMaterialDto_numericStringTimestamp_matchesReflective() {
+        String json = "{\"Timestamp\":\"1702147200\"}";
+        assertEquals(reflective.fromJson(json, MaterialDto.class),
+                streaming.fromJson(json, MaterialDto.class));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testMaterialDto_nonNumericTimestamp_throws() {
+        streaming.fromJson("{\"Timestamp\":\"2023-10-27T10:00:00Z\"}", MaterialDto.class);
+    }
+
+    @Test
+    public void testMaterialDto_explicitNulls_leaveFieldsNull() {
+        String json = "{\"Id\":null,\"VocabularyTerms\":null,\"Timestamp\":null}";
+        MaterialDto dto = streaming.fromJson(json, MaterialDto.class);
+        assertNull(dto.getId());
+        assertNull(dto.getVocabularyTerms());
+        assertNull(dto.getTimestamp());
+    }
+
+    @Test
+    public void testNullDocument_returnsNull() {
+        assertNull(streaming.fromJson("null", MaterialDto.class));
+        assertEquals("null", streaming.toJson(null, MaterialDto.class));
+    }
+
+    @Test
+    public void testVocabularyTermArray_matchesReflective() {
+        String json = "[{\"Term\":\"a\",\"Definition\":\"b\"},null,{\"Term\":true}]";
+        assertEquals(Arrays.asList(reflective.fromJson(json, VocabularyTermDto[].class)),
+                Arrays.asList(streaming.fromJson(json, VocabularyTermDto[].class)));
+    }
+
+    @Test
+    public void testQuestionDto_writeAndReadMatchReflective() {
+        QuestionDto dto = sampleQuestion();
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(reflective.fromJson(json, QuestionDto.class),
+                streaming.fromJson(json, QuestionDto.class));
+    }
+
+    @Test
+    public void testQuestionDto_numericMaxScoreString_matchesReflective() {
+        String json = "{\"MaxScore\":\"3\",\"Options\":[\"x\",null,1]}";
+        assertEquals(reflective.fromJson(json, QuestionDto.class),
+                streaming.fromJson(json, QuestionDto.class));
+    }
+
+    @Test
+    public void testDistributionBundleDto_writeAndReadMatchReflective() {
+        DistributionBundleDto dto = new DistributionBundleDto(
+                Collections.singletonList(sampleMaterial()),
+                Collections.singletonList(sampleQuestion()));
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, DistributionBundleDto.class));
+    }
+
+    @Test
+    public void testResponseDto_writeAndReadMatchReflective() {
+        ResponseDto dto = new ResponseDto("r1", QUESTION_ID, MATERIAL_ID, "d1", "A",
+                "2023-10-27T10:00:00Z", Boolean.TRUE);
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, ResponseDto.class));
+    }
+
+    @Test
+    public void testResponseDto_stringBoolean_matchesReflective() {
+        String json = "{\"IsCorrect\":\"true\"}";
+        assertEquals(reflective.fromJson(json, ResponseDto.class),
+                streaming.fromJson(json, ResponseDto.class));
+    }
+
+    @Test
+    public void testBatchResponseDto_writeAndReadMatchReflective() {
+        BatchResponseDto dto = new BatchResponseDto(Arrays.asList(
+                new ResponseDto("r1", QUESTION_ID, MATERIAL_ID, "d1", "A", "t", null),
+                new ResponseDto("r2", QUESTION_ID, MATERIAL_ID, "d1", "B", "t", false)));
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, BatchResponseDto.class));
+    }
+
+    @Test
+    public void testFeedbackResponse_writeAndReadMatchReflective() {
+        FeedbackResponse dto = new FeedbackResponse(Arrays.asList(
+                new FeedbackDto("f1", "r1", "Well done", 3),
+                new FeedbackDto("f2", "r2", null, null)));
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+
+        FeedbackResponse parsed = streaming.fromJson(json, FeedbackResponse.class);
+        assertEquals(2, parsed.getFeedback().size());
+        assertEquals(json, reflective.toJson(parsed));
+    }
+
+    @Test
+    public void testFeedbackResponseWithCursor_writeAndReadMatchReflective() {
+        FeedbackResponse dto = new FeedbackResponse(
+                Collections.singletonList(new FeedbackDto("f1", "r1", "Well done", 3)),
+                "cursor-7");
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+
+        FeedbackResponse parsed = streaming.fromJson(json, FeedbackResponse.class);
+        assertEquals("cursor-7", parsed.getCursor());
+        assertEquals(json, reflective.toJson(parsed));
+    }
+
+    @Test
+    public void testConfigResponseDto_writeAndReadMatchReflective() {
+        ConfigResponseDto dto = new ConfigResponseDto(12, "IMMEDIATE", true, false, true,
+                "MASCOT1");
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, ConfigResponseDto.class));
+    }
+
+    @Test
+    public void testDeviceInfoDto_writeAndReadMatchReflective() {
+        DeviceInfoDto dto = new DeviceInfoDto("d1", "Tablet 7");
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, DeviceInfoDto.class));
+    }
+
+    @Test
+    public void testDeviceStatusDto_writeAndReadMatchReflective() {
+        DeviceStatusDto dto = new DeviceStatusDto("d1", "ON_TASK", 85, MATERIAL_ID, "page-5",
+                1702147200L);
+        String json = reflective.toJson(dto);
+        assertEquals(json, streaming.toJson(dto));
+        assertEquals(dto, streaming.fromJson(json, DeviceStatusDto.class));
+    }
+
+    @Test
+    public void testStreamingAdapterIsUsed() {
+        TypeAdapter<MaterialDto> adapter = streaming.getAdapter(MaterialDto.class);
+        assertFalse("Expected streaming adapter, got " + adapter.getClass().getName(),
+                adapter.getClass().getName().contains("Reflective"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.manuscripta.student.network.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Unit tests for {@link HttpTimingEventListener}.
+ */
+public class HttpTimingEventListenerTest {
+
+    private static final String DEVICE_ID = "550e8400-e29b-41d4-a716-446655440000";
+
+    private MockWebServer server;
+    private HttpTimingStore store;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        store = new HttpTimingStore();
+        client = new OkHttpClient.Builder()
+                .eventListenerFactory(new HttpTimingEventListener.Factory(store))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testToEndpointTemplate_deviceScopedResources() {
+        assertEquals("/distribution/{deviceId}", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "distribution", DEVICE_ID)));
+        assertEquals("/feedback/{deviceId}", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "feedback", DEVICE_ID)));
+        assertEquals("/config/{deviceId}", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "config", DEVICE_ID)));
+    }
+
+    @Test
+    public void testToEndpointTemplate_otherResources() {
+        assertEquals("/attachments/{id}", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "attachments", "att-1")));
+        assertEquals("/responses/batch", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "responses", "batch")));
+        assertEquals("/pair", HttpTimingEventListener.toEndpointTemplate(
+                Arrays.asList("api", "v1", "pair")));
+    }
+
+    @Test
+    public void testToEndpointTemplate_emptyPath() {
+        assertEquals("/", HttpTimingEventListener.toEndpointTemplate(
+                Collections.singletonList("")));
+    }
+
+    @Test
+    public void testGetRequest_recordsPhases() throws IOException {
+        server.enqueue(new MockResponse().setBody("{\"materials\":[]}"));
+
+        Request request = new Request.Builder()
+                .url(server.url("/api/v1/distribution/" + DEVICE_ID))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            response.body().string();
+        }
+
+        String endpoint = "/distribution/{deviceId}";
+        assertEquals(1, store.getHistogram(endpoint, HttpPhase.CONNECT).getCount());
+        assertEquals(1, store.getHistogram(endpoint, HttpPhase.REQUEST_WRITE).getCount());
+        assertEquals(1, store.getHistogram(endpoint, HttpPhase.TIME_TO_FIRST_BYTE).getCount());
+        assertEquals(1, store.getHistogram(endpoint, HttpPhase.BODY_READ).getCount());
+        assertEquals(1, store.getHistogram(endpoint, HttpPhase.TOTAL).getCount());
+    }
+
+    @Test
+    public void testPostRequest_recordsRequestWriteOnce() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(201));
+
+        Request request = new Request.Builder()
+                .url(server.url("/api/v1/responses"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            response.body().string();
+        }
+
+        assertEquals(1, store.getHistogram("/responses", HttpPhase.REQUEST_WRITE).getCount());
+        assertEquals(1, store.getHistogram("/responses", HttpPhase.TOTAL).getCount());
+    }
+
+    @Test
+    public void testFailedCall_recordsTotal() throws IOException {
+        int port;
+        try (ServerSocket unused = new ServerSocket(0)) {
+            port = unused.getLocalPort();
+        }
+
+        Request request = new Request.Builder()
+                .url("http://localhost:" + port + "/api/v1/attachments/att-1")
+                .build();
+        try {
+            client.newCall(request).execute().close();
+        } catch (IOException expected) {
+            // Connection refused is the expected outcome
+        }
+
+        assertTrue(store.getHistogram("/attachments/{id}", HttpPhase.TOTAL).getCount() >= 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFactory_nullStore_throws() {
+        new HttpTimingEventListener.Factory(null);
+    }
+}
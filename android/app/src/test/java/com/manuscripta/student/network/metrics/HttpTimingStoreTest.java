@@ -0,0 +1,61 @@
+package com.manuscripta.student.network.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.manuscripta.student.utils.LatencyHistogram;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link HttpTimingStore}.
+ */
+public class HttpTimingStoreTest {
+
+    @Test
+    public void testRecord_createsHistogramPerEndpointAndPhase() {
+        HttpTimingStore store = new HttpTimingStore();
+        store.record("/attachments/{id}", HttpPhase.BODY_READ, 1_000_000);
+        store.record("/attachments/{id}", HttpPhase.BODY_READ, 2_000_000);
+        store.record("/attachments/{id}", HttpPhase.TOTAL, 5_000_000);
+
+        assertEquals(2, store.getHistogram("/attachments/{id}", HttpPhase.BODY_READ).getCount());
+        assertEquals(1, store.getHistogram("/attachments/{id}", HttpPhase.TOTAL).getCount());
+        assertEquals(0, store.getHistogram("/attachments/{id}", HttpPhase.DNS).getCount());
+    }
+
+    @Test
+    public void testGetHistogram_unknownEndpoint_returnsEmpty() {
+        HttpTimingStore store = new HttpTimingStore();
+        assertEquals(0, store.getHistogram("/unknown", HttpPhase.TOTAL).getCount());
+    }
+
+    @Test
+    public void testGetAll_sortedByEndpoint() {
+        HttpTimingStore store = new HttpTimingStore();
+        store.record("/feedback/{deviceId}", HttpPhase.TOTAL, 1);
+        store.record("/attachments/{id}", HttpPhase.TOTAL, 1);
+
+        Map<String, Map<HttpPhase, LatencyHistogram>> all = store.getAll();
+        assertEquals("/attachments/{id}", new ArrayList<>(all.keySet()).get(0));
+        assertEquals(HttpPhase.values().length, all.get("/attachments/{id}").size());
+    }
+
+    @Test
+    public void testClear() {
+        HttpTimingStore store = new HttpTimingStore();
+        store.record("/pair", HttpPhase.TOTAL, 1);
+        store.clear();
+        assertTrue(store.getAll().isEmpty());
+    }
+
+    @Test
+    public void testLogSummary_doesNotThrow() {
+        HttpTimingStore store = new HttpTimingStore();
+        store.record("/pair", HttpPhase.TOTAL, 1_000_000);
+        store.logSummary();
+    }
+}
@@ -0,0 +1,254 @@
+package com.manuscripta.student.network.tcp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.manuscripta.student.network.tcp.message.DistributeMaterialMessage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link FetchAdmissionScheduler}.
+ */
+public class FetchAdmissionSchedulerTest {
+
+    private FetchAdmissionScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private FetchAdmissionScheduler create(String deviceId, long initialSpreadMs) {
+        scheduler = new FetchAdmissionScheduler(() -> deviceId, initialSpreadMs, 0L, 10000L,
+                4.0, 100L);
+        return scheduler;
+    }
+
+    // ========== Constructor tests ==========
+
+    @Test
+    public void constructor_nullProvider_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(null));
+    }
+
+    @Test
+    public void constructor_invalidBounds_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(() -> "d", 100L, -1L, 1000L, 4.0, 100L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(() -> "d", 100L, 500L, 400L, 4.0, 100L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(() -> "d", 2000L, 0L, 1000L, 4.0, 100L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(() -> "d", 100L, 0L, 1000L, 0.0, 100L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchAdmissionScheduler(() -> "d", 100L, 0L, 1000L, 4.0, -1L));
+    }
+
+    @Test
+    public void constructor_defaults_useInitialSpread() {
+        scheduler = new FetchAdmissionScheduler(() -> "d");
+        assertEquals(2000L, scheduler.getSpreadMs());
+    }
+
+    // ========== Jitter tests ==========
+
+    @Test
+    public void jitterFraction_isDeterministicAndInRange() {
+        double first = FetchAdmissionScheduler.jitterFraction("device-1");
+        assertEquals(first, FetchAdmissionScheduler.jitterFraction("device-1"), 0.0);
+        assertTrue(first >= 0.0 && first < 1.0);
+    }
+
+    @Test
+    public void jitterFraction_spreadsSimilarIdsAcrossWindow() {
+        // 400 IDs differing only in their suffix should fill every tenth of the window
+        int[] buckets = new int[10];
+        for (int i = 0; i < 400; i++) {
+            double fraction = FetchAdmissionScheduler.jitterFraction(
+                    String.format("550e8400-e29b-41d4-a716-%012d", i));
+            buckets[(int) (fraction * buckets.length)]++;
+        }
+        for (int count : buckets) {
+            assertTrue("Uneven jitter distribution", count > 20 && count < 60);
+        }
+    }
+
+    @Test
+    public void computeDelayMs_noSlot_usesDeviceJitter() {
+        create("device-1", 1000L);
+        long expected = (long) (FetchAdmissionScheduler.jitterFraction("device-1") * 1000L);
+        assertEquals(expected, scheduler.computeDelayMs(DistributeMaterialMessage.NO_SLOT));
+    }
+
+    @Test
+    public void computeDelayMs_slot_overridesJitter() {
+        create("device-1", 1000L);
+        assertEquals(0L, scheduler.computeDelayMs(0));
+        assertEquals(700L, scheduler.computeDelayMs(7));
+    }
+
+    @Test
+    public void computeDelayMs_largestSlot_cappedAtMaxSpread() {
+        create("device-1", 1000L);
+        assertEquals(10000L, scheduler.computeDelayMs(DistributeMaterialMessage.MAX_SLOT));
+        assertEquals(10000L, scheduler.computeDelayMs(100));
+    }
+
+    @Test
+    public void computeDelayMs_noDeviceId_runsImmediately() {
+        create(null, 1000L);
+        assertEquals(0L, scheduler.computeDelayMs(DistributeMaterialMessage.NO_SLOT));
+    }
+
+    // ========== Adaptive spread tests ==========
+
+    @Test
+    public void recordLatency_firstSampleSetsSpread() {
+        create("d", 1000L);
+        scheduler.recordLatency(300L);
+        assertEquals(1200L, scheduler.getSpreadMs());
+    }
+
+    @Test
+    public void recordLatency_smoothsLaterSamples() {
+        create("d", 1000L);
+        scheduler.recordLatency(100L);
+        scheduler.recordLatency(600L);
+        // mean = 100 + 0.2 * (600 - 100) = 200; spread = 200 * 4
+        assertEquals(800L, scheduler.getSpreadMs());
+    }
+
+    @Test
+    public void getSpreadMs_clampedToBounds() {
+        scheduler = new FetchAdmissionScheduler(() -> "d", 1000L, 500L, 2000L, 4.0, 100L);
+        scheduler.recordLatency(10L);
+        assertEquals(500L, scheduler.getSpreadMs());
+
+        FetchAdmissionScheduler slow =
+                new FetchAdmissionScheduler(() -> "d", 1000L, 500L, 2000L, 4.0, 100L);
+        try {
+            slow.recordLatency(60000L);
+            assertEquals(2000L, slow.getSpreadMs());
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    // ========== Scheduling tests ==========
+
+    @Test
+    public void schedule_runsFetchAndRecordsLatency() throws InterruptedException {
+        create("d", 0L);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        assertTrue(scheduler.schedule("materials", 0, latch::countDown));
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void schedule_pendingFetchForSameKey_isCoalesced() throws InterruptedException {
+        create("d", 0L);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(scheduler.schedule("materials", 5, () -> {
+            runs.incrementAndGet();
+            done.countDown();
+        }));
+        assertFalse(scheduler.schedule("materials", 5, runs::incrementAndGet));
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void schedule_differentKeys_bothRun() throws InterruptedException {
+        create("d", 0L);
+        CountDownLatch latch = new CountDownLatch(2);
+
+        assertTrue(scheduler.schedule("materials", 1, latch::countDown));
+        assertTrue(scheduler.schedule("feedback", 1, latch::countDown));
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void schedule_signalDuringRunningFetch_schedulesAnother() throws InterruptedException {
+        create("d", 0L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+
+        scheduler.schedule("materials", 0, () -> {
+            started.countDown();
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        assertTrue(scheduler.schedule("materials", 0, second::countDown));
+        release.countDown();
+
+        assertTrue(second.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void schedule_failingFetch_doesNotStopScheduler() throws InterruptedException {
+        create("d", 0L);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        scheduler.schedule("materials", 0, () -> {
+            throw new IllegalStateException("boom");
+        });
+        scheduler.schedule("feedback", 0, latch::countDown);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void schedule_afterShutdown_returnsFalse() {
+        create("d", 0L);
+        scheduler.shutdown();
+
+        assertFalse(scheduler.schedule("materials", 0, () -> { }));
+    }
+
+    @Test
+    public void shutdown_cancelsPendingFetches() throws InterruptedException {
+        create("d", 0L);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.schedule("materials", 3, runs::incrementAndGet);
+
+        scheduler.shutdown();
+        Thread.sleep(500);
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void jitterFraction_distinctForManyDevices() {
+        Set<Double> fractions = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            fractions.add(FetchAdmissionScheduler.jitterFraction("tablet-" + i));
+        }
+        assertEquals(40, fractions.size());
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -290,6 +291,65 @@ public class HeartbeatManagerTest {
         heartbeatManager.onMessageReceived(new DistributeMaterialMessage());
     }
 
+    @Test
+    public void onMessageReceived_withFetchScheduler_routesSlotThroughScheduler() {
+        FetchAdmissionScheduler scheduler = mock(FetchAdmissionScheduler.class);
+        Runnable[] captured = new Runnable[1];
+        when(scheduler.schedule(eq("materials"), eq(7), any(Runnable.class)))
+                .thenAnswer(inv -> {
+                    captured[0] = inv.getArgument(2);
+                    return true;
+                });
+        AtomicBoolean callbackCalled = new AtomicBoolean(false);
+        heartbeatManager.setMaterialCallback(() -> callbackCalled.set(true));
+        heartbeatManager.setFetchScheduler(scheduler);
+
+        heartbeatManager.onMessageReceived(new DistributeMaterialMessage(7));
+
+        assertNotNull(captured[0]);
+        assertFalse(callbackCalled.get());
+        captured[0].run();
+        assertTrue(callbackCalled.get());
+    }
+
+    @Test
+    public void onMessageReceived_withFetchScheduler_feedbackUsesNoSlot() {
+        FetchAdmissionScheduler scheduler = mock(FetchAdmissionScheduler.class);
+        heartbeatManager.setFeedbackCallback(() -> { });
+        heartbeatManager.setFetchScheduler(scheduler);
+
+        heartbeatManager.onMessageReceived(new ReturnFeedbackMessage());
+
+        verify(scheduler).schedule(eq("feedback"), eq(DistributeMaterialMessage.NO_SLOT),
+                any(Runnable.class));
+    }
+
+    @Test
+    public void destroy_leavesFetchSchedulerRunning() {
+        FetchAdmissionScheduler scheduler = mock(FetchAdmissionScheduler.class);
+        heartbeatManager.setFetchScheduler(scheduler);
+
+        heartbeatManager.destroy();
+
+        verify(scheduler, never()).shutdown();
+    }
+
+    @Test
+    public void destroy_skipsFetchesAdmittedAfterwards() {
+        FetchAdmissionScheduler scheduler = mock(FetchAdmissionScheduler.class);
+        AtomicBoolean callbackCalled = new AtomicBoolean(false);
+        heartbeatManager.setMaterialCallback(() -> callbackCalled.set(true));
+        heartbeatManager.setFetchScheduler(scheduler);
+        heartbeatManager.onMessageReceived(new DistributeMaterialMessage(7));
+        ArgumentCaptor<Runnable> fetch = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(eq("materials"), eq(7), fetch.capture());
+
+        heartbeatManager.destroy();
+        fetch.getValue().run();
+
+        assertFalse(callbackCalled.get());
+    }
+
     // ========== RETURN_FEEDBACK handling tests ==========
 
     @Test
@@ -79,6 +79,35 @@ public class TcpMessageDecoderTest {
         assertEquals(TcpOpcode.DISTRIBUTE_MATERIAL, result.getOpcode());
     }
 
+    @Test
+    public void decode_distributeMaterialWithSlot_parsesLittleEndianSlot()
+            throws TcpProtocolException {
+        byte[] data = {(byte) 0x05, (byte) 0x2C, (byte) 0x01};
+
+        TcpMessage result = decoder.decode(data);
+
+        assertTrue(result instanceof DistributeMaterialMessage);
+        assertEquals(300, ((DistributeMaterialMessage) result).getSlot());
+    }
+
+    @Test
+    public void decode_distributeMaterialWithoutSlot_hasNoSlot() throws TcpProtocolException {
+        TcpMessage result = decoder.decode(new byte[]{(byte) 0x05});
+
+        assertEquals(DistributeMaterialMessage.NO_SLOT,
+                ((DistributeMaterialMessage) result).getSlot());
+    }
+
+    @Test
+    public void decode_distributeMaterialWithWrongOperandLength_throwsMalformed() {
+        try {
+            decoder.decode(new byte[]{(byte) 0x05, (byte) 0x01});
+            fail("Expected TcpProtocolException");
+        } catch (TcpProtocolException e) {
+            assertEquals(TcpProtocolException.ErrorType.MALFORMED_DATA, e.getErrorType());
+        }
+    }
+
     @Test
     public void decode_unpairOpcode_returnsUnpairMessage() throws TcpProtocolException {
         byte[] data = {(byte) 0x04};
@@ -1,5 +1,6 @@
 package com.manuscripta.student.network.tcp;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
@@ -149,6 +150,29 @@ public class TcpMessageTest {
         assertTrue(toString.contains("DistributeMaterialMessage"));
     }
 
+    @Test
+    public void testDistributeMaterialMessage_withSlot_encodesLittleEndian() {
+        DistributeMaterialMessage message = new DistributeMaterialMessage(0x0102);
+        assertEquals(0x0102, message.getSlot());
+        assertArrayEquals(new byte[]{0x02, 0x01}, message.getOperand());
+        assertTrue(message.hasOperand());
+    }
+
+    @Test
+    public void testDistributeMaterialMessage_defaultConstructor_hasNoSlot() {
+        assertEquals(DistributeMaterialMessage.NO_SLOT, new DistributeMaterialMessage().getSlot());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistributeMaterialMessage_negativeSlot_throws() {
+        new DistributeMaterialMessage(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistributeMaterialMessage_slotTooLarge_throws() {
+        new DistributeMaterialMessage(DistributeMaterialMessage.MAX_SLOT + 1);
+    }
+
     // ==================== ReturnFeedbackMessage Tests ====================
 
     @Test
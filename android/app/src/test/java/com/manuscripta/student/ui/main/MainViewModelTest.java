@@ -1,16 +1,22 @@
 package com.manuscripta.student.ui.main;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.manuscripta.student.data.local.QuestionDao;
 import com.manuscripta.student.data.model.FeedbackStyle;
 import com.manuscripta.student.data.model.MascotSelection;
 import com.manuscripta.student.data.model.MaterialType;
@@ -23,10 +29,16 @@ import com.manuscripta.student.data.repository.FeedbackRepository;
 import com.manuscripta.student.data.repository.MaterialRepository;
 import com.manuscripta.student.data.repository.ResponseRepository;
 import com.manuscripta.student.data.repository.SessionRepository;
+import com.manuscripta.student.domain.mapper.MaterialMapper;
+import com.manuscripta.student.domain.mapper.QuestionMapper;
 import com.manuscripta.student.domain.model.Configuration;
+import com.manuscripta.student.domain.model.Feedback;
 import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
 import com.manuscripta.student.domain.model.Question;
+import com.manuscripta.student.ui.renderer.MaterialPreloader;
 import com.manuscripta.student.utils.ConnectionManager;
+import com.manuscripta.student.utils.ListDiff;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -38,9 +50,13 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Unit tests for {@link MainViewModel}.
@@ -53,9 +69,6 @@ public class MainViewModelTest {
     @Mock
     private MaterialRepository mockMaterialRepository;
 
-    @Mock
-    private QuestionDao mockQuestionDao;
-
     @Mock
     private ConfigRepository mockConfigRepository;
 
@@ -74,9 +87,14 @@ public class MainViewModelTest {
     @Mock
     private ResponseRepository mockResponseRepository;
 
-    private MutableLiveData<List<Material>> materialsLiveData;
+    @Mock
+    private MaterialPreloader mockMaterialPreloader;
+
+    private MutableLiveData<List<MaterialSummary>> materialsLiveData;
     private MutableLiveData<com.manuscripta.student.domain.model.DeviceStatus> deviceStatusLiveData;
     private MutableLiveData<Configuration> configLiveData;
+    private MutableLiveData<List<Feedback>> feedbackLiveData;
+    private Map<String, MutableLiveData<List<Question>>> observedQuestions;
 
     private MainViewModel viewModel;
 
@@ -89,18 +107,21 @@ public class MainViewModelTest {
         when(mockConfigRepository.getConfig()).thenReturn(Configuration.createDefault());
         when(mockConnectionManager.getConnectionState())
                 .thenReturn(new MutableLiveData<>(true));
-        when(mockMaterialRepository.getMaterialsLiveData()).thenReturn(materialsLiveData);
-        when(mockSessionRepository.getSessionsByMaterialId(org.mockito.ArgumentMatchers.anyString()))
-                .thenReturn(Collections.emptyList());
+        when(mockMaterialRepository.getMaterialSummariesLiveData()).thenReturn(materialsLiveData);
+        when(mockMaterialRepository.getMaterialSummaryChanges())
+                .thenReturn(ListDiff.diffing(materialsLiveData, MaterialSummary::getId));
+        observedQuestions = new HashMap<>();
+        when(mockMaterialRepository.observeQuestionsForMaterial(anyString()))
+                .thenAnswer(invocation -> questionsOf(invocation.getArgument(0)));
         when(mockDeviceStatusRepository.getDeviceStatusLiveData()).thenReturn(deviceStatusLiveData);
         when(mockConfigRepository.getConfigLiveData()).thenReturn(configLiveData);
-        when(mockFeedbackRepository.getFeedbackLiveData())
-                .thenReturn(new MutableLiveData<>(Collections.emptyList()));
+        feedbackLiveData = new MutableLiveData<>(Collections.emptyList());
+        when(mockFeedbackRepository.getFeedbackLiveData()).thenReturn(feedbackLiveData);
         viewModel = new MainViewModel(
-                mockMaterialRepository, mockQuestionDao,
+                mockMaterialRepository,
                 mockConfigRepository, mockConnectionManager,
                 mockSessionRepository, mockDeviceStatusRepository,
-                mockFeedbackRepository, mockResponseRepository);
+                mockFeedbackRepository, mockResponseRepository, mockMaterialPreloader);
     }
 
     @Test
@@ -110,7 +131,7 @@ public class MainViewModelTest {
 
     @Test
     public void testGetAllMaterialsReturnsLiveData() {
-        LiveData<List<Material>> allMaterials = viewModel.getAllMaterials();
+        LiveData<List<MaterialSummary>> allMaterials = viewModel.getAllMaterials();
         assertNotNull(allMaterials);
         assertEquals(Collections.emptyList(), allMaterials.getValue());
     }
@@ -149,11 +170,21 @@ public class MainViewModelTest {
         assertEquals(24, result.getTextSize());
     }
 
+    @Test
+    public void testConfigUnchanged_doesNotReEmit() {
+        List<Configuration> emitted = new ArrayList<>();
+        viewModel.getConfiguration().observeForever(emitted::add);
+        emitted.clear();
+
+        configLiveData.setValue(Configuration.createDefault());
+        viewModel.refreshConfiguration();
+
+        assertTrue(emitted.isEmpty());
+    }
+
     @Test
     public void testSetCurrentMaterial() {
         Material material = createTestMaterial("mat-1", "Test Title");
-        when(mockQuestionDao.getByMaterialId("mat-1"))
-                .thenReturn(Collections.emptyList());
 
         viewModel.setCurrentMaterial(material);
 
@@ -170,13 +201,10 @@ public class MainViewModelTest {
                 createQuestionEntity("q-1", "mat-1", QuestionType.MULTIPLE_CHOICE),
                 createQuestionEntity("q-2", "mat-1", QuestionType.WRITTEN_ANSWER)
         );
-        when(mockQuestionDao.getByMaterialId("mat-1")).thenReturn(entities);
+        questionsOf("mat-1").setValue(toQuestions(entities));
 
         viewModel.setCurrentMaterial(material);
 
-        // loadQuestionsForMaterial runs on a background executor; wait for it
-        Thread.sleep(200);
-
         List<Question> questions = viewModel.getCurrentQuestions().getValue();
         assertNotNull(questions);
         assertEquals(2, questions.size());
@@ -184,12 +212,131 @@ public class MainViewModelTest {
         assertEquals("q-2", questions.get(1).getId());
     }
 
+    @Test
+    public void testCurrentQuestions_reemittedOnlyWhenChanged() throws InterruptedException {
+        List<QuestionEntity> stored = Collections.singletonList(
+                createQuestionEntity("q-1", "mat-1", QuestionType.MULTIPLE_CHOICE));
+        questionsOf("mat-1").setValue(toQuestions(stored));
+        List<List<Question>> emitted = new ArrayList<>();
+        viewModel.getCurrentQuestions().observeForever(emitted::add);
+        viewModel.setCurrentMaterial(createTestMaterial("mat-1", "Title"));
+        Thread.sleep(200);
+        int before = emitted.size();
+
+        // A write to other materials' questions re-runs the query with the same result
+        questionsOf("mat-1").setValue(toQuestions(stored));
+        assertEquals(before, emitted.size());
+
+        questionsOf("mat-1").setValue(toQuestions(Arrays.asList(
+                createQuestionEntity("q-1", "mat-1", QuestionType.MULTIPLE_CHOICE),
+                createQuestionEntity("q-2", "mat-1", QuestionType.WRITTEN_ANSWER))));
+        assertEquals(before + 1, emitted.size());
+        assertEquals(2, viewModel.getCurrentQuestions().getValue().size());
+    }
+
+    @Test
+    public void testSetCurrentMaterialActivatesReceivedSession() throws InterruptedException {
+        Material material = createTestMaterial("mat-1", "Title");
+
+        viewModel.setCurrentMaterial(material);
+
+        // activateSessionForMaterial runs on a background executor; wait for it
+        Thread.sleep(200);
+
+        verify(mockSessionRepository).activateReceivedSession("mat-1");
+    }
+
+    // ========== Feedback material titles ==========
+
+    @Test
+    public void testFeedbackTitles_onlyNewFeedbackQueried() throws InterruptedException {
+        stubMaterialTitles("Worksheet");
+        Feedback first = new Feedback("f-1", "r-1", "Good", null);
+        Feedback second = new Feedback("f-2", "r-2", "Better", null);
+
+        feedbackLiveData.setValue(Collections.singletonList(first));
+        Thread.sleep(200);
+        feedbackLiveData.setValue(Arrays.asList(first, second));
+        Thread.sleep(200);
+
+        Map<String, String> titles = viewModel.getFeedbackMaterialTitles().getValue();
+        assertNotNull(titles);
+        assertEquals("Worksheet", titles.get("f-1"));
+        assertEquals("Worksheet", titles.get("f-2"));
+        verify(mockFeedbackRepository).getMaterialTitles(Collections.singletonList("f-1"));
+        verify(mockFeedbackRepository).getMaterialTitles(Collections.singletonList("f-2"));
+    }
+
+    @Test
+    public void testFeedbackTitles_unchangedFeedback_noQuery() throws InterruptedException {
+        stubMaterialTitles("Worksheet");
+        List<Feedback> feedback = Collections.singletonList(
+                new Feedback("f-1", "r-1", "Good", null));
+
+        feedbackLiveData.setValue(feedback);
+        Thread.sleep(200);
+        feedbackLiveData.setValue(feedback);
+        Thread.sleep(200);
+
+        verify(mockFeedbackRepository, times(1)).getMaterialTitles(anyCollection());
+        assertEquals("Worksheet", viewModel.getFeedbackMaterialTitles().getValue().get("f-1"));
+    }
+
+    @Test
+    public void testFeedbackTitles_deletedFeedback_dropped() throws InterruptedException {
+        stubMaterialTitles("Worksheet");
+        Feedback first = new Feedback("f-1", "r-1", "Good", null);
+        Feedback second = new Feedback("f-2", "r-2", "Better", null);
+
+        feedbackLiveData.setValue(Arrays.asList(first, second));
+        Thread.sleep(200);
+        feedbackLiveData.setValue(Collections.singletonList(second));
+        Thread.sleep(200);
+
+        Map<String, String> titles = viewModel.getFeedbackMaterialTitles().getValue();
+        assertEquals(1, titles.size());
+        assertTrue(titles.containsKey("f-2"));
+    }
+
+    @Test
+    public void testFeedbackTitles_materialRenamed_resolvedAgain() throws InterruptedException {
+        materialsLiveData.setValue(Collections.singletonList(
+                MaterialMapper.toSummary(createTestMaterial("mat-1", "Old"))));
+        stubMaterialTitles("Old");
+        feedbackLiveData.setValue(Collections.singletonList(
+                new Feedback("f-1", "r-1", "Good", null)));
+        Thread.sleep(200);
+
+        stubMaterialTitles("New");
+        materialsLiveData.setValue(Collections.singletonList(
+                MaterialMapper.toSummary(createTestMaterial("mat-1", "New"))));
+        Thread.sleep(200);
+
+        assertEquals("New", viewModel.getFeedbackMaterialTitles().getValue().get("f-1"));
+        verify(mockFeedbackRepository, times(2)).getMaterialTitles(anyCollection());
+    }
+
+    @Test
+    public void testFeedbackTitles_lookupFails_retriedOnNextEmission() throws InterruptedException {
+        Feedback first = new Feedback("f-1", "r-1", "Good", null);
+        when(mockFeedbackRepository.getMaterialTitles(anyCollection()))
+                .thenThrow(new IllegalStateException("db closed"));
+
+        feedbackLiveData.setValue(Collections.singletonList(first));
+        Thread.sleep(200);
+        assertEquals("", viewModel.getFeedbackMaterialTitles().getValue().get("f-1"));
+
+        stubMaterialTitles("Worksheet");
+        feedbackLiveData.setValue(Collections.singletonList(first));
+        Thread.sleep(200);
+
+        assertEquals("Worksheet", viewModel.getFeedbackMaterialTitles().getValue().get("f-1"));
+    }
+
     @Test
     public void testLoadMaterialById() throws InterruptedException {
         Material material = createTestMaterial("mat-2", "Loaded Title");
         when(mockMaterialRepository.getMaterialById("mat-2")).thenReturn(material);
-        when(mockQuestionDao.getByMaterialId("mat-2"))
-                .thenReturn(Collections.emptyList());
 
         viewModel.loadMaterial("mat-2");
 
@@ -218,10 +365,8 @@ public class MainViewModelTest {
                 createQuestionEntity("q-2", "mat-1", QuestionType.WRITTEN_ANSWER),
                 createQuestionEntity("q-3", "mat-1", QuestionType.MULTIPLE_CHOICE)
         );
-        when(mockQuestionDao.getByMaterialId("mat-1")).thenReturn(entities);
+        questionsOf("mat-1").setValue(toQuestions(entities));
         viewModel.setCurrentMaterial(material);
-
-        // loadQuestionsForMaterial runs on a background executor; wait for it
         Thread.sleep(200);
 
         List<Question> quizQuestions = viewModel.getQuizQuestions();
@@ -238,10 +383,8 @@ public class MainViewModelTest {
                 createQuestionEntity("q-2", "mat-1", QuestionType.WRITTEN_ANSWER),
                 createQuestionEntity("q-3", "mat-1", QuestionType.WRITTEN_ANSWER)
         );
-        when(mockQuestionDao.getByMaterialId("mat-1")).thenReturn(entities);
+        questionsOf("mat-1").setValue(toQuestions(entities));
         viewModel.setCurrentMaterial(material);
-
-        // loadQuestionsForMaterial runs on a background executor; wait for it
         Thread.sleep(200);
 
         List<Question> worksheetQuestions = viewModel.getWorksheetQuestions();
@@ -302,6 +445,22 @@ public class MainViewModelTest {
         assertNull(viewModel.getAiResponse().getValue());
     }
 
+    @Test
+    public void testFlushPendingWrites_delegatesToRepositories() {
+        viewModel.flushPendingWrites();
+
+        verify(mockResponseRepository).flushPendingResponses();
+        verify(mockDeviceStatusRepository).flushPendingStatus();
+    }
+
+    @Test
+    public void testFlushPendingWritesInBackground_flushesOnDbExecutor() {
+        viewModel.flushPendingWritesInBackground();
+
+        verify(mockResponseRepository, timeout(1000)).flushPendingResponses();
+        verify(mockDeviceStatusRepository, timeout(1000)).flushPendingStatus();
+    }
+
     @Test
     public void testGetAiTaskNameInitiallyNull() {
         assertNull(viewModel.getAiTaskName().getValue());
@@ -353,13 +512,13 @@ public class MainViewModelTest {
     // ========== Material distribution auto-selection ==========
 
     @Test
-    public void testAutoSelectsFirstMaterial_whenNoneSelected() {
+    public void testAutoSelectsFirstMaterial_whenNoneSelected() throws InterruptedException {
         Material mat = createTestMaterial("mat-auto", "Auto Title");
-        when(mockQuestionDao.getByMaterialId("mat-auto"))
-                .thenReturn(Collections.emptyList());
+        when(mockMaterialRepository.getMaterialById("mat-auto")).thenReturn(mat);
         viewModel.getCurrentMaterial().observeForever(m -> { });
 
-        materialsLiveData.setValue(Arrays.asList(mat));
+        materialsLiveData.setValue(Arrays.asList(MaterialMapper.toSummary(mat)));
+        Thread.sleep(200);
 
         Material result = viewModel.getCurrentMaterial().getValue();
         assertNotNull(result);
@@ -367,15 +526,15 @@ public class MainViewModelTest {
     }
 
     @Test
-    public void testDoesNotOverrideExistingMaterial() {
+    public void testDoesNotOverrideExistingMaterial() throws InterruptedException {
         Material existing = createTestMaterial("mat-1", "Existing");
-        when(mockQuestionDao.getByMaterialId("mat-1"))
-                .thenReturn(Collections.emptyList());
+        Material newMat = createTestMaterial("mat-2", "New");
+        when(mockMaterialRepository.getMaterialById("mat-2")).thenReturn(newMat);
         viewModel.getCurrentMaterial().observeForever(m -> { });
         viewModel.setCurrentMaterial(existing);
 
-        Material newMat = createTestMaterial("mat-2", "New");
-        materialsLiveData.setValue(Arrays.asList(newMat));
+        materialsLiveData.setValue(Arrays.asList(MaterialMapper.toSummary(newMat)));
+        Thread.sleep(200);
 
         Material result = viewModel.getCurrentMaterial().getValue();
         assertNotNull(result);
@@ -383,27 +542,151 @@ public class MainViewModelTest {
     }
 
     @Test
-    public void testRefreshesCurrentMaterialFromNewDistribution() {
+    public void testRefreshesCurrentMaterialFromNewDistribution() throws InterruptedException {
         Material original = createTestMaterial("mat-1", "Original");
-        when(mockQuestionDao.getByMaterialId("mat-1"))
-                .thenReturn(Collections.emptyList());
         viewModel.getCurrentMaterial().observeForever(m -> { });
         viewModel.setCurrentMaterial(original);
 
         Material updated = new Material("mat-1", MaterialType.READING,
                 "Updated Title", "New content", "{}", "[]", System.currentTimeMillis());
-        materialsLiveData.setValue(Arrays.asList(updated));
+        when(mockMaterialRepository.getMaterialById("mat-1")).thenReturn(updated);
+        materialsLiveData.setValue(Arrays.asList(MaterialMapper.toSummary(updated)));
+        Thread.sleep(200);
 
         Material result = viewModel.getCurrentMaterial().getValue();
         assertNotNull(result);
         assertEquals("Updated Title", result.getTitle());
     }
 
+    @Test
+    public void testSelectMaterial_loadsFullMaterialById() throws InterruptedException {
+        Material mat = createTestMaterial("mat-3", "Selected");
+        when(mockMaterialRepository.getMaterialById("mat-3")).thenReturn(mat);
+
+        viewModel.selectMaterial("mat-3");
+        Thread.sleep(200);
+
+        Material result = viewModel.getCurrentMaterial().getValue();
+        assertNotNull(result);
+        assertEquals("Content text", result.getContent());
+    }
+
+    @Test
+    public void testSelectMaterial_missingMaterial_keepsCurrent() throws InterruptedException {
+        Material existing = createTestMaterial("mat-1", "Existing");
+        viewModel.setCurrentMaterial(existing);
+
+        viewModel.selectMaterial("missing");
+        Thread.sleep(200);
+
+        assertEquals("mat-1", viewModel.getCurrentMaterial().getValue().getId());
+    }
+
+    @Test
+    public void testRefresh_discardedWhenSelectionChanged() throws InterruptedException {
+        Material original = createTestMaterial("mat-1", "Original");
+        Material other = createTestMaterial("mat-2", "Other");
+        when(mockMaterialRepository.getMaterialById("mat-1")).thenReturn(original);
+        when(mockMaterialRepository.getMaterialById("mat-2")).thenReturn(other);
+        viewModel.getCurrentMaterial().observeForever(m -> { });
+        viewModel.setCurrentMaterial(original);
+
+        // Queue a reload of mat-1, then move the selection before it lands
+        materialsLiveData.setValue(Arrays.asList(MaterialMapper.toSummary(original)));
+        viewModel.selectMaterial("mat-2");
+        Thread.sleep(200);
+
+        assertEquals("mat-2", viewModel.getCurrentMaterial().getValue().getId());
+    }
+
+    // ========== Preloading following materials ==========
+
+    @Test
+    public void testSelectMaterial_preloadsFollowingMaterials() throws InterruptedException {
+        Material first = createTestMaterial("mat-1", "First");
+        Material second = createTestMaterial("mat-2", "Second");
+        when(mockMaterialRepository.getMaterialById("mat-1")).thenReturn(first);
+        when(mockMaterialRepository.getMaterialById("mat-2")).thenReturn(second);
+        List<MaterialSummary> summaries = Arrays.asList(
+                MaterialMapper.toSummary(first), MaterialMapper.toSummary(second));
+        viewModel.getCurrentMaterial().observeForever(m -> { });
+        materialsLiveData.setValue(summaries);
+        Thread.sleep(200);
+
+        verify(mockMaterialPreloader).preloadAfter("mat-1", summaries);
+    }
+
+    @Test
+    public void testMaterialsCleared_cancelsPreloading() throws InterruptedException {
+        Material mat = createTestMaterial("mat-1", "First");
+        when(mockMaterialRepository.getMaterialById("mat-1")).thenReturn(mat);
+        viewModel.getCurrentMaterial().observeForever(m -> { });
+        materialsLiveData.setValue(Arrays.asList(MaterialMapper.toSummary(mat)));
+        Thread.sleep(200);
+
+        materialsLiveData.setValue(Collections.emptyList());
+
+        verify(mockMaterialPreloader).cancel();
+    }
+
+    // ========== Clearing ==========
+
+    @Test
+    public void testOnCleared_detachesFromRepositories() throws InterruptedException {
+        viewModel.setCurrentMaterial(createTestMaterial("mat-1", "Title"));
+        Thread.sleep(200);
+        assertTrue(questionsOf("mat-1").hasObservers());
+        assertTrue(feedbackLiveData.hasObservers());
+        assertTrue(materialsLiveData.hasObservers());
+
+        viewModel.onCleared();
+
+        assertFalse(questionsOf("mat-1").hasObservers());
+        assertFalse(feedbackLiveData.hasObservers());
+        assertFalse(materialsLiveData.hasObservers());
+        verify(mockMaterialPreloader).cancel();
+    }
+
+    /**
+     * Makes every feedback ID resolve to the same material title.
+     *
+     * @param title The title to resolve to
+     */
+    private void stubMaterialTitles(String title) {
+        doAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            Map<String, String> titles = new HashMap<>();
+            for (String id : ids) {
+                titles.put(id, title);
+            }
+            return titles;
+        }).when(mockFeedbackRepository).getMaterialTitles(anyCollection());
+    }
+
     private Material createTestMaterial(String id, String title) {
         return new Material(id, MaterialType.READING, title,
                 "Content text", "{}", "[]", System.currentTimeMillis());
     }
 
+    /**
+     * Returns the stand-in for the repository's observed questions of a material.
+     *
+     * @param materialId The material ID
+     * @return The live questions, initially empty
+     */
+    private MutableLiveData<List<Question>> questionsOf(String materialId) {
+        return observedQuestions.computeIfAbsent(materialId,
+                id -> new MutableLiveData<>(new ArrayList<>()));
+    }
+
+    private List<Question> toQuestions(List<QuestionEntity> entities) {
+        List<Question> questions = new ArrayList<>();
+        for (QuestionEntity entity : entities) {
+            questions.add(QuestionMapper.toDomain(entity));
+        }
+        return questions;
+    }
+
     private QuestionEntity createQuestionEntity(String id, String materialId,
                                                 QuestionType type) {
         return new QuestionEntity(id, materialId, "Question text?",
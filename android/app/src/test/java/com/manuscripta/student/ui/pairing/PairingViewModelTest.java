@@ -14,8 +14,7 @@ import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.manuscripta.student.data.local.ManuscriptaDatabase;
-import com.manuscripta.student.data.repository.MaterialRepository;
+import com.manuscripta.student.data.local.DatabaseReclaimer;
 import com.manuscripta.student.network.ApiService;
 import com.manuscripta.student.network.dto.DeviceInfoDto;
 import com.manuscripta.student.network.tcp.PairingCallback;
@@ -55,10 +54,7 @@ public class PairingViewModelTest {
     private ApiService mockApiService;
 
     @Mock
-    private ManuscriptaDatabase mockDatabase;
-
-    @Mock
-    private MaterialRepository mockMaterialRepository;
+    private DatabaseReclaimer mockDatabaseReclaimer;
 
     @Mock
     private Call<Void> mockCall;
@@ -82,7 +78,7 @@ public class PairingViewModelTest {
         when(mockPairingManager.getPairingState()).thenReturn(pairingState);
 
         viewModel = new PairingViewModel(mockDiscoveryManager, mockPairingManager,
-                mockApiService, mockDatabase, mockMaterialRepository);
+                mockApiService, mockDatabaseReclaimer);
 
         // Capture the callbacks set by the ViewModel
         ArgumentCaptor<PairingCallback> callbackCaptor =
@@ -254,10 +250,10 @@ public class PairingViewModelTest {
 
         assertEquals(PairingPhase.PAIRED, viewModel.getPairingPhase().getValue());
 
-        // pairingComplete is posted after clearAllTables on a background thread
+        // pairingComplete is posted after clearing the database on a background thread
         Thread.sleep(500);
         assertTrue(Boolean.TRUE.equals(viewModel.getPairingComplete().getValue()));
-        verify(mockDatabase).clearAllTables();
+        verify(mockDatabaseReclaimer).clearAll();
     }
 
     // ========== Error handling ==========
@@ -1,7 +1,11 @@
 package com.manuscripta.student.ui.renderer;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -297,6 +301,77 @@ public class AttachmentImageLoaderTest {
         assertNull(result);
     }
 
+    // ==================== Render cache tests ====================
+
+    @Test
+    public void testLoadImage_heldBitmap_setWithoutLoading() {
+        RenderCache renderCache = new RenderCache(1024 * 1024, 800);
+        renderCache.putBitmap("att-1", fakeBitmap);
+        AttachmentImageLoader cachingLoader = new AttachmentImageLoader(
+                apiService, fileStorageManager, renderCache, executor);
+        ImageView imageView = mock(ImageView.class);
+
+        cachingLoader.loadImage("att-1", "mat-1", imageView);
+
+        verify(imageView).setImageBitmap(fakeBitmap);
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testLoadImage_loadedBitmap_heldInRenderCache() {
+        RenderCache renderCache = new RenderCache(1024 * 1024, 800);
+        AttachmentImageLoader cachingLoader = createCachingLoader(renderCache);
+        stubStoredAttachment();
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        cachingLoader.loadImage("att-1", "mat-1", mock(ImageView.class));
+
+        assertSame(fakeBitmap, renderCache.getBitmap("att-1"));
+    }
+
+    @Test
+    public void testPreloadBitmap_storedImage_held() {
+        RenderCache renderCache = new RenderCache(1024 * 1024, 800);
+        AttachmentImageLoader cachingLoader = createCachingLoader(renderCache);
+        stubStoredAttachment();
+
+        assertTrue(cachingLoader.preloadBitmap("att-1", "mat-1"));
+        assertSame(fakeBitmap, renderCache.getBitmap("att-1"));
+    }
+
+    @Test
+    public void testPreloadBitmap_notStored_neverDownloads() {
+        RenderCache renderCache = new RenderCache(1024 * 1024, 800);
+        AttachmentImageLoader cachingLoader = createCachingLoader(renderCache);
+        when(fileStorageManager.getAttachmentFile("mat-1", "att-1")).thenReturn(null);
+
+        assertFalse(cachingLoader.preloadBitmap("att-1", "mat-1"));
+        verify(apiService, never()).getAttachment(anyString());
+    }
+
+    @Test
+    public void testPreloadBitmap_noRenderCache_false() {
+        assertFalse(loader.preloadBitmap("att-1", "mat-1"));
+    }
+
+    @Test
+    public void testCalculateInSampleSize_keepsLongerSideAtLeastMaxDimension() {
+        assertEquals(1, AttachmentImageLoader.calculateInSampleSize(800, 600, 800));
+        assertEquals(1, AttachmentImageLoader.calculateInSampleSize(1599, 600, 800));
+        assertEquals(2, AttachmentImageLoader.calculateInSampleSize(1600, 600, 800));
+        assertEquals(4, AttachmentImageLoader.calculateInSampleSize(4000, 600, 800));
+        assertEquals(1, AttachmentImageLoader.calculateInSampleSize(4000, 600, 0));
+    }
+
+    @Test
+    public void testCalculateInSampleSize_tallNarrowImage_sampledByHeight() {
+        assertEquals(8, AttachmentImageLoader.calculateInSampleSize(1000, 20000, 2000));
+    }
+
     // ==================== shutdown test ====================
 
     @Test
@@ -318,6 +393,15 @@ public class AttachmentImageLoaderTest {
 
     // ==================== decodeBitmap defaults ====================
 
+    @Test
+    public void testDecodeBitmapFromBytes_withRenderCache_doesNotThrow() {
+        AttachmentImageLoader cachingLoader = new AttachmentImageLoader(
+                apiService, fileStorageManager, new RenderCache(1024 * 1024, 800), executor);
+        // Robolectric shadow may return null or a Bitmap;
+        // we just verify bounds decoding does not throw
+        cachingLoader.decodeBitmapFromBytes(new byte[]{0});
+    }
+
     @Test
     public void testDecodeBitmapFromFile_defaultImpl_returnsValue() {
         AttachmentImageLoader defaultLoader =
@@ -341,4 +425,28 @@ public class AttachmentImageLoaderTest {
         defaultLoader.decodeBitmapFromBytes(
                 new byte[]{0});
     }
+
+    /**
+     * Creates a loader holding decoded images in the given cache, decoding every
+     * attachment to the fake bitmap.
+     *
+     * @param renderCache The cache of decoded images
+     * @return The loader
+     */
+    private AttachmentImageLoader createCachingLoader(RenderCache renderCache) {
+        return new AttachmentImageLoader(
+                apiService, fileStorageManager, renderCache, executor) {
+            @Override
+            Bitmap decodeBitmapFromFile(String path) {
+                return fakeBitmap;
+            }
+        };
+    }
+
+    private void stubStoredAttachment() {
+        File cachedFile = mock(File.class);
+        when(cachedFile.exists()).thenReturn(true);
+        when(cachedFile.getAbsolutePath()).thenReturn("/fake/path");
+        when(fileStorageManager.getAttachmentFile("mat-1", "att-1")).thenReturn(cachedFile);
+    }
 }
@@ -0,0 +1,192 @@
+package com.manuscripta.student.ui.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+
+import com.manuscripta.student.data.model.MaterialType;
+import com.manuscripta.student.data.model.QuestionType;
+import com.manuscripta.student.data.repository.MaterialRepository;
+import com.manuscripta.student.domain.model.Material;
+import com.manuscripta.student.domain.model.MaterialSummary;
+import com.manuscripta.student.domain.model.Question;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Unit tests for {@link MaterialPreloader}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class MaterialPreloaderTest {
+
+    private MaterialRepository materialRepository;
+    private AttachmentImageLoader imageLoader;
+    private RenderCache renderCache;
+    private List<Runnable> queued;
+    private MaterialPreloader preloader;
+    private List<MaterialSummary> materials;
+
+    @Before
+    public void setUp() {
+        materialRepository = mock(MaterialRepository.class);
+        imageLoader = mock(AttachmentImageLoader.class);
+        renderCache = new RenderCache(10 * 10 * 4 * 4, 800);
+        queued = new ArrayList<>();
+        Executor queueing = queued::add;
+        preloader = new MaterialPreloader(materialRepository, renderCache, imageLoader, queueing);
+        materials = Arrays.asList(summary("mat-1"), summary("mat-2"), summary("mat-3"),
+                summary("mat-4"));
+        when(materialRepository.getQuestionsForMaterial(anyString()))
+                .thenReturn(Collections.emptyList());
+    }
+
+    // ==================== nextMaterialIds tests ====================
+
+    @Test
+    public void testNextMaterialIds_takesMaterialsAhead() {
+        assertEquals(Arrays.asList("mat-2", "mat-3"),
+                MaterialPreloader.nextMaterialIds("mat-1", materials));
+    }
+
+    @Test
+    public void testNextMaterialIds_nearEnd_takesWhatRemains() {
+        assertEquals(Collections.singletonList("mat-4"),
+                MaterialPreloader.nextMaterialIds("mat-3", materials));
+        assertTrue(MaterialPreloader.nextMaterialIds("mat-4", materials).isEmpty());
+    }
+
+    @Test
+    public void testNextMaterialIds_notListed_empty() {
+        assertTrue(MaterialPreloader.nextMaterialIds("missing", materials).isEmpty());
+    }
+
+    // ==================== preloadAfter tests ====================
+
+    @Test
+    public void testPreloadAfter_warmsQuestionsContentAndImages() {
+        Question question = new Question("q-1", "mat-2", "Question?",
+                QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]", "0", 1);
+        when(materialRepository.getQuestionsForMaterial("mat-2"))
+                .thenReturn(Collections.singletonList(question));
+        when(materialRepository.getMaterialById("mat-2"))
+                .thenReturn(material("mat-2", "Intro\n![a](/attachments/img-1)"));
+
+        preloader.preloadAfter("mat-1", materials);
+        runQueued();
+
+        verify(materialRepository).getQuestionsForMaterial("mat-2");
+        verify(materialRepository).getQuestionsForMaterial("mat-3");
+        verify(imageLoader).preloadBitmap("img-1", "mat-2");
+        assertEquals(ContentSegment.Type.IMAGE_EMBED,
+                renderCache.getSegments("mat-2", "Intro\n![a](/attachments/img-1)")
+                        .get(1).getType());
+    }
+
+    @Test
+    public void testPreloadAfter_noPreloadRoom_skipsImages() {
+        renderCache.putPreloadedBitmap("warmed-1", Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+        renderCache.putPreloadedBitmap("warmed-2", Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+        when(materialRepository.getMaterialById("mat-2"))
+                .thenReturn(material("mat-2", "![a](/attachments/img-1)"));
+
+        preloader.preloadAfter("mat-1", materials);
+        runQueued();
+
+        verify(imageLoader, never()).preloadBitmap(anyString(), anyString());
+    }
+
+    @Test
+    public void testPreloadAfter_failure_continuesWithNextMaterial() {
+        when(materialRepository.getQuestionsForMaterial("mat-2"))
+                .thenThrow(new IllegalStateException("Database closed"));
+
+        preloader.preloadAfter("mat-1", materials);
+        runQueued();
+
+        verify(materialRepository).getQuestionsForMaterial("mat-3");
+    }
+
+    @Test
+    public void testPreloadAfter_lastMaterial_queuesNothing() {
+        preloader.preloadAfter("mat-4", materials);
+
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    public void testCancel_abandonsQueuedWork() {
+        preloader.preloadAfter("mat-1", materials);
+        preloader.cancel();
+        runQueued();
+
+        verifyNoInteractions(materialRepository, imageLoader);
+    }
+
+    @Test
+    public void testPreloadAfter_anotherMaterialOpened_abandonsEarlierWork() {
+        preloader.preloadAfter("mat-1", materials);
+        preloader.preloadAfter("mat-3", materials);
+        runQueued();
+
+        verify(materialRepository, never()).getQuestionsForMaterial("mat-2");
+        verify(materialRepository).getQuestionsForMaterial("mat-4");
+    }
+
+    @Test
+    public void testPreloadAfter_nullArguments_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> preloader.preloadAfter(null, materials));
+        assertThrows(IllegalArgumentException.class,
+                () -> preloader.preloadAfter("mat-1", null));
+    }
+
+    // ==================== Constructor tests ====================
+
+    @Test
+    public void testConstructor_nullArguments_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialPreloader(null, renderCache, imageLoader));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialPreloader(materialRepository, null, imageLoader));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialPreloader(materialRepository, renderCache, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MaterialPreloader(materialRepository, renderCache, imageLoader, null));
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    private MaterialSummary summary(String id) {
+        return new MaterialSummary(id, MaterialType.READING, "Title " + id, 1702147200000L);
+    }
+
+    private Material material(String id, String content) {
+        return new Material(id, MaterialType.READING, "Title " + id, content, "{}", "[]",
+                1702147200000L);
+    }
+}
@@ -0,0 +1,198 @@
+package com.manuscripta.student.ui.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+/**
+ * Unit tests for {@link RenderCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, manifest = Config.NONE)
+public class RenderCacheTest {
+
+    /** Bytes taken by a 10x10 ARGB_8888 bitmap. */
+    private static final int BITMAP_BYTES = 10 * 10 * 4;
+
+    private RenderCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new RenderCache(BITMAP_BYTES * 4, 800);
+    }
+
+    // ==================== Constructor tests ====================
+
+    @Test
+    public void testConstructor_nonPositiveBudget_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(0, 800));
+    }
+
+    @Test
+    public void testConstructor_nonPositiveDimension_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(1024, 0));
+    }
+
+    // ==================== Segment tests ====================
+
+    @Test
+    public void testGetSegments_sameContent_reused() {
+        List<ContentSegment> first = cache.getSegments("mat-1", "# Title\n![a](/attachments/img-1)");
+        List<ContentSegment> second = cache.getSegments("mat-1", "# Title\n![a](/attachments/img-1)");
+
+        assertSame(first, second);
+        assertEquals(ContentSegment.Type.IMAGE_EMBED, first.get(1).getType());
+    }
+
+    @Test
+    public void testGetSegments_changedContent_parsedAgain() {
+        List<ContentSegment> first = cache.getSegments("mat-1", "Old text");
+        List<ContentSegment> second = cache.getSegments("mat-1", "New text");
+
+        assertNotSame(first, second);
+        assertEquals("New text", second.get(0).getContent());
+    }
+
+    @Test
+    public void testGetSegments_leastRecentlyUsedEvicted() {
+        List<ContentSegment> first = cache.getSegments("mat-0", "Text");
+        for (int i = 1; i <= RenderCache.MAX_PARSED_MATERIALS; i++) {
+            cache.getSegments("mat-" + i, "Text");
+        }
+
+        assertNotSame(first, cache.getSegments("mat-0", "Text"));
+    }
+
+    // ==================== Bitmap tests ====================
+
+    @Test
+    public void testPutBitmap_heldUntilCleared() {
+        Bitmap bitmap = createBitmap();
+        cache.putBitmap("att-1", bitmap);
+
+        assertSame(bitmap, cache.getBitmap("att-1"));
+        assertEquals(BITMAP_BYTES, cache.getBitmapBytes());
+
+        cache.clear();
+
+        assertNull(cache.getBitmap("att-1"));
+        assertEquals(0, cache.getBitmapBytes());
+    }
+
+    @Test
+    public void testPutBitmap_overBudget_evictsLeastRecentlyUsed() {
+        for (int i = 0; i < 5; i++) {
+            cache.putBitmap("att-" + i, createBitmap());
+        }
+
+        assertNull(cache.getBitmap("att-0"));
+        assertEquals(BITMAP_BYTES * 4, cache.getBitmapBytes());
+    }
+
+    @Test
+    public void testPutPreloadedBitmap_limitedToPreloadShare() {
+        assertTrue(cache.putPreloadedBitmap("att-1", createBitmap()));
+        assertTrue(cache.hasPreloadRoom());
+        assertTrue(cache.putPreloadedBitmap("att-2", createBitmap()));
+        assertFalse(cache.hasPreloadRoom());
+
+        assertFalse(cache.putPreloadedBitmap("att-3", createBitmap()));
+        assertNull(cache.getBitmap("att-3"));
+        assertEquals(BITMAP_BYTES * 2, cache.getBitmapBytes());
+    }
+
+    @Test
+    public void testPutPreloadedBitmap_neverEvictsDisplayedImages() {
+        cache.putBitmap("att-1", createBitmap());
+        cache.putBitmap("att-2", createBitmap());
+
+        assertTrue(cache.putPreloadedBitmap("att-3", createBitmap()));
+        assertTrue(cache.putPreloadedBitmap("att-4", createBitmap()));
+        assertFalse(cache.putPreloadedBitmap("att-5", createBitmap()));
+
+        assertTrue(cache.holdsBitmap("att-1"));
+        assertTrue(cache.holdsBitmap("att-2"));
+    }
+
+    @Test
+    public void testPutPreloadedBitmap_cacheFullOfShownImages_stillWarms() {
+        for (int i = 0; i < 4; i++) {
+            cache.putBitmap("shown-" + i, createBitmap());
+        }
+
+        assertTrue(cache.hasPreloadRoom());
+        assertTrue(cache.putPreloadedBitmap("att-1", createBitmap()));
+        assertTrue(cache.holdsBitmap("att-1"));
+        assertTrue(cache.holdsBitmap("shown-3"));
+    }
+
+    @Test
+    public void testGetBitmap_preloadedImageShown_freesPreloadShare() {
+        cache.putPreloadedBitmap("att-1", createBitmap());
+        cache.putPreloadedBitmap("att-2", createBitmap());
+        assertFalse(cache.hasPreloadRoom());
+
+        cache.getBitmap("att-1");
+
+        assertTrue(cache.hasPreloadRoom());
+        assertEquals(BITMAP_BYTES, cache.getPreloadedBytes());
+    }
+
+    @Test
+    public void testHoldsBitmap_doesNotCountAsShown() {
+        cache.putPreloadedBitmap("att-1", createBitmap());
+
+        assertTrue(cache.holdsBitmap("att-1"));
+
+        assertEquals(BITMAP_BYTES, cache.getPreloadedBytes());
+    }
+
+    @Test
+    public void testEviction_preloadedImage_freesPreloadShare() {
+        cache.putPreloadedBitmap("att-1", createBitmap());
+        for (int i = 0; i < 4; i++) {
+            cache.putBitmap("shown-" + i, createBitmap());
+        }
+
+        assertFalse(cache.holdsBitmap("att-1"));
+        assertEquals(0, cache.getPreloadedBytes());
+    }
+
+    @Test
+    public void testClear_dropsPreloadedImages() {
+        cache.putPreloadedBitmap("att-1", createBitmap());
+
+        cache.clear();
+
+        assertEquals(0, cache.getPreloadedBytes());
+        assertEquals(0, cache.getBitmapBytes());
+    }
+
+    @Test
+    public void testPutBitmap_largerThanBudget_notHeld() {
+        cache.putBitmap("att-1", createBitmap());
+
+        assertFalse(cache.putBitmap("huge", Bitmap.createBitmap(30, 30, Bitmap.Config.ARGB_8888)));
+
+        assertFalse(cache.holdsBitmap("huge"));
+        assertTrue(cache.holdsBitmap("att-1"));
+    }
+
+    private Bitmap createBitmap() {
+        return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    }
+}
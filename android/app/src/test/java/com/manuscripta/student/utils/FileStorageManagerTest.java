@@ -43,7 +43,8 @@ public class FileStorageManagerTest {
     @Before
     public void setUp() throws IOException {
         baseDirectory = tempFolder.newFolder("test-storage");
-        storageManager = new FileStorageManager(baseDirectory);
+        // Cleared attachments are deleted on the calling thread, so tests see the result
+        storageManager = new FileStorageManager(baseDirectory, Runnable::run);
     }
 
     @After
@@ -98,7 +99,7 @@ public class FileStorageManagerTest {
 
         assertNotNull(savedFile);
         assertTrue(savedFile.exists());
-        assertEquals("attachment-1.txt", savedFile.getName());
+        assertEquals(storageManager.getBlobDirectory(), savedFile.getParentFile());
 
         // Verify content
         byte[] readContent = readFileContent(savedFile);
@@ -106,23 +107,23 @@ public class FileStorageManagerTest {
     }
 
     @Test
-    public void testSaveAttachment_pdfFile_savesSuccessfully() {
+    public void testSaveAttachment_pdfFile_savesSuccessfully() throws IOException {
         byte[] pdfContent = new byte[]{0x25, 0x50, 0x44, 0x46}; // PDF magic bytes
         File savedFile = storageManager.saveAttachment("material-2", "document", "pdf", pdfContent);
 
         assertNotNull(savedFile);
         assertTrue(savedFile.exists());
-        assertEquals("document.pdf", savedFile.getName());
+        assertArrayEquals(pdfContent, readFileContent(savedFile));
     }
 
     @Test
-    public void testSaveAttachment_imageFile_savesSuccessfully() {
+    public void testSaveAttachment_imageFile_savesSuccessfully() throws IOException {
         byte[] imageContent = new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47}; // PNG magic bytes
         File savedFile = storageManager.saveAttachment("material-3", "image", "png", imageContent);
 
         assertNotNull(savedFile);
         assertTrue(savedFile.exists());
-        assertEquals("image.png", savedFile.getName());
+        assertArrayEquals(imageContent, readFileContent(savedFile));
     }
 
     @Test
@@ -269,7 +270,7 @@ public class FileStorageManagerTest {
     // ==================== getAttachmentFile Tests ====================
 
     @Test
-    public void testGetAttachmentFile_existingFile_returnsFile() {
+    public void testGetAttachmentFile_existingFile_returnsFile() throws IOException {
         byte[] content = "Test content".getBytes();
         storageManager.saveAttachment("material-get-1", "attach-1", "txt", content);
 
@@ -277,7 +278,7 @@ public class FileStorageManagerTest {
 
         assertNotNull(retrieved);
         assertTrue(retrieved.exists());
-        assertEquals("attach-1.txt", retrieved.getName());
+        assertArrayEquals(content, readFileContent(retrieved));
     }
 
     @Test
@@ -295,7 +296,7 @@ public class FileStorageManagerTest {
     }
 
     @Test
-    public void testGetAttachmentFile_multipleAttachments_returnsCorrectFile() {
+    public void testGetAttachmentFile_multipleAttachments_returnsCorrectFile() throws IOException {
         storageManager.saveAttachment("material-get-3", "attach-a", "pdf", "pdf content".getBytes());
         storageManager.saveAttachment("material-get-3", "attach-b", "png", "png content".getBytes());
         storageManager.saveAttachment("material-get-3", "attach-c", "txt", "txt content".getBytes());
@@ -307,9 +308,9 @@ public class FileStorageManagerTest {
         assertNotNull(fileA);
         assertNotNull(fileB);
         assertNotNull(fileC);
-        assertEquals("attach-a.pdf", fileA.getName());
-        assertEquals("attach-b.png", fileB.getName());
-        assertEquals("attach-c.txt", fileC.getName());
+        assertArrayEquals("pdf content".getBytes(), readFileContent(fileA));
+        assertArrayEquals("png content".getBytes(), readFileContent(fileB));
+        assertArrayEquals("txt content".getBytes(), readFileContent(fileC));
     }
 
     @Test
@@ -367,7 +368,7 @@ public class FileStorageManagerTest {
     }
 
     @Test
-    public void testGetAttachmentFile_prefixCollision_returnsExactMatch() {
+    public void testGetAttachmentFile_prefixCollision_returnsExactMatch() throws IOException {
         storageManager.saveAttachment("material-prefix", "attach-1", "pdf", "content1".getBytes());
         storageManager.saveAttachment("material-prefix", "attach-10", "pdf", "content10".getBytes());
 
@@ -376,8 +377,8 @@ public class FileStorageManagerTest {
 
         assertNotNull(file1);
         assertNotNull(file10);
-        assertEquals("attach-1.pdf", file1.getName());
-        assertEquals("attach-10.pdf", file10.getName());
+        assertArrayEquals("content1".getBytes(), readFileContent(file1));
+        assertArrayEquals("content10".getBytes(), readFileContent(file10));
     }
 
     @Test
@@ -450,26 +451,168 @@ public class FileStorageManagerTest {
     }
 
     @Test
-    public void testGetAttachmentFile_listFilesReturnsNull_returnsNull() throws IOException {
-        // Create a manager that simulates listFilesWithFilter() returning null
-        FileStorageManager failingManager = new FileStorageManager(baseDirectory) {
+    public void testGetAttachmentLocation_savedFile_recordsSizeAndMimeType() {
+        byte[] content = new byte[]{0x25, 0x50, 0x44, 0x46, 0x2D};
+        File saved = storageManager.saveAttachment("material-loc", "doc", "pdf", content);
+
+        AttachmentLocation location = storageManager.getAttachmentLocation("material-loc", "doc");
+
+        assertNotNull(location);
+        assertEquals(saved, location.getFile());
+        assertEquals(content.length, location.getSizeBytes());
+        assertEquals("application/pdf", location.getMimeType());
+    }
+
+    @Test
+    public void testGetAttachmentLocation_unknownExtension_usesDefaultMimeType() {
+        storageManager.saveAttachment("material-loc", "image", "img", "x".getBytes());
+
+        AttachmentLocation location = storageManager.getAttachmentLocation("material-loc", "image");
+
+        assertNotNull(location);
+        assertEquals(FileStorageManager.DEFAULT_MIME_TYPE, location.getMimeType());
+    }
+
+    @Test
+    public void testGetAttachmentFile_filesOnDiskAtStartup_indexedByOneScan() throws IOException {
+        storageManager.saveAttachment("material-scan", "linked", "png", "linked".getBytes());
+        // A private copy, as saved before content addressing
+        File legacy = new File(new File(storageManager.getAttachmentsRootDirectory(), "material-scan"),
+                "legacy.txt");
+        assertTrue(legacy.createNewFile());
+
+        FileStorageManager restarted = new FileStorageManager(baseDirectory);
+
+        assertNotNull(restarted.getAttachmentFile("material-scan", "linked"));
+        assertEquals(legacy, restarted.getAttachmentFile("material-scan", "legacy"));
+        assertTrue(restarted.deleteAttachmentsForMaterial("material-scan"));
+        assertEquals(0, countBlobs());
+    }
+
+    @Test
+    public void testGetAttachmentFile_servedFromIndexWithoutFileSystem() {
+        File saved = storageManager.saveAttachment("material-index", "attach", "txt", "x".getBytes());
+        assertNotNull(saved);
+        // Removed behind the manager's back: the index is the source of truth for lookups
+        assertTrue(saved.delete());
+
+        assertEquals(saved, storageManager.getAttachmentFile("material-index", "attach"));
+    }
+
+    @Test
+    public void testSaveAttachment_newExtension_replacesPreviousFile() {
+        storageManager.saveAttachment("material-ext", "attach", "img", "x".getBytes());
+        File second = storageManager.saveAttachment("material-ext", "attach", "png", "x".getBytes());
+
+        assertNotNull(second);
+        assertEquals(1, countMaterialFiles("material-ext"));
+        assertEquals(second, storageManager.getAttachmentFile("material-ext", "attach"));
+        assertEquals("image/png",
+                storageManager.getAttachmentLocation("material-ext", "attach").getMimeType());
+        assertEquals(1, countBlobs());
+    }
+
+    @Test
+    public void testSaveAttachment_slowWriteForOneKey_doesNotBlockOtherKeys() throws InterruptedException {
+        CountDownLatch slowWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlowWrite = new CountDownLatch(1);
+        FileStorageManager manager = new FileStorageManager(baseDirectory) {
             @Override
-            protected File[] listFilesWithFilter(File directory, String attachmentId) {
-                return null;
+            protected boolean writeToFile(File file, byte[] bytes) {
+                if (new String(bytes).equals("slow")) {
+                    slowWriteStarted.countDown();
+                    try {
+                        releaseSlowWrite.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.writeToFile(file, bytes);
             }
         };
+        Thread slowWriter = new Thread(
+                () -> manager.saveAttachment("material-slow", "attach", "txt", "slow".getBytes()));
+        slowWriter.start();
+        assertTrue(slowWriteStarted.await(5, TimeUnit.SECONDS));
 
-        // First create a valid directory structure
-        File savedFile = failingManager.saveAttachment("material-null-list", "attach", "txt", "content".getBytes());
-        assertNotNull(savedFile);
-        assertTrue(savedFile.exists());
+        File fast = manager.saveAttachment("material-fast", "attach", "txt", "fast".getBytes());
+        boolean slowStillWriting = slowWriter.isAlive();
+        releaseSlowWrite.countDown();
+        slowWriter.join(5000);
 
-        // Now try to get the file - should return null because listFilesWithFilter returns null
-        File retrieved = failingManager.getAttachmentFile("material-null-list", "attach");
-        assertNull(retrieved);
+        assertNotNull(fast);
+        assertTrue(slowStillWriting);
+        assertNotNull(manager.getAttachmentFile("material-slow", "attach"));
+    }
 
-        // Clean up
-        failingManager.clearAllAttachments();
+    @Test
+    public void testGetStoredAttachments_listsEveryAttachmentWithSharedHash() {
+        storageManager.saveAttachment("material-a", "shared", "png", "same".getBytes());
+        storageManager.saveAttachment("material-b", "shared", "png", "same".getBytes());
+        storageManager.saveAttachment("material-b", "own", "txt", "other".getBytes());
+
+        List<StoredAttachment> stored = storageManager.getStoredAttachments();
+
+        assertEquals(3, stored.size());
+        String sharedHash = null;
+        for (StoredAttachment attachment : stored) {
+            if (attachment.getAttachmentId().equals("shared")) {
+                assertNotNull(attachment.getContentHash());
+                if (sharedHash != null) {
+                    assertEquals(sharedHash, attachment.getContentHash());
+                }
+                sharedHash = attachment.getContentHash();
+                assertEquals(4, attachment.getLocation().getSizeBytes());
+            }
+        }
+        assertNotNull(sharedHash);
+    }
+
+    @Test
+    public void testGetAttachmentLocation_updatesLastAccessTime() throws InterruptedException {
+        storageManager.saveAttachment("material-lru", "attach", "txt", "x".getBytes());
+        long saved = storageManager.getStoredAttachments().get(0).getLastAccessMillis();
+        Thread.sleep(5);
+
+        storageManager.getAttachmentLocation("material-lru", "attach");
+
+        assertTrue(storageManager.getStoredAttachments().get(0).getLastAccessMillis() > saved);
+    }
+
+    @Test
+    public void testDeleteAttachment_sharedContent_keepsBlobUntilLastLink() {
+        File first = storageManager.saveAttachment("material-a", "shared", "png", "same".getBytes());
+        File second = storageManager.saveAttachment("material-b", "shared", "png", "same".getBytes());
+
+        assertTrue(storageManager.deleteAttachment("material-a", "shared"));
+        assertNotNull(first);
+        assertTrue(first.exists());
+        assertEquals(0, countMaterialFiles("material-a"));
+        assertNull(storageManager.getAttachmentFile("material-a", "shared"));
+        assertEquals(second, storageManager.getAttachmentFile("material-b", "shared"));
+        assertEquals(1, countBlobs());
+
+        assertTrue(storageManager.deleteAttachment("material-b", "shared"));
+        assertEquals(0, countBlobs());
+    }
+
+    @Test
+    public void testDeleteAttachment_notStored_returnsTrue() {
+        assertTrue(storageManager.deleteAttachment("material-none", "attach"));
+    }
+
+    @Test
+    public void testDeleteAttachment_deleteFails_keepsEntry() {
+        FileStorageManager manager = new FileStorageManager(baseDirectory) {
+            @Override
+            protected boolean deleteFile(File file) {
+                return false;
+            }
+        };
+        File saved = manager.saveAttachment("material-fail", "attach", "txt", "x".getBytes());
+
+        assertFalse(manager.deleteAttachment("material-fail", "attach"));
+        assertEquals(saved, manager.getAttachmentFile("material-fail", "attach"));
     }
 
     // ==================== Path Traversal Validation Tests ====================
@@ -640,6 +783,71 @@ public class FileStorageManagerTest {
         assertFalse(attachmentsDir.exists());
     }
 
+    @Test
+    public void testClearAllAttachments_renamesRootAndDeletesItInBackground() {
+        List<Runnable> reclaimTasks = new ArrayList<>();
+        FileStorageManager manager = new FileStorageManager(baseDirectory, reclaimTasks::add);
+        File saved = manager.saveAttachment("material-trash", "attach", "txt", "x".getBytes());
+
+        assertTrue(manager.clearAllAttachments());
+
+        // The attachments are gone at once, but the bytes are only deleted by the task
+        assertNotNull(saved);
+        assertFalse(saved.exists());
+        assertFalse(manager.getAttachmentsRootDirectory().exists());
+        assertNull(manager.getAttachmentFile("material-trash", "attach"));
+        assertEquals(1, reclaimTasks.size());
+        assertEquals(1, countTrashDirectories());
+
+        reclaimTasks.get(0).run();
+        assertEquals(0, countTrashDirectories());
+    }
+
+    @Test
+    public void testClearAllAttachments_renameFails_deletesBeforeReturning() {
+        FileStorageManager manager = new FileStorageManager(baseDirectory, Runnable::run) {
+            @Override
+            protected boolean renameFile(File source, File target) {
+                return false;
+            }
+        };
+        File saved = manager.saveAttachment("material-norename", "attach", "txt", "x".getBytes());
+
+        assertTrue(manager.clearAllAttachments());
+        assertNotNull(saved);
+        assertFalse(saved.exists());
+        assertFalse(manager.getAttachmentsRootDirectory().exists());
+    }
+
+    @Test
+    public void testClearAllAttachments_saveAfterClear_usesFreshRoot() {
+        List<Runnable> reclaimTasks = new ArrayList<>();
+        FileStorageManager manager = new FileStorageManager(baseDirectory, reclaimTasks::add);
+        manager.saveAttachment("material-fresh", "attach", "txt", "old".getBytes());
+        manager.clearAllAttachments();
+
+        File saved = manager.saveAttachment("material-fresh", "attach", "txt", "new".getBytes());
+        reclaimTasks.get(0).run();
+
+        assertNotNull(saved);
+        assertTrue(saved.exists());
+        assertEquals(saved, manager.getAttachmentFile("material-fresh", "attach"));
+    }
+
+    @Test
+    public void testGetAttachmentFile_trashLeftByEarlierProcess_reclaimedOnLoad() throws IOException {
+        File leftover = new File(baseDirectory, "attachments.trash-1/material-old");
+        assertTrue(leftover.mkdirs());
+        assertTrue(new File(leftover, "attach.txt").createNewFile());
+        List<Runnable> reclaimTasks = new ArrayList<>();
+        FileStorageManager manager = new FileStorageManager(baseDirectory, reclaimTasks::add);
+
+        assertNull(manager.getAttachmentFile("material-old", "attach"));
+        assertEquals(1, reclaimTasks.size());
+        reclaimTasks.get(0).run();
+        assertEquals(0, countTrashDirectories());
+    }
+
     // ==================== getAttachmentsRootDirectory Tests ====================
 
     @Test
@@ -758,6 +966,189 @@ public class FileStorageManagerTest {
         assertTrue("Concurrent delete operations should not throw exceptions", exceptions.isEmpty());
     }
 
+    // ==================== Content Addressing Tests ====================
+
+    @Test
+    public void testSaveAttachment_sameContentTwoMaterials_storesOneBlob() throws IOException {
+        byte[] content = "shared diagram".getBytes();
+
+        File first = storageManager.saveAttachment("material-a", "diagram", "png", content);
+        File second = storageManager.saveAttachment("material-b", "diagram", "png", content);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(1, countBlobs());
+        assertEquals(first, second);
+        assertArrayEquals(content, readFileContent(second));
+    }
+
+    @Test
+    public void testSaveAttachment_differentContent_storesSeparateBlobs() {
+        storageManager.saveAttachment("material-a", "attach-1", "txt", "one".getBytes());
+        storageManager.saveAttachment("material-b", "attach-2", "txt", "two".getBytes());
+
+        assertEquals(2, countBlobs());
+    }
+
+    @Test
+    public void testSaveAttachment_overwriteWithNewContent_releasesOldBlob() throws IOException {
+        storageManager.saveAttachment("material-a", "attach", "txt", "old".getBytes());
+
+        File updated = storageManager.saveAttachment("material-a", "attach", "txt", "new".getBytes());
+
+        assertEquals(1, countBlobs());
+        assertArrayEquals("new".getBytes(), readFileContent(updated));
+    }
+
+    @Test
+    public void testSaveAttachment_leavesNoTemporaryFiles() {
+        File saved = storageManager.saveAttachment("material-a", "attach", "txt", "content".getBytes());
+
+        assertNotNull(saved);
+        String[] blobs = storageManager.getBlobDirectory().list();
+        assertNotNull(blobs);
+        assertEquals(1, blobs.length);
+        assertEquals(saved.getName(), blobs[0]);
+        String[] references = new File(storageManager.getAttachmentsRootDirectory(), "material-a").list();
+        assertNotNull(references);
+        assertEquals(1, references.length);
+        assertEquals("attach.txt." + saved.getName() + ".ref", references[0]);
+    }
+
+    @Test
+    public void testSaveAttachment_sameContentTwoMaterials_writesBytesOnceWithoutLinks() {
+        // Nothing may depend on hard links, which Android forbids for apps: every material
+        // file is an empty reference, and reads go straight to the single blob
+        List<File> contentWrites = new ArrayList<>();
+        FileStorageManager manager = new FileStorageManager(baseDirectory) {
+            @Override
+            protected boolean writeToFile(File file, byte[] bytes) {
+                if (bytes.length > 0) {
+                    contentWrites.add(file);
+                }
+                return super.writeToFile(file, bytes);
+            }
+        };
+        byte[] content = "shared diagram".getBytes();
+
+        File first = manager.saveAttachment("material-a", "diagram", "png", content);
+        File second = manager.saveAttachment("material-b", "diagram", "png", content);
+        File reused = manager.reuseStoredAttachment("material-c", "diagram");
+
+        assertEquals(1, contentWrites.size());
+        assertEquals(1, countBlobs());
+        assertNotNull(first);
+        assertEquals(storageManager.getBlobDirectory(), first.getParentFile());
+        assertEquals(first, second);
+        assertEquals(first, reused);
+        for (String materialId : new String[]{"material-a", "material-b", "material-c"}) {
+            File[] files = new File(manager.getAttachmentsRootDirectory(), materialId).listFiles();
+            assertNotNull(files);
+            assertEquals(1, files.length);
+            assertEquals(0, files[0].length());
+        }
+    }
+
+    @Test
+    public void testDeleteAttachmentsForMaterial_sharedBlob_keptUntilLastReference() {
+        byte[] content = "shared".getBytes();
+        storageManager.saveAttachment("material-a", "diagram", "png", content);
+        storageManager.saveAttachment("material-b", "diagram", "png", content);
+
+        storageManager.deleteAttachmentsForMaterial("material-a");
+
+        assertEquals(1, countBlobs());
+        File remaining = storageManager.getAttachmentFile("material-b", "diagram");
+        assertNotNull(remaining);
+        assertEquals(content.length, remaining.length());
+
+        storageManager.deleteAttachmentsForMaterial("material-b");
+
+        assertEquals(0, countBlobs());
+    }
+
+    @Test
+    public void testDeleteAttachmentsForMaterial_afterRestart_usesRebuiltReferences() {
+        byte[] content = "shared".getBytes();
+        storageManager.saveAttachment("material-a", "diagram", "png", content);
+        storageManager.saveAttachment("material-b", "diagram", "png", content);
+        FileStorageManager restarted = new FileStorageManager(baseDirectory);
+
+        restarted.deleteAttachmentsForMaterial("material-a");
+        assertEquals(1, countBlobs());
+
+        restarted.deleteAttachmentsForMaterial("material-b");
+        assertEquals(0, countBlobs());
+    }
+
+    @Test
+    public void testIndexLoad_removesOrphanBlobsAndTemporaryFiles() throws IOException {
+        storageManager.saveAttachment("material-a", "attach", "txt", "kept".getBytes());
+        File orphan = new File(storageManager.getBlobDirectory(), "0123abcd");
+        assertTrue(orphan.createNewFile());
+        File temp = new File(new File(storageManager.getAttachmentsRootDirectory(), "material-a"),
+                ".tmp-attach.txt");
+        assertTrue(temp.createNewFile());
+        FileStorageManager restarted = new FileStorageManager(baseDirectory);
+
+        restarted.saveAttachment("material-b", "other", "txt", "other".getBytes());
+
+        assertFalse(orphan.exists());
+        assertFalse(temp.exists());
+        assertEquals(2, countBlobs());
+    }
+
+    @Test
+    public void testReuseStoredAttachment_storedForOtherMaterial_referencesWithoutBytes() throws IOException {
+        byte[] content = "shared".getBytes();
+        File original = storageManager.saveAttachment("material-a", "diagram", "png", content);
+
+        File reused = storageManager.reuseStoredAttachment("material-b", "diagram");
+
+        assertNotNull(reused);
+        assertEquals(original, reused);
+        assertEquals(reused, storageManager.getAttachmentFile("material-b", "diagram"));
+        assertEquals("image/png",
+                storageManager.getAttachmentLocation("material-b", "diagram").getMimeType());
+        assertEquals(1, countBlobs());
+
+        // The reused reference counts as a reference of its own
+        storageManager.deleteAttachmentsForMaterial("material-a");
+        assertEquals(1, countBlobs());
+        assertArrayEquals(content, readFileContent(reused));
+    }
+
+    @Test
+    public void testReuseStoredAttachment_alreadyStoredForMaterial_returnsExisting() {
+        File saved = storageManager.saveAttachment("material-a", "diagram", "png", "x".getBytes());
+
+        File reused = storageManager.reuseStoredAttachment("material-a", "diagram");
+
+        assertEquals(saved, reused);
+    }
+
+    @Test
+    public void testReuseStoredAttachment_unknownAttachment_returnsNull() {
+        assertNull(storageManager.reuseStoredAttachment("material-a", "unknown"));
+    }
+
+    @Test
+    public void testReuseStoredAttachment_allHoldersDeleted_returnsNull() {
+        storageManager.saveAttachment("material-a", "diagram", "png", "x".getBytes());
+        storageManager.deleteAttachmentsForMaterial("material-a");
+
+        assertNull(storageManager.reuseStoredAttachment("material-b", "diagram"));
+    }
+
+    @Test
+    public void testSaveAttachment_reservedMaterialId_throwsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> storageManager.saveAttachment(".blobs", "attach", "txt", "x".getBytes())
+        );
+        assertEquals("Material ID is reserved", exception.getMessage());
+    }
+
     // ==================== File Path Structure Tests ====================
 
     @Test
@@ -767,8 +1158,8 @@ public class FileStorageManagerTest {
         assertNotNull(savedFile);
         String path = savedFile.getPath();
         assertTrue("Path should contain 'attachments' directory", path.contains("attachments"));
-        assertTrue("Path should contain material ID", path.contains("my-material-id"));
-        assertTrue("Path should contain attachment filename", path.contains("my-attachment-id.pdf"));
+        assertTrue("Path should contain the blob directory", path.contains(".blobs"));
+        assertEquals(64, savedFile.getName().length());
     }
 
     @Test
@@ -776,9 +1167,27 @@ public class FileStorageManagerTest {
         File savedFile = storageManager.saveAttachment("material-path-test", "attach", "txt", "content".getBytes());
 
         assertNotNull(savedFile);
-        File parent = savedFile.getParentFile();
-        assertNotNull(parent);
-        assertEquals("material-path-test", parent.getName());
+        File reference = new File(new File(storageManager.getAttachmentsRootDirectory(), "material-path-test"),
+                "attach.txt." + savedFile.getName() + ".ref");
+        assertTrue(reference.exists());
+    }
+
+    @Test
+    public void testSaveAttachment_blobCannotBeStored_keepsPrivateCopy() throws IOException {
+        FileStorageManager manager = new FileStorageManager(baseDirectory) {
+            @Override
+            protected boolean createDirectory(File directory) {
+                return !directory.getName().equals(".blobs") && super.createDirectory(directory);
+            }
+        };
+
+        File saved = manager.saveAttachment("material-copy", "attach", "txt", "copy".getBytes());
+
+        assertNotNull(saved);
+        assertEquals("attach.txt", saved.getName());
+        assertEquals("material-copy", saved.getParentFile().getName());
+        assertArrayEquals("copy".getBytes(), readFileContent(saved));
+        assertEquals(saved, new FileStorageManager(baseDirectory).getAttachmentFile("material-copy", "attach"));
     }
 
     // ==================== Error Path Tests (using test subclass) ====================
@@ -833,12 +1242,17 @@ public class FileStorageManagerTest {
     }
 
     @Test
-    public void testClearAllAttachments_deleteFileFails_returnsFalse() {
+    public void testClearAllAttachments_renameAndDeleteFail_returnsFalse() {
         // First save a file normally
         storageManager.saveAttachment("material-clear-fail", "attach", "txt", "content".getBytes());
 
-        // Create a manager that fails to delete files
+        // Create a manager that can neither rename the root away nor delete files
         FileStorageManager failingManager = new FileStorageManager(baseDirectory) {
+            @Override
+            protected boolean renameFile(File source, File target) {
+                return false;
+            }
+
             @Override
             protected boolean deleteFile(File file) {
                 return false;
@@ -946,6 +1360,21 @@ public class FileStorageManagerTest {
 
     // ==================== Helper Methods ====================
 
+    private int countTrashDirectories() {
+        String[] names = baseDirectory.list((dir, name) -> name.startsWith("attachments.trash-"));
+        return names == null ? 0 : names.length;
+    }
+
+    private int countMaterialFiles(String materialId) {
+        String[] names = new File(storageManager.getAttachmentsRootDirectory(), materialId).list();
+        return names == null ? 0 : names.length;
+    }
+
+    private int countBlobs() {
+        String[] names = storageManager.getBlobDirectory().list();
+        return names == null ? 0 : names.length;
+    }
+
     private byte[] readFileContent(File file) throws IOException {
         try (FileInputStream fis = new FileInputStream(file)) {
             byte[] content = new byte[(int) file.length()];
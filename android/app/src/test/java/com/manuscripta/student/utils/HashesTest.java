@@ -0,0 +1,45 @@
+package com.manuscripta.student.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Unit tests for {@link Hashes}.
+ */
+public class HashesTest {
+
+    /** SHA-256 of "abc", from FIPS 180-2. */
+    private static final String ABC_SHA256 =
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @Test
+    public void testSha256Hex_knownVector() {
+        assertEquals(ABC_SHA256, Hashes.sha256Hex("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testNewSha256_partsHashLikeWhole() {
+        MessageDigest digest = Hashes.newSha256();
+        digest.update("a".getBytes(StandardCharsets.UTF_8));
+        digest.update("bc".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(ABC_SHA256, Hashes.toHex(digest.digest()));
+    }
+
+    @Test
+    public void testToHex_lowercaseWithLeadingZeros() {
+        assertEquals("000fa0ff", Hashes.toHex(new byte[] {0x00, 0x0F, (byte) 0xA0, (byte) 0xFF}));
+        assertEquals("", Hashes.toHex(new byte[0]));
+    }
+
+    @Test
+    public void testNullBytes_throw() {
+        assertThrows(IllegalArgumentException.class, () -> Hashes.sha256Hex(null));
+        assertThrows(IllegalArgumentException.class, () -> Hashes.toHex(null));
+    }
+}
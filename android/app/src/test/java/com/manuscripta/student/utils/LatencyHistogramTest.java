@@ -0,0 +1,88 @@
+package com.manuscripta.student.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMillis(), 0.0);
+        assertEquals(0, histogram.getPercentileMillis(50), 0.0);
+    }
+
+    @Test
+    public void testRecord_countsAndMean() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(30));
+        assertEquals(2, histogram.getCount());
+        assertEquals(20.0, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    public void testRecord_negativeIgnored() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testPercentile_withinFactorOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(400));
+        }
+        double p50 = histogram.getPercentileMillis(50);
+        double p99 = histogram.getPercentileMillis(99);
+        assertTrue("p50 was " + p50, p50 >= 5 && p50 <= 10);
+        assertTrue("p99 was " + p99, p99 >= 400 && p99 <= 800);
+    }
+
+    @Test
+    public void testBucketFor_boundaries() {
+        assertEquals(0, LatencyHistogram.bucketFor(0));
+        assertEquals(0, LatencyHistogram.bucketFor(999));
+        assertEquals(1, LatencyHistogram.bucketFor(1_000));
+        assertEquals(2, LatencyHistogram.bucketFor(2_000));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketFor(Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentile_zero_throws() {
+        new LatencyHistogram().getPercentileMillis(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentile_aboveHundred_throws() {
+        new LatencyHistogram().getPercentileMillis(100.5);
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(100), 0.0);
+    }
+
+    @Test
+    public void testToString_containsCount() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_000);
+        assertTrue(histogram.toString().startsWith("n=1 "));
+    }
+}
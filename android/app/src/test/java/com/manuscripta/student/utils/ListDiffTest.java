@@ -0,0 +1,157 @@
+package com.manuscripta.student.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link ListDiff}.
+ */
+public class ListDiffTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    // ========== compute tests ==========
+
+    @Test
+    public void testCompute_noPrevious_everythingAdded() {
+        ListDiff<String> diff = ListDiff.compute(null, Arrays.asList("a:1", "b:1"), ListDiffTest::keyOf);
+
+        assertEquals(Arrays.asList("a:1", "b:1"), diff.getItems());
+        assertEquals(Arrays.asList("a:1", "b:1"), diff.getAdded());
+        assertTrue(diff.getChanged().isEmpty());
+        assertTrue(diff.getRemovedKeys().isEmpty());
+        assertTrue(diff.hasChanges());
+    }
+
+    @Test
+    public void testCompute_sameItems_noChanges() {
+        List<String> items = Arrays.asList("a:1", "b:1");
+
+        ListDiff<String> diff = ListDiff.compute(items, new ArrayList<>(items), ListDiffTest::keyOf);
+
+        assertFalse(diff.hasChanges());
+        assertEquals(items, diff.getItems());
+    }
+
+    @Test
+    public void testCompute_reportsAddedChangedAndRemoved() {
+        ListDiff<String> diff = ListDiff.compute(Arrays.asList("a:1", "b:1", "c:1"),
+                Arrays.asList("a:1", "b:2", "d:1"), ListDiffTest::keyOf);
+
+        assertEquals(Collections.singletonList("d:1"), diff.getAdded());
+        assertEquals(Collections.singletonList("b:2"), diff.getChanged());
+        assertEquals(Collections.singleton("c"), diff.getRemovedKeys());
+        assertTrue(diff.isAddedOrChanged("b"));
+        assertTrue(diff.isAddedOrChanged("d"));
+        assertFalse(diff.isAddedOrChanged("a"));
+    }
+
+    @Test
+    public void testCompute_reorderOnly_noChanges() {
+        ListDiff<String> diff = ListDiff.compute(Arrays.asList("a:1", "b:1"),
+                Arrays.asList("b:1", "a:1"), ListDiffTest::keyOf);
+
+        assertFalse(diff.hasChanges());
+        assertEquals(Arrays.asList("b:1", "a:1"), diff.getItems());
+    }
+
+    @Test
+    public void testCompute_nullArguments_throwException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ListDiff.compute(null, null, ListDiffTest::keyOf));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListDiff.compute(null, Collections.<String>emptyList(), null));
+    }
+
+    // ========== diffing tests ==========
+
+    @Test
+    public void testDiffing_firstListAlwaysEmitted() {
+        MutableLiveData<List<String>> source = new MutableLiveData<>(Collections.emptyList());
+        List<ListDiff<String>> emitted = observe(ListDiff.diffing(source, ListDiffTest::keyOf));
+
+        assertEquals(1, emitted.size());
+        assertTrue(emitted.get(0).getItems().isEmpty());
+    }
+
+    @Test
+    public void testDiffing_unchangedListNotEmitted() {
+        MutableLiveData<List<String>> source = new MutableLiveData<>();
+        List<ListDiff<String>> emitted = observe(ListDiff.diffing(source, ListDiffTest::keyOf));
+
+        source.setValue(Arrays.asList("a:1", "b:1"));
+        source.setValue(Arrays.asList("a:1", "b:1"));
+        source.setValue(Arrays.asList("a:2", "b:1"));
+
+        assertEquals(2, emitted.size());
+        assertEquals(Collections.singletonList("a:2"), emitted.get(1).getChanged());
+    }
+
+    @Test
+    public void testDiffing_listEmptied_emitsRemovals() {
+        MutableLiveData<List<String>> source = new MutableLiveData<>(Arrays.asList("a:1"));
+        List<ListDiff<String>> emitted = observe(ListDiff.diffing(source, ListDiffTest::keyOf));
+
+        source.setValue(Collections.emptyList());
+
+        assertEquals(2, emitted.size());
+        assertTrue(emitted.get(1).getItems().isEmpty());
+        assertEquals(Collections.singleton("a"), emitted.get(1).getRemovedKeys());
+    }
+
+    @Test
+    public void testDiffing_nullListIgnored() {
+        MutableLiveData<List<String>> source = new MutableLiveData<>();
+        List<ListDiff<String>> emitted = observe(ListDiff.diffing(source, ListDiffTest::keyOf));
+
+        source.setValue(null);
+
+        assertTrue(emitted.isEmpty());
+    }
+
+    @Test
+    public void testDiffing_nullArguments_throwException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ListDiff.diffing(null, ListDiffTest::keyOf));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListDiff.diffing(new MutableLiveData<List<String>>(), null));
+    }
+
+    /**
+     * Gets the key of a test item, the part before the colon; the part after stands for
+     * the rest of the item's fields.
+     *
+     * @param item The item
+     * @return The key
+     */
+    private static String keyOf(String item) {
+        return item.substring(0, item.indexOf(':'));
+    }
+
+    /**
+     * Observes diffs and collects every emission.
+     *
+     * @param diffs The diffs to observe
+     * @return The emissions, in order
+     */
+    private static List<ListDiff<String>> observe(LiveData<ListDiff<String>> diffs) {
+        List<ListDiff<String>> emitted = new ArrayList<>();
+        diffs.observeForever(emitted::add);
+        return emitted;
+    }
+}
@@ -0,0 +1,163 @@
+package com.manuscripta.student.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for {@link UuidSet}.
+ */
+public class UuidSetTest {
+
+    private static final String UUID_A = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String UUID_B = "6ba7b810-9dad-11d1-80b4-00c04fd430c8";
+
+    // ========== Parsing tests ==========
+
+    @Test
+    public void parse_canonicalUuid_matchesJavaUuid() {
+        UUID uuid = UUID.fromString(UUID_A);
+        assertArrayEquals(new long[] {uuid.getMostSignificantBits(),
+                uuid.getLeastSignificantBits()}, UuidSet.parse(UUID_A));
+    }
+
+    @Test
+    public void parse_nonCanonicalForms_returnNull() {
+        assertNull(UuidSet.parse("q-1"));
+        assertNull(UuidSet.parse(UUID_A.toUpperCase()));
+        assertNull(UuidSet.parse(UUID_A.replace('-', '_')));
+        assertNull(UuidSet.parse("550e8400-e29b-41d4-a716-44665544000g"));
+        assertNull(UuidSet.parse("00000000-0000-0000-0000-000000000001"));
+    }
+
+    // ========== Set behaviour tests ==========
+
+    @Test
+    public void add_thenContains() {
+        UuidSet set = new UuidSet();
+
+        assertTrue(set.add(UUID_A));
+        assertFalse(set.add(UUID_A));
+
+        assertTrue(set.contains(UUID_A));
+        assertFalse(set.contains(UUID_B));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void nonUuidIds_behaveLikeStringSet() {
+        UuidSet set = new UuidSet();
+        String upper = UUID_A.toUpperCase();
+
+        assertTrue(set.add("q-1"));
+        assertTrue(set.add(upper));
+
+        assertTrue(set.contains("q-1"));
+        assertTrue(set.contains(upper));
+        assertFalse(set.contains(UUID_A));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void remove_keepsOtherKeys() {
+        UuidSet set = new UuidSet();
+        set.addAll(Arrays.asList(UUID_A, UUID_B, "q-1"));
+
+        assertTrue(set.remove(UUID_A));
+        assertFalse(set.remove(UUID_A));
+        assertTrue(set.remove("q-1"));
+
+        assertFalse(set.contains(UUID_A));
+        assertTrue(set.contains(UUID_B));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void clear_removesEverything() {
+        UuidSet set = new UuidSet();
+        set.addAll(Arrays.asList(UUID_A, "q-1"));
+
+        set.clear();
+
+        assertFalse(set.contains(UUID_A));
+        assertFalse(set.contains("q-1"));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    public void addAll_manyIds_growsAndFindsEveryId() {
+        UuidSet set = new UuidSet();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        set.addAll(ids);
+
+        assertEquals(5000, set.size());
+        for (String id : ids) {
+            assertTrue(set.contains(id));
+        }
+        assertFalse(set.contains(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void add_manyIdsOneByOne_afterRemovals_findsRemaining() {
+        UuidSet set = new UuidSet();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String id = UUID.randomUUID().toString();
+            ids.add(id);
+            set.add(id);
+        }
+        for (int i = 0; i < ids.size(); i += 2) {
+            set.remove(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i % 2 == 1, set.contains(ids.get(i)));
+        }
+    }
+
+    @Test
+    public void contains_concurrentWithWrites_neverMissesStableKey() throws InterruptedException {
+        UuidSet set = new UuidSet();
+        set.add(UUID_A);
+        AtomicBoolean missed = new AtomicBoolean(false);
+        AtomicBoolean done = new AtomicBoolean(false);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (!set.contains(UUID_A)) {
+                    missed.set(true);
+                }
+            }
+            finished.countDown();
+        });
+        reader.start();
+        for (int i = 0; i < 2000; i++) {
+            String id = UUID.randomUUID().toString();
+            set.add(id);
+            if (i % 3 == 0) {
+                set.remove(id);
+            }
+        }
+        done.set(true);
+
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        assertFalse(missed.get());
+    }
+}